@@ -29,6 +29,21 @@ android {
         sourceCompatibility = JavaVersion.VERSION_11
         targetCompatibility = JavaVersion.VERSION_11
     }
+
+    // The JVM tests (e.g., the ManagingJournalEntries benchmark) only use the parts of the
+    // Android framework that a temporary files directory can stand in for. The benchmark is
+    // skipped unless it is asked for, e.g.: ./gradlew testDebugUnitTest -PjournalBenchmark
+    testOptions {
+        unitTests.isReturnDefaultValues = true
+        unitTests.all {
+            it.systemProperty("journalBenchmark", project.hasProperty("journalBenchmark").toString())
+            it.systemProperty("journalBenchmark.reportDir", layout.buildDirectory.dir("reports/journal-benchmark").get().asFile.path)
+            project.findProperty("journalBenchmarkBaseline")?.let { baseline ->
+                it.systemProperty("journalBenchmark.baseline", baseline.toString())
+            }
+            it.maxHeapSize = "2g"
+        }
+    }
 }
 
 dependencies {
@@ -39,7 +54,9 @@ dependencies {
     implementation(libs.constraintlayout)
     implementation(libs.cardview)
     implementation(libs.recyclerview)
+    implementation(libs.tracing)
     testImplementation(libs.junit)
+    testImplementation(libs.json)
     androidTestImplementation(libs.ext.junit)
     androidTestImplementation(libs.espresso.core)
     implementation(libs.cardview)
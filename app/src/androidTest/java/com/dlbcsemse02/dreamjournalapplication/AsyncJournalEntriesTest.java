@@ -0,0 +1,99 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncJournalEntriesTest {
+
+    private AsyncJournalEntries testAsyncJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+
+
+    //This runs before the start of each test to ensure that the test_async_journal_entries.json
+    //file and every file kept next to it are deleted, giving each test a clean slate.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_async_journal_entries.json");
+        cleanup();
+        testAsyncJournalEntries = new AsyncJournalEntries(context, new ManagingJournalEntries("test_async_journal_entries.json"));
+    }
+
+
+    //Tests whether writes that are submitted without waiting for each other are applied
+    //in the order they were submitted, meaning that the last name submitted is kept.
+    @Test
+    public void writesAreAppliedInOrder() throws Exception {
+        int entryID = testAsyncJournalEntries.saveJournalEntryCreation("Test Entry").get(10, TimeUnit.SECONDS);
+        for (int i = 1; i <= 100; i++) {
+            testAsyncJournalEntries.updateJournalEntryName(entryID, "Name " + i);
+        }
+        testAsyncJournalEntries.saveJournalEntryText(entryID, "Some text");
+
+        JournalEntry entry = testAsyncJournalEntries.getJournalEntry(entryID).get(10, TimeUnit.SECONDS);
+        assertEquals("Name 100", entry.getEntryName());
+        assertEquals("Some text", entry.getEntryText());
+    }
+
+
+    //Tests whether every operation runs on the journal thread rather than the calling
+    //thread, by checking which thread the change listener is informed on.
+    @Test
+    public void operationsRunOnJournalThread() throws Exception {
+        final List<String> threadNames = new ArrayList<>();
+        testAsyncJournalEntries.addJournalChangeListener(new JournalChangeNotifier.OnJournalChangedListener() {
+            @Override
+            public void onJournalEntryChanged(int entryID) {
+                threadNames.add(Thread.currentThread().getName());
+            }
+
+            @Override
+            public void onJournalReloaded() {
+            }
+        });
+
+        int entryID = testAsyncJournalEntries.saveJournalEntryCreation("Test Entry").get(10, TimeUnit.SECONDS);
+        testAsyncJournalEntries.deleteJournalEntry(entryID).get(10, TimeUnit.SECONDS);
+
+        assertEquals(2, threadNames.size());
+        for (String threadName : threadNames) {
+            assertEquals("journal-io", threadName);
+        }
+    }
+
+
+    //Tests whether the media list is saved as it was when the save was submitted,
+    //even if the activity changes its list before the save has run.
+    @Test
+    public void mediaIsCopiedWhenSubmitted() throws Exception {
+        int entryID = testAsyncJournalEntries.saveJournalEntryCreation("Test Entry").get(10, TimeUnit.SECONDS);
+
+        List<MediaAttachment> media = new ArrayList<>();
+        media.add(MediaAttachment.fromUri("content://media/image/1"));
+        testAsyncJournalEntries.saveJournalEntryMedia(entryID, media);
+        media.add(MediaAttachment.fromUri("content://media/image/2"));
+
+        JournalEntry entry = testAsyncJournalEntries.getJournalEntry(entryID).get(10, TimeUnit.SECONDS);
+        assertEquals(1, entry.getAllMediaInText().size());
+        assertEquals("content://media/image/1", entry.getAllMediaInText().get(0).getUri());
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+    }
+}
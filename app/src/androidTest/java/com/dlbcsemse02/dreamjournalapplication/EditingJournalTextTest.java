@@ -0,0 +1,149 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.LinearLayout;
+import android.widget.TextView;
+
+import androidx.test.core.app.ActivityScenario;
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+public class EditingJournalTextTest {
+
+    private Context context = ApplicationProvider.getApplicationContext();
+    private ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries();
+    private File existingPhotoFile;
+    private File attachedPhotoFile;
+    private int entryID;
+
+
+    //This runs before the start of each test to create an entry within the journal of the app,
+    //which the journal editing page is opened on, holding some text and a photo.
+    @Before
+    public void setUp() throws Exception {
+        existingPhotoFile = new File(context.getCacheDir(), "test_editing_existing_photo.png");
+        attachedPhotoFile = new File(context.getCacheDir(), "test_editing_attached_photo.png");
+        Files.write(existingPhotoFile.toPath(), new byte[100]);
+        Files.write(attachedPhotoFile.toPath(), new byte[200]);
+
+        entryID = managingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        managingJournalEntries.saveJournalEntryText(context, entryID, "Lorem ipsum");
+        managingJournalEntries.saveJournalEntryMedia(context, entryID, Collections.singletonList(
+                new MediaAttachment(Uri.fromFile(existingPhotoFile).toString(), "image/png", 100, 0, 0, 0)));
+    }
+
+
+    //Tests whether media attached while the entry is still loading (the journal thread being
+    //held up until then) is saved along with the media of the entry once it has loaded, rather
+    //than being replaced by them, and whether the text of the entry is kept.
+    @Test
+    public void mediaAttachedBeforeEntryLoadsIsKept() throws Exception {
+        CountDownLatch journalThreadHeld = holdJournalThread();
+
+        Intent intent = new Intent(context, EditingJournalText.class).putExtra("ENTRY_ID", entryID);
+        try (ActivityScenario<EditingJournalText> scenario = ActivityScenario.launch(intent)) {
+            AtomicReference<CompletableFuture<Void>> attached = new AtomicReference<>();
+            scenario.onActivity(activity -> attached.set(activity.attachMedia(Uri.fromFile(attachedPhotoFile))));
+            attached.get().get(10, TimeUnit.SECONDS);
+        } finally {
+            journalThreadHeld.countDown();
+        }
+
+        //The merged media are written by the batcher once the entry has loaded, which may be
+        //after the page has been closed.
+        AsyncJournalEntries asyncJournalEntries = new AsyncJournalEntries(context);
+        List<String> storedUris = new ArrayList<>();
+        JournalEntry storedEntry = null;
+        for (int attempt = 0; attempt < 50 && storedUris.size() < 2; attempt++) {
+            Thread.sleep(200);
+            storedEntry = asyncJournalEntries.getJournalEntry(entryID).get(10, TimeUnit.SECONDS);
+            storedUris.clear();
+            for (MediaAttachment attachment : storedEntry.getAllMediaInText()) {
+                storedUris.add(attachment.getUri());
+            }
+        }
+
+        assertEquals(2, storedUris.size());
+        assertTrue(storedUris.contains(Uri.fromFile(existingPhotoFile).toString()));
+        assertTrue(storedUris.contains(Uri.fromFile(attachedPhotoFile).toString()));
+        assertEquals("Lorem ipsum", storedEntry.getEntryText());
+    }
+
+
+    //Tests whether removing media attached while the entry is still loading does not save the
+    //media list before the media of the entry are known, which would replace all of them.
+    @Test
+    public void mediaRemovedBeforeEntryLoadsKeepsEntryMedia() throws Exception {
+        CountDownLatch journalThreadHeld = holdJournalThread();
+
+        Intent intent = new Intent(context, EditingJournalText.class).putExtra("ENTRY_ID", entryID);
+        try (ActivityScenario<EditingJournalText> scenario = ActivityScenario.launch(intent)) {
+            AtomicReference<CompletableFuture<Void>> attached = new AtomicReference<>();
+            scenario.onActivity(activity -> attached.set(activity.attachMedia(Uri.fromFile(attachedPhotoFile))));
+            attached.get().get(10, TimeUnit.SECONDS);
+
+            //The attached photo is the last media container within the layout, whose remove
+            //button ("X") is clicked.
+            scenario.onActivity(activity -> {
+                LinearLayout contentLayout = activity.findViewById(R.id.contentLayout);
+                ViewGroup mediaContainer = (ViewGroup) contentLayout.getChildAt(contentLayout.getChildCount() - 1);
+                for (int i = 0; i < mediaContainer.getChildCount(); i++) {
+                    View child = mediaContainer.getChildAt(i);
+                    if (child instanceof TextView && "X".contentEquals(((TextView) child).getText())) {
+                        child.performClick();
+                    }
+                }
+            });
+        } finally {
+            journalThreadHeld.countDown();
+        }
+
+        //Every write queued while the page was open runs before this read on the journal thread.
+        JournalEntry storedEntry = new AsyncJournalEntries(context).getJournalEntry(entryID).get(10, TimeUnit.SECONDS);
+        assertEquals(1, storedEntry.getAllMediaInText().size());
+        assertEquals(Uri.fromFile(existingPhotoFile).toString(), storedEntry.getAllMediaInText().get(0).getUri());
+    }
+
+
+    //Holds up the journal thread until the returned latch is counted down (or ten seconds have
+    //passed), meaning the entry cannot be loaded until then.
+    private static CountDownLatch holdJournalThread() {
+        CountDownLatch journalThreadHeld = new CountDownLatch(1);
+        JournalExecutor.getIoExecutor().execute(() -> {
+            try {
+                journalThreadHeld.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return journalThreadHeld;
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete the entry and the sample media.
+    @After
+    public void cleanup() throws Exception {
+        new AsyncJournalEntries(context).deleteJournalEntry(entryID).get(10, TimeUnit.SECONDS);
+        existingPhotoFile.delete();
+        attachedPhotoFile.delete();
+    }
+}
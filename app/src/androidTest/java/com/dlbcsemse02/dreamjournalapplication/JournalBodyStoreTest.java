@@ -0,0 +1,138 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class JournalBodyStoreTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private JournalBodyStore bodyStore;
+
+
+    //This runs before the start of each test to ensure that the test_body_journal_entries.json
+    //file, its write-ahead log and the bodies of its entries are deleted, giving each test a
+    //clean slate.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_body_journal_entries.json");
+        bodyStore = new JournalBodyStore(file);
+        cleanup();
+        testManagingJournalEntries = new ManagingJournalEntries("test_body_journal_entries.json", true);
+    }
+
+
+    //Tests whether the text of an entry is stored within its own body rather than within the
+    //JSON file, which should only hold a preview of it once the log has been compacted.
+    @Test
+    public void textIsStoredOutsideOfJsonFile() throws Exception {
+        String longText = createLongText();
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.saveJournalEntryText(context, entryID, longText);
+        testManagingJournalEntries.compactJournal(context);
+
+        assertEquals(longText, bodyStore.read(entryID));
+        JSONObject entry = new JSONArray(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).getJSONObject(0);
+        assertFalse(entry.has("EntryText"));
+        assertEquals(longText.substring(0, JournalEntry.PREVIEW_LENGTH), entry.getString("EntryPreview"));
+
+        JournalRepository.clearInstances();
+        assertEquals(longText, testManagingJournalEntries.getJournalEntry(context, entryID).getEntryText());
+    }
+
+
+    //Tests whether a summary of an entry holds the preview of its text but not the text itself,
+    //both before and after the journal has been loaded.
+    @Test
+    public void summaryHoldsPreviewWithoutText() {
+        String longText = createLongText();
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.saveJournalEntryText(context, entryID, longText);
+        JournalRepository.clearInstances();
+
+        JournalEntry summaryFromDisk = testManagingJournalEntries.getJournalEntrySummary(context, entryID);
+        testManagingJournalEntries.getAllJournalEntries(context);
+        JournalEntry summaryFromMemory = testManagingJournalEntries.getJournalEntrySummary(context, entryID);
+
+        for (JournalEntry summary : new JournalEntry[]{summaryFromDisk, summaryFromMemory}) {
+            assertNull(summary.getEntryText());
+            assertEquals(longText.substring(0, JournalEntry.PREVIEW_LENGTH), summary.getEntryPreview());
+            assertEquals("Test Entry", summary.getEntryName());
+        }
+        assertNull(testManagingJournalEntries.getJournalEntrySummary(context, entryID + 1));
+    }
+
+
+    //Tests whether a JSON file written before the texts were stored separately (i.e., holding
+    //the full text of every entry) is moved into bodies once the journal is loaded, without
+    //losing any text.
+    @Test
+    public void legacyJsonFileIsMovedIntoBodies() throws Exception {
+        String longText = createLongText();
+        JSONArray legacyEntries = new JSONArray();
+        JournalEntry firstEntry = new JournalEntry(1, "First Entry");
+        firstEntry.setEntryText(longText);
+        legacyEntries.put(firstEntry.toJSON());
+        legacyEntries.put(new JournalEntry(2, "Second Entry").toJSON());
+        Files.write(file.toPath(), legacyEntries.toString(4).getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(longText, testManagingJournalEntries.getJournalEntry(context, 1).getEntryText());
+        List<JournalEntry> allEntries = testManagingJournalEntries.getAllJournalEntries(context);
+        assertEquals(2, allEntries.size());
+        assertEquals(longText, allEntries.get(0).getEntryText());
+        assertEquals("", allEntries.get(1).getEntryText());
+
+        assertEquals(longText, bodyStore.read(1));
+        JSONArray migratedEntries = new JSONArray(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8));
+        for (int i = 0; i < migratedEntries.length(); i++) {
+            assertFalse(migratedEntries.getJSONObject(i).has("EntryText"));
+        }
+        assertEquals(longText.substring(0, JournalEntry.PREVIEW_LENGTH), migratedEntries.getJSONObject(0).getString("EntryPreview"));
+    }
+
+
+    //Tests whether deleting an entry also deletes its body, and whether a new entry is given
+    //a new ID rather than that of the deleted one, without starting with any text.
+    @Test
+    public void deletingEntryDeletesBody() throws Exception {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.saveJournalEntryText(context, entryID, "Some text");
+        testManagingJournalEntries.deleteJournalEntry(context, entryID);
+
+        assertEquals("", bodyStore.read(entryID));
+        int newEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "New Entry");
+        assertNotEquals(entryID, newEntryID);
+        assertEquals("", testManagingJournalEntries.getJournalEntry(context, newEntryID).getEntryText());
+    }
+
+
+    private static String createLongText() {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longText.append("Dream ");
+        }
+        return longText.toString();
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+    }
+}
@@ -0,0 +1,93 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class JournalChangeNotifierTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private List<Integer> changedEntryIDs;
+    private int reloadCount;
+
+    private final JournalChangeNotifier.OnJournalChangedListener listener = new JournalChangeNotifier.OnJournalChangedListener() {
+        @Override
+        public void onJournalEntryChanged(int entryID) {
+            changedEntryIDs.add(entryID);
+        }
+
+        @Override
+        public void onJournalReloaded() {
+            reloadCount++;
+        }
+    };
+
+
+    //This runs before the start of each test to ensure that the test_change_journal_entries.json
+    //file is deleted and that the listener has not been informed about any changes yet.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_change_journal_entries.json");
+        cleanup();
+        changedEntryIDs = new ArrayList<>();
+        reloadCount = 0;
+        testManagingJournalEntries = new ManagingJournalEntries("test_change_journal_entries.json");
+        testManagingJournalEntries.addJournalChangeListener(context, listener);
+    }
+
+
+    //Tests whether the listener is informed about the ID of every created, changed and deleted entry.
+    @Test
+    public void everyChangeIsReported() {
+        int firstEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "First Entry");
+        int secondEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Second Entry");
+        testManagingJournalEntries.updateJournalEntryPinned(context, secondEntryID, true);
+        testManagingJournalEntries.deleteJournalEntry(context, firstEntryID);
+
+        assertEquals(Arrays.asList(firstEntryID, secondEntryID, secondEntryID, firstEntryID), changedEntryIDs);
+        assertEquals(0, reloadCount);
+        assertNull(testManagingJournalEntries.getJournalEntry(context, firstEntryID));
+    }
+
+
+    //Tests whether the listener is informed once the JSON file was changed by something else
+    //(here, by deleting it), since every entry may have changed in that case.
+    @Test
+    public void reloadIsReported() {
+        testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        file.delete();
+
+        assertTrue(testManagingJournalEntries.getAllJournalEntries(context).isEmpty());
+        assertEquals(1, reloadCount);
+    }
+
+
+    //Tests whether a removed listener is no longer informed about changes.
+    @Test
+    public void removedListenerIsNotInformed() {
+        testManagingJournalEntries.removeJournalChangeListener(context, listener);
+        testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+
+        assertTrue(changedEntryIDs.isEmpty());
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+    }
+}
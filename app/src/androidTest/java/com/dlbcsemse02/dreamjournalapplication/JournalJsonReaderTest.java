@@ -0,0 +1,146 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+
+public class JournalJsonReaderTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private File backupFile;
+    private File logFile;
+
+
+    //This runs before the start of each test to ensure that the test_streaming_journal_entries.json
+    //file and its write-ahead log are deleted, giving each test a clean slate.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_streaming_journal_entries.json");
+        backupFile = new File(context.getFilesDir(), "test_streaming_journal_entries.json.bak");
+        logFile = new File(context.getFilesDir(), "test_streaming_journal_entries.json.log");
+        cleanup();
+        testManagingJournalEntries = new ManagingJournalEntries("test_streaming_journal_entries.json", true);
+    }
+
+
+    //Tests whether an entry written by org.json (including escaped characters, nested
+    //arrays and keys that are unknown to the app) is read back with the same values.
+    @Test
+    public void entryWrittenByOrgJsonIsReadBack() throws Exception {
+        JournalEntry original = new JournalEntry(7, "A \"quoted\" title / \u00e9\u00e8 \ud83c\udf19");
+        original.setEntryText("Line one\nLine two\t\\");
+        original.setImageThumbnail("content://media/external/images/1");
+        original.setPinned(true);
+        original.getAllMediaInText().add(new MediaAttachment("content://media/external/video/2", "video/mp4", 1048576, 1920, 1080, 12000));
+        JSONObject json = original.toJSON();
+        json.put("Unknown", new JSONArray("[{\"a\": [1, 2.5, null, true]}]"));
+
+        JournalJsonReader reader = new JournalJsonReader(new StringReader(new JSONArray().put(json).toString(4)));
+        reader.beginArray();
+        JournalEntry entry = JournalEntry.readFrom(reader, Integer.MAX_VALUE);
+        reader.endArray();
+        assertEquals(JournalJsonReader.Token.END_DOCUMENT, reader.peek());
+
+        assertEquals(original.toJSON().toString(), entry.toJSON().toString());
+    }
+
+
+    //Tests whether a summary read from an entry that still holds its full text (as written
+    //before the text was stored separately) only keeps the beginning of the text.
+    @Test
+    public void summaryOnlyKeepsPreviewOfText() throws Exception {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longText.append("Dream ");
+        }
+        JournalEntry original = new JournalEntry(1, "Test Entry");
+        original.setEntryText(longText.toString());
+
+        JournalJsonReader reader = new JournalJsonReader(new StringReader(original.toJSON().toString()));
+        JournalEntry summary = JournalEntry.readFrom(reader, JournalEntry.PREVIEW_LENGTH);
+
+        assertEquals(longText.substring(0, JournalEntry.PREVIEW_LENGTH), summary.getEntryPreview());
+        assertEquals(original.toSummary().getEntryPreview(), summary.getEntryPreview());
+    }
+
+
+    //Tests whether a file that ends in the middle of an entry is reported as damaged.
+    @Test(expected = IOException.class)
+    public void truncatedDocumentIsRejected() throws Exception {
+        JournalJsonReader reader = new JournalJsonReader(new StringReader("[{\"ID\": 1, \"EntryNa"));
+        reader.beginArray();
+        JournalEntry.readFrom(reader, Integer.MAX_VALUE);
+    }
+
+
+    //Tests whether an entry is looked up correctly before the journal has been loaded, including
+    //changes to it that are still held within the write-ahead log, as well as deleted entries.
+    @Test
+    public void entryIsLookedUpWithoutLoadingJournal() {
+        int firstEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "First Entry");
+        int secondEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Second Entry");
+        testManagingJournalEntries.compactJournal(context);
+        testManagingJournalEntries.saveJournalEntryText(context, secondEntryID, "Some text");
+        int thirdEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Third Entry");
+        testManagingJournalEntries.deleteJournalEntry(context, firstEntryID);
+        JournalRepository.clearInstances();
+
+        assertEquals("Some text", testManagingJournalEntries.getJournalEntry(context, secondEntryID).getEntryText());
+        assertEquals("Third Entry", testManagingJournalEntries.getJournalEntry(context, thirdEntryID).getEntryName());
+        assertNull(testManagingJournalEntries.getJournalEntry(context, firstEntryID));
+    }
+
+
+    //Tests whether the summaries read before the journal has been loaded match those
+    //returned once it has been loaded.
+    @Test
+    public void summariesMatchLoadedJournal() {
+        StringBuilder longText = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            longText.append("Dream ");
+        }
+        int firstEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "First Entry");
+        testManagingJournalEntries.saveJournalEntryText(context, firstEntryID, longText.toString());
+        testManagingJournalEntries.compactJournal(context);
+        int secondEntryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Second Entry");
+        testManagingJournalEntries.saveJournalEntryText(context, secondEntryID, longText.toString());
+        JournalRepository.clearInstances();
+
+        List<JournalEntry> summariesFromDisk = testManagingJournalEntries.getAllJournalEntrySummaries(context);
+        testManagingJournalEntries.getAllJournalEntries(context);
+        List<JournalEntry> summariesFromMemory = testManagingJournalEntries.getAllJournalEntrySummaries(context);
+
+        assertEquals(2, summariesFromDisk.size());
+        for (int i = 0; i < summariesFromDisk.size(); i++) {
+            assertNull(summariesFromDisk.get(i).getEntryText());
+            assertEquals(JournalEntry.PREVIEW_LENGTH, summariesFromDisk.get(i).getEntryPreview().length());
+            assertEquals(summariesFromMemory.get(i).getEntryPreview(), summariesFromDisk.get(i).getEntryPreview());
+            assertEquals(summariesFromMemory.get(i).getEntryName(), summariesFromDisk.get(i).getEntryName());
+        }
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        file.delete();
+        backupFile.delete();
+        logFile.delete();
+        JournalRepository.clearInstances();
+    }
+}
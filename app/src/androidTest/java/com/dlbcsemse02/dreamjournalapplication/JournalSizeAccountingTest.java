@@ -0,0 +1,118 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class JournalSizeAccountingTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private File mediaFile;
+    private JournalSizeAccounting sizeAccounting;
+
+
+    //This runs before the start of each test to ensure that the test_size_journal_entries.json
+    //file, its write-ahead log and the sample media are deleted, giving each test a clean slate.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_size_journal_entries.json");
+        mediaFile = new File(context.getCacheDir(), "test_size_media.png");
+        cleanup();
+        testManagingJournalEntries = new ManagingJournalEntries("test_size_journal_entries.json", true);
+        sizeAccounting = new JournalSizeAccounting(context);
+    }
+
+
+    //Tests whether the number of bytes counted for a text matches the size of the text once
+    //it is encoded as UTF-8, including characters outside of the Basic Multilingual Plane.
+    @Test
+    public void textSizeMatchesUtf8Encoding() {
+        String[] texts = {"", "Plain text", "Caf\u00e9 \u00fcber na\u00efve", "\u6c34\u306e\u5922", "Moon \ud83c\udf19 and stars \u2728", "Lone \ud83c surrogate"};
+        for (String text : texts) {
+            assertEquals(text.getBytes(StandardCharsets.UTF_8).length, JournalSizeAccounting.utf8Length(text));
+        }
+    }
+
+
+    //Tests whether the size of an entry is made up of its text and the sizes stored within its
+    //attachments, without asking the media provider for media whose size is already known.
+    @Test
+    public void entrySizeUsesStoredMediaSizes() {
+        JournalEntry entry = new JournalEntry(1, "Title");
+        entry.setEntryText("Lorem ipsum");
+        entry.getAllMediaInText().add(new MediaAttachment("content://test.invalid/media/1", "image/jpeg", 2048, 100, 100, 0));
+        entry.getAllMediaInText().add(new MediaAttachment("content://test.invalid/media/2", "video/mp4", 4096, 100, 100, 1000));
+
+        JournalSizeAccounting.SizeReport report = sizeAccounting.getEntrySize(entry);
+        assertEquals(2, report.getMediaCount());
+        assertEquals("Title".length() + "Lorem ipsum".length(), report.getTextSizeInBytes());
+        assertEquals(2048 + 4096, report.getMediaSizeInBytes());
+        assertEquals(report.getTextSizeInBytes() + report.getMediaSizeInBytes(), report.getTotalSizeInBytes());
+    }
+
+
+    //Tests whether media without a known size are asked for it only once, with the size being
+    //cached for their URI until the media is reported to have changed.
+    @Test
+    public void unknownMediaSizeIsReadOnceAndRefreshed() throws Exception {
+        Files.write(mediaFile.toPath(), new byte[100]);
+        MediaAttachment attachment = MediaAttachment.fromUri(Uri.fromFile(mediaFile).toString());
+
+        assertEquals(100, sizeAccounting.getMediaSize(attachment));
+        Files.write(mediaFile.toPath(), new byte[300]);
+        assertEquals(100, sizeAccounting.getMediaSize(attachment));
+        assertEquals(1, sizeAccounting.getCachedMediaCount());
+
+        sizeAccounting.onMediaChanged(attachment.getUri());
+        assertEquals(300, sizeAccounting.getMediaSize(attachment));
+    }
+
+
+    //Tests whether the size of the whole journal is the sum of the sizes of its entries, both
+    //while the texts are only held by the write-ahead log and once they were written to their bodies.
+    @Test
+    public void journalSizeIsSumOfEntries() throws Exception {
+        int entryID1 = testManagingJournalEntries.saveJournalEntryCreation(context, "First");
+        int entryID2 = testManagingJournalEntries.saveJournalEntryCreation(context, "Second");
+        testManagingJournalEntries.saveJournalEntryText(context, entryID1, "Dream about the \ud83c\udf19");
+        testManagingJournalEntries.saveJournalEntryText(context, entryID2, "Another dream");
+        JSONArray media = new JSONArray().put(new MediaAttachment("content://test.invalid/media/3", "image/png", 1000, 10, 10, 0).toJSON());
+        testManagingJournalEntries.saveJournalEntryMedia(context, entryID2, media);
+
+        long expectedSize = 0;
+        for (JournalEntry entry : testManagingJournalEntries.getAllJournalEntries(context)) {
+            expectedSize += sizeAccounting.getEntrySize(entry).getTotalSizeInBytes();
+        }
+
+        JournalSizeAccounting.SizeReport report = sizeAccounting.getJournalSize(testManagingJournalEntries);
+        assertEquals(2, report.getEntryCount());
+        assertEquals(1, report.getMediaCount());
+        assertEquals(expectedSize, report.getTotalSizeInBytes());
+
+        testManagingJournalEntries.compactJournal(context);
+        JournalRepository.clearInstances();
+        assertEquals(expectedSize, sizeAccounting.getJournalSize(testManagingJournalEntries).getTotalSizeInBytes());
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+        mediaFile.delete();
+    }
+}
@@ -0,0 +1,88 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+public class JournalSnapshotWriterTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private File backupFile;
+    private File temporaryFile;
+
+
+    //This runs before the start of each test to ensure that the test_snapshot_journal_entries.json
+    //file, its backup and any temporary file are deleted, giving each test a clean slate.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_snapshot_journal_entries.json");
+        backupFile = new File(context.getFilesDir(), "test_snapshot_journal_entries.json.bak");
+        temporaryFile = new File(context.getFilesDir(), "test_snapshot_journal_entries.json.tmp");
+        cleanup();
+        testManagingJournalEntries = new ManagingJournalEntries("test_snapshot_journal_entries.json");
+    }
+
+
+    //Tests whether the previous version of the JSON file is kept as a backup, and that
+    //no temporary file is left behind once the new version has been renamed into place.
+    @Test
+    public void previousVersionIsKeptAsBackup() throws Exception {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.updateJournalEntryName(context, entryID, "Updated Entry");
+
+        assertFalse(temporaryFile.exists());
+        assertTrue(backupFile.exists());
+
+        JSONArray backup = new JSONArray(new String(Files.readAllBytes(backupFile.toPath())));
+        JSONArray current = new JSONArray(new String(Files.readAllBytes(file.toPath())));
+        assertEquals("Test Entry", backup.getJSONObject(0).getString("EntryName"));
+        assertEquals("Updated Entry", current.getJSONObject(0).getString("EntryName"));
+    }
+
+
+    //Tests whether the backup is loaded should the JSON file be damaged, e.g., because it
+    //was only partially written. The entries of the previous version should be returned.
+    @Test
+    public void damagedFileIsRecoveredFromBackup() throws Exception {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.updateJournalEntryName(context, entryID, "Updated Entry");
+
+        Files.write(file.toPath(), "[{\"ID\": 1, \"EntryNa".getBytes(StandardCharsets.UTF_8));
+        JournalRepository.clearInstances();
+
+        JournalEntry entry = testManagingJournalEntries.getJournalEntry(context, entryID);
+        assertNotNull(entry);
+        assertEquals("Test Entry", entry.getEntryName());
+    }
+
+
+    //Tests whether the latency of the last write is reported.
+    @Test
+    public void writeLatencyIsReported() {
+        testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+
+        String report = testManagingJournalEntries.getWriteLatencyReport(context);
+        assertTrue(report.contains("test_snapshot_journal_entries.json"));
+        assertTrue(report.contains("over 1 writes"));
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+    }
+}
@@ -0,0 +1,111 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Locale;
+
+public class JournalStoreBenchmarkTest {
+
+    private static final String FILE_NAME = "benchmark_journal_entries.json";
+
+    //The journal sizes that every storage mode is measured at, and the
+    //number of times each operation is repeated per journal size.
+    private static final int[] JOURNAL_SIZES = {100, 10_000, 100_000};
+    private static final int ITERATIONS = 5;
+
+    private Context context = ApplicationProvider.getApplicationContext();
+
+    private interface Operation {
+        void run(ManagingJournalEntries managingJournalEntries, int iteration);
+    }
+
+
+    //This benchmark measures the median latency of each operation of ManagingJournalEntries for
+    //every storage mode and journal size. Before each measurement, a JSON file holding the given
+    //number of entries is written, meaning that the first load (and, for the database and the binary
+    //file, the migration from the JSON file) is measured as well. The results are written to journal_store_benchmark.csv
+    //within the files directory and to logcat so that they can be compared between devices and versions.
+    @Test
+    public void compareStorageModes() throws Exception {
+        StringBuilder report = new StringBuilder("StorageMode,Entries,Operation,MedianMicroseconds\n");
+
+        for (int journalSize : JOURNAL_SIZES) {
+            for (ManagingJournalEntries.StorageMode storageMode : ManagingJournalEntries.StorageMode.values()) {
+                cleanup();
+                writeJournalFile(journalSize);
+                ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries(FILE_NAME, storageMode);
+
+                long loadStart = System.nanoTime();
+                managingJournalEntries.isEntryPinned(context, 1);
+                addResult(report, storageMode, journalSize, "FirstLoad", (System.nanoTime() - loadStart) / 1000);
+
+                measure(report, managingJournalEntries, storageMode, journalSize, "isEntryPinned", (m, i) -> m.isEntryPinned(context, journalSize - i));
+                measure(report, managingJournalEntries, storageMode, journalSize, "getJournalEntry", (m, i) -> m.getJournalEntry(context, journalSize / 2 + i));
+                measure(report, managingJournalEntries, storageMode, journalSize, "updateJournalEntryName", (m, i) -> m.updateJournalEntryName(context, journalSize / 2 + i, "Renamed Entry " + i));
+                measure(report, managingJournalEntries, storageMode, journalSize, "updateJournalEntryPinned", (m, i) -> m.updateJournalEntryPinned(context, journalSize / 2 + i, true));
+                measure(report, managingJournalEntries, storageMode, journalSize, "saveJournalEntryText", (m, i) -> m.saveJournalEntryText(context, journalSize / 2 + i, "Dream text " + i));
+                measure(report, managingJournalEntries, storageMode, journalSize, "saveJournalEntryCreation", (m, i) -> m.saveJournalEntryCreation(context, "New Entry " + i));
+                measure(report, managingJournalEntries, storageMode, journalSize, "deleteJournalEntry", (m, i) -> m.deleteJournalEntry(context, journalSize + 1 + i));
+            }
+        }
+        cleanup();
+
+        Files.write(new File(context.getFilesDir(), "journal_store_benchmark.csv").toPath(), report.toString().getBytes(StandardCharsets.UTF_8));
+        Log.i("JournalStoreBenchmark", report.toString());
+    }
+
+    private void measure(StringBuilder report, ManagingJournalEntries managingJournalEntries, ManagingJournalEntries.StorageMode storageMode, int journalSize, String operationName, Operation operation) {
+        long[] durations = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            operation.run(managingJournalEntries, i);
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        addResult(report, storageMode, journalSize, operationName, durations[ITERATIONS / 2] / 1000);
+    }
+
+    private static void addResult(StringBuilder report, ManagingJournalEntries.StorageMode storageMode, int journalSize, String operationName, long microseconds) {
+        report.append(String.format(Locale.ROOT, "%s,%d,%s,%d%n", storageMode, journalSize, operationName, microseconds));
+    }
+
+    //Writes a JSON file holding the given number of entries (with IDs 1 to journalSize)
+    //one entry at a time, since building a JSONArray of 100,000 entries is slow in itself.
+    //As in the app, the file only holds a preview of each text (see JournalBodyStore).
+    private void writeJournalFile(int journalSize) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(context.getFilesDir(), FILE_NAME)))) {
+            writer.write("[");
+            for (int ID = 1; ID <= journalSize; ID++) {
+                if (ID > 1) {
+                    writer.write(",");
+                }
+                writer.write("{\"ID\": " + ID + ", \"EntryName\": \"Dream " + ID + "\", \"EntryPreview\": \"I was flying over the sea again.\", "
+                        + "\"ImageThumbnail\": \"\", \"DateAndTimeCreated\": \"2025-01-01T08:00:00\", \"LastEdited\": \"2025-01-01T08:00:00\", "
+                        + "\"AllMediaInText\": [], \"Pinned\": false}");
+            }
+            writer.write("]");
+        }
+    }
+
+    @After
+    public void cleanup() {
+        SQLiteJournalStore.clearInstances();
+        context.deleteDatabase("benchmark_journal_entries.db");
+        //The binary storage mode converts the JSON file into a file of its own (see JournalEntryManager.openBinary()),
+        //which is deleted along with it.
+        JournalTestFiles.deleteJournal(new File(context.getFilesDir(), FILE_NAME));
+    }
+}
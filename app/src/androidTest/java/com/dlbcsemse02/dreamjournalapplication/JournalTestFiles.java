@@ -0,0 +1,36 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.File;
+
+public class JournalTestFiles {
+
+    //Deletes the given journal file along with every file kept next to it (its backup, write-ahead
+    //log, ID index, search index, the bodies of its entries and any temporary file), including
+    //those of the binary file it may have been converted into, and clears the repositories held
+    //in memory. Every such file is named after the journal file, meaning files added next to the
+    //journal in the future are deleted as well, and no test is left with those of a previous one.
+    public static void deleteJournal(File journalFile) {
+        JournalRepository.clearInstances();
+        File directory = journalFile.getParentFile();
+        String binaryFileName = JournalEntryManager.getBinaryFileName(journalFile.getName());
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.getName().startsWith(journalFile.getName()) || file.getName().startsWith(binaryFileName)) {
+                delete(file);
+            }
+        }
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
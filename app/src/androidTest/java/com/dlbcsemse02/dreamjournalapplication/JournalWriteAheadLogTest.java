@@ -0,0 +1,192 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class JournalWriteAheadLogTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private File logFile;
+
+
+    //This runs before the start of each test to ensure that the test_wal_journal_entries.json
+    //file, its write-ahead log and every other file kept next to it are deleted, giving each
+    //test a clean slate. The repositories held in memory are also cleared so that every test
+    //starts as if the app was just opened.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_wal_journal_entries.json");
+        logFile = new File(context.getFilesDir(), "test_wal_journal_entries.json.log");
+        cleanup();
+        testManagingJournalEntries = new ManagingJournalEntries("test_wal_journal_entries.json", true);
+    }
+
+
+    //Tests whether changes are appended to the log instead of being written to the JSON
+    //file. The JSON file should not exist until the log has been compacted.
+    @Test
+    public void changesAreAppendedToLog() {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.updateJournalEntryName(context, entryID, "Updated Entry");
+        testManagingJournalEntries.saveJournalEntryText(context, entryID, "Lorem ipsum");
+
+        assertFalse(file.exists());
+        assertTrue(logFile.exists());
+        assertEquals("Updated Entry", testManagingJournalEntries.getJournalEntry(context, entryID).getEntryName());
+    }
+
+
+    //Tests whether every type of change is replayed correctly after the app restarts.
+    //This is done by making changes, clearing the repositories held in memory, then
+    //checking that the entries loaded from the log match the changes made.
+    @Test
+    public void logIsReplayedOnStartup() throws Exception {
+        int entryID1 = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry 1");
+        int entryID2 = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry 2");
+        int entryID3 = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry 3");
+
+        JSONArray mediaArray = new JSONArray();
+        mediaArray.put("SamplePhotoPath.png");
+
+        testManagingJournalEntries.updateJournalEntryName(context, entryID1, "Renamed Entry");
+        testManagingJournalEntries.updateJournalEntryPinned(context, entryID1, true);
+        testManagingJournalEntries.saveJournalEntryText(context, entryID1, "Lorem ipsum");
+        testManagingJournalEntries.saveJournalEntryMedia(context, entryID1, mediaArray);
+        testManagingJournalEntries.updateJournalImageThumbnail(context, entryID1, "path/to/SampleThumbnail.png");
+        testManagingJournalEntries.deleteJournalEntry(context, entryID2);
+
+        JournalRepository.clearInstances();
+
+        List<JournalEntry> entries = testManagingJournalEntries.getAllJournalEntries(context);
+        assertEquals(2, entries.size());
+        assertEquals(entryID1, entries.get(0).getID());
+        assertEquals(entryID3, entries.get(1).getID());
+
+        JournalEntry entry = entries.get(0);
+        assertEquals("Renamed Entry", entry.getEntryName());
+        assertTrue(entry.isPinned());
+        assertEquals("Lorem ipsum", entry.getEntryText());
+        assertEquals("SamplePhotoPath.png", entry.getAllMediaInText().get(0).getUri());
+        assertEquals("path/to/SampleThumbnail.png", entry.getImageThumbnail());
+    }
+
+
+    //Tests whether the log is compacted into the JSON file once it holds enough records.
+    //After compaction, the JSON file should hold every entry and the log should be empty.
+    @Test
+    public void logIsCompactedIntoJsonFile() throws Exception {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        for (int i = 1; i < JournalRepository.COMPACTION_RECORD_THRESHOLD; i++) {
+            testManagingJournalEntries.saveJournalEntryText(context, entryID, "Text " + i);
+        }
+
+        assertTrue(file.exists());
+        assertFalse(logFile.exists());
+
+        String content = new String(Files.readAllBytes(file.toPath()));
+        JSONArray jsonArray = new JSONArray(content);
+        assertEquals(1, jsonArray.length());
+        assertEquals("Text " + (JournalRepository.COMPACTION_RECORD_THRESHOLD - 1), jsonArray.getJSONObject(0).getString("EntryPreview"));
+    }
+
+
+    //Tests whether changes made after compaction are still replayed on top of the JSON file.
+    @Test
+    public void logIsReplayedOnTopOfCompactedFile() {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.compactJournal(context);
+        testManagingJournalEntries.updateJournalEntryName(context, entryID, "Updated Entry");
+
+        JournalRepository.clearInstances();
+
+        assertEquals("Updated Entry", testManagingJournalEntries.getJournalEntry(context, entryID).getEntryName());
+    }
+
+
+    //Tests crash recovery when the app is killed while a record is being written. This is
+    //simulated by cutting the log in the middle of the last record. The incomplete record
+    //should be ignored, while all records before it are still replayed.
+    @Test
+    public void truncatedRecordIsIgnored() throws Exception {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        testManagingJournalEntries.saveJournalEntryText(context, entryID, "Saved text");
+        long lengthBeforeLastRecord = logFile.length();
+        testManagingJournalEntries.saveJournalEntryText(context, entryID, "Text that was never fully written");
+
+        truncateLog(lengthBeforeLastRecord + (logFile.length() - lengthBeforeLastRecord) / 2);
+        JournalRepository.clearInstances();
+
+        assertEquals("Saved text", testManagingJournalEntries.getJournalEntry(context, entryID).getEntryText());
+        assertEquals(lengthBeforeLastRecord, logFile.length());
+    }
+
+
+    //Tests whether new records can be appended after recovering from a truncated record.
+    //The broken record should be removed so that the new record is not glued onto it.
+    @Test
+    public void logAcceptsRecordsAfterRecovery() {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        long lengthBeforeLastRecord = logFile.length();
+        testManagingJournalEntries.updateJournalEntryName(context, entryID, "Text that was never fully written");
+
+        truncateLog(lengthBeforeLastRecord + 5);
+        JournalRepository.clearInstances();
+
+        testManagingJournalEntries.updateJournalEntryName(context, entryID, "Updated Entry");
+        JournalRepository.clearInstances();
+
+        assertEquals("Updated Entry", testManagingJournalEntries.getJournalEntry(context, entryID).getEntryName());
+    }
+
+
+    //Tests crash recovery when a record was written completely but its contents are damaged.
+    //The checksum should no longer match, meaning the record and everything after it is ignored.
+    @Test
+    public void corruptedRecordIsIgnored() throws Exception {
+        int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+        long lengthBeforeLastRecord = logFile.length();
+        testManagingJournalEntries.updateJournalEntryName(context, entryID, "Corrupted Entry");
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "rw")) {
+            randomAccessFile.seek(logFile.length() - 4);
+            randomAccessFile.write("X".getBytes(StandardCharsets.UTF_8));
+        }
+        JournalRepository.clearInstances();
+
+        assertEquals("Test Entry", testManagingJournalEntries.getJournalEntry(context, entryID).getEntryName());
+        assertEquals(lengthBeforeLastRecord, logFile.length());
+    }
+
+
+    private void truncateLog(long length) {
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "rw")) {
+            randomAccessFile.setLength(length);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete the JSON file, the log and every
+    //other file kept next to the JSON file.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+    }
+}
@@ -0,0 +1,109 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class JournalWriteBatcherTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private File logFile;
+    private int entryID;
+
+
+    //This runs before the start of each test to ensure that the test_batch_journal_entries.json
+    //file and its write-ahead log only contain a single, newly created entry.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_batch_journal_entries.json");
+        logFile = new File(context.getFilesDir(), "test_batch_journal_entries.json.log");
+        cleanup();
+        testManagingJournalEntries = new ManagingJournalEntries("test_batch_journal_entries.json", true);
+        entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry");
+    }
+
+
+    //Tests whether changes to the text and media of an entry, including several media
+    //removals in a row, are written to the write-ahead log as a single record.
+    @Test
+    public void changesAreMergedIntoOneWrite() throws Exception {
+        JournalWriteBatcher batcher = new JournalWriteBatcher(context, testManagingJournalEntries, 60000);
+        List<MediaAttachment> media = new ArrayList<>();
+        media.add(MediaAttachment.fromUri("content://media/image/1"));
+        media.add(MediaAttachment.fromUri("content://media/image/2"));
+        batcher.saveJournalEntryMedia(entryID, media);
+        media.remove(1);
+        batcher.saveJournalEntryMedia(entryID, media);
+        batcher.saveJournalEntryText(entryID, "First text");
+        batcher.saveJournalEntryText(entryID, "Second text");
+        assertEquals(1, batcher.getPendingEntryCount());
+
+        long recordsBefore = countLogRecords();
+        batcher.flush().get(10, TimeUnit.SECONDS);
+        assertEquals(recordsBefore + 1, countLogRecords());
+        assertEquals(0, batcher.getPendingEntryCount());
+
+        JournalEntry entry = testManagingJournalEntries.getJournalEntry(context, entryID);
+        assertEquals("Second text", entry.getEntryText());
+        assertEquals(1, entry.getAllMediaInText().size());
+        assertEquals("content://media/image/1", entry.getAllMediaInText().get(0).getUri());
+    }
+
+
+    //Tests whether pending changes are written on their own once the debounce window has
+    //passed, without flush() being called.
+    @Test
+    public void changesAreWrittenAfterDebounceWindow() throws Exception {
+        JournalWriteBatcher batcher = new JournalWriteBatcher(context, testManagingJournalEntries, 50);
+        batcher.saveJournalEntryText(entryID, "Some text");
+
+        long deadline = System.currentTimeMillis() + 10000;
+        while (batcher.getPendingEntryCount() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        //Waiting for an empty task on the journal thread ensures that the write has finished.
+        JournalExecutor.getIoExecutor().submit(new Runnable() {
+            @Override
+            public void run() {
+            }
+        }).get(10, TimeUnit.SECONDS);
+        assertEquals("Some text", testManagingJournalEntries.getJournalEntry(context, entryID).getEntryText());
+    }
+
+
+    //Tests whether flushing without any pending changes does not write anything.
+    @Test
+    public void flushWithoutChangesDoesNotWrite() throws Exception {
+        JournalWriteBatcher batcher = new JournalWriteBatcher(context, testManagingJournalEntries, 60000);
+        long recordsBefore = countLogRecords();
+        batcher.flush().get(10, TimeUnit.SECONDS);
+        assertEquals(recordsBefore, countLogRecords());
+    }
+
+
+    private long countLogRecords() throws Exception {
+        return logFile.exists() ? Files.readAllLines(logFile.toPath()).size() : 0;
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+    }
+}
@@ -0,0 +1,143 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.StrictMode;
+import android.os.strictmode.Violation;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+public class MainThreadDiskAccessTest {
+
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private int entryID;
+
+    //Every disk read and write StrictMode detects on the main thread is collected here.
+    private final List<Violation> violations = new CopyOnWriteArrayList<>();
+    private StrictMode.ThreadPolicy previousPolicy;
+
+
+    //This runs before the start of each test to ensure that the test_strict_mode_journal_entries.json
+    //file contains a single entry. The entry is created on the test thread, before StrictMode is enabled.
+    @Before
+    public void setUp() {
+        //StrictMode only reports violations to a listener from Android 9 (API 28) onwards.
+        assumeTrue(Build.VERSION.SDK_INT >= Build.VERSION_CODES.P);
+
+        file = new File(context.getFilesDir(), "test_strict_mode_journal_entries.json");
+        JournalTestFiles.deleteJournal(file);
+        entryID = new ManagingJournalEntries("test_strict_mode_journal_entries.json").saveJournalEntryCreation(context, "Test Entry");
+    }
+
+
+    //Tests whether creating, reading, updating, compacting and deleting journal entries through
+    //AsyncJournalEntries on the main thread never reads from or writes to the disk on it.
+    @Test
+    public void asyncOperationsDoNotAccessDiskOnMainThread() throws Exception {
+        final AsyncJournalEntries asyncJournalEntries = new AsyncJournalEntries(context, new ManagingJournalEntries("test_strict_mode_journal_entries.json"));
+        final List<CompletableFuture<?>> futures = new CopyOnWriteArrayList<>();
+
+        runOnMainThreadWithStrictMode(new Runnable() {
+            @Override
+            public void run() {
+                List<MediaAttachment> media = new ArrayList<>();
+                media.add(MediaAttachment.fromUri("content://media/image/1"));
+
+                futures.add(asyncJournalEntries.getAllJournalEntries());
+                futures.add(asyncJournalEntries.saveJournalEntryCreation("Another Entry"));
+                futures.add(asyncJournalEntries.updateJournalEntryName(entryID, "Updated Entry"));
+                futures.add(asyncJournalEntries.isEntryPinned(entryID));
+                futures.add(asyncJournalEntries.updateJournalEntryPinned(entryID, true));
+                futures.add(asyncJournalEntries.saveJournalEntryText(entryID, "Some text"));
+                futures.add(asyncJournalEntries.saveJournalEntryMedia(entryID, media));
+                futures.add(asyncJournalEntries.getJournalEntry(entryID));
+                futures.add(asyncJournalEntries.compactJournal());
+                futures.add(asyncJournalEntries.deleteJournalEntry(entryID));
+            }
+        });
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(10, TimeUnit.SECONDS);
+        assertTrue(violations.toString(), violations.isEmpty());
+    }
+
+
+    //Tests whether StrictMode actually reports disk access within this test by calling
+    //ManagingJournalEntries directly on the main thread, which writes the JSON file.
+    @Test
+    public void synchronousOperationsAreDetected() {
+        final ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries("test_strict_mode_journal_entries.json");
+
+        runOnMainThreadWithStrictMode(new Runnable() {
+            @Override
+            public void run() {
+                managingJournalEntries.updateJournalEntryName(context, entryID, "Updated Entry");
+            }
+        });
+
+        assertFalse(violations.isEmpty());
+    }
+
+
+    //Enables StrictMode on the main thread, runs the given operations on it and waits until
+    //the main thread is idle, since StrictMode reports violations once the current message
+    //has been handled. Only then is the previous policy restored.
+    private void runOnMainThreadWithStrictMode(final Runnable operations) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                previousPolicy = StrictMode.getThreadPolicy();
+                StrictMode.setThreadPolicy(new StrictMode.ThreadPolicy.Builder()
+                        .detectDiskReads()
+                        .detectDiskWrites()
+                        .penaltyListener(new Executor() {
+                            @Override
+                            public void execute(Runnable command) {
+                                command.run();
+                            }
+                        }, new StrictMode.OnThreadViolationListener() {
+                            @Override
+                            public void onThreadViolation(Violation violation) {
+                                violations.add(violation);
+                            }
+                        })
+                        .build());
+                operations.run();
+            }
+        });
+        InstrumentationRegistry.getInstrumentation().waitForIdleSync();
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                StrictMode.setThreadPolicy(previousPolicy);
+            }
+        });
+    }
+
+
+    //This runs after each test to delete all files used by the test, i.e., the JSON file and
+    //every file kept next to it.
+    @After
+    public void cleanup() {
+        if (file != null) {
+            JournalTestFiles.deleteJournal(file);
+        }
+        JournalRepository.clearInstances();
+    }
+}
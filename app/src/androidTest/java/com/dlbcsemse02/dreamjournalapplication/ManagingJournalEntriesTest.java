@@ -57,7 +57,7 @@ public class ManagingJournalEntriesTest {
 
         assertEquals(entryID, entry.getInt("ID"));
         assertEquals("Test Entry", entry.getString("EntryName"));
-        assertEquals("", entry.getString("EntryText"));
+        assertEquals("", entry.getString("EntryPreview"));
         assertFalse(entry.getBoolean("Pinned"));
         assertNotNull(entry.getString("DateAndTimeCreated"));
         assertNotEquals("", entry.getString("LastEdited"));
@@ -148,7 +148,8 @@ public class ManagingJournalEntriesTest {
 
     //Tests whether the text of a journal entry is updated correctly. This is done by
     //creating an entry, updating the text, then reading the test_journal_entries.json file
-    //and checking whether the text was updated correctly.
+    //and checking whether the preview of the text was updated correctly. The text itself is
+    //stored separately from the JSON file (see JournalBodyStore).
     @Test
     public void saveJournalEntryText() throws Exception {
         int entryID = testManagingJournalEntries.saveJournalEntryCreation(context, "Test Entry for Text");
@@ -157,8 +158,10 @@ public class ManagingJournalEntriesTest {
         String content = new String(Files.readAllBytes(file.toPath()));
         JSONObject entry = new JSONArray(content).getJSONObject(0);
 
-        assertEquals("Lorem ipsum dolor sit amet, consectetur adipiscing elit.", entry.getString("EntryText"));
+        assertEquals("Lorem ipsum dolor sit amet, consectetur adipiscing elit.", entry.getString("EntryPreview"));
+        assertFalse(entry.has("EntryText"));
         assertNotEquals("", entry.getString("LastEdited"));
+        assertEquals("Lorem ipsum dolor sit amet, consectetur adipiscing elit.", testManagingJournalEntries.getJournalEntry(context, entryID).getEntryText());
     }
 
 
@@ -180,8 +183,8 @@ public class ManagingJournalEntriesTest {
 
         JSONArray storedMediaArray = entry.getJSONArray("AllMediaInText");
         assertEquals(2, storedMediaArray.length());
-        assertEquals("SamplePhotoPath.png", storedMediaArray.getString(0));
-        assertEquals("SampleVideoPath.mp4", storedMediaArray.getString(1));
+        assertEquals("SamplePhotoPath.png", storedMediaArray.getJSONObject(0).getString("Uri"));
+        assertEquals("SampleVideoPath.mp4", storedMediaArray.getJSONObject(1).getString("Uri"));
     }
 
 
@@ -0,0 +1,133 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class MediaAttachmentTest {
+
+    private ManagingJournalEntries testManagingJournalEntries;
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private File photoFile;
+    private File videoFile;
+
+
+    //This runs before the start of each test to ensure that the test_media_journal_entries.json
+    //file, its write-ahead log and the sample media are deleted, giving each test a clean slate.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_media_journal_entries.json");
+        photoFile = new File(context.getCacheDir(), "test_media_photo.png");
+        videoFile = new File(context.getCacheDir(), "test_media_video.mp4");
+        cleanup();
+        testManagingJournalEntries = new ManagingJournalEntries("test_media_journal_entries.json", true);
+    }
+
+
+    //Tests whether an attachment is written to JSON and read back (by both org.json and the
+    //JournalJsonReader) with all of its information.
+    @Test
+    public void attachmentIsReadBack() throws Exception {
+        MediaAttachment attachment = new MediaAttachment("content://media/external/video/2", "video/mp4", 1048576, 1920, 1080, 12000);
+
+        MediaAttachment fromJSON = MediaAttachment.fromJSON(new JSONObject(attachment.toJSON().toString()));
+        JournalJsonReader reader = new JournalJsonReader(new StringReader(attachment.toJSON().toString()));
+        MediaAttachment fromReader = MediaAttachment.readFrom(reader);
+
+        for (MediaAttachment readAttachment : new MediaAttachment[]{fromJSON, fromReader}) {
+            assertEquals("content://media/external/video/2", readAttachment.getUri());
+            assertEquals("video/mp4", readAttachment.getMimeType());
+            assertEquals(1048576, readAttachment.getSizeInBytes());
+            assertEquals(1920, readAttachment.getWidth());
+            assertEquals(1080, readAttachment.getHeight());
+            assertEquals(12000, readAttachment.getDurationMillis());
+            assertTrue(readAttachment.isVideo());
+        }
+    }
+
+
+    //Tests whether the MIME type decides whether media is a video, rather than its URI, while
+    //media without a MIME type (i.e., attached before media was typed) are still told apart by
+    //their URI as before.
+    @Test
+    public void mimeTypeDecidesKindOfMedia() {
+        assertTrue(new MediaAttachment("content://com.android.providers.media.documents/document/video%3A12", "image/jpeg", 1, 1, 1, 0).isImage());
+        assertTrue(new MediaAttachment("content://com.android.providers.media.documents/document/document%3A34", "video/mp4", 1, 1, 1, 0).isVideo());
+        assertTrue(MediaAttachment.fromUri("SampleVideoPath.mp4").isVideo());
+        assertTrue(MediaAttachment.fromUri("SamplePhotoPath.png").isImage());
+        assertFalse(MediaAttachment.fromUri("SamplePhotoPath.png").isResolved());
+    }
+
+
+    //Tests whether an entry written before media was typed (holding the URIs of its media as
+    //strings) is read as unresolved attachments, which are resolved and saved back as attachment
+    //objects the first time the entry is opened, without changing its last edited date and time.
+    @Test
+    public void legacyMediaIsResolvedOnce() throws Exception {
+        Files.write(photoFile.toPath(), new byte[100]);
+        Files.write(videoFile.toPath(), new byte[1234]);
+        String photoUri = Uri.fromFile(photoFile).toString();
+        String videoUri = Uri.fromFile(videoFile).toString();
+
+        JSONObject legacyEntry = new JSONObject();
+        legacyEntry.put("ID", 1);
+        legacyEntry.put("EntryName", "Legacy Entry");
+        legacyEntry.put("EntryText", "Lorem ipsum");
+        legacyEntry.put("ImageThumbnail", "");
+        legacyEntry.put("DateAndTimeCreated", "2024-01-01T10:00:00");
+        legacyEntry.put("LastEdited", "2024-01-02T10:00:00");
+        legacyEntry.put("AllMediaInText", new JSONArray().put(photoUri).put(videoUri));
+        legacyEntry.put("Pinned", false);
+        Files.write(file.toPath(), new JSONArray().put(legacyEntry).toString(4).getBytes(StandardCharsets.UTF_8));
+
+        List<MediaAttachment> legacyMedia = testManagingJournalEntries.getJournalEntry(context, 1).getAllMediaInText();
+        assertEquals(2, legacyMedia.size());
+        assertFalse(legacyMedia.get(0).isResolved());
+        assertEquals(photoUri, legacyMedia.get(0).getUri());
+
+        JournalEntry entry = testManagingJournalEntries.getJournalEntryWithResolvedMedia(context, 1);
+        MediaAttachment photo = entry.getAllMediaInText().get(0);
+        MediaAttachment video = entry.getAllMediaInText().get(1);
+        assertEquals("image/png", photo.getMimeType());
+        assertEquals(100, photo.getSizeInBytes());
+        assertEquals("video/mp4", video.getMimeType());
+        assertEquals(1234, video.getSizeInBytes());
+        assertEquals("2024-01-02T10:00:00", entry.getLastEdited());
+
+        //The resolved attachments are kept once the app is restarted, meaning the media
+        //is not read again.
+        testManagingJournalEntries.compactJournal(context);
+        JournalRepository.clearInstances();
+        JSONObject storedEntry = new JSONArray(new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8)).getJSONObject(0);
+        JSONObject storedPhoto = storedEntry.getJSONArray("AllMediaInText").getJSONObject(0);
+        assertEquals(photoUri, storedPhoto.getString("Uri"));
+        assertEquals("image/png", storedPhoto.getString("MimeType"));
+        assertEquals(100, storedPhoto.getLong("Size"));
+        assertTrue(testManagingJournalEntries.getJournalEntry(context, 1).getAllMediaInText().get(1).isResolved());
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        JournalTestFiles.deleteJournal(file);
+        photoFile.delete();
+        videoFile.delete();
+    }
+}
@@ -0,0 +1,116 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import android.view.View;
+import android.widget.LinearLayout;
+import android.widget.ScrollView;
+
+import androidx.test.core.app.ApplicationProvider;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MediaViewportBinderTest {
+
+    private static final int PLACEHOLDER_COUNT = 30;
+    private static final int PLACEHOLDER_HEIGHT = 500;
+    private static final int VIEWPORT_HEIGHT = 1000;
+
+    private Context context = ApplicationProvider.getApplicationContext();
+
+    //The number of media currently bound, counted by every placeholder.
+    private final AtomicInteger boundCount = new AtomicInteger();
+
+
+    //Tests whether only the media within one screen height of the visible part of the page are
+    //bound, and whether scrolling binds the media that come near it while releasing the others.
+    //This is done with a page of 30 placeholders, of which only a few can ever be near the
+    //visible part at once.
+    @Test
+    public void onlyMediaNearViewportAreBound() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                ScrollView scrollView = new ScrollView(context);
+                LinearLayout contentLayout = new LinearLayout(context);
+                contentLayout.setOrientation(LinearLayout.VERTICAL);
+                scrollView.addView(contentLayout);
+                MediaViewportBinder binder = new MediaViewportBinder(scrollView);
+
+                for (int i = 0; i < PLACEHOLDER_COUNT; i++) {
+                    View placeholder = new View(context);
+                    contentLayout.addView(placeholder, new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, PLACEHOLDER_HEIGHT));
+                    binder.add(placeholder, new CountingMediaItem());
+                }
+                assertEquals(0, boundCount.get());
+
+                layout(scrollView);
+                binder.update();
+
+                //The placeholders starting at 0, 500, 1000 and 1500 are within the screen below.
+                assertEquals(4, boundCount.get());
+                assertEquals(4, binder.getBoundCount());
+
+                //Scrolling to 5000 binds the placeholders from 4000 up to 7000.
+                scrollView.scrollTo(0, 5000);
+                binder.update();
+                assertEquals(6, boundCount.get());
+
+                binder.stop();
+                assertEquals(0, boundCount.get());
+                binder.start();
+                assertEquals(6, boundCount.get());
+            }
+        });
+    }
+
+
+    //Tests whether removing a placeholder releases its media.
+    @Test
+    public void removedMediaIsReleased() {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(new Runnable() {
+            @Override
+            public void run() {
+                ScrollView scrollView = new ScrollView(context);
+                LinearLayout contentLayout = new LinearLayout(context);
+                contentLayout.setOrientation(LinearLayout.VERTICAL);
+                scrollView.addView(contentLayout);
+                MediaViewportBinder binder = new MediaViewportBinder(scrollView);
+
+                View placeholder = new View(context);
+                contentLayout.addView(placeholder, new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, PLACEHOLDER_HEIGHT));
+                binder.add(placeholder, new CountingMediaItem());
+                layout(scrollView);
+                binder.update();
+                assertEquals(1, boundCount.get());
+
+                binder.remove(placeholder);
+                assertEquals(0, boundCount.get());
+                assertEquals(0, binder.getBoundCount());
+            }
+        });
+    }
+
+
+    private static void layout(ScrollView scrollView) {
+        scrollView.measure(View.MeasureSpec.makeMeasureSpec(1080, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(VIEWPORT_HEIGHT, View.MeasureSpec.EXACTLY));
+        scrollView.layout(0, 0, 1080, VIEWPORT_HEIGHT);
+    }
+
+    private class CountingMediaItem implements MediaViewportBinder.MediaItem {
+        @Override
+        public void bind() {
+            boundCount.incrementAndGet();
+        }
+
+        @Override
+        public void release() {
+            boundCount.decrementAndGet();
+        }
+    }
+}
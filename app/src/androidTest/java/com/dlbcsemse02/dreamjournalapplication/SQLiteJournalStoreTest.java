@@ -0,0 +1,141 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.json.JSONArray;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class SQLiteJournalStoreTest {
+
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File file;
+    private File migratedFile;
+
+
+    //This runs before the start of each test to ensure that the test database, the
+    //test_sqlite_journal_entries.json file and its write-ahead log are deleted.
+    @Before
+    public void setUp() {
+        file = new File(context.getFilesDir(), "test_sqlite_journal_entries.json");
+        migratedFile = new File(context.getFilesDir(), "test_sqlite_journal_entries.json.migrated");
+        cleanup();
+    }
+
+
+    //Tests whether every operation of ManagingJournalEntries works the same way
+    //when the entries are stored within the database.
+    @Test
+    public void operationsWorkWithDatabase() {
+        ManagingJournalEntries database = new ManagingJournalEntries("test_sqlite_journal_entries.json", ManagingJournalEntries.StorageMode.DATABASE);
+        int entryID1 = database.saveJournalEntryCreation(context, "Test Entry 1");
+        int entryID2 = database.saveJournalEntryCreation(context, "Test Entry 2");
+        assertEquals(entryID1 + 1, entryID2);
+
+        JSONArray mediaArray = new JSONArray();
+        mediaArray.put("SamplePhotoPath.png");
+
+        database.updateJournalEntryName(context, entryID1, "Updated Entry");
+        database.updateJournalEntryPinned(context, entryID1, true);
+        database.saveJournalEntryText(context, entryID1, "Lorem ipsum");
+        database.saveJournalEntryMedia(context, entryID1, mediaArray);
+        database.updateJournalImageThumbnail(context, entryID1, "path/to/SampleThumbnail.png");
+        database.deleteJournalEntry(context, entryID2);
+
+        List<JournalEntry> entries = database.getAllJournalEntries(context);
+        assertEquals(1, entries.size());
+
+        JournalEntry entry = entries.get(0);
+        assertEquals("Updated Entry", entry.getEntryName());
+        assertTrue(database.isEntryPinned(context, entryID1));
+        assertEquals("Lorem ipsum", entry.getEntryText());
+        assertEquals("SamplePhotoPath.png", entry.getAllMediaInText().get(0).getUri());
+        assertEquals("path/to/SampleThumbnail.png", entry.getImageThumbnail());
+        assertFalse(file.exists());
+    }
+
+
+    //Tests whether the entries of an existing JSON file, including the changes still held
+    //within its write-ahead log, are migrated into the database. Afterwards, the JSON file
+    //should have been renamed so that the migration does not happen again.
+    @Test
+    public void jsonFileIsMigratedOnce() throws Exception {
+        ManagingJournalEntries json = new ManagingJournalEntries("test_sqlite_journal_entries.json", ManagingJournalEntries.StorageMode.WRITE_AHEAD_LOG);
+        int entryID1 = json.saveJournalEntryCreation(context, "Test Entry 1");
+        int entryID2 = json.saveJournalEntryCreation(context, "Test Entry 2");
+        json.saveJournalEntryText(context, entryID1, "Lorem ipsum");
+        json.compactJournal(context);
+        json.updateJournalEntryPinned(context, entryID2, true);
+        JournalRepository.clearInstances();
+
+        ManagingJournalEntries database = new ManagingJournalEntries("test_sqlite_journal_entries.json", ManagingJournalEntries.StorageMode.DATABASE);
+        List<JournalEntry> entries = database.getAllJournalEntries(context);
+
+        assertEquals(2, entries.size());
+        assertEquals("Lorem ipsum", entries.get(0).getEntryText());
+        assertTrue(entries.get(1).isPinned());
+        assertFalse(file.exists());
+        assertTrue(migratedFile.exists());
+
+        assertEquals(entryID2 + 1, database.saveJournalEntryCreation(context, "Test Entry 3"));
+    }
+
+
+    //Tests whether the ID of a deleted entry is never given to a new entry, even if it was the
+    //highest ID, both for entries deleted within the database and for those deleted from the
+    //JSON file before it was migrated.
+    @Test
+    public void deletedIDsAreNotReused() {
+        ManagingJournalEntries json = new ManagingJournalEntries("test_sqlite_journal_entries.json", ManagingJournalEntries.StorageMode.WRITE_AHEAD_LOG);
+        json.saveJournalEntryCreation(context, "Test Entry 1");
+        int entryID2 = json.saveJournalEntryCreation(context, "Test Entry 2");
+        json.deleteJournalEntry(context, entryID2);
+        json.compactJournal(context);
+        JournalRepository.clearInstances();
+
+        ManagingJournalEntries database = new ManagingJournalEntries("test_sqlite_journal_entries.json", ManagingJournalEntries.StorageMode.DATABASE);
+        int entryID3 = database.saveJournalEntryCreation(context, "Test Entry 3");
+        assertEquals(entryID2 + 1, entryID3);
+
+        database.deleteJournalEntry(context, entryID3);
+        SQLiteJournalStore.clearInstances();
+        database = new ManagingJournalEntries("test_sqlite_journal_entries.json", ManagingJournalEntries.StorageMode.DATABASE);
+        assertEquals(entryID3 + 1, database.saveJournalEntryCreation(context, "Test Entry 4"));
+    }
+
+
+    //Tests whether a JSON file written by an older version of the app, which may lack some
+    //of the keys, is migrated using the same default values as the JSON file would use.
+    @Test
+    public void migrationUsesDefaultValues() throws Exception {
+        Files.write(file.toPath(), "[{\"ID\": 4, \"EntryName\": \"Old Entry\", \"DateAndTimeCreated\": \"2025-01-01T08:00:00\", \"LastEdited\": \"2025-01-01T08:00:00\"}]".getBytes(StandardCharsets.UTF_8));
+
+        ManagingJournalEntries database = new ManagingJournalEntries("test_sqlite_journal_entries.json", ManagingJournalEntries.StorageMode.DATABASE);
+        JournalEntry entry = database.getJournalEntry(context, 4);
+
+        assertNotNull(entry);
+        assertEquals("Old Entry", entry.getEntryName());
+        assertEquals("", entry.getEntryText());
+        assertFalse(entry.isPinned());
+        assertTrue(entry.getAllMediaInText().isEmpty());
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete the database and all files used by the test.
+    @After
+    public void cleanup() {
+        SQLiteJournalStore.clearInstances();
+        context.deleteDatabase("test_sqlite_journal_entries.db");
+        JournalTestFiles.deleteJournal(file);
+    }
+}
@@ -0,0 +1,104 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+public class StartupMetricsTest {
+
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File historyFile = new File(context.getFilesDir(), StartupMetrics.HISTORY_FILE_NAME);
+    private StartupMetrics startupMetrics;
+
+
+    //This runs before the start of each test to ensure that the history of launches is deleted,
+    //with every test measuring its launches with its own StartupMetrics.
+    @Before
+    public void setUp() {
+        historyFile.delete();
+        startupMetrics = new StartupMetrics();
+    }
+
+
+    //Tests whether the phases of a launch are recorded until it finishes, with phases that
+    //happen once per card being added up, and whether nothing is recorded afterwards.
+    @Test
+    public void phasesAreRecordedUntilLaunchFinishes() throws Exception {
+        startupMetrics.startLaunch();
+        startupMetrics.beginPhase(StartupMetrics.SORT_ENTRIES);
+        Thread.sleep(5);
+        startupMetrics.endPhase(StartupMetrics.SORT_ENTRIES);
+        startupMetrics.addPhaseDuration(StartupMetrics.BIND_CARDS, 1000);
+        startupMetrics.addPhaseDuration(StartupMetrics.BIND_CARDS, 2000);
+        startupMetrics.setEntryCounts(12, 3);
+        startupMetrics.addBytesRead(4096);
+
+        assertTrue(startupMetrics.finishLaunch());
+        assertFalse(startupMetrics.finishLaunch());
+        startupMetrics.addPhaseDuration(StartupMetrics.BIND_CARDS, 4000);
+        startupMetrics.beginPhase(StartupMetrics.LOAD_JOURNAL_ENTRIES);
+        startupMetrics.endPhase(StartupMetrics.LOAD_JOURNAL_ENTRIES);
+
+        assertTrue(startupMetrics.getPhaseDurationNanos(StartupMetrics.SORT_ENTRIES) >= 5_000_000);
+        assertEquals(3000, startupMetrics.getPhaseDurationNanos(StartupMetrics.BIND_CARDS));
+        assertEquals(2, startupMetrics.getPhaseCount(StartupMetrics.BIND_CARDS));
+        assertEquals(0, startupMetrics.getPhaseDurationNanos(StartupMetrics.LOAD_JOURNAL_ENTRIES));
+        assertTrue(startupMetrics.getTimeToFullDisplayNanos() >= startupMetrics.getPhaseDurationNanos(StartupMetrics.SORT_ENTRIES));
+        assertTrue(startupMetrics.getReport().contains("12 entries, 3 pinned, 4096 bytes"));
+    }
+
+
+    //Tests whether only the first launch of the process is a cold launch, which is the only
+    //one to include the time spent starting the process.
+    @Test
+    public void onlyFirstLaunchIsCold() {
+        startupMetrics.startLaunch();
+        startupMetrics.finishLaunch();
+        assertTrue(startupMetrics.getReportRow().contains(",Cold,"));
+
+        startupMetrics.startLaunch();
+        startupMetrics.finishLaunch();
+        assertTrue(startupMetrics.getReportRow().contains(",Warm,"));
+        assertEquals(0, startupMetrics.getPhaseDurationNanos(StartupMetrics.PROCESS_START));
+    }
+
+
+    //Tests whether every launch is added to the history as a row holding every column of its
+    //header, with only the most recent launches being kept.
+    @Test
+    public void historyKeepsMostRecentLaunches() throws Exception {
+        for (int i = 0; i < 105; i++) {
+            startupMetrics.startLaunch();
+            startupMetrics.setEntryCounts(i, 0);
+            startupMetrics.finishLaunch();
+            startupMetrics.exportReport(context);
+        }
+
+        List<String> lines = Files.readAllLines(historyFile.toPath(), StandardCharsets.UTF_8);
+        assertEquals(101, lines.size());
+        assertEquals(StartupMetrics.getHeader(), lines.get(0));
+        int columnCount = lines.get(0).split(",").length;
+        for (String line : lines.subList(1, lines.size())) {
+            assertEquals(columnCount, line.split(",").length);
+        }
+        assertEquals("104", lines.get(100).split(",")[2]);
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete the history of launches.
+    @After
+    public void cleanup() {
+        historyFile.delete();
+    }
+}
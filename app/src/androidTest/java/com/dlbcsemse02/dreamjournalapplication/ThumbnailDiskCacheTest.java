@@ -0,0 +1,125 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Color;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+
+public class ThumbnailDiskCacheTest {
+
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File directory;
+
+
+    //This runs before the start of each test to ensure that the test_thumbnails
+    //directory is empty, giving each test a clean slate.
+    @Before
+    public void setUp() {
+        directory = new File(context.getCacheDir(), "test_thumbnails");
+        cleanup();
+    }
+
+
+    //Tests whether a stored thumbnail is returned along with the signature of its
+    //original image, and can still be decoded at the same size.
+    @Test
+    public void thumbnailIsStoredWithSignature() {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, ThumbnailDiskCache.DEFAULT_MAX_SIZE_IN_BYTES);
+        cache.put("content://media/image/1@400x300", "1048576-1700000000000", createBitmap(Color.RED));
+
+        ThumbnailDiskCache.CachedThumbnail thumbnail = cache.get("content://media/image/1@400x300");
+        assertNotNull(thumbnail);
+        assertEquals("1048576-1700000000000", thumbnail.getSignature());
+        Bitmap bitmap = BitmapFactory.decodeFile(thumbnail.getFile().getPath());
+        assertEquals(400, bitmap.getWidth());
+        assertEquals(300, bitmap.getHeight());
+        assertNull(cache.get("content://media/image/1@800x600"));
+    }
+
+
+    //Tests whether the cache is found again after the app restarts, which is simulated
+    //by creating a new cache for the same directory.
+    @Test
+    public void thumbnailsAreKeptBetweenStarts() {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, ThumbnailDiskCache.DEFAULT_MAX_SIZE_IN_BYTES);
+        cache.put("content://media/image/1@400x300", "1-2", createBitmap(Color.RED));
+        cache.put("content://media/image/2@400x300", "3-4", createBitmap(Color.BLUE));
+
+        ThumbnailDiskCache restartedCache = new ThumbnailDiskCache(directory, ThumbnailDiskCache.DEFAULT_MAX_SIZE_IN_BYTES);
+        assertEquals(2, restartedCache.getCount());
+        assertEquals(cache.getSizeInBytes(), restartedCache.getSizeInBytes());
+        assertEquals("3-4", restartedCache.get("content://media/image/2@400x300").getSignature());
+    }
+
+
+    //Tests whether storing a thumbnail again replaces the previous file rather
+    //than keeping both, e.g., once the original image has changed.
+    @Test
+    public void thumbnailIsReplaced() {
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, ThumbnailDiskCache.DEFAULT_MAX_SIZE_IN_BYTES);
+        cache.put("content://media/image/1@400x300", "1-2", createBitmap(Color.RED));
+        cache.put("content://media/image/1@400x300", "5-6", createBitmap(Color.GREEN));
+
+        assertEquals(1, cache.getCount());
+        assertEquals(1, directory.listFiles().length);
+        assertEquals("5-6", cache.get("content://media/image/1@400x300").getSignature());
+    }
+
+
+    //Tests whether the least recently used thumbnails are evicted once the cache grows beyond
+    //its size. The first thumbnail is used again before the third one is stored, meaning the
+    //second one should be evicted instead.
+    @Test
+    public void leastRecentlyUsedThumbnailIsEvicted() throws Exception {
+        ThumbnailDiskCache sizingCache = new ThumbnailDiskCache(new File(directory, "sizing"), ThumbnailDiskCache.DEFAULT_MAX_SIZE_IN_BYTES);
+        sizingCache.put("sizing", "0-0", createBitmap(Color.RED));
+        long thumbnailSize = sizingCache.getSizeInBytes();
+        sizingCache.remove("sizing");
+
+        ThumbnailDiskCache cache = new ThumbnailDiskCache(directory, thumbnailSize * 2 + thumbnailSize / 2);
+        cache.put("content://media/image/1@400x300", "1-1", createBitmap(Color.RED));
+        cache.put("content://media/image/2@400x300", "2-2", createBitmap(Color.RED));
+        assertNotNull(cache.get("content://media/image/1@400x300"));
+        cache.put("content://media/image/3@400x300", "3-3", createBitmap(Color.RED));
+
+        assertEquals(2, cache.getCount());
+        assertNotNull(cache.get("content://media/image/1@400x300"));
+        assertNull(cache.get("content://media/image/2@400x300"));
+        assertNotNull(cache.get("content://media/image/3@400x300"));
+        assertTrue(cache.getSizeInBytes() <= thumbnailSize * 2 + thumbnailSize / 2);
+    }
+
+
+    private static Bitmap createBitmap(int color) {
+        Bitmap bitmap = Bitmap.createBitmap(400, 300, Bitmap.Config.ARGB_8888);
+        bitmap.eraseColor(color);
+        return bitmap;
+    }
+
+
+    //Similarly to setUp, this runs after each test to delete all files used by the test.
+    @After
+    public void cleanup() {
+        deleteRecursively(directory);
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,73 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+
+public class ThumbnailLoaderTest {
+
+    private Context context = ApplicationProvider.getApplicationContext();
+    private File imageFile = new File(context.getCacheDir(), "test_thumbnail.png");
+
+
+    //Tests whether the sample size is the largest power of two that still keeps
+    //the decoded image at least as large as the target size in both directions.
+    @Test
+    public void sampleSizeKeepsImageAboveTargetSize() {
+        assertEquals(1, ThumbnailLoader.calculateInSampleSize(1000, 800, 1000, 800));
+        assertEquals(1, ThumbnailLoader.calculateInSampleSize(500, 400, 1000, 800));
+        assertEquals(4, ThumbnailLoader.calculateInSampleSize(4000, 3000, 1000, 660));
+        assertEquals(2, ThumbnailLoader.calculateInSampleSize(4000, 3000, 1080, 660));
+        assertEquals(1, ThumbnailLoader.calculateInSampleSize(0, 0, 1080, 660));
+    }
+
+
+    //Tests whether a large image is decoded close to the target size rather than at its full
+    //size. This is done by writing a 4000x3000 image and decoding it for a 400x300 view.
+    @Test
+    public void largeImageIsDecodedAtTargetSize() throws Exception {
+        Bitmap largeBitmap = Bitmap.createBitmap(4000, 3000, Bitmap.Config.ARGB_8888);
+        try (FileOutputStream outputStream = new FileOutputStream(imageFile)) {
+            largeBitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
+        }
+        largeBitmap.recycle();
+
+        Bitmap thumbnail = ThumbnailLoader.getInstance(context).decode(Uri.fromFile(imageFile), 400, 300);
+        assertNotNull(thumbnail);
+        assertTrue(thumbnail.getWidth() >= 400 && thumbnail.getWidth() < 800);
+        assertTrue(thumbnail.getHeight() >= 300 && thumbnail.getHeight() < 600);
+    }
+
+
+    //Tests whether an image that no longer exists is decoded as null rather than crashing.
+    @Test
+    public void missingImageIsDecodedAsNull() {
+        assertNull(ThumbnailLoader.getInstance(context).decode(Uri.fromFile(imageFile), 400, 300));
+    }
+
+
+    //Tests whether a file that is not a video yields no poster rather than crashing.
+    @Test
+    public void invalidVideoHasNoPoster() throws Exception {
+        try (FileOutputStream outputStream = new FileOutputStream(imageFile)) {
+            outputStream.write(new byte[]{1, 2, 3, 4});
+        }
+        assertNull(ThumbnailLoader.getInstance(context).decodeVideoPoster(Uri.fromFile(imageFile), 400, 300));
+    }
+
+
+    @After
+    public void cleanup() {
+        imageFile.delete();
+    }
+}
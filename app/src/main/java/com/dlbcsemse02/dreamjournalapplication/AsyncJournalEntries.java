@@ -0,0 +1,186 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.Context;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+public class AsyncJournalEntries {
+
+    //This class offers the same operations as ManagingJournalEntries, except that every
+    //operation runs on the single journal thread of the JournalExecutor instead of the
+    //calling thread. Each method returns immediately with a CompletableFuture that is
+    //completed once the operation has finished, meaning the activities never touch the
+    //disk on the main thread. Results are handed back to the main thread via
+    //JournalExecutor.getMainThreadExecutor(), e.g., using thenAcceptAsync().
+    private final ManagingJournalEntries managingJournalEntries;
+
+    //The application context is kept rather than an activity, since operations may
+    //still be running after the activity that submitted them has been destroyed.
+    private final Context context;
+
+    public AsyncJournalEntries(Context context) {
+        this(context, new ManagingJournalEntries());
+    }
+
+    public AsyncJournalEntries(Context context, ManagingJournalEntries managingJournalEntries) {
+        this.context = context.getApplicationContext();
+        this.managingJournalEntries = managingJournalEntries;
+    }
+
+    public CompletableFuture<Integer> saveJournalEntryCreation(String title) {
+        return supply(() -> managingJournalEntries.saveJournalEntryCreation(context, title));
+    }
+
+    public CompletableFuture<Void> updateJournalEntryName(int ID, String newTitle) {
+        return run(() -> managingJournalEntries.updateJournalEntryName(context, ID, newTitle));
+    }
+
+    public CompletableFuture<Void> deleteJournalEntry(int ID) {
+        return run(() -> managingJournalEntries.deleteJournalEntry(context, ID));
+    }
+
+    public CompletableFuture<Void> updateJournalImageThumbnail(int ID, String imagePath) {
+        return run(() -> managingJournalEntries.updateJournalImageThumbnail(context, ID, imagePath));
+    }
+
+    public CompletableFuture<Void> updateJournalEntryPinned(int entryID, boolean pinned) {
+        return run(() -> managingJournalEntries.updateJournalEntryPinned(context, entryID, pinned));
+    }
+
+    public CompletableFuture<Boolean> isEntryPinned(int entryID) {
+        return supply(() -> managingJournalEntries.isEntryPinned(context, entryID));
+    }
+
+    public CompletableFuture<Void> saveJournalEntryText(int entryID, String newText) {
+        return run(() -> managingJournalEntries.saveJournalEntryText(context, entryID, newText));
+    }
+
+    //The media list is copied straight away, since the activity keeps changing
+    //its own list while the copy is waiting to be saved.
+    public CompletableFuture<Void> saveJournalEntryMedia(int entryID, List<MediaAttachment> mediaList) {
+        List<MediaAttachment> media = new ArrayList<>(mediaList);
+        return run(() -> managingJournalEntries.saveJournalEntryMedia(context, entryID, media));
+    }
+
+    public CompletableFuture<JournalEntry> getJournalEntry(int entryID) {
+        return supply(() -> managingJournalEntries.getJournalEntry(context, entryID));
+    }
+
+    //The entry is read on the journal thread, while its media are resolved on the media threads
+    //of the JournalExecutor, since the media provider may take a long time to answer. Only saving
+    //the resolved media is handed back to the journal thread. The future is completed once they
+    //have been saved, meaning any change submitted afterwards is applied after them.
+    public CompletableFuture<JournalEntry> getJournalEntryWithResolvedMedia(int entryID) {
+        return getJournalEntry(entryID).thenComposeAsync(journalEntry -> {
+            if (journalEntry == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            List<MediaAttachment> resolvedMedia = MediaAttachmentResolver.resolveAll(context, journalEntry.getAllMediaInText());
+            if (resolvedMedia == null) {
+                return CompletableFuture.completedFuture(journalEntry);
+            }
+            journalEntry.setAllMediaInText(resolvedMedia);
+            return run(() -> managingJournalEntries.saveResolvedMedia(context, entryID, resolvedMedia)).thenApply(saved -> journalEntry);
+        }, JournalExecutor.getMediaExecutor());
+    }
+
+    //Looks up summaries (see JournalEntry.toSummary()) of several entries at once.
+    //Entries that no longer exist are mapped to null.
+    public CompletableFuture<Map<Integer, JournalEntry>> getJournalEntrySummaries(List<Integer> entryIDs) {
+        return supply(() -> {
+            Map<Integer, JournalEntry> summaries = new HashMap<>();
+            for (int entryID : entryIDs) {
+                summaries.put(entryID, managingJournalEntries.getJournalEntrySummary(context, entryID));
+            }
+            return summaries;
+        });
+    }
+
+    public CompletableFuture<List<JournalEntry>> getAllJournalEntrySummaries() {
+        return supply(() -> managingJournalEntries.getAllJournalEntrySummaries(context));
+    }
+
+    //Same as above, while recording how long reading the journal took on the journal thread
+    //and how many bytes of it were read for the launch currently being measured.
+    public CompletableFuture<List<JournalEntry>> getAllJournalEntrySummaries(StartupMetrics startupMetrics) {
+        return supply(() -> {
+            long bytesReadBefore = managingJournalEntries.getJournalBytesRead(context);
+            startupMetrics.beginPhase(StartupMetrics.READ_JOURNAL);
+            List<JournalEntry> summaries = managingJournalEntries.getAllJournalEntrySummaries(context);
+            startupMetrics.endPhase(StartupMetrics.READ_JOURNAL);
+            if (bytesReadBefore != -1) {
+                startupMetrics.addBytesRead(managingJournalEntries.getJournalBytesRead(context) - bytesReadBefore);
+            }
+            return summaries;
+        });
+    }
+
+    public CompletableFuture<List<JournalEntry>> getAllJournalEntries() {
+        return supply(() -> managingJournalEntries.getAllJournalEntries(context));
+    }
+
+    public CompletableFuture<JournalEntryPage> getJournalEntryPage(JournalSortedIndex.Order order, JournalEntryPage.Cursor after, int pageSize) {
+        return supply(() -> managingJournalEntries.getJournalEntryPage(context, order, after, pageSize));
+    }
+
+    public CompletableFuture<List<JournalEntry>> getJournalEntriesCreatedBetween(LocalDate from, LocalDate until) {
+        return supply(() -> managingJournalEntries.getJournalEntriesCreatedBetween(context, from, until));
+    }
+
+    public CompletableFuture<Map<LocalDate, Integer>> getJournalEntryCountsPerDay(YearMonth month) {
+        return supply(() -> managingJournalEntries.getJournalEntryCountsPerDay(context, month));
+    }
+
+    public CompletableFuture<Map<YearMonth, Integer>> getJournalEntryCountsPerMonth(Year year) {
+        return supply(() -> managingJournalEntries.getJournalEntryCountsPerMonth(context, year));
+    }
+
+    public CompletableFuture<List<Integer>> searchJournalEntries(String query, int limit) {
+        return supply(() -> managingJournalEntries.searchJournalEntries(context, query, limit));
+    }
+
+    public CompletableFuture<Void> compactJournal() {
+        return run(() -> managingJournalEntries.compactJournal(context));
+    }
+
+    //Listeners are registered on the journal thread as well, as looking up the JournalStore
+    //may create the app's files directory. Since operations run in order, a listener added
+    //before loading the entries is informed about every change made after they were loaded.
+    public CompletableFuture<Void> addJournalChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        return run(() -> managingJournalEntries.addJournalChangeListener(context, listener));
+    }
+
+    public CompletableFuture<Void> removeJournalChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        return run(() -> managingJournalEntries.removeJournalChangeListener(context, listener));
+    }
+
+    public static Executor getMainThreadExecutor() {
+        return JournalExecutor.getMainThreadExecutor();
+    }
+
+    //Should an operation fail, the exception is printed as soon as it happens, since
+    //callers that only wait for the result on the main thread might otherwise never see it.
+    private static <T> CompletableFuture<T> supply(Supplier<T> operation) {
+        return CompletableFuture.supplyAsync(operation, JournalExecutor.getIoExecutor()).whenComplete((result, e) -> {
+            if (e != null) {
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private static CompletableFuture<Void> run(Runnable operation) {
+        return supply(() -> {
+            operation.run();
+            return null;
+        });
+    }
+}
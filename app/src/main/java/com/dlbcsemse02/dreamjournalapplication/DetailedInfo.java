@@ -7,15 +7,10 @@ import android.widget.TextView;
 
 import androidx.appcompat.app.AppCompatActivity;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 public class DetailedInfo extends AppCompatActivity {
 
@@ -44,83 +39,55 @@ public class DetailedInfo extends AppCompatActivity {
         });
     }
 
-    //This method loads detailed information about a journal entry from a JSON file.
-    //It reads the file, parses the JSON content and performs basic formatting of the data,
-    //and then displays the information in a TextView.
+    //This method loads the detailed information about a journal entry on the journal's
+    //background thread, since the entry is read from disk (its media are resolved on the media
+    //threads, see AsyncJournalEntries). The size of the entry is worked out by the
+    //JournalSizeAccounting from the text in memory and the sizes stored along with its media,
+    //meaning neither is the entry converted into JSON nor are its media files read. Since media
+    //without a stored size are asked for it by their media provider, this is done on the media
+    //threads as well. The information is then displayed in a TextView on the main thread.
     private void loadDetailedInfo(int entryID) {
-
-        File file = new File(this.getFilesDir(), "journal_entries.json");
-        if (!file.exists()) {
-            return;
-        }
-
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
+        new AsyncJournalEntries(this).getJournalEntryWithResolvedMedia(entryID).thenApplyAsync(new Function<JournalEntry, String>() {
+            @Override
+            public String apply(JournalEntry journalEntry) {
+                if (journalEntry == null) {
+                    return null;
+                }
+                JournalSizeAccounting.SizeReport entrySize = JournalSizeAccounting.getInstance(DetailedInfo.this).getEntrySize(journalEntry);
+                return formatDetailedInfo(journalEntry, entrySize);
             }
-
-            //Here, a loop is used to find the journal entry with a specified ID
-            //and extracts the relevant information to display. It should be noted that
-            //the data containing dates and times are formatted to be more readable.
-            //The loop also breaks after the output has been displayed.
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject journalEntry = journalFileContent.getJSONObject(i);
-                if (journalEntry.getInt("ID") == entryID) {
-                    String dateAndTimeCreated = journalEntry.optString("DateAndTimeCreated", "N/A");
-                    String lastEdited = journalEntry.optString("LastEdited", "N/A");
-
-                    DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
-                    String formattedDateAndTimeCreated = LocalDateTime.parse(dateAndTimeCreated).format(formatter);
-                    String formattedLastEdited = LocalDateTime.parse(lastEdited).format(formatter);
-
-                    //All media attachments within a journal entry are counted, with their file sizes being
-                    //summed to provide a total size. This is then combined with the total size of all
-                    //the text data within the entry to give an overall size of the entry.
-                    JSONArray allMediaInText = journalEntry.optJSONArray("AllMediaInText");
-                    int mediaCount = 0;
-
-                    //The size of the text data is calculated and then added to the
-                    //total size of the media attachments within the journal entry.
-                    long totalEntrySize = journalEntry.toString().getBytes(StandardCharsets.UTF_8).length;
-
-                    if (allMediaInText != null) {
-                        mediaCount = allMediaInText.length();
-
-                        for (int j = 0; j < allMediaInText.length(); j++) {
-                            String mediaPath = allMediaInText.optString(j, "");
-                            if ((mediaPath != null) && (!mediaPath.isEmpty())) {
-                                File mediaFile = new File(mediaPath);
-                                if (mediaFile.exists()) {
-                                    totalEntrySize += mediaFile.length();
-                                }
-                            }
-                        }
-                    }
-
-                    //The total size of the entry is formatted into either bytes, kilobytes,
-                    //or megabytes before being displayed to the user.
-                    String entrySize = "";
-                    if (totalEntrySize < 1024) {
-                        entrySize = (totalEntrySize) + " B";
-                    } else if (totalEntrySize < (1024 * 1024)) {
-                        entrySize = (totalEntrySize / 1024) + " KB";
-                    } else {
-                        entrySize = (totalEntrySize / (1024 * 1024)) + " MB";
-                    }
-
-
-                    //The detailed information is then formatted into a readable string and
-                    //displayed in the TextView.
-                    String detailedInfo = "Date and Time Created: " + formattedDateAndTimeCreated + "\n" + "Last Edited: " + formattedLastEdited + "\n" + "Number of Media Attachments: " + mediaCount + "\n" + "Total Entry Size: " + entrySize + "\n";
-
+        }, JournalExecutor.getMediaExecutor()).thenAcceptAsync(new Consumer<String>() {
+            @Override
+            public void accept(String detailedInfo) {
+                if (detailedInfo != null) {
                     detailedInfoText.setText(detailedInfo);
-                    break;
                 }
             }
+        }, JournalExecutor.getMainThreadExecutor());
+    }
+
+    //This method performs basic formatting of the data of a journal entry,
+    //returning the information that is displayed to the user.
+    private static String formatDetailedInfo(JournalEntry journalEntry, JournalSizeAccounting.SizeReport entrySize) {
+
+        try {
+            //Here, the relevant information of the journal entry is extracted to display.
+            //It should be noted that the data containing dates and times are formatted to be more readable.
+            String dateAndTimeCreated = journalEntry.getDateAndTimeCreated();
+            String lastEdited = journalEntry.getLastEdited();
+
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy/MM/dd HH:mm:ss");
+            String formattedDateAndTimeCreated = LocalDateTime.parse(dateAndTimeCreated).format(formatter);
+            String formattedLastEdited = LocalDateTime.parse(lastEdited).format(formatter);
 
+            //The total size of the entry combines the size of its text with the sizes of all of
+            //its media attachments (see JournalSizeAccounting).
+            int mediaCount = entrySize.getMediaCount();
+            long totalEntrySize = entrySize.getTotalSizeInBytes();
+
+            //The detailed information is then formatted into a readable string
+            //to be displayed in the TextView.
+            return "Date and Time Created: " + formattedDateAndTimeCreated + "\n" + "Last Edited: " + formattedLastEdited + "\n" + "Number of Media Attachments: " + mediaCount + "\n" + "Total Entry Size: " + formatSize(totalEntrySize) + "\n";
 
         } catch (Exception e) {
             e.printStackTrace();
@@ -128,4 +95,16 @@ public class DetailedInfo extends AppCompatActivity {
         }
 
     }
+
+    //The size is formatted into either bytes, kilobytes, or megabytes before
+    //being displayed to the user.
+    static String formatSize(long sizeInBytes) {
+        if (sizeInBytes < 1024) {
+            return sizeInBytes + " B";
+        } else if (sizeInBytes < (1024 * 1024)) {
+            return (sizeInBytes / 1024) + " KB";
+        } else {
+            return (sizeInBytes / (1024 * 1024)) + " MB";
+        }
+    }
 }
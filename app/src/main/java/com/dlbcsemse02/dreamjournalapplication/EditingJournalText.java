@@ -2,7 +2,6 @@ package com.dlbcsemse02.dreamjournalapplication;
 
 import android.content.Intent;
 import android.graphics.Color;
-import android.media.MediaPlayer;
 import android.net.Uri;
 import android.os.Bundle;
 import android.view.MenuItem;
@@ -11,11 +10,9 @@ import android.widget.EditText;
 import android.widget.FrameLayout;
 import android.widget.ImageView;
 import android.widget.LinearLayout;
-import android.widget.MediaController;
 import android.widget.PopupMenu;
 import android.widget.TextView;
 import android.widget.Toast;
-import android.widget.VideoView;
 
 import androidx.activity.result.ActivityResult;
 import androidx.activity.result.ActivityResultCallback;
@@ -23,25 +20,55 @@ import androidx.activity.result.ActivityResultLauncher;
 import androidx.activity.result.contract.ActivityResultContracts;
 import androidx.appcompat.app.AppCompatActivity;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 public class EditingJournalText extends AppCompatActivity {
 
     private ActivityResultLauncher<Intent> chooseImageLauncher;
     private ActivityResultLauncher<Intent> chooseVideoLauncher;
 
-    private JSONArray entryMediaArray = new JSONArray();
+    private List<MediaAttachment> entryMedia = new ArrayList<>();
+
+    //Every read and write of the journal entry runs on a background thread,
+    //meaning that opening and leaving the entry never waits for the disk.
+    private AsyncJournalEntries asyncJournalEntries;
+
+    //Changes to the text and media of the entry are merged by the batcher and written
+    //together once the user stops making changes, or at the latest when the activity stops.
+    private JournalWriteBatcher journalWriteBatcher;
+
+    //Whether the journal entry has been loaded into the page yet. Until then, nothing is
+    //saved, as the empty page would otherwise overwrite the text of the journal entry.
+    private boolean entryLoaded = false;
+
+    //The media of the entry is added as placeholders, while the images and videos themselves
+    //are only loaded once they scroll near the visible part of the page.
+    private MediaViewportBinder mediaViewportBinder;
+
+    //The single player used to play any video of the entry once its play button is tapped.
+    private SharedVideoPlayer sharedVideoPlayer;
+
+    //The height of the placeholders of images and videos. Placeholders keep their height
+    //once the media is loaded, meaning the page never jumps while scrolling through it.
+    private static final int IMAGE_HEIGHT = 500;
+    private static final int VIDEO_HEIGHT = 650;
+    private static final int PLAY_BUTTON_SIZE = 160;
+    private static final int PLACEHOLDER_COLOR = Color.parseColor("#F3EAF9");
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
         setContentView(R.layout.activity_editing_journal_text);
 
+        asyncJournalEntries = new AsyncJournalEntries(this);
+        journalWriteBatcher = new JournalWriteBatcher(this);
+        mediaViewportBinder = new MediaViewportBinder(findViewById(R.id.contentScrollView));
+        sharedVideoPlayer = new SharedVideoPlayer(this);
+
         //This sets the title of the toolbar to the name of the journal entry being
         //edited. The value was passed from the previous activity via an Intent.
         TextView toolbarTitle = findViewById(R.id.toolbarTitle);
@@ -73,12 +100,8 @@ public class EditingJournalText extends AppCompatActivity {
                     //if an image URI was selected
                     if (imageUri != null) {
                         getContentResolver().takePersistableUriPermission(imageUri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+                        attachMedia(imageUri);
                     }
-
-                    entryMediaArray.put(imageUri.toString());
-
-                    addImageToLayout(imageUri, entryMediaArray);
-
                 }
             }
         });
@@ -97,11 +120,8 @@ public class EditingJournalText extends AppCompatActivity {
                     Uri videoUri = o.getData().getData();
                     if (videoUri != null) {
                         getContentResolver().takePersistableUriPermission(videoUri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
+                        attachMedia(videoUri);
                     }
-
-                    entryMediaArray.put(videoUri.toString());
-
-                    addVideoToLayout(videoUri, entryMediaArray);
                 }
             }
         });
@@ -163,61 +183,41 @@ public class EditingJournalText extends AppCompatActivity {
 
         if (entryID != -1) {
 
-            //If an entryID was found, this loads the journal entry text from a JSON file and
-            //determines whether the ID from the journal entry received matches the one in the file.
-            //If so, it loads the EditText field with the corresponding journal entry text
-            //so that the user can continue where they last left off.
-            try {
-                File file = new File(getFilesDir(), "journal_entries.json");
-                if (file.exists()) {
-                    BufferedReader reader = new BufferedReader(new FileReader(file));
-                    StringBuilder content = new StringBuilder();
-                    String line;
-
-                    while ((line = reader.readLine()) != null) {
-                        content.append(line);
+            //If an entryID was found, this loads the journal entry from the JournalRepository
+            //on a background thread. If an entry with a matching ID exists, it loads the EditText
+            //field with the corresponding journal entry text on the main thread so that the user
+            //can continue where they last left off. Media attached before attachments were typed
+            //are resolved (see MediaAttachmentResolver) while loading the entry.
+            asyncJournalEntries.getJournalEntryWithResolvedMedia(entryID).thenAcceptAsync(new Consumer<JournalEntry>() {
+                @Override
+                public void accept(JournalEntry entry) {
+                    if (entry == null) {
+                        return;
                     }
-                    reader.close();
-
-                    JSONArray journalFileContent = new JSONArray(content.toString());
-                    for (int i = 0; i < journalFileContent.length(); i++) {
-                        JSONObject entry = journalFileContent.getJSONObject(i);
-                        if (entry.getInt("ID") == entryID) {
-                            String entryText = entry.optString("EntryText", "");
-                            journalEntryEditText.setText(entryText);
-
-                            JSONArray savedMedia = entry.optJSONArray("AllMediaInText");
-                            if (savedMedia != null) {
-
-                                entryMediaArray = new JSONArray();
-                                //This loop iterates through each media URI stored in the
-                                //"AllMediaInText" array of the journal entry. For each URI, it
-                                //parses the URI string and determines whether it is an image or a video.
-                                for (int j = 0; j < savedMedia.length(); j++) {
-                                    String uriString = savedMedia.optString(j);
-                                    Uri uri = Uri.parse(uriString);
-
-                                    entryMediaArray.put(uriString);
-
-                                    //Checks if the media is a video or an image based on the file extension or
-                                    //URI content. Then, it calls the appropriate method to add the
-                                    //media to the layout and the media array.
-                                    if (uriString.endsWith(".mp4") || uriString.contains("video")) {
-                                        addVideoToLayout(uri, entryMediaArray);
-                                    } else {
-                                        addImageToLayout(uri, entryMediaArray);
-                                    }
-                                }
-                                break;
-                            }
-                        }
+
+                    //Media attached while the entry was still loading are already held within
+                    //the media list (and the layout), but were not saved yet, as the media of the
+                    //entry itself were not known. The media of the entry are added to the list
+                    //after them, in the same order as they are added to the layout, and the
+                    //merged list is saved, even if the page has been closed in the meantime.
+                    boolean attachedWhileLoading = !entryMedia.isEmpty();
+                    entryMedia.addAll(entry.getAllMediaInText());
+                    entryLoaded = true;
+                    if (attachedWhileLoading) {
+                        journalWriteBatcher.saveJournalEntryMedia(entryID, entryMedia);
+                    }
+                    if (isDestroyed()) {
+                        return;
                     }
 
+                    //This sets the text of the journal entry and adds each media attachment
+                    //stored in its "AllMediaInText" array to the layout.
+                    journalEntryEditText.setText(entry.getEntryText());
+                    for (MediaAttachment attachment : entry.getAllMediaInText()) {
+                        addMediaToLayout(attachment);
+                    }
                 }
-            } catch (Exception e) {
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
+            }, AsyncJournalEntries.getMainThreadExecutor());
         }
     }
 
@@ -226,22 +226,90 @@ public class EditingJournalText extends AppCompatActivity {
         super.onPause();
 
         //This saves the journal entry text and all media contained within the
-        //journal entry page to the JSON file when the activity is paused.
+        //journal entry page to the JSON file when the activity is paused. Both are
+        //merged by the batcher, meaning the entry is only written once for both.
         int entryID = getIntent().getIntExtra("ENTRY_ID", -1);
-        if (entryID != -1) {
+        if (entryID != -1 && entryLoaded) {
             EditText journalEntryEditText = findViewById(R.id.journalEditText);
             String updatedText = journalEntryEditText.getText().toString();
 
-            ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries();
-            managingJournalEntries.saveJournalEntryText(this, entryID, updatedText);
-            managingJournalEntries.saveJournalEntryMedia(this, entryID, entryMediaArray);
+            journalWriteBatcher.saveJournalEntryText(entryID, updatedText);
+            journalWriteBatcher.saveJournalEntryMedia(entryID, entryMedia);
+        }
+    }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        mediaViewportBinder.start();
+    }
+
+    @Override
+    protected void onStop() {
+        super.onStop();
+
+        //Every image, poster and the video player are released while the page is not visible.
+        sharedVideoPlayer.stop();
+        mediaViewportBinder.stop();
+
+        //Any changes still waiting within the batcher are always written once the activity
+        //stops, rather than waiting for the debounce window to pass.
+        journalWriteBatcher.flush();
+    }
+
+    //This method attaches a newly chosen image or video to the journal entry. Its MIME type,
+    //size, dimensions and duration are read from its media provider on one of the media threads
+    //of the JournalExecutor (see MediaAttachmentResolver), after which it is added to the layout
+    //and the media list. The media is saved straight away, as the activity may already have been
+    //paused by the time the media provider has answered, unless the entry is still loading, in
+    //which case it is saved along with the media of the entry once loaded. The returned future
+    //completes once the media has been added to the media list.
+    CompletableFuture<Void> attachMedia(Uri mediaUri) {
+        return CompletableFuture.supplyAsync(new Supplier<MediaAttachment>() {
+            @Override
+            public MediaAttachment get() {
+                return MediaAttachmentResolver.resolve(EditingJournalText.this, mediaUri);
+            }
+        }, JournalExecutor.getMediaExecutor()).thenAcceptAsync(new Consumer<MediaAttachment>() {
+            @Override
+            public void accept(MediaAttachment attachment) {
+                entryMedia.add(attachment);
+                int entryID = getIntent().getIntExtra("ENTRY_ID", -1);
+                if (entryID != -1 && entryLoaded) {
+                    journalWriteBatcher.saveJournalEntryMedia(entryID, entryMedia);
+                }
+                if (!isDestroyed()) {
+                    addMediaToLayout(attachment);
+                }
+            }
+        }, JournalExecutor.getMainThreadExecutor());
+    }
+
+    //Adds the media to the layout as either an image or a video, depending on its MIME type.
+    private void addMediaToLayout(MediaAttachment attachment) {
+        if (attachment.isVideo()) {
+            addVideoToLayout(attachment);
+        } else {
+            addImageToLayout(attachment);
         }
     }
 
+    //Returns the height of the placeholder of the media when shown at the width of the screen.
+    //Since the dimensions of the media are stored along with it, placeholders of wide media are
+    //given their actual height without having to read the media first. Media without known
+    //dimensions (or taller than the maximum height) are shown at the maximum height.
+    private int getPlaceholderHeight(MediaAttachment attachment, int maxHeight) {
+        if (!attachment.hasDimensions()) {
+            return maxHeight;
+        }
+        long height = (long) getResources().getDisplayMetrics().widthPixels * attachment.getHeight() / attachment.getWidth();
+        return (int) Math.max(1, Math.min(height, maxHeight));
+    }
+
     //This method adds an ImageView to the layout of the journal editing page
     //and includes a remove button to delete the image from the layout and
-    //the associated media array.
-    private void addImageToLayout(Uri imageUri, JSONArray mediaArray) {
+    //the associated media list.
+    private void addImageToLayout(MediaAttachment image) {
         //Creates layouts to hold the ImageView and remove button. The
         //contentLayout is the main layout where all content is added, while
         //the mediaContainer holds the ImageView and its associated remove button.
@@ -253,19 +321,20 @@ public class EditingJournalText extends AppCompatActivity {
         containerParams.bottomMargin = 16;
         mediaContainer.setLayoutParams(containerParams);
 
-        //Creates an ImageView and manages the display of the selected image by setting its URI,
-        //adjusting its bounds, and adding padding for better presentation.
-        ImageView imageView = new ImageView(EditingJournalText.this);
-        imageView.setImageURI(imageUri);
-        imageView.setAdjustViewBounds(true);
-        imageView.setMaxHeight(500);
+        //Creates an ImageView of a fixed height that acts as the placeholder of the image.
+        //The image itself is only loaded once the placeholder scrolls near the visible part
+        //of the page, in the background and at the width of the screen (see ThumbnailLoader).
+        final ImageView imageView = new ImageView(EditingJournalText.this);
+        imageView.setScaleType(ImageView.ScaleType.FIT_CENTER);
+        imageView.setBackgroundColor(PLACEHOLDER_COLOR);
 
-        FrameLayout.LayoutParams imageParams = new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.WRAP_CONTENT);
+        final int imageHeight = getPlaceholderHeight(image, IMAGE_HEIGHT);
+        FrameLayout.LayoutParams imageParams = new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, imageHeight);
         imageView.setLayoutParams(imageParams);
 
         //Creates a TextView that acts as a remove button ("X") for the image.
         //When clicked, it removes the image from the content layout and
-        //also removes the corresponding URI from the mediaArray to keep the data consistent.
+        //also removes the corresponding attachment from the media list to keep the data consistent.
         TextView removeButton = new TextView(EditingJournalText.this);
         removeButton.setText("X");
         removeButton.setTextColor(Color.parseColor("#FF6280"));
@@ -277,32 +346,25 @@ public class EditingJournalText extends AppCompatActivity {
         removeParams.gravity = android.view.Gravity.TOP | android.view.Gravity.END;
         removeButton.setLayoutParams(removeParams);
 
-        //Stores the final URI string to be used in the click listener.
-        //This variable is final due to its use in the inner class below.
-        final String finalImageUri = imageUri.toString();
-
         removeButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
 
                 //Removes the image container from the content layout
-                //and the image URI from the media array. This is done to
+                //and the image attachment from the media list. This is done to
                 //ensure that the UI and data remain in sync.
+                mediaViewportBinder.remove(mediaContainer);
                 contentLayout.removeView(mediaContainer);
-                if (mediaArray != null) {
-                    for (int i = 0; i < mediaArray.length(); i++) {
-                        if (mediaArray.optString(i).equals(finalImageUri)) {
-                            mediaArray.remove(i);
-                            break;
-                        }
-                    }
-
-                    //Saves the changes immediately after removing to ensure
-                    //data consistency for the journal entry in the future
-                    int entryID = getIntent().getIntExtra("ENTRY_ID", -1);
-                    if (entryID != -1) {
-                        new ManagingJournalEntries().saveJournalEntryMedia(EditingJournalText.this, entryID, entryMediaArray);
-                    }
+                entryMedia.remove(image);
+
+                //Saves the changes after removing to ensure data consistency for the
+                //journal entry in the future. Removing several media in a row is
+                //merged by the batcher into a single write. Should the entry still be
+                //loading, the media list only holds the media attached meanwhile, which
+                //are saved along with the media of the entry once loaded instead.
+                int entryID = getIntent().getIntExtra("ENTRY_ID", -1);
+                if (entryID != -1 && entryLoaded) {
+                    journalWriteBatcher.saveJournalEntryMedia(entryID, entryMedia);
                 }
                 Toast.makeText(EditingJournalText.this, "Image removed", Toast.LENGTH_SHORT).show();
             }
@@ -314,108 +376,123 @@ public class EditingJournalText extends AppCompatActivity {
 
         contentLayout.addView(mediaContainer);
 
+        //Once the placeholder is near the visible part of the page, the image is decoded into
+        //it. Once it is far away again, the image is released so that its bitmap can be freed.
+        mediaViewportBinder.add(mediaContainer, new MediaViewportBinder.MediaItem() {
+            @Override
+            public void bind() {
+                ThumbnailLoader.getInstance(EditingJournalText.this).load(imageView, image.getUri(), getResources().getDisplayMetrics().widthPixels, imageHeight);
+            }
+
+            @Override
+            public void release() {
+                ThumbnailLoader.getInstance(EditingJournalText.this).cancel(imageView);
+            }
+        });
     }
 
-    //This method adds a VideoView to the layout of the journal editing page
-    //and includes a remove button to delete the video from the layout and
-    //the associated media array. It sets up the VideoView with media controls
-    //and ensures proper layout and functionality.
-    private void addVideoToLayout(Uri videoUri, JSONArray mediaArray) {
+    //This method adds a video to the layout of the journal editing page as its poster
+    //with a play button, and includes a remove button to delete the video from the layout
+    //and the associated media list. The video is played by the shared player with media
+    //controls once the play button is tapped.
+    private void addVideoToLayout(MediaAttachment video) {
 
-        //Creates layouts to hold the VideoView and remove button. The
+        //Creates layouts to hold the poster of the video and remove button. The
         //contentLayout is the main layout where all content is added, while
-        //the mediaContainer holds the VideoView and its associated remove button.
+        //the mediaContainer holds the poster, play button and remove button.
         LinearLayout contentLayout = findViewById(R.id.contentLayout);
         final FrameLayout mediaContainer = new FrameLayout(EditingJournalText.this);
 
-        //Sets layout parameters for the media container to ensure proper spacing and alignment
-        LinearLayout.LayoutParams containerParams = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, LinearLayout.LayoutParams.WRAP_CONTENT);
+        //Sets layout parameters for the media container to ensure proper spacing and alignment.
+        //The container has the height of the video, acting as its placeholder until the poster
+        //of the video is loaded.
+        final int videoHeight = getPlaceholderHeight(video, VIDEO_HEIGHT);
+        LinearLayout.LayoutParams containerParams = new LinearLayout.LayoutParams(LinearLayout.LayoutParams.MATCH_PARENT, videoHeight);
         containerParams.bottomMargin = 16;
         mediaContainer.setLayoutParams(containerParams);
         mediaContainer.setForegroundGravity(android.view.Gravity.CENTER);
-
-        //Creates a VideoView and manages the display of the selected video by
-        //setting its URI and adjusting its bounds. The bounds are handled via
-        //layout parameters to ensure the video is displayed correctly within the layout.
-        VideoView videoView = new VideoView(EditingJournalText.this);
-        videoView.setVideoURI(videoUri);
-
-        FrameLayout.LayoutParams videoLayoutParams = new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, 650);
-        videoView.setLayoutParams(videoLayoutParams);
-
-        //This adds media controls such as play and pause to the VideoView.
-        MediaController mediaController = new MediaController(EditingJournalText.this);
-        mediaController.setAnchorView(videoView);
-        videoView.setMediaController(mediaController);
+        mediaContainer.setBackgroundColor(PLACEHOLDER_COLOR);
+
+        //Creates an ImageView showing a single frame of the video (its poster) rather than a
+        //VideoView, which would prepare a player (and with it, a video decoder) for every video.
+        final ImageView posterView = new ImageView(EditingJournalText.this);
+        posterView.setScaleType(ImageView.ScaleType.FIT_CENTER);
+        posterView.setLayoutParams(new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+
+        //Creates a play button in the centre of the poster. Only once it is tapped is the video
+        //played, using the single player shared by every video of the entry.
+        final ImageView playButton = new ImageView(EditingJournalText.this);
+        playButton.setImageResource(android.R.drawable.ic_media_play);
+        playButton.setScaleType(ImageView.ScaleType.FIT_CENTER);
+        FrameLayout.LayoutParams playParams = new FrameLayout.LayoutParams(PLAY_BUTTON_SIZE, PLAY_BUTTON_SIZE);
+        playParams.gravity = android.view.Gravity.CENTER;
+        playButton.setLayoutParams(playParams);
+        playButton.setOnClickListener(new View.OnClickListener() {
+            @Override
+            public void onClick(View v) {
+                sharedVideoPlayer.play(mediaContainer, playButton, Uri.parse(video.getUri()));
+            }
+        });
 
         //Creates a TextView that acts as a remove button ("X") for the video.
         //When clicked, it removes the video from the content layout and
-        //also removes the corresponding URI from the mediaArray to keep the data consistent.
+        //also removes the corresponding attachment from the media list to keep the data consistent.
         TextView removeButton = new TextView(EditingJournalText.this);
         removeButton.setText("X");
         removeButton.setTextColor(Color.parseColor("#FF6280"));
         removeButton.setTextSize(20);
 
-        //Positions the remove button at the top-right corner of the VideoView,
+        //Positions the remove button at the top-right corner of the video,
         //making it easily accessible for users.
         FrameLayout.LayoutParams removeParams = new FrameLayout.LayoutParams(FrameLayout.LayoutParams.WRAP_CONTENT, FrameLayout.LayoutParams.WRAP_CONTENT);
         removeParams.gravity = android.view.Gravity.TOP | android.view.Gravity.END;
         removeButton.setLayoutParams(removeParams);
 
-        //Stores the final URI string to be used in the click listener.
-        //This variable is final due to its use in the inner class below.
-        final String finalVideoUri = videoUri.toString();
-
         removeButton.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
 
                 //Removes the video container from the content layout
-                //and the video URI from the media array. This is done to
+                //and the video attachment from the media list. This is done to
                 //ensure that the UI and data remain in sync.
+                mediaViewportBinder.remove(mediaContainer);
                 contentLayout.removeView(mediaContainer);
-                if (mediaArray != null) {
-                    for (int i = 0; i < mediaArray.length(); i++) {
-                        if (mediaArray.optString(i).equals(finalVideoUri)) {
-                            mediaArray.remove(i);
-                            break;
-                        }
-                    }
-
-                    //Saves the changes immediately after removing to ensure
-                    //data consistency for the journal entry in the future
-                    int entryID = getIntent().getIntExtra("ENTRY_ID", -1);
-                    if (entryID != -1) {
-                        new ManagingJournalEntries().saveJournalEntryMedia(EditingJournalText.this, entryID, entryMediaArray);
-                    }
+                entryMedia.remove(video);
+
+                //Saves the changes after removing to ensure data consistency for the
+                //journal entry in the future. Removing several media in a row is
+                //merged by the batcher into a single write. Should the entry still be
+                //loading, the media list only holds the media attached meanwhile, which
+                //are saved along with the media of the entry once loaded instead.
+                int entryID = getIntent().getIntExtra("ENTRY_ID", -1);
+                if (entryID != -1 && entryLoaded) {
+                    journalWriteBatcher.saveJournalEntryMedia(entryID, entryMedia);
                 }
                 Toast.makeText(EditingJournalText.this, "Video removed", Toast.LENGTH_SHORT).show();
             }
         });
 
-        //Adds the video information view and remove button to a horizontal linear layout
-        mediaContainer.addView(videoView);
+        //Adds the poster, play button and remove button to the placeholder of the video.
+        mediaContainer.addView(posterView);
+        mediaContainer.addView(playButton);
         mediaContainer.addView(removeButton);
 
         contentLayout.addView(mediaContainer);
 
-        //Ensures that the media container is properly laid out and displayed
-        mediaContainer.post(new Runnable() {
+        //The poster is only extracted once the placeholder is near the visible part of the
+        //page, and is released again once it is far away, along with the player should the
+        //video be playing.
+        mediaViewportBinder.add(mediaContainer, new MediaViewportBinder.MediaItem() {
             @Override
-            public void run() {
-                mediaContainer.requestLayout();
-                mediaContainer.invalidate();
+            public void bind() {
+                ThumbnailLoader.getInstance(EditingJournalText.this).loadVideoPoster(posterView, video.getUri(), getResources().getDisplayMetrics().widthPixels, videoHeight);
             }
-        });
 
-        //This prevents the video from auto-playing when added to the layout
-        videoView.setOnPreparedListener(new MediaPlayer.OnPreparedListener() {
             @Override
-            public void onPrepared(MediaPlayer mp) {
-                videoView.pause();
+            public void release() {
+                ThumbnailLoader.getInstance(EditingJournalText.this).cancel(posterView);
+                sharedVideoPlayer.stopIfPlayingIn(mediaContainer);
             }
         });
-
-        videoView.requestFocus();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,415 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+public class JournalBinaryFormat implements JournalSnapshotFormat {
+
+    //A compact binary layout of the journal, holding the same fields as journal_entries.json
+    //(see JournalJsonFormat) without any of its names, quotes and indentation. The file starts with
+    //a header (a magic number, the version of the layout and the number of entries), followed by one
+    //record per entry. Every record starts with its length, meaning an entry can be read from the
+    //position saved within the JournalIdIndex, and a damaged record is noticed rather than read
+    //into the following entry. A record holds, in this order:
+    //  the ID (4 bytes) and a byte of flags (see below),
+    //  the date and time of creation and of the last edit,
+    //  the name, preview and thumbnail of the entry, as well as its text (should it still be held),
+    //  the number of media attachments, followed by every attachment (see MediaAttachment.writeTo()).
+    //Strings are stored as UTF-8, preceded by their length in bytes. Lengths, counts and the sizes
+    //of media are stored as variable-length integers (7 bits per byte), as they are almost always small.
+    //
+    //Dates and times are stored as milliseconds since 1970-01-01T00:00 (8 bytes) rather than being
+    //parsed from a string every time the journal is read, along with the nanoseconds within the
+    //millisecond should there be any (e.g., on devices whose clock is more precise). A date and time
+    //is only stored as milliseconds should converting it back give exactly the same string, which
+    //is the case for everything written by the app itself (ISO-8601, e.g., 2025-01-01T08:00:00.123).
+    //Anything else (e.g., an empty string) is stored as a string, meaning nothing is ever lost.
+    static final int MAGIC = 0x444a4253;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 4 + 4 + 4;
+
+    static final int PINNED = 1;
+    static final int HAS_TEXT = 1 << 1;
+    static final int CREATED_AS_STRING = 1 << 2;
+    static final int LAST_EDITED_AS_STRING = 1 << 3;
+    static final int CREATED_HAS_NANOS = 1 << 4;
+    static final int LAST_EDITED_HAS_NANOS = 1 << 5;
+
+    //Flags of a single media attachment.
+    static final int MEDIA_RESOLVED = 1;
+
+    @Override
+    public byte[] write(Collection<JournalEntry> entries, int[] entryIDs, long[] positions) throws IOException {
+        RecordWriter content = new RecordWriter();
+        content.writeInt(MAGIC);
+        content.writeInt(FORMAT_VERSION);
+        content.writeInt(entries.size());
+
+        RecordWriter record = new RecordWriter();
+        int i = 0;
+        for (JournalEntry entry : entries) {
+            record.reset();
+            entry.writeTo(record);
+            entryIDs[i] = entry.getID();
+            positions[i] = content.size();
+            content.writeVarInt(record.size());
+            record.writeTo(content);
+            i++;
+        }
+        return content.toByteArray();
+    }
+
+    //An empty file counts as a journal without any entries, as with the JSON file.
+    @Override
+    public EntryReader openEntries(InputStream inputStream) throws IOException {
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream));
+        final int entryCount;
+        try {
+            int magic = input.read();
+            if (magic == -1) {
+                entryCount = 0;
+            } else {
+                if (((magic << 24) | (input.readUnsignedByte() << 16) | input.readUnsignedShort()) != MAGIC) {
+                    throw new IOException("Not a binary journal");
+                }
+                int version = input.readInt();
+                if (version != FORMAT_VERSION) {
+                    throw new IOException("Unsupported version " + version + " of the binary journal");
+                }
+                entryCount = input.readInt();
+            }
+        } catch (IOException e) {
+            input.close();
+            throw e;
+        }
+
+        final RecordReader record = new RecordReader();
+        return new EntryReader() {
+            private int entriesRead = 0;
+
+            @Override
+            public JournalEntry next(int textLength) throws IOException {
+                if (entriesRead == entryCount) {
+                    if (input.read() != -1) {
+                        throw new IOException("Unexpected data after the last entry");
+                    }
+                    return null;
+                }
+                entriesRead++;
+                record.readRecord(input);
+                return JournalEntry.readFrom(record, textLength);
+            }
+
+            @Override
+            public void close() throws IOException {
+                input.close();
+            }
+        };
+    }
+
+    @Override
+    public JournalEntry readEntry(InputStream inputStream, int textLength) throws IOException {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(inputStream))) {
+            RecordReader record = new RecordReader();
+            record.readRecord(input);
+            return JournalEntry.readFrom(record, textLength);
+        }
+    }
+
+    //Writes the values of a record into memory. This is a ByteArrayOutputStream so that a record
+    //can be measured (and its length written) before it is added to the file.
+    static class RecordWriter extends ByteArrayOutputStream {
+
+        void writeByte(int value) {
+            write(value);
+        }
+
+        //Replaces a byte that was already written, e.g., the flags of a record, which are only
+        //known once the rest of the record has been written.
+        void setByte(int position, int value) {
+            buf[position] = (byte) value;
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+
+        void writeLong(long value) {
+            writeInt((int) (value >>> 32));
+            writeInt((int) value);
+        }
+
+        //Writes a non-negative number 7 bits at a time, setting the highest bit
+        //of every byte except the last one.
+        void writeVarLong(long value) {
+            while ((value & ~0x7fL) != 0) {
+                write((int) ((value & 0x7f) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeVarInt(int value) {
+            writeVarLong(value & 0xffffffffL);
+        }
+
+        //Numbers that may be negative (e.g., MediaAttachment.UNKNOWN_SIZE) are moved into the
+        //positive range first (0, -1, 1, -2, ... become 0, 1, 2, 3, ...), so that they stay short.
+        void writeSignedVarLong(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        //A missing string (null) is written as an empty one.
+        void writeString(String value) {
+            byte[] bytes = value == null ? new byte[0] : value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+    }
+
+    //Reads the values of a single record, which is read into memory as a whole first. This means
+    //every value is read from an array rather than from the stream, and a record that ends too
+    //early (or too late) is noticed.
+    static class RecordReader {
+        private byte[] buffer = new byte[256];
+        private int position;
+        private int limit;
+
+        void readRecord(DataInputStream input) throws IOException {
+            long length = readVarLong(input);
+            if (length > Integer.MAX_VALUE - 8) {
+                throw new IOException("Record too large");
+            }
+            if (buffer.length < length) {
+                buffer = new byte[Math.max((int) length, buffer.length * 2)];
+            }
+            input.readFully(buffer, 0, (int) length);
+            position = 0;
+            limit = (int) length;
+        }
+
+        void endRecord() throws IOException {
+            if (position != limit) {
+                throw new IOException("Unexpected data at the end of the record");
+            }
+        }
+
+        int readByte() throws IOException {
+            require(1);
+            return buffer[position++] & 0xff;
+        }
+
+        int readInt() throws IOException {
+            require(4);
+            int value = ((buffer[position] & 0xff) << 24) | ((buffer[position + 1] & 0xff) << 16)
+                    | ((buffer[position + 2] & 0xff) << 8) | (buffer[position + 3] & 0xff);
+            position += 4;
+            return value;
+        }
+
+        long readLong() throws IOException {
+            return ((long) readInt() << 32) | (readInt() & 0xffffffffL);
+        }
+
+        long readVarLong() throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed number");
+        }
+
+        int readVarInt() throws IOException {
+            long value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IOException("Malformed number");
+            }
+            return (int) value;
+        }
+
+        long readSignedVarLong() throws IOException {
+            long value = readVarLong();
+            return (value >>> 1) ^ -(value & 1);
+        }
+
+        String readString() throws IOException {
+            int length = readVarInt();
+            require(length);
+            String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        //Returns at most maxLength characters of the next string. Since a character takes up at
+        //most three bytes in UTF-8 (or four for a pair of surrogates, i.e., two characters), only
+        //the first 3 * maxLength bytes (plus those of a character cut off at the end) are decoded.
+        String readString(int maxLength) throws IOException {
+            if (maxLength == Integer.MAX_VALUE) {
+                return readString();
+            }
+            int length = readVarInt();
+            require(length);
+            String value = new String(buffer, position, (int) Math.min(length, 3L * maxLength + 4), StandardCharsets.UTF_8);
+            position += length;
+            if (value.length() <= maxLength) {
+                return value;
+            }
+            //A character made of two chars (e.g., an emoji) is never cut in half.
+            int keptLength = maxLength;
+            if (keptLength > 0 && Character.isHighSurrogate(value.charAt(keptLength - 1))) {
+                keptLength--;
+            }
+            return value.substring(0, keptLength);
+        }
+
+        private void require(int length) throws IOException {
+            if (length < 0 || limit - position < length) {
+                throw new EOFException("Unexpected end of the record");
+            }
+        }
+
+        private static long readVarLong(DataInputStream input) throws IOException {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = input.readUnsignedByte();
+                value |= (long) (b & 0x7f) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IOException("Malformed record length");
+        }
+    }
+
+    //Writes a date and time as milliseconds should it convert back to exactly the same string,
+    //otherwise as the string itself. Returns the flags describing how it was written.
+    static int writeDateAndTime(RecordWriter record, String dateAndTime, int asStringFlag, int hasNanosFlag) {
+        LocalDateTime parsed = parseDateAndTime(dateAndTime);
+        if (parsed == null) {
+            record.writeString(dateAndTime);
+            return asStringFlag;
+        }
+        int nanos = parsed.getNano();
+        record.writeLong(parsed.toEpochSecond(ZoneOffset.UTC) * 1000 + nanos / 1_000_000);
+        if (nanos % 1_000_000 != 0) {
+            record.writeVarInt(nanos % 1_000_000);
+            return hasNanosFlag;
+        }
+        return 0;
+    }
+
+    static String readDateAndTime(RecordReader record, int flags, int asStringFlag, int hasNanosFlag) throws IOException {
+        if ((flags & asStringFlag) != 0) {
+            return record.readString();
+        }
+        long millis = record.readLong();
+        int nanos = (flags & hasNanosFlag) != 0 ? record.readVarInt() : 0;
+        if (nanos >= 1_000_000) {
+            throw new IOException("Malformed date and time");
+        }
+        try {
+            return formatDateAndTime(LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000),
+                    (int) Math.floorMod(millis, 1000) * 1_000_000 + nanos, ZoneOffset.UTC));
+        } catch (DateTimeException e) {
+            throw new IOException(e);
+        }
+    }
+
+    //Parses a date and time in the layout written by DateTimeFormatter.ISO_LOCAL_DATE_TIME, i.e.,
+    //yyyy-MM-ddTHH:mm:ss followed by the fraction of the second without trailing zeros (should it
+    //not be zero). Returns null for anything else, including values that would be formatted
+    //differently (e.g., 2025-01-01T08:00 or 2025-01-01T08:00:00.100), so that these are kept as
+    //they are. This is done by hand, as every date and time is checked whenever the file is written.
+    static LocalDateTime parseDateAndTime(String value) {
+        if (value == null) {
+            return null;
+        }
+        int length = value.length();
+        if (length != 19 && (length < 21 || length > 29)) {
+            return null;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            char expected = i == 4 || i == 7 ? '-' : i == 10 ? 'T' : i == 13 || i == 16 ? ':' : i == 19 ? '.' : '0';
+            if (expected == '0' ? (c < '0' || c > '9') : c != expected) {
+                return null;
+            }
+        }
+        int nanos = 0;
+        if (length > 19) {
+            if (value.charAt(length - 1) == '0') {
+                return null;
+            }
+            for (int i = 20; i < 29; i++) {
+                nanos = nanos * 10 + (i < length ? value.charAt(i) - '0' : 0);
+            }
+        }
+        try {
+            return LocalDateTime.of(digits(value, 0, 4), digits(value, 5, 2), digits(value, 8, 2),
+                    digits(value, 11, 2), digits(value, 14, 2), digits(value, 17, 2), nanos);
+        } catch (DateTimeException e) {
+            return null;
+        }
+    }
+
+    //Formats a date and time exactly as DateTimeFormatter.ISO_LOCAL_DATE_TIME does, for the years
+    //0 to 9999 stored by writeDateAndTime().
+    static String formatDateAndTime(LocalDateTime dateAndTime) throws IOException {
+        if (dateAndTime.getYear() < 0 || dateAndTime.getYear() > 9999) {
+            throw new IOException("Malformed date and time");
+        }
+        char[] characters = new char[29];
+        put(characters, 0, dateAndTime.getYear(), 4);
+        characters[4] = '-';
+        put(characters, 5, dateAndTime.getMonthValue(), 2);
+        characters[7] = '-';
+        put(characters, 8, dateAndTime.getDayOfMonth(), 2);
+        characters[10] = 'T';
+        put(characters, 11, dateAndTime.getHour(), 2);
+        characters[13] = ':';
+        put(characters, 14, dateAndTime.getMinute(), 2);
+        characters[16] = ':';
+        put(characters, 17, dateAndTime.getSecond(), 2);
+        int length = 19;
+        if (dateAndTime.getNano() != 0) {
+            characters[19] = '.';
+            put(characters, 20, dateAndTime.getNano(), 9);
+            length = 29;
+            while (characters[length - 1] == '0') {
+                length--;
+            }
+        }
+        return new String(characters, 0, length);
+    }
+
+    private static int digits(String value, int start, int count) {
+        int number = 0;
+        for (int i = start; i < start + count; i++) {
+            number = number * 10 + (value.charAt(i) - '0');
+        }
+        return number;
+    }
+
+    private static void put(char[] characters, int start, int number, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            characters[i] = (char) ('0' + number % 10);
+            number /= 10;
+        }
+    }
+}
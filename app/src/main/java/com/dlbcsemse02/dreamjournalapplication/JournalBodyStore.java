@@ -0,0 +1,99 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+public class JournalBodyStore {
+
+    //The text of every journal entry (its body) is stored within its own file, named after the
+    //ID of the entry, within a directory next to the JSON file (e.g., journal_entries.json.bodies).
+    //The JSON file itself only holds a preview of each text, meaning the home screen never has
+    //to read (or hold in memory) the full text of any entry. A body is only read once its
+    //entry is opened. Entries without any text have no file. Bodies are only written along
+    //with the JSON file itself (see JournalRepository), while changes made in between are
+    //held within the write-ahead log.
+    private final File directory;
+
+    public JournalBodyStore(File journalFile) {
+        this.directory = new File(journalFile.getParentFile(), journalFile.getName() + ".bodies");
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    //Returns the text of the entry with the given ID, or an empty string should it have none.
+    public String read(int ID) throws IOException {
+        File bodyFile = getFile(ID);
+        if (!bodyFile.exists()) {
+            return "";
+        }
+        byte[] body = Files.readAllBytes(bodyFile.toPath());
+        JournalMetrics.getInstance().increment(JournalMetrics.BYTES_READ, body.length);
+        return new String(body, StandardCharsets.UTF_8);
+    }
+
+    //Stores the texts of several entries at once. As with the JSON file, every text is first
+    //written to a temporary file and synced to disk, before being renamed over the previous body,
+    //meaning that a body always holds either the old or the new text. All temporary files are
+    //written before any of them is synced, allowing the file system to write them to disk
+    //together rather than one at a time. Entries whose text is empty have their body deleted.
+    public void write(Map<Integer, String> texts) throws IOException {
+        if (!directory.exists() && !directory.mkdirs()) {
+            throw new IOException("Could not create " + directory.getName());
+        }
+
+        long start = System.nanoTime();
+        long bytesWritten = 0;
+        List<Integer> writtenIDs = new ArrayList<>();
+        for (Map.Entry<Integer, String> text : texts.entrySet()) {
+            if (text.getValue() != null && !text.getValue().isEmpty()) {
+                byte[] body = text.getValue().getBytes(StandardCharsets.UTF_8);
+                Files.write(getTemporaryFile(text.getKey()).toPath(), body);
+                writtenIDs.add(text.getKey());
+                bytesWritten += body.length;
+            }
+        }
+        for (int ID : writtenIDs) {
+            try (RandomAccessFile temporaryFile = new RandomAccessFile(getTemporaryFile(ID), "rw")) {
+                temporaryFile.getChannel().force(true);
+            }
+        }
+
+        for (Map.Entry<Integer, String> text : texts.entrySet()) {
+            if (text.getValue() != null && !text.getValue().isEmpty()) {
+                Files.move(getTemporaryFile(text.getKey()).toPath(), getFile(text.getKey()).toPath(),
+                        StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                delete(text.getKey());
+            }
+        }
+        JournalSnapshotWriter.syncDirectory(directory);
+        JournalMetrics.getInstance().recordSince(JournalMetrics.WRITE_BODIES, start);
+        JournalMetrics.getInstance().increment(JournalMetrics.BYTES_WRITTEN, bytesWritten);
+    }
+
+    public void delete(int ID) throws IOException {
+        Files.deleteIfExists(getFile(ID).toPath());
+    }
+
+    //Returns the size of the text of the entry with the given ID in bytes.
+    public long getSizeInBytes(int ID) {
+        return getFile(ID).length();
+    }
+
+    private File getTemporaryFile(int ID) {
+        return new File(directory, ID + ".tmp");
+    }
+
+    private File getFile(int ID) {
+        return new File(directory, ID + ".txt");
+    }
+}
@@ -0,0 +1,44 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class JournalChangeNotifier {
+
+    //Listeners are informed about every journal entry that was created, changed or deleted,
+    //allowing screens (e.g., the MainActivity) to update only what actually changed
+    //instead of reloading every journal entry.
+    public interface OnJournalChangedListener {
+
+        //Called once an entry was created, changed or deleted. Looking up the entry
+        //afterwards returns null should the entry have been deleted.
+        void onJournalEntryChanged(int entryID);
+
+        //Called when the whole journal was loaded again from disk, e.g., because the
+        //JSON file was changed by something else. Every entry may have changed.
+        void onJournalReloaded();
+    }
+
+    //A CopyOnWriteArrayList is used since listeners are added and removed on the
+    //main thread, while changes may be reported from any thread.
+    private final CopyOnWriteArrayList<OnJournalChangedListener> listeners = new CopyOnWriteArrayList<>();
+
+    public void addListener(OnJournalChangedListener listener) {
+        listeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(OnJournalChangedListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void notifyEntryChanged(int entryID) {
+        for (OnJournalChangedListener listener : listeners) {
+            listener.onJournalEntryChanged(entryID);
+        }
+    }
+
+    public void notifyReloaded() {
+        for (OnJournalChangedListener listener : listeners) {
+            listener.onJournalReloaded();
+        }
+    }
+}
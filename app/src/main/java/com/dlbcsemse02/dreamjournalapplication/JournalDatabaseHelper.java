@@ -0,0 +1,53 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.Context;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+
+public class JournalDatabaseHelper extends SQLiteOpenHelper {
+
+    static final int DATABASE_VERSION = 2;
+    static final String TABLE_ENTRIES = "journal_entries";
+
+    public JournalDatabaseHelper(Context context, String databaseName) {
+        super(context, databaseName, null, DATABASE_VERSION);
+    }
+
+    //Creates the table holding the journal entries. The columns use the same names as the
+    //keys within journal_entries.json. Since ID is the INTEGER PRIMARY KEY (i.e., the rowid),
+    //it is indexed by definition. It is declared AUTOINCREMENT so that the ID of a deleted entry
+    //is never given to a new entry (as within the JSON file, see JournalIdIndex), even if it was
+    //the highest ID, since other things (e.g., the search index) may still refer to it. Separate
+    //indexes are created for Pinned and LastEdited so that the home screen ordering and
+    //"recently edited" lookups do not scan the table.
+    //AllMediaInText holds the media attachments as a JSON array of objects (see MediaAttachment).
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ENTRIES + " ("
+                + "ID INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "EntryName TEXT NOT NULL, "
+                + "EntryText TEXT NOT NULL DEFAULT '', "
+                + "ImageThumbnail TEXT NOT NULL DEFAULT '', "
+                + "DateAndTimeCreated TEXT NOT NULL, "
+                + "LastEdited TEXT NOT NULL, "
+                + "AllMediaInText TEXT NOT NULL DEFAULT '[]', "
+                + "Pinned INTEGER NOT NULL DEFAULT 0)");
+        db.execSQL("CREATE INDEX index_journal_entries_pinned ON " + TABLE_ENTRIES + " (Pinned)");
+        db.execSQL("CREATE INDEX index_journal_entries_last_edited ON " + TABLE_ENTRIES + " (LastEdited)");
+    }
+
+    //The first version of the table did not declare ID as AUTOINCREMENT, which cannot be added
+    //to an existing table. The table is therefore created again and the entries copied into it,
+    //which also starts the sequence of IDs at the highest existing ID.
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            db.execSQL("ALTER TABLE " + TABLE_ENTRIES + " RENAME TO " + TABLE_ENTRIES + "_version_1");
+            db.execSQL("DROP INDEX IF EXISTS index_journal_entries_pinned");
+            db.execSQL("DROP INDEX IF EXISTS index_journal_entries_last_edited");
+            onCreate(db);
+            db.execSQL("INSERT INTO " + TABLE_ENTRIES + " SELECT * FROM " + TABLE_ENTRIES + "_version_1");
+            db.execSQL("DROP TABLE " + TABLE_ENTRIES + "_version_1");
+        }
+    }
+}
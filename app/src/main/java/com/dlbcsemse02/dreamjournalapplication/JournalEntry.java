@@ -0,0 +1,319 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class JournalEntry {
+
+    //The number of characters of the text kept by a summary of the entry. This is more
+    //than the four lines of text shown on a card of the home screen.
+    public static final int PREVIEW_LENGTH = 300;
+
+    //These fields mirror the keys that every journal entry has within
+    //journal_entries.json. They are kept in memory by the JournalRepository
+    //so that the JSON file does not need to be parsed for every lookup.
+    //The text of an entry (its body) is stored separately from the rest of the
+    //entry (see JournalBodyStore), while the JSON file only holds a preview of it.
+    //A summary of an entry therefore has no text (null), only its preview.
+    private int ID;
+    private String entryName;
+    private String entryText;
+    private String entryPreview;
+    private String imageThumbnail;
+    private String dateAndTimeCreated;
+    private String lastEdited;
+    private List<MediaAttachment> allMediaInText;
+    private boolean pinned;
+
+    public JournalEntry(int ID, String entryName) {
+        this.ID = ID;
+        this.entryName = entryName;
+        this.entryText = "";
+        this.entryPreview = "";
+        this.imageThumbnail = "";
+        this.dateAndTimeCreated = "";
+        this.lastEdited = "";
+        this.allMediaInText = new ArrayList<>();
+        this.pinned = false;
+    }
+
+    //Copy constructor used by the repository so that callers never
+    //receive (and accidentally modify) the instance held in memory.
+    public JournalEntry(JournalEntry other) {
+        this.ID = other.ID;
+        this.entryName = other.entryName;
+        this.entryText = other.entryText;
+        this.entryPreview = other.entryPreview;
+        this.imageThumbnail = other.imageThumbnail;
+        this.dateAndTimeCreated = other.dateAndTimeCreated;
+        this.lastEdited = other.lastEdited;
+        this.allMediaInText = new ArrayList<>(other.allMediaInText);
+        this.pinned = other.pinned;
+    }
+
+    public int getID() {
+        return ID;
+    }
+
+    public String getEntryName() {
+        return entryName;
+    }
+
+    public void setEntryName(String entryName) {
+        this.entryName = entryName;
+    }
+
+    public String getEntryText() {
+        return entryText;
+    }
+
+    //Setting the text also updates its preview.
+    public void setEntryText(String entryText) {
+        this.entryText = entryText;
+        this.entryPreview = preview(entryText);
+    }
+
+    public String getEntryPreview() {
+        return entryPreview;
+    }
+
+    public String getImageThumbnail() {
+        return imageThumbnail;
+    }
+
+    public void setImageThumbnail(String imageThumbnail) {
+        this.imageThumbnail = imageThumbnail;
+    }
+
+    public String getDateAndTimeCreated() {
+        return dateAndTimeCreated;
+    }
+
+    public void setDateAndTimeCreated(String dateAndTimeCreated) {
+        this.dateAndTimeCreated = dateAndTimeCreated;
+    }
+
+    public String getLastEdited() {
+        return lastEdited;
+    }
+
+    public void setLastEdited(String lastEdited) {
+        this.lastEdited = lastEdited;
+    }
+
+    public List<MediaAttachment> getAllMediaInText() {
+        return allMediaInText;
+    }
+
+    public void setAllMediaInText(List<MediaAttachment> allMediaInText) {
+        this.allMediaInText = new ArrayList<>(allMediaInText);
+    }
+
+    public boolean isPinned() {
+        return pinned;
+    }
+
+    public void setPinned(boolean pinned) {
+        this.pinned = pinned;
+    }
+
+    //This method converts the whole journal entry, including its text, into a JSONObject.
+    //The keys are added in the same order as they have always been written within
+    //journal_entries.json so that the entry stays readable.
+    public JSONObject toJSON() throws JSONException {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("ID", ID);
+        jsonObject.put("EntryName", entryName);
+        jsonObject.put("EntryText", entryText);
+        jsonObject.put("ImageThumbnail", imageThumbnail);
+        jsonObject.put("DateAndTimeCreated", dateAndTimeCreated);
+        jsonObject.put("LastEdited", lastEdited);
+        jsonObject.put("AllMediaInText", MediaAttachment.toJSONArray(allMediaInText));
+        jsonObject.put("Pinned", pinned);
+        return jsonObject;
+    }
+
+    //This method converts the journal entry into the layout stored within journal_entries.json,
+    //which holds a preview of the text (EntryPreview) in place of the text itself.
+    public JSONObject toSummaryJSON() throws JSONException {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("ID", ID);
+        jsonObject.put("EntryName", entryName);
+        jsonObject.put("EntryPreview", entryPreview);
+        jsonObject.put("ImageThumbnail", imageThumbnail);
+        jsonObject.put("DateAndTimeCreated", dateAndTimeCreated);
+        jsonObject.put("LastEdited", lastEdited);
+        jsonObject.put("AllMediaInText", MediaAttachment.toJSONArray(allMediaInText));
+        jsonObject.put("Pinned", pinned);
+        return jsonObject;
+    }
+
+    //This method creates a journal entry from a JSONObject read from
+    //journal_entries.json. Missing values fall back to the same defaults
+    //that the activities previously used when reading the file directly.
+    //Entries written before the text was stored separately still hold
+    //their full text, while all others only hold a preview of it.
+    public static JournalEntry fromJSON(JSONObject jsonObject) throws JSONException {
+        JournalEntry entry = new JournalEntry(jsonObject.getInt("ID"), jsonObject.optString("EntryName", "New Journal Title"));
+        entry.entryText = jsonObject.has("EntryText") ? jsonObject.optString("EntryText", "") : null;
+        entry.entryPreview = jsonObject.has("EntryPreview") ? jsonObject.optString("EntryPreview", "") : preview(entry.entryText);
+        entry.imageThumbnail = jsonObject.optString("ImageThumbnail", "");
+        entry.dateAndTimeCreated = jsonObject.optString("DateAndTimeCreated", "");
+        entry.lastEdited = jsonObject.optString("LastEdited", "");
+        entry.pinned = jsonObject.optBoolean("Pinned", false);
+
+        entry.allMediaInText = MediaAttachment.fromJSONArray(jsonObject.optJSONArray("AllMediaInText"));
+        return entry;
+    }
+
+    //This method reads a journal entry from the current position of a JournalJsonReader, using
+    //the same defaults as fromJSON(). Should the entry still hold its full text, at most textLength
+    //characters of it are kept, meaning a summary of the entry can be read without ever holding
+    //its whole text in memory.
+    public static JournalEntry readFrom(JournalJsonReader reader, int textLength) throws IOException {
+        JournalEntry entry = new JournalEntry(-1, "New Journal Title");
+        entry.entryText = null;
+        entry.entryPreview = null;
+        boolean hasID = false;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JournalJsonReader.Token.NULL) {
+                reader.skipValue();
+            } else if (name.equals("ID")) {
+                entry.ID = reader.nextInt();
+                hasID = true;
+            } else if (name.equals("EntryName")) {
+                entry.entryName = reader.nextString();
+            } else if (name.equals("EntryText")) {
+                entry.entryText = reader.nextString(textLength);
+            } else if (name.equals("EntryPreview")) {
+                entry.entryPreview = reader.nextString();
+            } else if (name.equals("ImageThumbnail")) {
+                entry.imageThumbnail = reader.nextString();
+            } else if (name.equals("DateAndTimeCreated")) {
+                entry.dateAndTimeCreated = reader.nextString();
+            } else if (name.equals("LastEdited")) {
+                entry.lastEdited = reader.nextString();
+            } else if (name.equals("Pinned")) {
+                entry.pinned = reader.nextBoolean();
+            } else if (name.equals("AllMediaInText")) {
+                reader.beginArray();
+                while (reader.hasNext()) {
+                    entry.allMediaInText.add(MediaAttachment.readFrom(reader));
+                }
+                reader.endArray();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!hasID) {
+            throw new IOException("Journal entry without an ID");
+        }
+        if (entry.entryPreview == null) {
+            entry.entryPreview = preview(entry.entryText);
+        }
+        return entry;
+    }
+
+    //This method writes the journal entry into a record of the binary journal (see
+    //JournalBinaryFormat), holding the same fields as toSummaryJSON(). Should the entry still hold
+    //its text, the text is written as well, as with the JSON file.
+    void writeTo(JournalBinaryFormat.RecordWriter record) {
+        int flagsPosition = record.size();
+        record.writeInt(ID);
+        record.writeByte(0);
+        int flags = (pinned ? JournalBinaryFormat.PINNED : 0) | (entryText != null ? JournalBinaryFormat.HAS_TEXT : 0);
+        flags |= JournalBinaryFormat.writeDateAndTime(record, dateAndTimeCreated,
+                JournalBinaryFormat.CREATED_AS_STRING, JournalBinaryFormat.CREATED_HAS_NANOS);
+        flags |= JournalBinaryFormat.writeDateAndTime(record, lastEdited,
+                JournalBinaryFormat.LAST_EDITED_AS_STRING, JournalBinaryFormat.LAST_EDITED_HAS_NANOS);
+        record.writeString(entryName);
+        record.writeString(entryPreview);
+        record.writeString(imageThumbnail);
+        if (entryText != null) {
+            record.writeString(entryText);
+        }
+        record.writeVarInt(allMediaInText.size());
+        for (MediaAttachment attachment : allMediaInText) {
+            attachment.writeTo(record);
+        }
+        record.setByte(flagsPosition + 4, flags);
+    }
+
+    //This method reads a journal entry from a record of the binary journal. As with reading from
+    //the JSON file, at most textLength characters are kept of a text still held within the record.
+    static JournalEntry readFrom(JournalBinaryFormat.RecordReader record, int textLength) throws IOException {
+        JournalEntry entry = new JournalEntry(record.readInt(), "");
+        int flags = record.readByte();
+        entry.pinned = (flags & JournalBinaryFormat.PINNED) != 0;
+        entry.dateAndTimeCreated = JournalBinaryFormat.readDateAndTime(record, flags,
+                JournalBinaryFormat.CREATED_AS_STRING, JournalBinaryFormat.CREATED_HAS_NANOS);
+        entry.lastEdited = JournalBinaryFormat.readDateAndTime(record, flags,
+                JournalBinaryFormat.LAST_EDITED_AS_STRING, JournalBinaryFormat.LAST_EDITED_HAS_NANOS);
+        entry.entryName = record.readString();
+        entry.entryPreview = record.readString();
+        entry.imageThumbnail = record.readString();
+        entry.entryText = (flags & JournalBinaryFormat.HAS_TEXT) != 0 ? record.readString(textLength) : null;
+        int mediaCount = record.readVarInt();
+        for (int i = 0; i < mediaCount; i++) {
+            entry.allMediaInText.add(MediaAttachment.readFrom(record));
+        }
+        record.endRecord();
+        return entry;
+    }
+
+    //Returns a copy of the journal entry holding only what the home screen shows,
+    //i.e., the preview of its text rather than the text itself.
+    public JournalEntry toSummary() {
+        JournalEntry summary = new JournalEntry(this);
+        summary.entryText = null;
+        return summary;
+    }
+
+    //Returns the first PREVIEW_LENGTH characters of the given text.
+    static String preview(String text) {
+        if (text == null) {
+            return "";
+        }
+        if (text.length() <= PREVIEW_LENGTH) {
+            return text;
+        }
+        int length = PREVIEW_LENGTH;
+        if (Character.isHighSurrogate(text.charAt(length - 1))) {
+            length--;
+        }
+        return text.substring(0, length);
+    }
+
+    //This method applies a set of changed fields (using the same keys as the JSON file)
+    //to the journal entry. Keys that are not present are left unchanged. It is used when
+    //replaying changes that were stored within the JournalWriteAheadLog.
+    public void applyFields(JSONObject fields) throws JSONException {
+        if (fields.has("EntryName")) {
+            entryName = fields.getString("EntryName");
+        }
+        if (fields.has("EntryText")) {
+            setEntryText(fields.getString("EntryText"));
+        }
+        if (fields.has("ImageThumbnail")) {
+            imageThumbnail = fields.getString("ImageThumbnail");
+        }
+        if (fields.has("LastEdited")) {
+            lastEdited = fields.getString("LastEdited");
+        }
+        if (fields.has("Pinned")) {
+            pinned = fields.getBoolean("Pinned");
+        }
+        if (fields.has("AllMediaInText")) {
+            allMediaInText = MediaAttachment.fromJSONArray(fields.getJSONArray("AllMediaInText"));
+        }
+    }
+}
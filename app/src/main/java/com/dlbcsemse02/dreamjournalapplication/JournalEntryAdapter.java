@@ -0,0 +1,179 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.Context;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.ImageView;
+import android.widget.TextView;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+import androidx.tracing.Trace;
+
+import java.util.Objects;
+
+public class JournalEntryAdapter extends ListAdapter<JournalEntry, JournalEntryAdapter.JournalEntryViewHolder> {
+
+    //The actions that can be performed on a journal entry card. These are handled
+    //by the MainActivity, since they open dialogs, menus and other activities.
+    public interface OnJournalEntryActionListener {
+        void onJournalEntryClicked(JournalEntry entry);
+
+        void onEditNameClicked(JournalEntry entry);
+
+        void onMenuClicked(JournalEntry entry, View anchor);
+    }
+
+    //DiffUtil compares the previous and new list of entries on a background thread,
+    //meaning that only the cards of entries that were actually added, removed, moved
+    //or changed are updated when a new list is submitted.
+    private static final DiffUtil.ItemCallback<JournalEntry> DIFF_CALLBACK = new DiffUtil.ItemCallback<JournalEntry>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull JournalEntry oldEntry, @NonNull JournalEntry newEntry) {
+            return oldEntry.getID() == newEntry.getID();
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull JournalEntry oldEntry, @NonNull JournalEntry newEntry) {
+            return Objects.equals(oldEntry.getEntryName(), newEntry.getEntryName())
+                    && Objects.equals(oldEntry.getEntryPreview(), newEntry.getEntryPreview())
+                    && Objects.equals(oldEntry.getImageThumbnail(), newEntry.getImageThumbnail())
+                    && oldEntry.isPinned() == newEntry.isPinned();
+        }
+    };
+
+    private final OnJournalEntryActionListener listener;
+
+    //Decodes the thumbnails of the cards at their displayed size on a background thread.
+    private final ThumbnailLoader thumbnailLoader;
+
+    public JournalEntryAdapter(Context context, OnJournalEntryActionListener listener) {
+        super(DIFF_CALLBACK);
+        this.listener = listener;
+        this.thumbnailLoader = ThumbnailLoader.getInstance(context);
+
+        //The ID of each journal entry is used as a stable ID, allowing the
+        //RecyclerView to keep track of cards when entries move (e.g., when pinned).
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return getItem(position).getID();
+    }
+
+    //Only enough views to fill the screen are ever inflated from journal_entry.xml.
+    //They are then reused for other entries as the user scrolls.
+    @NonNull
+    @Override
+    public JournalEntryViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        long start = System.nanoTime();
+        Trace.beginSection("JournalEntryAdapter.inflate");
+        try {
+            View journalEntry = LayoutInflater.from(parent.getContext()).inflate(R.layout.journal_entry, parent, false);
+            return new JournalEntryViewHolder(journalEntry);
+        } finally {
+            Trace.endSection();
+            StartupMetrics.getInstance().addPhaseDuration(StartupMetrics.INFLATE_CARDS, System.nanoTime() - start);
+        }
+    }
+
+    //Inflating and binding the cards are traced (and measured during the launch of the home
+    //screen, see StartupMetrics), as they run for every card shown on the first frame.
+    @Override
+    public void onBindViewHolder(@NonNull JournalEntryViewHolder holder, int position) {
+        long start = System.nanoTime();
+        Trace.beginSection("JournalEntryAdapter.bind");
+        try {
+            holder.bind(getItem(position));
+        } finally {
+            Trace.endSection();
+            StartupMetrics.getInstance().addPhaseDuration(StartupMetrics.BIND_CARDS, System.nanoTime() - start);
+        }
+    }
+
+    //When a card scrolls off screen, any thumbnail still being decoded for it is cancelled
+    //and its thumbnail is released, so that the card only holds the cached bitmap of the
+    //entries that are currently visible.
+    @Override
+    public void onViewRecycled(@NonNull JournalEntryViewHolder holder) {
+        thumbnailLoader.cancel(holder.imageThumbnail);
+    }
+
+    class JournalEntryViewHolder extends RecyclerView.ViewHolder {
+
+        private final TextView titleView;
+        private final TextView textView;
+        private final ImageView editIcon;
+        private final ImageView menuIcon;
+        private final ImageView imageThumbnail;
+
+        JournalEntryViewHolder(View journalEntry) {
+            super(journalEntry);
+            titleView = journalEntry.findViewById(R.id.entryTitle);
+            textView = journalEntry.findViewById(R.id.entryText);
+            editIcon = journalEntry.findViewById(R.id.editIcon);
+            menuIcon = journalEntry.findViewById(R.id.menuIcon);
+            imageThumbnail = journalEntry.findViewById(R.id.entryThumbnail);
+
+            //The click listeners are only set once per card. They look up the entry at
+            //the card's current position, since cards are reused for other entries.
+            journalEntry.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    JournalEntry currentEntry = getCurrentEntry();
+                    if (currentEntry != null) {
+                        listener.onJournalEntryClicked(currentEntry);
+                    }
+                }
+            });
+
+            editIcon.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    JournalEntry currentEntry = getCurrentEntry();
+                    if (currentEntry != null) {
+                        listener.onEditNameClicked(currentEntry);
+                    }
+                }
+            });
+
+            menuIcon.setOnClickListener(new View.OnClickListener() {
+                @Override
+                public void onClick(View v) {
+                    JournalEntry currentEntry = getCurrentEntry();
+                    if (currentEntry != null) {
+                        listener.onMenuClicked(currentEntry, v);
+                    }
+                }
+            });
+        }
+
+        //Fills the card with the values of the given journal entry.
+        void bind(JournalEntry entry) {
+            itemView.setTag(entry.getID());
+            titleView.setText(entry.getEntryName());
+            textView.setText(entry.getEntryPreview());
+
+            //If an image path exists for a journal entry, the image thumbnail
+            //is set to visible and the image is loaded in the background (see
+            //ThumbnailLoader). If no image path exists, the image thumbnail doesn't show.
+            String imagePath = entry.getImageThumbnail();
+            if (imagePath != null && !imagePath.isEmpty()) {
+                imageThumbnail.setVisibility(View.VISIBLE);
+                thumbnailLoader.load(imageThumbnail, imagePath);
+            } else {
+                imageThumbnail.setVisibility(View.GONE);
+                thumbnailLoader.cancel(imageThumbnail);
+            }
+        }
+
+        private JournalEntry getCurrentEntry() {
+            int position = getBindingAdapterPosition();
+            return position == RecyclerView.NO_POSITION ? null : getItem(position);
+        }
+    }
+}
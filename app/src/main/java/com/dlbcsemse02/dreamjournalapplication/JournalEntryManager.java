@@ -0,0 +1,215 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+public class JournalEntryManager {
+
+    //Performs every operation of ManagingJournalEntries on a given JournalStore, without needing a
+    //Context. ManagingJournalEntries only works out which store the app uses (i.e., the journal
+    //file within the files directory of the app), then hands every call to this class. This means
+    //that the journal can also be loaded, changed and compacted outside of the app, e.g., by the
+    //tests and benchmarks running on the JVM, simply by giving it a directory to store the journal in.
+    private final JournalStore store;
+
+    //Finds entries by the words within their name and text (see JournalSearchIndex).
+    private final JournalSearchIndex searchIndex;
+
+    //Keeps the entries sorted by when they were created and last edited (see JournalSortedIndex).
+    private final JournalSortedIndex sortedIndex;
+
+    //Every operation is timed, and its failures counted, within the JournalMetrics.
+    private final JournalMetrics metrics = JournalMetrics.getInstance();
+
+    public JournalEntryManager(JournalStore store, JournalSearchIndex searchIndex, JournalSortedIndex sortedIndex) {
+        this.store = store;
+        this.searchIndex = searchIndex;
+        this.sortedIndex = sortedIndex;
+    }
+
+    //Returns the manager of the journal file with the given name within the given directory,
+    //which is either rewritten after every change or changed via its write-ahead log. The
+    //database is not available here, as SQLite needs a Context (see ManagingJournalEntries).
+    public static JournalEntryManager open(File directory, String file_name, boolean useWriteAheadLog) {
+        return open(directory, file_name, useWriteAheadLog, JournalSnapshotFormat.JSON);
+    }
+
+    //The file is written in the given format, e.g., JournalSnapshotFormat.BINARY.
+    public static JournalEntryManager open(File directory, String file_name, boolean useWriteAheadLog, JournalSnapshotFormat format) {
+        File file = new File(directory, file_name);
+        return new JournalEntryManager(JournalRepository.getInstance(file, useWriteAheadLog, format), JournalSearchIndex.getInstance(file),
+                JournalSortedIndex.getInstance(file));
+    }
+
+    //Returns the manager of the binary file (see JournalBinaryFormat) used in place of the JSON file
+    //with the given name, which is changed via its write-ahead log. The first time it is opened, an
+    //existing JSON file (including the changes still held within its write-ahead log) is converted
+    //into it. The JSON file itself is kept as it is, meaning the app can still switch back to it.
+    public static synchronized JournalEntryManager openBinary(File directory, String file_name) {
+        File jsonFile = new File(directory, file_name);
+        File binaryFile = new File(directory, getBinaryFileName(file_name));
+        boolean hasWriteAheadLog = new JournalWriteAheadLog(jsonFile).getFile().exists();
+        if (!binaryFile.exists() && (jsonFile.exists() || hasWriteAheadLog)) {
+            if (hasWriteAheadLog) {
+                open(directory, file_name, true).compactJournal();
+            }
+            try {
+                JournalRepository.convert(jsonFile, JournalSnapshotFormat.JSON, binaryFile, JournalSnapshotFormat.BINARY);
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+        }
+        return open(directory, binaryFile.getName(), true, JournalSnapshotFormat.BINARY);
+    }
+
+    //Returns the name of the binary file used in place of the given JSON file,
+    //e.g., journal_entries.bin for journal_entries.json.
+    public static String getBinaryFileName(String file_name) {
+        return (file_name.endsWith(".json") ? file_name.substring(0, file_name.length() - ".json".length()) : file_name) + ".bin";
+    }
+
+    public JournalStore getStore() {
+        return store;
+    }
+
+    //Creates a new journal entry without any text, returning its unique ID.
+    public int saveJournalEntryCreation(String title) {
+        return measure("saveJournalEntryCreation", () -> store.createEntry(title));
+    }
+
+    public void updateJournalEntryName(int ID, String newTitle) {
+        measure("updateJournalEntryName", () -> store.updateEntryName(ID, newTitle));
+    }
+
+    public void deleteJournalEntry(int ID) {
+        measure("deleteJournalEntry", () -> store.deleteEntry(ID));
+    }
+
+    public void updateJournalImageThumbnail(int ID, String imagePath) {
+        measure("updateJournalImageThumbnail", () -> store.updateImageThumbnail(ID, imagePath));
+    }
+
+    public void updateJournalEntryPinned(int entryID, boolean pinned) {
+        measure("updateJournalEntryPinned", () -> store.updateEntryPinned(entryID, pinned));
+    }
+
+    public boolean isEntryPinned(int entryID) {
+        return measure("isEntryPinned", () -> store.isEntryPinned(entryID));
+    }
+
+    //Saves the text of the entry, updating its last edited date and time as well.
+    public void saveJournalEntryText(int entryID, String newText) {
+        measure("saveJournalEntryText", () -> store.updateEntryText(entryID, newText));
+    }
+
+    public void saveJournalEntryMedia(int entryID, List<MediaAttachment> media) {
+        measure("saveJournalEntryMedia", () -> store.updateEntryMedia(entryID, media));
+    }
+
+    //Saves several changed fields of an entry at once, using the keys of the JSON file.
+    public void updateJournalEntryFields(int entryID, JSONObject changedFields) {
+        measure("updateJournalEntryFields", () -> store.updateEntryFields(entryID, changedFields));
+    }
+
+    public JournalEntry getJournalEntry(int entryID) {
+        return measure("getJournalEntry", () -> store.getEntry(entryID));
+    }
+
+    public JournalEntry getJournalEntrySummary(int entryID) {
+        return measure("getJournalEntrySummary", () -> store.getEntrySummary(entryID));
+    }
+
+    //The search index is saved along with the journal, should it have been used.
+    public void compactJournal() {
+        measure("compactJournal", () -> {
+            store.compact();
+            searchIndex.save(store);
+        });
+    }
+
+    //Returns the IDs of the entries matching every word of the query, best matches first.
+    public List<Integer> searchJournalEntries(String query, int limit) {
+        return measure("searchJournalEntries", () -> searchIndex.search(store, query, limit));
+    }
+
+    //Returns the page of entry summaries following the given cursor (or the first page, should it
+    //be null) in the given order, e.g., the newest or most recently edited entries first.
+    public JournalEntryPage getJournalEntryPage(JournalSortedIndex.Order order, JournalEntryPage.Cursor after, int pageSize) {
+        return measure("getJournalEntryPage", () -> sortedIndex.getPage(store, order, after, pageSize));
+    }
+
+    //Returns the entries created from the first date up to (but not including) the second one.
+    public List<JournalEntry> getJournalEntriesCreatedBetween(LocalDate from, LocalDate until) {
+        return measure("getJournalEntriesCreatedBetween", () -> sortedIndex.getEntriesCreatedBetween(store, from, until));
+    }
+
+    public Map<LocalDate, Integer> getJournalEntryCountsPerDay(YearMonth month) {
+        return measure("getJournalEntryCountsPerDay", () -> sortedIndex.getEntryCountsPerDay(store, month));
+    }
+
+    public Map<YearMonth, Integer> getJournalEntryCountsPerMonth(Year year) {
+        return measure("getJournalEntryCountsPerMonth", () -> sortedIndex.getEntryCountsPerMonth(store, year));
+    }
+
+    //The database writes no JSON file, meaning nothing is reported for it.
+    public String getWriteLatencyReport() {
+        return store instanceof JournalRepository ? ((JournalRepository) store).getWriteLatencyReport() : "";
+    }
+
+    //Returns the number of bytes read from the JSON file and the write-ahead log so far, or -1
+    //for the database, which does not count them.
+    public long getBytesRead() {
+        return store instanceof JournalRepository ? ((JournalRepository) store).getBytesRead() : -1;
+    }
+
+    public void addJournalChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        store.addChangeListener(listener);
+    }
+
+    public void removeJournalChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        store.removeChangeListener(listener);
+    }
+
+    public Map<Integer, Long> getJournalEntryTextSizes() {
+        return measure("getJournalEntryTextSizes", () -> store.getEntryTextSizes());
+    }
+
+    public List<JournalEntry> getAllJournalEntrySummaries() {
+        return measure("getAllJournalEntrySummaries", () -> store.getEntrySummaries());
+    }
+
+    public List<JournalEntry> getAllJournalEntries() {
+        return measure("getAllJournalEntries", () -> store.getAllEntries());
+    }
+
+    //Runs an operation on the store, recording how long it took and whether it failed. Failures
+    //are still thrown to the caller as before, since the store has already printed them.
+    private <T> T measure(String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } catch (RuntimeException e) {
+            metrics.increment(JournalMetrics.FAILURES, 1);
+            metrics.increment(JournalMetrics.FAILURES + "." + operation, 1);
+            throw e;
+        } finally {
+            metrics.recordSince(JournalMetrics.OPERATION_PREFIX + operation, start);
+        }
+    }
+
+    private void measure(String operation, Runnable action) {
+        measure(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.util.List;
+
+public class JournalEntryPage {
+
+    //A page of journal entry summaries in the order they were requested in (see JournalSortedIndex),
+    //along with the cursor to request the following page with. The cursor is null once the last
+    //page has been returned.
+    private final List<JournalEntry> entries;
+    private final Cursor nextCursor;
+
+    public JournalEntryPage(List<JournalEntry> entries, Cursor nextCursor) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<JournalEntry> getEntries() {
+        return entries;
+    }
+
+    public Cursor getNextCursor() {
+        return nextCursor;
+    }
+
+    public boolean hasNextPage() {
+        return nextCursor != null;
+    }
+
+    //Points to the last entry of a page by the value it was sorted by and its ID, rather than by
+    //its position, meaning no entry is skipped or shown twice should entries before it have changed.
+    public static class Cursor {
+        final String sortValue;
+        final int ID;
+
+        Cursor(String sortValue, int ID) {
+            this.sortValue = sortValue;
+            this.ID = ID;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.os.Handler;
+import android.os.Looper;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class JournalExecutor {
+
+    //Every read and write of the journal entries runs on this single background thread.
+    //Since there is only one thread, writes are applied to the JournalStore in exactly the
+    //order in which they were submitted, and a read always sees every write submitted before it.
+    //Operations can also be scheduled to run after a delay (e.g., debounced writes).
+    //Android may kill the process at any time once the app is in the background, no matter
+    //which threads are still running, meaning writes waiting on this thread can be lost. Changes
+    //are therefore handed to it as soon as an activity stops (see JournalWriteBatcher.flush()),
+    //and are only durable once the write-ahead log (or the JSON file) has been synced to disk.
+    private static final ScheduledExecutorService ioExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "journal-io");
+        }
+    });
+
+    //Media attachments are resolved (see MediaAttachmentResolver) on threads of their own rather
+    //than the journal thread. Resolving asks the media provider, which may take a long time (e.g.,
+    //for a document stored in the cloud), and would otherwise hold up every read and write queued
+    //behind it. Only saving the resolved attachments is handed to the journal thread afterwards.
+    private static final int MEDIA_THREAD_COUNT = 2;
+    private static final AtomicInteger mediaThreadCount = new AtomicInteger();
+    private static final ExecutorService mediaExecutor = Executors.newFixedThreadPool(MEDIA_THREAD_COUNT, new ThreadFactory() {
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "journal-media-" + mediaThreadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    private static Executor mainThreadExecutor;
+
+    private JournalExecutor() {
+    }
+
+    public static ScheduledExecutorService getIoExecutor() {
+        return ioExecutor;
+    }
+
+    public static ExecutorService getMediaExecutor() {
+        return mediaExecutor;
+    }
+
+    //Results of the background thread are handed back to the activities on the main
+    //thread, as only the main thread is allowed to update views. The executor is created
+    //lazily, since no main thread exists when the journal is used outside of the app.
+    public static synchronized Executor getMainThreadExecutor() {
+        if (mainThreadExecutor == null) {
+            final Handler mainThreadHandler = new Handler(Looper.getMainLooper());
+            mainThreadExecutor = new Executor() {
+                @Override
+                public void execute(Runnable runnable) {
+                    mainThreadHandler.post(runnable);
+                }
+            };
+        }
+        return mainThreadExecutor;
+    }
+}
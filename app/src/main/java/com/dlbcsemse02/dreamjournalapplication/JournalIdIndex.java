@@ -0,0 +1,150 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+
+public class JournalIdIndex {
+
+    //An index saved next to the JSON file (e.g., journal_entries.json.ids), which holds the ID to
+    //be given to the next entry created, as well as the position (in bytes) of every entry within
+    //the JSON file. This means a single entry can be read from the JSON file without reading the
+    //entries before it, and a new ID can be handed out without going through every entry.
+    //
+    //The positions are written as fixed-size records sorted by ID, meaning an entry is found by
+    //reading a few records (a binary search) rather than the whole index. The index is rewritten
+    //along with the JSON file (see JournalRepository.writeToFile()), and holds the length and last
+    //modified time of the JSON file it was written for. Should these no longer match, e.g., because
+    //the app was killed between writing both files, the positions are ignored, while the next ID
+    //is still used, since it only ever grows. The index is synced to disk before the write-ahead log
+    //is cleared, meaning the ID of an entry that was deleted is never handed out again.
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x444a4944;
+
+    //The magic number, version, next ID, length and last modified time of the JSON file, and
+    //number of entries, followed by the ID and position of every entry.
+    static final int HEADER_SIZE = 4 + 4 + 4 + 8 + 8 + 4;
+    static final int RECORD_SIZE = 4 + 8;
+
+    //Returned by findPosition() should the entry not be within the JSON file, or should the
+    //index be missing or no longer match the JSON file, respectively.
+    public static final long NOT_FOUND = -1;
+    public static final long UNKNOWN = -2;
+
+    private final File file;
+    private final File temporaryFile;
+
+    public JournalIdIndex(File journalFile) {
+        this.file = new File(journalFile.getParentFile(), journalFile.getName() + ".ids");
+        this.temporaryFile = new File(journalFile.getParentFile(), journalFile.getName() + ".ids.tmp");
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    //Writes the index for the JSON file that was just written. The IDs and positions are given
+    //in the order of the JSON file and sorted here.
+    public void write(int nextID, File journalFile, int[] entryIDs, long[] positions) throws IOException {
+        //Each ID is sorted along with the index of its position, packed into a single long.
+        long[] sortedEntries = new long[entryIDs.length];
+        for (int i = 0; i < entryIDs.length; i++) {
+            sortedEntries[i] = ((long) entryIDs[i] << 32) | i;
+        }
+        Arrays.sort(sortedEntries);
+
+        long start = System.nanoTime();
+        try (FileOutputStream fileOutputStream = new FileOutputStream(temporaryFile)) {
+            DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(fileOutputStream));
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(FORMAT_VERSION);
+            outputStream.writeInt(nextID);
+            outputStream.writeLong(journalFile.length());
+            outputStream.writeLong(journalFile.lastModified());
+            outputStream.writeInt(sortedEntries.length);
+            for (long sortedEntry : sortedEntries) {
+                outputStream.writeInt((int) (sortedEntry >> 32));
+                outputStream.writeLong(positions[(int) sortedEntry]);
+            }
+            outputStream.flush();
+            fileOutputStream.getChannel().force(true);
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        JournalSnapshotWriter.syncDirectory(file.getParentFile());
+        JournalMetrics.getInstance().recordSince(JournalMetrics.WRITE_INDEX, start);
+        JournalMetrics.getInstance().increment(JournalMetrics.BYTES_WRITTEN, HEADER_SIZE + (long) RECORD_SIZE * sortedEntries.length);
+    }
+
+    //Returns the ID saved to be given to the next entry created, or 1 should the index be missing
+    //or damaged. This does not depend on the index matching the JSON file.
+    public int readNextID() {
+        if (!file.exists()) {
+            return 1;
+        }
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            if (input.length() < HEADER_SIZE || input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return 1;
+            }
+            int nextID = input.readInt();
+            JournalMetrics.getInstance().increment(JournalMetrics.BYTES_READ, 12);
+            return Math.max(1, nextID);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 1;
+        }
+    }
+
+    //Returns the position of the entry with the given ID within the JSON file, NOT_FOUND should it
+    //not be within the file, or UNKNOWN should the index not match the file (or not exist).
+    public long findPosition(int ID, File journalFile) {
+        if (!file.exists()) {
+            return UNKNOWN;
+        }
+        long bytesRead = 0;
+        try (RandomAccessFile input = new RandomAccessFile(file, "r")) {
+            if (input.length() < HEADER_SIZE) {
+                return UNKNOWN;
+            }
+            bytesRead += HEADER_SIZE;
+            if (input.readInt() != MAGIC || input.readInt() != FORMAT_VERSION) {
+                return UNKNOWN;
+            }
+            input.readInt();
+            if (input.readLong() != journalFile.length() || input.readLong() != journalFile.lastModified()) {
+                return UNKNOWN;
+            }
+            int entryCount = input.readInt();
+            if (input.length() != HEADER_SIZE + (long) RECORD_SIZE * entryCount) {
+                return UNKNOWN;
+            }
+
+            int low = 0;
+            int high = entryCount - 1;
+            while (low <= high) {
+                int middle = (low + high) >>> 1;
+                input.seek(HEADER_SIZE + (long) RECORD_SIZE * middle);
+                int middleID = input.readInt();
+                bytesRead += RECORD_SIZE;
+                if (middleID < ID) {
+                    low = middle + 1;
+                } else if (middleID > ID) {
+                    high = middle - 1;
+                } else {
+                    return input.readLong();
+                }
+            }
+            return NOT_FOUND;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return UNKNOWN;
+        } finally {
+            JournalMetrics.getInstance().increment(JournalMetrics.BYTES_READ, bytesRead);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+public class JournalJsonFormat implements JournalSnapshotFormat {
+
+    //The layout journal_entries.json has always been written in, i.e., an array of the summaries of
+    //every entry (see JournalEntry.toSummaryJSON()). Indentation is added for the sake of readability
+    //should the file be accessed by developers/debuggers in the future. The file is written one
+    //entry at a time (in the same layout as JSONArray.toString(4)), so that the position of every
+    //entry is known, and read one entry at a time, meaning neither the content of the file nor a
+    //JSONArray of it is ever held in memory while it is read.
+
+    //An entry whose text is still held within the snapshot (e.g., after converting a journal
+    //written before the text of each entry was stored separately) keeps its text (EntryText)
+    //along with its preview.
+    @Override
+    public byte[] write(Collection<JournalEntry> entries, int[] entryIDs, long[] positions) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        try {
+            int i = 0;
+            content.write('[');
+            for (JournalEntry entry : entries) {
+                content.write((i == 0 ? "\n    " : ",\n    ").getBytes(StandardCharsets.UTF_8));
+                entryIDs[i] = entry.getID();
+                positions[i] = content.size();
+                JSONObject jsonObject = entry.toSummaryJSON();
+                if (entry.getEntryText() != null) {
+                    jsonObject.put("EntryText", entry.getEntryText());
+                }
+                content.write(jsonObject.toString(4).replace("\n", "\n    ").getBytes(StandardCharsets.UTF_8));
+                i++;
+            }
+            content.write((entries.isEmpty() ? "]" : "\n]").getBytes(StandardCharsets.UTF_8));
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+        return content.toByteArray();
+    }
+
+    //An empty file counts as a journal without any entries.
+    @Override
+    public EntryReader openEntries(InputStream inputStream) throws IOException {
+        final JournalJsonReader reader = open(inputStream);
+        try {
+            if (reader.peek() != JournalJsonReader.Token.END_DOCUMENT) {
+                reader.beginArray();
+            }
+        } catch (IOException e) {
+            reader.close();
+            throw e;
+        }
+        return new EntryReader() {
+            @Override
+            public JournalEntry next(int textLength) throws IOException {
+                if (reader.peek() == JournalJsonReader.Token.END_DOCUMENT) {
+                    return null;
+                }
+                if (!reader.hasNext()) {
+                    reader.endArray();
+                    return null;
+                }
+                return JournalEntry.readFrom(reader, textLength);
+            }
+
+            @Override
+            public void close() throws IOException {
+                reader.close();
+            }
+        };
+    }
+
+    @Override
+    public JournalEntry readEntry(InputStream inputStream, int textLength) throws IOException {
+        try (JournalJsonReader reader = open(inputStream)) {
+            return JournalEntry.readFrom(reader, textLength);
+        }
+    }
+
+    private static JournalJsonReader open(InputStream inputStream) {
+        return new JournalJsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,395 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+public class JournalJsonReader implements Closeable {
+
+    //This class reads a JSON document one token at a time (a "pull" parser), meaning the
+    //journal can be read one entry after another without the file ever being held in memory
+    //as a whole, nor a tree of every JSONObject being built. Only the current string or number
+    //is held in memory. The methods follow those of android.util.JsonReader, although this
+    //class only uses plain Java so that it can also be used outside of an Android device.
+    public enum Token {
+        BEGIN_ARRAY,
+        END_ARRAY,
+        BEGIN_OBJECT,
+        END_OBJECT,
+        NAME,
+        STRING,
+        NUMBER,
+        BOOLEAN,
+        NULL,
+        END_DOCUMENT
+    }
+
+    //What the reader expects next within each array or object it is currently inside of.
+    private static final int EMPTY_DOCUMENT = 0;
+    private static final int NONEMPTY_DOCUMENT = 1;
+    private static final int EMPTY_ARRAY = 2;
+    private static final int NONEMPTY_ARRAY = 3;
+    private static final int EMPTY_OBJECT = 4;
+    private static final int DANGLING_NAME = 5;
+    private static final int NONEMPTY_OBJECT = 6;
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position = 0;
+    private int limit = 0;
+
+    //The number of characters consumed before the current buffer, used for error messages.
+    private long bufferOffset = 0;
+
+    private int[] scopes = new int[16];
+    private int scopeCount = 0;
+
+    //The next token, once it has been peeked but not consumed yet. For strings and names,
+    //the opening quote has already been read. For true, false and null, the whole literal
+    //has been read. For numbers, nothing has been read yet.
+    private Token peeked = null;
+    private boolean peekedBoolean;
+
+    public JournalJsonReader(Reader in) {
+        this.in = in;
+        pushScope(EMPTY_DOCUMENT);
+    }
+
+    public Token peek() throws IOException {
+        if (peeked != null) {
+            return peeked;
+        }
+
+        int scope = scopes[scopeCount - 1];
+        if (scope == EMPTY_ARRAY) {
+            scopes[scopeCount - 1] = NONEMPTY_ARRAY;
+            if (nextNonWhitespace() == ']') {
+                return peeked = Token.END_ARRAY;
+            }
+            position--;
+        } else if (scope == NONEMPTY_ARRAY) {
+            int c = nextNonWhitespace();
+            if (c == ']') {
+                return peeked = Token.END_ARRAY;
+            } else if (c != ',') {
+                throw syntaxError("Expected ',' or ']'");
+            }
+        } else if (scope == EMPTY_OBJECT || scope == NONEMPTY_OBJECT) {
+            scopes[scopeCount - 1] = DANGLING_NAME;
+            int c = nextNonWhitespace();
+            if (c == '}') {
+                return peeked = Token.END_OBJECT;
+            }
+            if (scope == NONEMPTY_OBJECT) {
+                if (c != ',') {
+                    throw syntaxError("Expected ',' or '}'");
+                }
+                c = nextNonWhitespace();
+            }
+            if (c != '"') {
+                throw syntaxError("Expected a name");
+            }
+            return peeked = Token.NAME;
+        } else if (scope == DANGLING_NAME) {
+            scopes[scopeCount - 1] = NONEMPTY_OBJECT;
+            if (nextNonWhitespace() != ':') {
+                throw syntaxError("Expected ':'");
+            }
+        } else if (scope == EMPTY_DOCUMENT) {
+            scopes[scopeCount - 1] = NONEMPTY_DOCUMENT;
+            if (nextNonWhitespaceOrEnd() == -1) {
+                return peeked = Token.END_DOCUMENT;
+            }
+            position--;
+        } else if (scope == NONEMPTY_DOCUMENT) {
+            if (nextNonWhitespaceOrEnd() == -1) {
+                return peeked = Token.END_DOCUMENT;
+            }
+            throw syntaxError("Expected the end of the document");
+        }
+
+        int c = nextNonWhitespace();
+        switch (c) {
+            case '[':
+                return peeked = Token.BEGIN_ARRAY;
+            case '{':
+                return peeked = Token.BEGIN_OBJECT;
+            case '"':
+                return peeked = Token.STRING;
+            case 't':
+                expectLiteral("rue");
+                peekedBoolean = true;
+                return peeked = Token.BOOLEAN;
+            case 'f':
+                expectLiteral("alse");
+                peekedBoolean = false;
+                return peeked = Token.BOOLEAN;
+            case 'n':
+                expectLiteral("ull");
+                return peeked = Token.NULL;
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) {
+                    position--;
+                    return peeked = Token.NUMBER;
+                }
+                throw syntaxError("Unexpected character '" + (char) c + "'");
+        }
+    }
+
+    public void beginArray() throws IOException {
+        expect(Token.BEGIN_ARRAY);
+        pushScope(EMPTY_ARRAY);
+    }
+
+    public void endArray() throws IOException {
+        expect(Token.END_ARRAY);
+        scopeCount--;
+    }
+
+    public void beginObject() throws IOException {
+        expect(Token.BEGIN_OBJECT);
+        pushScope(EMPTY_OBJECT);
+    }
+
+    public void endObject() throws IOException {
+        expect(Token.END_OBJECT);
+        scopeCount--;
+    }
+
+    //Returns whether the current array or object has another element.
+    public boolean hasNext() throws IOException {
+        Token token = peek();
+        return token != Token.END_ARRAY && token != Token.END_OBJECT && token != Token.END_DOCUMENT;
+    }
+
+    public String nextName() throws IOException {
+        expect(Token.NAME);
+        return readString(Integer.MAX_VALUE);
+    }
+
+    public String nextString() throws IOException {
+        return nextString(Integer.MAX_VALUE);
+    }
+
+    //Returns at most maxLength characters of the next string, skipping the rest of it
+    //without holding it in memory (e.g., to only read the beginning of a long text).
+    public String nextString(int maxLength) throws IOException {
+        Token token = peek();
+        if (token == Token.NUMBER) {
+            peeked = null;
+            return readNumber();
+        }
+        expect(Token.STRING);
+        return readString(maxLength);
+    }
+
+    public boolean nextBoolean() throws IOException {
+        expect(Token.BOOLEAN);
+        return peekedBoolean;
+    }
+
+    public void nextNull() throws IOException {
+        expect(Token.NULL);
+    }
+
+    public int nextInt() throws IOException {
+        return (int) nextLong();
+    }
+
+    public long nextLong() throws IOException {
+        Token token = peek();
+        String number;
+        if (token == Token.STRING) {
+            peeked = null;
+            number = readString(Integer.MAX_VALUE);
+        } else {
+            expect(Token.NUMBER);
+            number = readNumber();
+        }
+
+        try {
+            return Long.parseLong(number);
+        } catch (NumberFormatException e) {
+            try {
+                return (long) Double.parseDouble(number);
+            } catch (NumberFormatException notANumber) {
+                throw syntaxError("Expected a number but was " + number);
+            }
+        }
+    }
+
+    //Skips the next value, including every value nested within it should it be an array or object.
+    public void skipValue() throws IOException {
+        int depth = 0;
+        do {
+            Token token = peek();
+            if (token == Token.BEGIN_ARRAY) {
+                beginArray();
+                depth++;
+            } else if (token == Token.BEGIN_OBJECT) {
+                beginObject();
+                depth++;
+            } else if (token == Token.END_ARRAY) {
+                endArray();
+                depth--;
+            } else if (token == Token.END_OBJECT) {
+                endObject();
+                depth--;
+            } else if (token == Token.NAME || token == Token.STRING) {
+                peeked = null;
+                readString(0);
+            } else if (token == Token.NUMBER) {
+                peeked = null;
+                readNumber();
+            } else if (token == Token.END_DOCUMENT) {
+                throw syntaxError("Unexpected end of document");
+            } else {
+                peeked = null;
+            }
+        } while (depth > 0);
+    }
+
+    @Override
+    public void close() throws IOException {
+        peeked = null;
+        scopeCount = 0;
+        in.close();
+    }
+
+    private void expect(Token expected) throws IOException {
+        Token token = peek();
+        if (token != expected) {
+            throw syntaxError("Expected " + expected + " but was " + token);
+        }
+        peeked = null;
+    }
+
+    private void pushScope(int scope) {
+        if (scopeCount == scopes.length) {
+            int[] newScopes = new int[scopeCount * 2];
+            System.arraycopy(scopes, 0, newScopes, 0, scopeCount);
+            scopes = newScopes;
+        }
+        scopes[scopeCount++] = scope;
+    }
+
+    //Reads the rest of a string whose opening quote was already read, keeping at most
+    //maxLength characters. A surrogate pair is never cut in half.
+    private String readString(int maxLength) throws IOException {
+        StringBuilder builder = maxLength == 0 ? null : new StringBuilder(Math.min(maxLength, 32));
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw syntaxError("Unterminated string");
+            } else if (c == '"') {
+                break;
+            } else if (c == '\\') {
+                c = readEscapeCharacter();
+            }
+            if (builder != null && builder.length() < maxLength) {
+                builder.append((char) c);
+            }
+        }
+
+        if (builder == null) {
+            return "";
+        }
+        int length = builder.length();
+        if (length > 0 && length == maxLength && Character.isHighSurrogate(builder.charAt(length - 1))) {
+            builder.setLength(length - 1);
+        }
+        return builder.toString();
+    }
+
+    private int readEscapeCharacter() throws IOException {
+        int c = read();
+        switch (c) {
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit == -1) {
+                        throw syntaxError("Invalid unicode escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return value;
+            case 'b':
+                return '\b';
+            case 'f':
+                return '\f';
+            case 'n':
+                return '\n';
+            case 'r':
+                return '\r';
+            case 't':
+                return '\t';
+            case '"':
+            case '\\':
+            case '/':
+                return c;
+            default:
+                throw syntaxError("Invalid escape sequence");
+        }
+    }
+
+    private String readNumber() throws IOException {
+        StringBuilder builder = new StringBuilder();
+        while (true) {
+            int c = read();
+            if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+                builder.append((char) c);
+            } else {
+                if (c != -1) {
+                    position--;
+                }
+                return builder.toString();
+            }
+        }
+    }
+
+    private void expectLiteral(String rest) throws IOException {
+        for (int i = 0; i < rest.length(); i++) {
+            if (read() != rest.charAt(i)) {
+                throw syntaxError("Unexpected literal");
+            }
+        }
+    }
+
+    private int nextNonWhitespace() throws IOException {
+        int c = nextNonWhitespaceOrEnd();
+        if (c == -1) {
+            throw syntaxError("Unexpected end of document");
+        }
+        return c;
+    }
+
+    private int nextNonWhitespaceOrEnd() throws IOException {
+        while (true) {
+            int c = read();
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return c;
+            }
+        }
+    }
+
+    //Returns the next character, refilling the buffer from the underlying reader once it has
+    //been used up. A character that was just read can always be pushed back by position--.
+    private int read() throws IOException {
+        if (position == limit) {
+            bufferOffset += limit;
+            position = 0;
+            limit = 0;
+            int count = in.read(buffer, 0, buffer.length);
+            if (count <= 0) {
+                return -1;
+            }
+            limit = count;
+        }
+        return buffer[position++];
+    }
+
+    private IOException syntaxError(String message) {
+        return new IOException(message + " at character " + (bufferOffset + position));
+    }
+}
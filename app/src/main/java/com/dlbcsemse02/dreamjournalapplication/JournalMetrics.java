@@ -0,0 +1,167 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class JournalMetrics {
+
+    //Collects counters and histograms about how the journal is stored for the whole process,
+    //e.g., how long each operation of ManagingJournalEntries takes, how long parsing and writing
+    //the files take, how many bytes are read and written, and how often operations fail. The
+    //metrics are only ever added to, which is done without locking, meaning they can be recorded
+    //on every operation. They can be dumped at any time (e.g., via "adb shell dumpsys activity
+    //com.dlbcsemse02.dreamjournalapplication", see MainActivity.dump()) to see which operations
+    //dominate under heavy use.
+    public static final String BYTES_READ = "bytes.read";
+    public static final String BYTES_WRITTEN = "bytes.written";
+    public static final String FAILURES = "failures";
+
+    //Durations are recorded in microseconds.
+    public static final String PARSE_SNAPSHOT = "parse.snapshot";
+    public static final String PARSE_LOG = "parse.log";
+    public static final String WRITE_SNAPSHOT = "write.snapshot";
+    public static final String WRITE_LOG = "write.log";
+    public static final String WRITE_BODIES = "write.bodies";
+    public static final String PARSE_INDEX = "parse.index";
+    public static final String WRITE_INDEX = "write.index";
+
+    //The number of entries read from the JSON file to find a single entry by its ID.
+    public static final String ENTRIES_SCANNED = "entries.scanned";
+
+    //Every operation is recorded under its own name with this prefix (e.g.,
+    //"operation.saveJournalEntryText"), and its failures under "failures.<name>".
+    public static final String OPERATION_PREFIX = "operation.";
+
+    private static final JournalMetrics instance = new JournalMetrics();
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> histograms = new ConcurrentHashMap<>();
+
+    JournalMetrics() {
+    }
+
+    public static JournalMetrics getInstance() {
+        return instance;
+    }
+
+    public void increment(String counter, long amount) {
+        AtomicLong value = counters.get(counter);
+        if (value == null) {
+            value = counters.computeIfAbsent(counter, name -> new AtomicLong());
+        }
+        value.addAndGet(amount);
+    }
+
+    public long getCount(String counter) {
+        AtomicLong value = counters.get(counter);
+        return value == null ? 0 : value.get();
+    }
+
+    public void record(String histogram, long value) {
+        getHistogram(histogram).record(value);
+    }
+
+    //Records the time passed since the given start (as returned by System.nanoTime()).
+    public void recordSince(String histogram, long startNanos) {
+        record(histogram, (System.nanoTime() - startNanos) / 1000);
+    }
+
+    public Histogram getHistogram(String histogram) {
+        Histogram value = histograms.get(histogram);
+        if (value == null) {
+            value = histograms.computeIfAbsent(histogram, name -> new Histogram());
+        }
+        return value;
+    }
+
+    //Forgets every metric recorded so far, e.g., before measuring a particular use of the app.
+    public void reset() {
+        counters.clear();
+        histograms.clear();
+    }
+
+    //Returns every metric recorded so far, sorted by name, with the operations that took the
+    //longest in total listed first so that the dominating operations can be seen at a glance.
+    public String dump() {
+        StringBuilder dump = new StringBuilder("Journal metrics\n");
+        TreeMap<String, Histogram> sortedHistograms = new TreeMap<>(histograms);
+        for (Map.Entry<String, Histogram> histogram : sortedHistograms.entrySet()) {
+            if (histogram.getKey().startsWith(OPERATION_PREFIX)) {
+                continue;
+            }
+            dump.append("  ").append(histogram.getKey()).append(": ").append(histogram.getValue()).append('\n');
+        }
+        for (Map.Entry<String, AtomicLong> counter : new TreeMap<>(counters).entrySet()) {
+            dump.append("  ").append(counter.getKey()).append(": ").append(counter.getValue().get()).append('\n');
+        }
+
+        dump.append("Operations (by total time)\n");
+        sortedHistograms.entrySet().stream()
+                .filter(histogram -> histogram.getKey().startsWith(OPERATION_PREFIX))
+                .sorted((first, second) -> Long.compare(second.getValue().getSum(), first.getValue().getSum()))
+                .forEach(histogram -> dump.append("  ").append(histogram.getKey().substring(OPERATION_PREFIX.length()))
+                        .append(": ").append(histogram.getValue()).append('\n'));
+        return dump.toString();
+    }
+
+    //A histogram whose buckets double in size (0, 1, 2-3, 4-7, 8-15, ...), which keeps it small
+    //and cheap to record into while still telling apart operations that take microseconds from
+    //those that take milliseconds or seconds. Percentiles are therefore reported as the upper
+    //bound of the bucket they fall into.
+    public static class Histogram {
+        private final AtomicLongArray buckets = new AtomicLongArray(64);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong sum = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        public void record(long value) {
+            value = Math.max(0, value);
+            buckets.incrementAndGet(64 - Long.numberOfLeadingZeros(value));
+            count.incrementAndGet();
+            sum.addAndGet(value);
+            max.accumulateAndGet(value, Math::max);
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getSum() {
+            return sum.get();
+        }
+
+        public long getMax() {
+            return max.get();
+        }
+
+        //Returns the upper bound of the bucket holding the given percentile (between 0 and 100),
+        //which is never more than the largest value recorded.
+        public long getPercentile(double percentile) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(total * percentile / 100.0));
+            long seen = 0;
+            for (int bucket = 0; bucket < 64; bucket++) {
+                seen += buckets.get(bucket);
+                if (seen >= rank) {
+                    long upperBound = bucket == 0 ? 0 : (bucket == 63 ? Long.MAX_VALUE : (1L << bucket) - 1);
+                    return Math.min(upperBound, max.get());
+                }
+            }
+            return max.get();
+        }
+
+        @Override
+        public String toString() {
+            long total = count.get();
+            return String.format(Locale.ROOT, "count=%d sum=%d mean=%.1f p50=%d p95=%d p99=%d max=%d", total, sum.get(),
+                    total == 0 ? 0 : sum.get() / (double) total, getPercentile(50), getPercentile(95), getPercentile(99), max.get());
+        }
+    }
+}
@@ -0,0 +1,748 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class JournalRepository implements JournalStore {
+
+    //Once the write-ahead log holds this many records, or grows larger than the
+    //JSON file itself, all changes are compacted into the JSON file and the log is cleared.
+    static final int COMPACTION_RECORD_THRESHOLD = 200;
+    private static final long MINIMUM_COMPACTION_LOG_SIZE = 64 * 1024;
+
+    //One repository exists per journal file for the whole process. This
+    //means that every activity (and every instance of ManagingJournalEntries)
+    //shares the same entries in memory instead of parsing the JSON file again.
+    private static final Map<String, JournalRepository> repositories = new HashMap<>();
+
+    private final File file;
+
+    //The layout the file is written in, which is JSON unless the binary layout was
+    //chosen (see JournalSnapshotFormat). Everything else works the same for both.
+    private final JournalSnapshotFormat format;
+
+    //Writes the JSON file atomically, keeping the previous version as a backup.
+    private final JournalSnapshotWriter snapshotWriter;
+
+    //When the write-ahead log is used, changes are appended to the log instead
+    //of rewriting the JSON file every time. When it is null, the JSON file is
+    //rewritten after every change.
+    private final JournalWriteAheadLog writeAheadLog;
+
+    //The text of every entry is stored separately from the JSON file, which only holds a
+    //preview of it. The entries kept in memory are therefore summaries without their text,
+    //which is only read from the body store once a single entry is requested. Only entries
+    //whose text was changed since the JSON file was last written still hold their text.
+    private final JournalBodyStore bodyStore;
+
+    //Holds the next ID and the position of every entry within the JSON file, which allows a
+    //single entry to be read before the journal has been loaded (see findEntryOnDisk()).
+    private final JournalIdIndex idIndex;
+
+    //The ID given to the next entry created. IDs are never given out twice, even once the entry
+    //holding the highest ID has been deleted, which is why the next ID is saved within the idIndex.
+    private int nextID = 1;
+
+    //Informs listeners (e.g., the MainActivity) about every changed entry.
+    private final JournalChangeNotifier changeNotifier = new JournalChangeNotifier();
+
+    //The entries are kept in a LinkedHashMap keyed by their ID, which allows
+    //for constant time lookups while also keeping the order of the JSON file.
+    private final LinkedHashMap<Integer, JournalEntry> entries = new LinkedHashMap<>();
+
+    //The last modified time and length of the JSON file (and log) the last time they
+    //were read or written by this repository. These are used to detect whether the
+    //files were changed or deleted by something else, in which case they are reloaded.
+    private boolean loaded = false;
+    private long knownLastModified;
+    private long knownLength;
+    private long knownLogLastModified;
+    private long knownLogLength;
+
+    //The number of bytes read from the JSON file and the write-ahead log by this repository,
+    //which is used to report how much of the journal has to be read when the app starts.
+    private long bytesRead = 0;
+
+    private JournalRepository(File file, boolean useWriteAheadLog, JournalSnapshotFormat format) {
+        this.file = file;
+        this.format = format;
+        this.snapshotWriter = new JournalSnapshotWriter(file);
+        this.bodyStore = new JournalBodyStore(file);
+        this.idIndex = new JournalIdIndex(file);
+        this.writeAheadLog = useWriteAheadLog ? new JournalWriteAheadLog(file) : null;
+    }
+
+    //Returns the repository responsible for the given journal file, creating
+    //it the first time the file is requested. A journal file can only be managed
+    //in one storage mode (and format) at a time, since each stores changes differently.
+    public static JournalRepository getInstance(File file, boolean useWriteAheadLog) {
+        return getInstance(file, useWriteAheadLog, JournalSnapshotFormat.JSON);
+    }
+
+    public static synchronized JournalRepository getInstance(File file, boolean useWriteAheadLog, JournalSnapshotFormat format) {
+        String key = file.getAbsolutePath();
+        JournalRepository repository = repositories.get(key);
+        if (repository == null) {
+            repository = new JournalRepository(file, useWriteAheadLog, format);
+            repositories.put(key, repository);
+        } else if ((repository.writeAheadLog != null) != useWriteAheadLog || repository.format != format) {
+            throw new IllegalStateException(file.getName() + " is already managed in a different storage mode");
+        }
+        return repository;
+    }
+
+    //Forgets all repositories held in memory, meaning that the next call to getInstance()
+    //loads the journal from disk again. This is used by tests to simulate the app restarting,
+    //which is why the search and sorted indexes of the journals are forgotten as well.
+    static synchronized void clearInstances() {
+        repositories.clear();
+        JournalSearchIndex.clearInstances();
+        JournalSortedIndex.clearInstances();
+    }
+
+    //Converts the journal within one file into another format (e.g., journal_entries.json into
+    //journal_entries.bin, see JournalSnapshotFormat), along with the texts of its entries and the
+    //next ID, meaning the converted journal holds exactly the same entries and never hands out the
+    //ID of a deleted entry either. Only the file itself is converted, which is why a journal using
+    //the write-ahead log has to be compacted first. Neither journal may be open while converting.
+    public static void convert(File from, JournalSnapshotFormat fromFormat, File to, JournalSnapshotFormat toFormat) throws IOException {
+        List<JournalEntry> convertedEntries = new ArrayList<>();
+        int convertedNextID = new JournalIdIndex(from).readNextID();
+        if (from.exists()) {
+            try (JournalSnapshotFormat.EntryReader reader = fromFormat.openEntries(new FileInputStream(from))) {
+                JournalEntry entry;
+                while ((entry = reader.next(Integer.MAX_VALUE)) != null) {
+                    convertedEntries.add(entry);
+                    convertedNextID = Math.max(convertedNextID, entry.getID() + 1);
+                }
+            }
+        }
+
+        //The texts are copied a few at a time, so that they are never all held in memory at once.
+        JournalBodyStore fromBodyStore = new JournalBodyStore(from);
+        JournalBodyStore toBodyStore = new JournalBodyStore(to);
+        Map<Integer, String> texts = new LinkedHashMap<>();
+        for (JournalEntry entry : convertedEntries) {
+            if (entry.getEntryText() == null) {
+                String text = fromBodyStore.read(entry.getID());
+                if (!text.isEmpty()) {
+                    texts.put(entry.getID(), text);
+                }
+            }
+            if (texts.size() >= 100) {
+                toBodyStore.write(texts);
+                texts.clear();
+            }
+        }
+        if (!texts.isEmpty()) {
+            toBodyStore.write(texts);
+        }
+
+        int[] entryIDs = new int[convertedEntries.size()];
+        long[] positions = new long[convertedEntries.size()];
+        new JournalSnapshotWriter(to).write(toFormat.write(convertedEntries, entryIDs, positions));
+        new JournalIdIndex(to).write(convertedNextID, to, entryIDs, positions);
+    }
+
+    //Returns a copy of the journal entry with the given ID, including its text, or null
+    //should no entry with that ID exist. The text is read from the body store.
+    @Override
+    public synchronized JournalEntry getEntry(int ID) {
+        JournalEntry entry = findEntry(ID);
+        if (entry != null && entry.getEntryText() == null) {
+            try {
+                entry.setEntryText(bodyStore.read(ID));
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+        }
+        return entry;
+    }
+
+    //Returns a summary (see JournalEntry.toSummary()) of the journal entry with the given ID, or
+    //null should no entry with that ID exist. Should the journal not have been loaded yet, only
+    //the entry itself is looked up within the files (see findEntryOnDisk()).
+    @Override
+    public synchronized JournalEntry getEntrySummary(int ID) {
+        JournalEntry entry = findEntry(ID);
+        return entry == null ? null : entry.toSummary();
+    }
+
+    //Returns a summary (see JournalEntry.toSummary()) of every journal entry in the order they
+    //are stored within the file. Should the journal not have been loaded yet, the summaries are
+    //read straight from the JSON file. The journal is then only loaded once an entry is changed.
+    @Override
+    public synchronized List<JournalEntry> getEntrySummaries() {
+        if (!loaded) {
+            try {
+                return readSummariesFromDisk();
+            } catch (IOException | JSONException e) {
+                e.printStackTrace();
+            }
+        }
+        ensureLoaded();
+        List<JournalEntry> summaries = new ArrayList<>(entries.size());
+        for (JournalEntry entry : entries.values()) {
+            summaries.add(entry.toSummary());
+        }
+        return summaries;
+    }
+
+    //Returns copies of all journal entries, including their text, in the order they are stored
+    //within the file. Since this reads the body of every entry, the home screen uses
+    //getEntrySummaries() instead.
+    @Override
+    public synchronized List<JournalEntry> getAllEntries() {
+        ensureLoaded();
+        List<JournalEntry> allEntries = new ArrayList<>(entries.size());
+        try {
+            for (JournalEntry entry : entries.values()) {
+                JournalEntry copy = new JournalEntry(entry);
+                if (copy.getEntryText() == null) {
+                    copy.setEntryText(bodyStore.read(entry.getID()));
+                }
+                allEntries.add(copy);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return allEntries;
+    }
+
+    //The texts that were written to their bodies are measured by the size of their body files,
+    //while only the texts changed since the last write are measured in memory.
+    @Override
+    public synchronized Map<Integer, Long> getEntryTextSizes() {
+        ensureLoaded();
+        Map<Integer, Long> textSizes = new LinkedHashMap<>();
+        for (JournalEntry entry : entries.values()) {
+            String entryText = entry.getEntryText();
+            textSizes.put(entry.getID(), entryText != null ? JournalSizeAccounting.utf8Length(entryText) : bodyStore.getSizeInBytes(entry.getID()));
+        }
+        return textSizes;
+    }
+
+    @Override
+    public synchronized boolean isEntryPinned(int ID) {
+        ensureLoaded();
+        JournalEntry entry = entries.get(ID);
+        return entry != null && entry.isPinned();
+    }
+
+    //Creates a new journal entry with the given title and returns its ID. The ID is one higher
+    //than any ID given out before (see nextID), meaning all IDs remain unique, even in the event
+    //of a journal entry being deleted, without having to go through every entry.
+    @Override
+    public synchronized int createEntry(String title) {
+        ensureLoaded();
+        int entryID = nextID++;
+
+        JournalEntry entry = new JournalEntry(entryID, title);
+        entry.setDateAndTimeCreated(now());
+        entry.setLastEdited(now());
+        entries.put(entryID, entry.toSummary());
+
+        //Journals written before the next ID was saved may have given the ID of a deleted entry
+        //to a new entry, which is why any body left behind by a deleted entry is removed.
+        try {
+            bodyStore.delete(entryID);
+            persist(new JSONObject().put("Op", "Create").put("Entry", entry.toSummaryJSON()));
+        } catch (IOException | JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        changeNotifier.notifyEntryChanged(entryID);
+        return entryID;
+    }
+
+    @Override
+    public synchronized void updateEntryName(int ID, String newTitle) {
+        updateEntry(ID, fields("EntryName", newTitle, "LastEdited", now()));
+    }
+
+    @Override
+    public synchronized void updateImageThumbnail(int ID, String imagePath) {
+        updateEntry(ID, fields("ImageThumbnail", imagePath, "LastEdited", now()));
+    }
+
+    //Pinning an entry does not count as an edit, which is why the
+    //last edited date and time is left unchanged.
+    @Override
+    public synchronized void updateEntryPinned(int ID, boolean pinned) {
+        updateEntry(ID, fields("Pinned", pinned));
+    }
+
+    @Override
+    public synchronized void updateEntryText(int ID, String newText) {
+        updateEntry(ID, fields("EntryText", newText, "LastEdited", now()));
+    }
+
+    @Override
+    public synchronized void updateEntryMedia(int ID, List<MediaAttachment> media) {
+        updateEntry(ID, fields("AllMediaInText", MediaAttachment.toJSONArray(media), "LastEdited", now()));
+    }
+
+    //The fields are stored as a single Update record (or a single rewrite of the JSON file).
+    @Override
+    public synchronized void updateEntryFields(int ID, JSONObject changedFields) {
+        updateEntry(ID, changedFields);
+    }
+
+    @Override
+    public synchronized void deleteEntry(int ID) {
+        if (!journalExists()) {
+            return;
+        }
+        ensureLoaded();
+        if (entries.remove(ID) == null) {
+            return;
+        }
+
+        try {
+            persist(new JSONObject().put("Op", "Delete").put("ID", ID));
+            bodyStore.delete(ID);
+        } catch (IOException | JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        changeNotifier.notifyEntryChanged(ID);
+    }
+
+    //Writes every change held within the write-ahead log into the JSON file and clears
+    //the log. This is done automatically once the log becomes too large, but can also
+    //be called directly (e.g., when the app is closed).
+    @Override
+    public synchronized void compact() {
+        if (writeAheadLog == null) {
+            return;
+        }
+        ensureLoaded();
+        if (writeAheadLog.getRecordCount() == 0) {
+            return;
+        }
+        writeToFile();
+        writeAheadLog.clear();
+        rememberFileState();
+    }
+
+    @Override
+    public void addChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        changeNotifier.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        changeNotifier.removeListener(listener);
+    }
+
+    //Returns a summary of how long writing the JSON file took, including the
+    //time added by syncing the file to disk and renaming it into place.
+    public synchronized String getWriteLatencyReport() {
+        return snapshotWriter.getLatencyReport();
+    }
+
+    public synchronized long getBytesRead() {
+        return bytesRead;
+    }
+
+    //Updates are only ever applied to entries that already exist. The changed fields
+    //are applied to the entry in memory, then persisted. A changed text is held in memory
+    //(and within the write-ahead log) until the JSON file is next written, at which point
+    //it is moved into the body store (see writeToFile()).
+    private void updateEntry(int ID, JSONObject changedFields) {
+        if (!journalExists()) {
+            return;
+        }
+        ensureLoaded();
+        JournalEntry entry = entries.get(ID);
+        if (entry == null) {
+            return;
+        }
+
+        try {
+            entry.applyFields(changedFields);
+            persist(new JSONObject().put("Op", "Update").put("ID", ID).put("Fields", changedFields));
+        } catch (JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        changeNotifier.notifyEntryChanged(ID);
+    }
+
+    //Returns a copy of the entry with the given ID. Should the journal not have been loaded yet,
+    //the entry is looked up within the files instead, in which case it may still hold its text.
+    private JournalEntry findEntry(int ID) {
+        if (!loaded) {
+            try {
+                return findEntryOnDisk(ID);
+            } catch (IOException | JSONException e) {
+                //Should the JSON file be damaged, the whole journal is loaded
+                //instead, which falls back to the backup of the file.
+                e.printStackTrace();
+            }
+        }
+        ensureLoaded();
+        JournalEntry entry = entries.get(ID);
+        return entry == null ? null : new JournalEntry(entry);
+    }
+
+    //Stores a change that was already applied in memory. In write-ahead log mode, the
+    //change is appended to the log as a record, otherwise the whole JSON file is rewritten.
+    private void persist(JSONObject record) {
+        if (writeAheadLog == null) {
+            writeToFile();
+            return;
+        }
+
+        try {
+            writeAheadLog.append(record);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        rememberFileState();
+
+        long logSizeLimit = Math.max(MINIMUM_COMPACTION_LOG_SIZE, file.length());
+        if (writeAheadLog.getRecordCount() >= COMPACTION_RECORD_THRESHOLD || writeAheadLog.getSizeInBytes() > logSizeLimit) {
+            compact();
+        }
+    }
+
+    //Applies a single record of the write-ahead log to the given entries. Every
+    //record holds the full resulting values, which means that replaying a record that
+    //was already compacted into the JSON file does not change anything.
+    private static void applyRecord(Map<Integer, JournalEntry> entries, JSONObject record) throws JSONException {
+        String operation = record.getString("Op");
+        if (operation.equals("Create")) {
+            JournalEntry entry = JournalEntry.fromJSON(record.getJSONObject("Entry"));
+            entries.put(entry.getID(), entry);
+        } else if (operation.equals("Update")) {
+            JournalEntry entry = entries.get(record.getInt("ID"));
+            if (entry != null) {
+                entry.applyFields(record.getJSONObject("Fields"));
+            }
+        } else if (operation.equals("Delete")) {
+            entries.remove(record.getInt("ID"));
+        }
+    }
+
+    //Returns the ID of the entry a record of the write-ahead log applies to.
+    private static int getRecordEntryID(JSONObject record) throws JSONException {
+        if (record.getString("Op").equals("Create")) {
+            return record.getJSONObject("Entry").getInt("ID");
+        }
+        return record.getInt("ID");
+    }
+
+    //The journal counts as existing when either the JSON file or any
+    //change stored within the write-ahead log exists.
+    private boolean journalExists() {
+        return file.exists() || (writeAheadLog != null && writeAheadLog.getFile().exists());
+    }
+
+    //Loads the JSON file into memory the first time it is needed, and again
+    //whenever the file on disk no longer matches what was last read or written.
+    //Checking the file is a single stat call, which is far cheaper than a full parse.
+    //In write-ahead log mode, the changes within the log are replayed afterwards.
+    private void ensureLoaded() {
+        if (loaded && !hasChangedOnDisk()) {
+            return;
+        }
+
+        entries.clear();
+        if (file.exists()) {
+            //Should the JSON file be damaged, the backup of its previous version
+            //is loaded instead so that the journal can still be opened.
+            try {
+                readSnapshot(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+                if (!snapshotWriter.getBackupFile().exists()) {
+                    throw new RuntimeException(e);
+                }
+                entries.clear();
+                try {
+                    readSnapshot(snapshotWriter.getBackupFile());
+                } catch (IOException backupException) {
+                    backupException.printStackTrace();
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+
+        //The saved next ID is only ever behind the entries themselves should the idIndex be
+        //missing, or should the app have been killed before it was written along with the JSON
+        //file. Entries created since then are still within the file or the write-ahead log,
+        //where entries that were created and deleted again are still held as well.
+        //Should the journal itself have been deleted, IDs start from 1 again.
+        nextID = journalExists() ? idIndex.readNextID() : 1;
+        if (writeAheadLog != null) {
+            try {
+                replayLog(record -> {
+                    applyRecord(entries, record);
+                    nextID = Math.max(nextID, getRecordEntryID(record) + 1);
+                });
+            } catch (IOException | JSONException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+        }
+        for (int entryID : entries.keySet()) {
+            if (entryID >= nextID) {
+                nextID = entryID + 1;
+            }
+        }
+        //Journals written before the text of each entry was stored separately hold the full
+        //texts within the JSON file, which are moved into the body store straight away rather
+        //than being held in memory until the next change. This also applies to texts that were
+        //changed within the write-ahead log since it was last compacted.
+        if (hasPendingTexts()) {
+            writeToFile();
+            if (writeAheadLog != null) {
+                writeAheadLog.clear();
+            }
+        }
+        rememberFileState();
+
+        //Should the journal have been loaded before, it was changed on disk by something
+        //else, meaning that listeners can no longer rely on what they have displayed.
+        if (loaded) {
+            changeNotifier.notifyReloaded();
+        }
+        loaded = true;
+    }
+
+    private boolean hasPendingTexts() {
+        for (JournalEntry entry : entries.values()) {
+            if (entry.getEntryText() != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasChangedOnDisk() {
+        if (file.lastModified() != knownLastModified || file.length() != knownLength) {
+            return true;
+        }
+        return writeAheadLog != null && (writeAheadLog.getFile().lastModified() != knownLogLastModified || writeAheadLog.getFile().length() != knownLogLength);
+    }
+
+    //Reads every entry within the given JSON file into memory. The file is read one entry at
+    //a time, meaning neither the content of the file nor a JSONArray of it is ever held in memory.
+    private void readSnapshot(File snapshot) throws IOException {
+        long start = System.nanoTime();
+        try (JournalSnapshotFormat.EntryReader reader = format.openEntries(openSnapshot(snapshot, 0))) {
+            JournalEntry entry;
+            while ((entry = reader.next(Integer.MAX_VALUE)) != null) {
+                entries.put(entry.getID(), entry);
+            }
+        } finally {
+            JournalMetrics.getInstance().recordSince(JournalMetrics.PARSE_SNAPSHOT, start);
+        }
+    }
+
+    //Looks up a single entry without loading the journal. Should the idIndex match the JSON file,
+    //only the entry itself is read from its position within the file. Otherwise, the file is read
+    //one entry at a time, stopping as soon as the entry is found. Any changes to the entry still held
+    //within the write-ahead log are then applied, meaning the result matches what a full load would return.
+    private JournalEntry findEntryOnDisk(int ID) throws IOException, JSONException {
+        JournalEntry foundEntry = null;
+        long position = file.exists() ? idIndex.findPosition(ID, file) : JournalIdIndex.NOT_FOUND;
+        if (position >= 0) {
+            long start = System.nanoTime();
+            try {
+                foundEntry = format.readEntry(openSnapshot(file, position), Integer.MAX_VALUE);
+            } catch (IOException e) {
+                //The position no longer points to the start of an entry (see below).
+                foundEntry = null;
+            } finally {
+                JournalMetrics.getInstance().recordSince(JournalMetrics.PARSE_SNAPSHOT, start);
+                JournalMetrics.getInstance().record(JournalMetrics.ENTRIES_SCANNED, 1);
+            }
+            //The position can only point to another entry (or into the middle of one) should the
+            //JSON file have been replaced by one of the same length within the same millisecond,
+            //in which case it is read in full.
+            if (foundEntry == null || foundEntry.getID() != ID) {
+                foundEntry = null;
+                position = JournalIdIndex.UNKNOWN;
+            }
+        }
+        if (position == JournalIdIndex.UNKNOWN) {
+            long start = System.nanoTime();
+            int entriesScanned = 0;
+            try (JournalSnapshotFormat.EntryReader reader = format.openEntries(openSnapshot(file, 0))) {
+                JournalEntry entry;
+                while (foundEntry == null && (entry = reader.next(Integer.MAX_VALUE)) != null) {
+                    entriesScanned++;
+                    if (entry.getID() == ID) {
+                        foundEntry = entry;
+                    }
+                }
+            } finally {
+                JournalMetrics.getInstance().recordSince(JournalMetrics.PARSE_SNAPSHOT, start);
+                JournalMetrics.getInstance().record(JournalMetrics.ENTRIES_SCANNED, entriesScanned);
+            }
+        }
+
+        if (writeAheadLog == null) {
+            return foundEntry;
+        }
+        final LinkedHashMap<Integer, JournalEntry> foundEntries = new LinkedHashMap<>();
+        if (foundEntry != null) {
+            foundEntries.put(ID, foundEntry);
+        }
+        replayLog(record -> {
+            if (getRecordEntryID(record) == ID) {
+                applyRecord(foundEntries, record);
+            }
+        });
+        return foundEntries.get(ID);
+    }
+
+    //Reads summaries of every entry without loading the journal. Should the JSON file still hold
+    //the full texts, only the first PREVIEW_LENGTH characters of each are read, while the rest is
+    //skipped as the file is read.
+    private List<JournalEntry> readSummariesFromDisk() throws IOException, JSONException {
+        final LinkedHashMap<Integer, JournalEntry> summaries = new LinkedHashMap<>();
+        if (file.exists()) {
+            long start = System.nanoTime();
+            try (JournalSnapshotFormat.EntryReader reader = format.openEntries(openSnapshot(file, 0))) {
+                JournalEntry summary;
+                while ((summary = reader.next(JournalEntry.PREVIEW_LENGTH)) != null) {
+                    summaries.put(summary.getID(), summary);
+                }
+            } finally {
+                JournalMetrics.getInstance().recordSince(JournalMetrics.PARSE_SNAPSHOT, start);
+            }
+        }
+
+        if (writeAheadLog != null) {
+            replayLog(record -> applyRecord(summaries, record));
+        }
+
+        List<JournalEntry> summaryList = new ArrayList<>(summaries.size());
+        for (JournalEntry summary : summaries.values()) {
+            summaryList.add(summary.toSummary());
+        }
+        return summaryList;
+    }
+
+    //Opens the given JSON file at the given position (in bytes), counting every byte read from it.
+    //The file may not be read in full (e.g., when looking up a single entry), which is why the
+    //bytes are counted as read.
+    private InputStream openSnapshot(File snapshot, long position) throws IOException {
+        FileInputStream fileInputStream = new FileInputStream(snapshot);
+        if (position > 0) {
+            fileInputStream.getChannel().position(position);
+        }
+        return new FilterInputStream(fileInputStream) {
+            @Override
+            public int read() throws IOException {
+                int character = super.read();
+                if (character != -1) {
+                    bytesRead++;
+                    JournalMetrics.getInstance().increment(JournalMetrics.BYTES_READ, 1);
+                }
+                return character;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int length) throws IOException {
+                int count = super.read(buffer, offset, length);
+                if (count > 0) {
+                    bytesRead += count;
+                    JournalMetrics.getInstance().increment(JournalMetrics.BYTES_READ, count);
+                }
+                return count;
+            }
+        };
+    }
+
+    //Replays the write-ahead log, which is always read in full.
+    private void replayLog(JournalWriteAheadLog.RecordHandler handler) throws IOException, JSONException {
+        bytesRead += writeAheadLog.getSizeInBytes();
+        writeAheadLog.replay(handler);
+    }
+
+    //Writes all entries held in memory back to the JSON file. The file is written
+    //atomically by the JournalSnapshotWriter, meaning a crash while writing can never
+    //leave a partially written journal behind. Every text changed since the file was last
+    //written is first moved into the body store, so that the file only holds previews.
+    //Should the app be killed in between, the texts are still held within the write-ahead
+    //log and are simply moved again the next time the journal is loaded. The file is written
+    //one entry at a time by its format (see JournalJsonFormat), so that the position of every
+    //entry is known and can be saved within the idIndex once the file has been written.
+    private void writeToFile() {
+        Map<Integer, String> pendingTexts = new LinkedHashMap<>();
+        for (JournalEntry entry : entries.values()) {
+            if (entry.getEntryText() != null) {
+                pendingTexts.put(entry.getID(), entry.getEntryText());
+            }
+        }
+        if (!pendingTexts.isEmpty()) {
+            try {
+                bodyStore.write(pendingTexts);
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+            for (int ID : pendingTexts.keySet()) {
+                entries.put(ID, entries.get(ID).toSummary());
+            }
+        }
+
+        int[] entryIDs = new int[entries.size()];
+        long[] positions = new long[entries.size()];
+        try {
+            snapshotWriter.write(format.write(entries.values(), entryIDs, positions));
+            idIndex.write(nextID, file, entryIDs, positions);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        rememberFileState();
+    }
+
+    private void rememberFileState() {
+        knownLastModified = file.lastModified();
+        knownLength = file.length();
+        if (writeAheadLog != null) {
+            knownLogLastModified = writeAheadLog.getFile().lastModified();
+            knownLogLength = writeAheadLog.getFile().length();
+        }
+    }
+
+    //Creates a JSONObject from pairs of keys and values, e.g., fields("EntryName", title).
+    private static JSONObject fields(Object... keysAndValues) {
+        JSONObject changedFields = new JSONObject();
+        try {
+            for (int i = 0; i < keysAndValues.length; i += 2) {
+                changedFields.put((String) keysAndValues[i], keysAndValues[i + 1]);
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return changedFields;
+    }
+
+    private static String now() {
+        return LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
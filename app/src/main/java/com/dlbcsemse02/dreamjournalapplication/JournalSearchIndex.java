@@ -0,0 +1,487 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JournalSearchIndex implements JournalChangeNotifier.OnJournalChangedListener {
+
+    //An inverted index over the name and text of every journal entry, which allows entries to
+    //be found by keyword without reading the text of every entry. Names and texts are split into
+    //words (terms), which are case-folded and stripped of accents (e.g., an accented "e" matches a plain "e").
+    //Every term is kept within a TreeMap pointing to the entries containing it, meaning that all
+    //terms starting with a prefix are found next to each other (e.g., "fly" finds "flying").
+    //
+    //The index is loaded the first time the journal is searched and then kept up to date by
+    //listening to the changes of the JournalStore. Changed entries are only indexed again the
+    //next time the journal is searched (or the index is saved), meaning that saving the text of
+    //an entry while typing costs nothing. The index is saved next to the JSON file (e.g.,
+    //journal_entries.json.index) whenever the journal is compacted. Since the app may be killed
+    //before then, or the journal may be changed by something else, the name and last edited date
+    //and time of every entry are saved along with its terms. Entries whose values no longer match
+    //those of the journal once the index is loaded are indexed again.
+    private static final int FORMAT_VERSION = 1;
+    private static final int MAGIC = 0x444a5349;
+
+    //A term found within the name of an entry counts as much as this many terms of its text.
+    private static final int NAME_WEIGHT = 3;
+
+    //Terms matching a query term only by their prefix are ranked below exact matches.
+    private static final double PREFIX_MATCH_WEIGHT = 0.5;
+
+    //Longer words are cut down to this length, which keeps them within the limits of the file.
+    private static final int MAX_TERM_LENGTH = 64;
+
+    //Should more entries than this need to be indexed again, the texts of all entries are read
+    //at once rather than one entry at a time.
+    private static final int BULK_INDEX_THRESHOLD = 64;
+
+    //One index exists per journal file for the whole process, as with the JournalRepository.
+    private static final Map<String, JournalSearchIndex> indexes = new HashMap<>();
+
+    private final File file;
+    private final File temporaryFile;
+
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final Map<Integer, IndexedEntry> indexedEntries = new HashMap<>();
+
+    //The entries reported as changed since they were last indexed, and whether the whole
+    //journal has to be compared with the index again (e.g., after it was reloaded from disk).
+    //Changes are reported while the JournalStore is locked, which is why they are recorded
+    //without locking the index, as the index locks the JournalStore while reading entries.
+    private final Set<Integer> changedEntryIDs = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloadRequired = false;
+    private boolean loaded = false;
+    private boolean changedSinceSave = false;
+    private JournalStore listenedStore;
+
+    private JournalSearchIndex(File journalFile) {
+        this.file = new File(journalFile.getParentFile(), journalFile.getName() + ".index");
+        this.temporaryFile = new File(journalFile.getParentFile(), journalFile.getName() + ".index.tmp");
+    }
+
+    public static synchronized JournalSearchIndex getInstance(File journalFile) {
+        String key = journalFile.getAbsolutePath();
+        JournalSearchIndex index = indexes.get(key);
+        if (index == null) {
+            index = new JournalSearchIndex(journalFile);
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    //Forgets all indexes held in memory (see JournalRepository.clearInstances()).
+    static synchronized void clearInstances() {
+        for (JournalSearchIndex index : indexes.values()) {
+            index.stopListening();
+        }
+        indexes.clear();
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    //Returns the IDs of the entries containing every word of the query (or a word starting with
+    //it), the best matching entries first, up to the given limit. Entries are ranked by how often
+    //the words occur within them, with rare words and words within the name counting the most.
+    public synchronized List<Integer> search(JournalStore store, String query, int limit) {
+        ensureUpToDate(store);
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+
+        //Every query term narrows down the entries found by those before it, meaning only the
+        //entries found so far are scored for the following terms.
+        Map<Integer, Double> scores = null;
+        for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+            Map<Integer, Double> termScores = scoreTerm(queryTerm, scores);
+            if (termScores.isEmpty()) {
+                return new ArrayList<>();
+            }
+            scores = termScores;
+        }
+
+        //Only the best entries are kept while going through the scores, newer entries first
+        //among those with the same score. The heap never holds more than limit entries, with the
+        //worst of them on top, meaning that an entry scoring no better than it is passed over
+        //without touching the heap. Since a common word (or a short prefix) matches most entries,
+        //finding the best few of them takes a single pass rather than sorting every entry found.
+        Comparator<Map.Entry<Integer, Double>> ranking = (first, second) -> {
+            int comparison = Double.compare(first.getValue(), second.getValue());
+            return comparison != 0 ? comparison : Integer.compare(first.getKey(), second.getKey());
+        };
+        PriorityQueue<Map.Entry<Integer, Double>> best = new PriorityQueue<>(Math.min(limit, scores.size()), ranking);
+        for (Map.Entry<Integer, Double> score : scores.entrySet()) {
+            if (best.size() < limit) {
+                best.add(score);
+            } else if (ranking.compare(score, best.peek()) > 0) {
+                best.poll();
+                best.add(score);
+            }
+        }
+        Integer[] entryIDs = new Integer[best.size()];
+        for (int i = entryIDs.length - 1; i >= 0; i--) {
+            entryIDs[i] = best.poll().getKey();
+        }
+        return new ArrayList<>(Arrays.asList(entryIDs));
+    }
+
+    //Scores every entry holding the query term or a term starting with it. Should entries have
+    //been found by previous query terms, only those are scored, adding to their previous score.
+    private Map<Integer, Double> scoreTerm(String queryTerm, Map<Integer, Double> previousScores) {
+        Map<Integer, Double> scores = new HashMap<>();
+        double entryCount = Math.max(1, indexedEntries.size());
+        SortedMap<String, Postings> matchingTerms = postings.subMap(queryTerm, queryTerm + Character.MAX_VALUE);
+        for (Map.Entry<String, Postings> matchingTerm : matchingTerms.entrySet()) {
+            Postings termPostings = matchingTerm.getValue();
+            double weight = Math.log(1 + entryCount / termPostings.size) * (matchingTerm.getKey().length() == queryTerm.length() ? 1 : PREFIX_MATCH_WEIGHT);
+            for (int i = 0; i < termPostings.size; i++) {
+                int entryID = termPostings.entryIDs[i];
+                Double previousScore = previousScores == null ? Double.valueOf(0) : previousScores.get(entryID);
+                if (previousScore == null) {
+                    continue;
+                }
+                Double score = scores.get(entryID);
+                scores.put(entryID, (score == null ? previousScore : score) + termPostings.counts[i] * weight);
+            }
+        }
+        return scores;
+    }
+
+    //Saves the index next to the JSON file, should it have changed since it was last saved.
+    //The index is written to a temporary file first and then renamed, meaning the saved index is
+    //never partially written. It is not synced to disk, as it can always be built again.
+    public synchronized void save(JournalStore store) {
+        if (!loaded || (!changedSinceSave && changedEntryIDs.isEmpty() && !reloadRequired)) {
+            return;
+        }
+        ensureUpToDate(store);
+
+        long start = System.nanoTime();
+        try (DataOutputStream outputStream = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            outputStream.writeInt(MAGIC);
+            outputStream.writeInt(FORMAT_VERSION);
+            outputStream.writeInt(indexedEntries.size());
+            for (Map.Entry<Integer, IndexedEntry> indexedEntry : indexedEntries.entrySet()) {
+                IndexedEntry entry = indexedEntry.getValue();
+                outputStream.writeInt(indexedEntry.getKey());
+                outputStream.writeUTF(entry.lastEdited);
+                outputStream.writeUTF(entry.name);
+                outputStream.writeInt(entry.terms.length);
+                for (int i = 0; i < entry.terms.length; i++) {
+                    outputStream.writeUTF(entry.terms[i]);
+                    outputStream.writeInt(entry.counts[i]);
+                }
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        try {
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        changedSinceSave = false;
+        JournalMetrics.getInstance().recordSince(JournalMetrics.WRITE_INDEX, start);
+        JournalMetrics.getInstance().increment(JournalMetrics.BYTES_WRITTEN, file.length());
+    }
+
+    public synchronized int getIndexedEntryCount() {
+        return indexedEntries.size();
+    }
+
+    public synchronized int getTermCount() {
+        return postings.size();
+    }
+
+    @Override
+    public void onJournalEntryChanged(int entryID) {
+        changedEntryIDs.add(entryID);
+    }
+
+    @Override
+    public void onJournalReloaded() {
+        reloadRequired = true;
+    }
+
+    //Loads the index the first time it is needed, then indexes every entry that changed since.
+    private void ensureUpToDate(JournalStore store) {
+        if (listenedStore != store) {
+            //The index starts listening before the journal is compared with it, meaning no
+            //change made in the meantime is missed.
+            stopListening();
+            store.addChangeListener(this);
+            listenedStore = store;
+            reloadRequired = true;
+        }
+        if (!loaded) {
+            load();
+            loaded = true;
+        }
+
+        if (reloadRequired) {
+            reloadRequired = false;
+            changedEntryIDs.clear();
+            synchronize(store);
+        } else {
+            for (Integer entryID : changedEntryIDs) {
+                changedEntryIDs.remove(entryID);
+                JournalEntry entry = store.getEntry(entryID);
+                if (entry == null) {
+                    removeEntry(entryID);
+                } else {
+                    indexEntry(entry);
+                }
+            }
+        }
+    }
+
+    private void stopListening() {
+        if (listenedStore != null) {
+            listenedStore.removeChangeListener(this);
+            listenedStore = null;
+        }
+    }
+
+    //Compares the index with the summaries of every entry, indexing again those whose name or last
+    //edited date and time differ from what was indexed, and removing the entries that no longer exist.
+    private void synchronize(JournalStore store) {
+        Set<Integer> existingIDs = new HashSet<>();
+        List<Integer> outdatedIDs = new ArrayList<>();
+        for (JournalEntry summary : store.getEntrySummaries()) {
+            existingIDs.add(summary.getID());
+            IndexedEntry indexedEntry = indexedEntries.get(summary.getID());
+            if (indexedEntry == null || !indexedEntry.lastEdited.equals(valueOf(summary.getLastEdited()))
+                    || !indexedEntry.name.equals(valueOf(summary.getEntryName()))) {
+                outdatedIDs.add(summary.getID());
+            }
+        }
+        for (Integer indexedID : new ArrayList<>(indexedEntries.keySet())) {
+            if (!existingIDs.contains(indexedID)) {
+                removeEntry(indexedID);
+            }
+        }
+
+        if (outdatedIDs.size() > BULK_INDEX_THRESHOLD) {
+            Set<Integer> outdated = new HashSet<>(outdatedIDs);
+            for (JournalEntry entry : store.getAllEntries()) {
+                if (outdated.contains(entry.getID())) {
+                    indexEntry(entry);
+                }
+            }
+        } else {
+            for (int entryID : outdatedIDs) {
+                JournalEntry entry = store.getEntry(entryID);
+                if (entry != null) {
+                    indexEntry(entry);
+                }
+            }
+        }
+    }
+
+    //Replaces the terms of an entry with those of its current name and text.
+    private void indexEntry(JournalEntry entry) {
+        removeEntry(entry.getID());
+        Map<String, Integer> termCounts = new HashMap<>();
+        for (String term : tokenize(entry.getEntryName())) {
+            termCounts.merge(term, NAME_WEIGHT, Integer::sum);
+        }
+        for (String term : tokenize(entry.getEntryText())) {
+            termCounts.merge(term, 1, Integer::sum);
+        }
+
+        String[] terms = new String[termCounts.size()];
+        int[] counts = new int[termCounts.size()];
+        int i = 0;
+        for (Map.Entry<String, Integer> termCount : termCounts.entrySet()) {
+            terms[i] = termCount.getKey();
+            counts[i] = termCount.getValue();
+            i++;
+        }
+        addEntry(entry.getID(), new IndexedEntry(valueOf(entry.getLastEdited()), valueOf(entry.getEntryName()), terms, counts));
+    }
+
+    private void addEntry(int entryID, IndexedEntry indexedEntry) {
+        for (int i = 0; i < indexedEntry.terms.length; i++) {
+            String term = indexedEntry.terms[i];
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                termPostings = new Postings();
+                postings.put(term, termPostings);
+            } else {
+                //The entry shares the string of the term held by the TreeMap, rather than
+                //every entry holding its own copy of it.
+                indexedEntry.terms[i] = postings.ceilingKey(term);
+            }
+            termPostings.put(entryID, indexedEntry.counts[i]);
+        }
+        indexedEntries.put(entryID, indexedEntry);
+        changedSinceSave = true;
+    }
+
+    private void removeEntry(int entryID) {
+        IndexedEntry indexedEntry = indexedEntries.remove(entryID);
+        if (indexedEntry == null) {
+            return;
+        }
+        for (String term : indexedEntry.terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(entryID);
+                if (termPostings.size == 0) {
+                    postings.remove(term);
+                }
+            }
+        }
+        changedSinceSave = true;
+    }
+
+    //Reads the saved index. Should it be missing, damaged or of another version, the index
+    //starts out empty, in which case every entry is indexed again.
+    private void load() {
+        postings.clear();
+        indexedEntries.clear();
+        if (!file.exists()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        try (DataInputStream inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (inputStream.readInt() != MAGIC || inputStream.readInt() != FORMAT_VERSION) {
+                return;
+            }
+            int entryCount = inputStream.readInt();
+            for (int entry = 0; entry < entryCount; entry++) {
+                int entryID = inputStream.readInt();
+                String lastEdited = inputStream.readUTF();
+                String name = inputStream.readUTF();
+                int termCount = inputStream.readInt();
+                String[] terms = new String[termCount];
+                int[] counts = new int[termCount];
+                for (int i = 0; i < termCount; i++) {
+                    terms[i] = inputStream.readUTF();
+                    counts[i] = inputStream.readInt();
+                }
+                addEntry(entryID, new IndexedEntry(lastEdited, name, terms, counts));
+            }
+            changedSinceSave = false;
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+            postings.clear();
+            indexedEntries.clear();
+        }
+        JournalMetrics.getInstance().recordSince(JournalMetrics.PARSE_INDEX, start);
+        JournalMetrics.getInstance().increment(JournalMetrics.BYTES_READ, file.length());
+    }
+
+    //Splits the text into terms, i.e., runs of letters and digits, which are case-folded and
+    //stripped of accents. The same is done for queries, meaning both always match.
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder term = new StringBuilder();
+        for (int i = 0; i < normalized.length(); ) {
+            int codePoint = normalized.codePointAt(i);
+            i += Character.charCount(codePoint);
+            if (Character.getType(codePoint) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(codePoint)) {
+                if (term.length() < MAX_TERM_LENGTH) {
+                    term.appendCodePoint(codePoint);
+                }
+            } else if (term.length() > 0) {
+                terms.add(term.toString().toLowerCase(Locale.ROOT));
+                term.setLength(0);
+            }
+        }
+        if (term.length() > 0) {
+            terms.add(term.toString().toLowerCase(Locale.ROOT));
+        }
+        return terms;
+    }
+
+    private static String valueOf(String value) {
+        return value == null ? "" : value;
+    }
+
+    //The terms of an entry, along with the values it was indexed with.
+    private static class IndexedEntry {
+        private final String lastEdited;
+        private final String name;
+        private final String[] terms;
+        private final int[] counts;
+
+        IndexedEntry(String lastEdited, String name, String[] terms, int[] counts) {
+            this.lastEdited = lastEdited;
+            this.name = name;
+            this.terms = terms;
+            this.counts = counts;
+        }
+    }
+
+    //The entries holding a term, along with how often they hold it, sorted by their ID. These are
+    //kept as arrays rather than maps, since the index holds millions of them for a large journal.
+    private static class Postings {
+        private int[] entryIDs = new int[2];
+        private int[] counts = new int[2];
+        private int size = 0;
+
+        void put(int entryID, int count) {
+            int position = Arrays.binarySearch(entryIDs, 0, size, entryID);
+            if (position >= 0) {
+                counts[position] = count;
+                return;
+            }
+            position = -(position + 1);
+            if (size == entryIDs.length) {
+                entryIDs = Arrays.copyOf(entryIDs, size * 2);
+                counts = Arrays.copyOf(counts, size * 2);
+            }
+            System.arraycopy(entryIDs, position, entryIDs, position + 1, size - position);
+            System.arraycopy(counts, position, counts, position + 1, size - position);
+            entryIDs[position] = entryID;
+            counts[position] = count;
+            size++;
+        }
+
+        void remove(int entryID) {
+            int position = Arrays.binarySearch(entryIDs, 0, size, entryID);
+            if (position < 0) {
+                return;
+            }
+            System.arraycopy(entryIDs, position + 1, entryIDs, position, size - position - 1);
+            System.arraycopy(counts, position + 1, counts, position, size - position - 1);
+            size--;
+        }
+    }
+}
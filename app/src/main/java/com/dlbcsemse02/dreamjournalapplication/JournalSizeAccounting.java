@@ -0,0 +1,236 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.provider.OpenableColumns;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JournalSizeAccounting {
+
+    //Works out how many bytes a journal entry (or the whole journal) takes up, i.e., the size of
+    //its text encoded as UTF-8 plus the sizes of its media attachments. The size of the text is
+    //counted from the text in memory (or by the JournalStore) rather than by converting the entry
+    //into JSON, while the size of each media is taken from its attachment (see MediaAttachment).
+    //Only media whose size is not known are asked for it, via their media provider, after which
+    //the size is cached for the URI of the media. The cached size of a URI is dropped once its
+    //media provider reports that the media has changed, so that it is asked for again.
+    private static JournalSizeAccounting instance;
+
+    private final Context context;
+
+    //The sizes of the media in bytes, keyed by their URI.
+    private final Map<String, Long> mediaSizes = new ConcurrentHashMap<>();
+
+    //The authorities of the media providers that are observed for changes (a single observer
+    //being registered for each of them rather than for every media), and the URIs whose media
+    //has changed since it was attached, meaning the size stored within their attachment can no
+    //longer be trusted.
+    private final Set<String> observedAuthorities = ConcurrentHashMap.newKeySet();
+    private final Set<String> changedUris = ConcurrentHashMap.newKeySet();
+    private ContentObserver contentObserver;
+
+    JournalSizeAccounting(Context context) {
+        this.context = context;
+    }
+
+    public static synchronized JournalSizeAccounting getInstance(Context context) {
+        if (instance == null) {
+            instance = new JournalSizeAccounting(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    //Returns the size of a single journal entry, which must hold its text (see
+    //ManagingJournalEntries.getJournalEntry()).
+    public SizeReport getEntrySize(JournalEntry entry) {
+        SizeReport report = new SizeReport();
+        report.entryCount = 1;
+        report.textSizeInBytes = utf8Length(entry.getEntryName()) + utf8Length(entry.getEntryText());
+        addMediaSizes(report, entry.getAllMediaInText());
+        return report;
+    }
+
+    //Returns the size of every journal entry together. The entries are only read as summaries,
+    //while the sizes of their texts are counted by the JournalStore (see getEntryTextSizes()).
+    public SizeReport getJournalSize(ManagingJournalEntries managingJournalEntries) {
+        Map<Integer, Long> textSizes = managingJournalEntries.getJournalEntryTextSizes(context);
+        SizeReport report = new SizeReport();
+        for (JournalEntry summary : managingJournalEntries.getAllJournalEntrySummaries(context)) {
+            Long textSize = textSizes.get(summary.getID());
+            report.entryCount++;
+            report.textSizeInBytes += utf8Length(summary.getEntryName()) + (textSize == null ? 0 : textSize);
+            addMediaSizes(report, summary.getAllMediaInText());
+        }
+        return report;
+    }
+
+    //Returns the size of the media in bytes, or MediaAttachment.UNKNOWN_SIZE should
+    //its media provider not report it (e.g., once the media has been deleted).
+    public long getMediaSize(MediaAttachment attachment) {
+        String uri = attachment.getUri();
+        Long cachedSize = mediaSizes.get(uri);
+        if (cachedSize != null) {
+            return cachedSize;
+        }
+
+        long sizeInBytes = attachment.getSizeInBytes();
+        if (sizeInBytes == MediaAttachment.UNKNOWN_SIZE || changedUris.contains(uri)) {
+            sizeInBytes = readMediaSize(Uri.parse(uri));
+        }
+        if (sizeInBytes != MediaAttachment.UNKNOWN_SIZE) {
+            mediaSizes.put(uri, sizeInBytes);
+            observe(uri);
+        }
+        return sizeInBytes;
+    }
+
+    public int getCachedMediaCount() {
+        return mediaSizes.size();
+    }
+
+    private void addMediaSizes(SizeReport report, List<MediaAttachment> media) {
+        for (MediaAttachment attachment : media) {
+            report.mediaCount++;
+            long sizeInBytes = getMediaSize(attachment);
+            if (sizeInBytes != MediaAttachment.UNKNOWN_SIZE) {
+                report.mediaSizeInBytes += sizeInBytes;
+            }
+        }
+    }
+
+    //Asks the media provider for the size of the media. Most providers report it as a column
+    //(OpenableColumns.SIZE), while the others are asked for the length of the media once it is
+    //opened, which does not read the media itself.
+    long readMediaSize(Uri uri) {
+        if (ContentResolver.SCHEME_FILE.equals(uri.getScheme())) {
+            File file = new File(uri.getPath());
+            return file.exists() ? file.length() : MediaAttachment.UNKNOWN_SIZE;
+        }
+
+        ContentResolver contentResolver = context.getContentResolver();
+        try (Cursor cursor = contentResolver.query(uri, new String[]{OpenableColumns.SIZE}, null, null, null)) {
+            if (cursor != null && cursor.moveToFirst() && !cursor.isNull(0)) {
+                return cursor.getLong(0);
+            }
+        } catch (RuntimeException e) {
+            //A provider may refuse the query (e.g., should the permission have been revoked).
+            e.printStackTrace();
+        }
+
+        try (AssetFileDescriptor descriptor = contentResolver.openAssetFileDescriptor(uri, "r")) {
+            if (descriptor != null) {
+                long length = descriptor.getLength();
+                return length != AssetFileDescriptor.UNKNOWN_LENGTH ? length : descriptor.getParcelFileDescriptor().getStatSize();
+            }
+        } catch (IOException | RuntimeException e) {
+            e.printStackTrace();
+        }
+        return MediaAttachment.UNKNOWN_SIZE;
+    }
+
+    //Registers for changes of the media, so that its cached size is dropped once it changes.
+    //Files do not report changes, which is why only the media of media providers are observed.
+    //Every media of a provider is observed at once (i.e., all URIs below its authority), meaning
+    //the number of observers is bounded by the number of providers media was attached from.
+    private void observe(String uri) {
+        Uri parsedUri = Uri.parse(uri);
+        String authority = parsedUri.getAuthority();
+        if (!ContentResolver.SCHEME_CONTENT.equals(parsedUri.getScheme()) || authority == null || !observedAuthorities.add(authority)) {
+            return;
+        }
+        try {
+            Uri authorityUri = new Uri.Builder().scheme(ContentResolver.SCHEME_CONTENT).authority(authority).build();
+            context.getContentResolver().registerContentObserver(authorityUri, true, getContentObserver());
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private synchronized ContentObserver getContentObserver() {
+        if (contentObserver == null) {
+            contentObserver = new ContentObserver(null) {
+                @Override
+                public void onChange(boolean selfChange, Uri uri) {
+                    if (uri == null) {
+                        changedUris.addAll(mediaSizes.keySet());
+                        mediaSizes.clear();
+                    } else {
+                        onMediaChanged(uri.toString());
+                    }
+                }
+            };
+        }
+        return contentObserver;
+    }
+
+    //Drops the cached size of the media, meaning it is asked for again the next time. Since
+    //every change of a provider is reported, only media whose size has been cached are noted.
+    void onMediaChanged(String uri) {
+        if (mediaSizes.remove(uri) != null) {
+            changedUris.add(uri);
+        }
+    }
+
+    //Counts the number of bytes the text takes up once encoded as UTF-8, without encoding it.
+    static long utf8Length(CharSequence text) {
+        if (text == null) {
+            return 0;
+        }
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                length += 1;
+            } else if (c < 0x800) {
+                length += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1))) {
+                length += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                //An unpaired surrogate is encoded as a single replacement character ("?").
+                length += 1;
+            } else {
+                length += 3;
+            }
+        }
+        return length;
+    }
+
+    //The size of one or several journal entries, split into the sizes of their texts and media.
+    public static class SizeReport {
+        private int entryCount;
+        private int mediaCount;
+        private long textSizeInBytes;
+        private long mediaSizeInBytes;
+
+        public int getEntryCount() {
+            return entryCount;
+        }
+
+        public int getMediaCount() {
+            return mediaCount;
+        }
+
+        public long getTextSizeInBytes() {
+            return textSizeInBytes;
+        }
+
+        public long getMediaSizeInBytes() {
+            return mediaSizeInBytes;
+        }
+
+        public long getTotalSizeInBytes() {
+            return textSizeInBytes + mediaSizeInBytes;
+        }
+    }
+}
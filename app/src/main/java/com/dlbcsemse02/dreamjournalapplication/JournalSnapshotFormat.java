@@ -0,0 +1,36 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collection;
+
+public interface JournalSnapshotFormat {
+
+    //The layout the JournalRepository writes its snapshot of the journal (the summaries of every
+    //entry) in. The journal is either stored as JSON (journal_entries.json, see JournalJsonFormat),
+    //which stays readable for developers, or in a compact binary layout (see JournalBinaryFormat),
+    //which is smaller and faster to read. Both layouts hold exactly the same fields, meaning a
+    //journal can be converted from one to the other without losing anything (see
+    //JournalRepository.convert()).
+    JournalSnapshotFormat JSON = new JournalJsonFormat();
+    JournalSnapshotFormat BINARY = new JournalBinaryFormat();
+
+    //Returns the content of a snapshot holding the given entries, in the order given. The ID and
+    //position (in bytes) of every entry are stored within the given arrays, so that they can be
+    //saved within the JournalIdIndex.
+    byte[] write(Collection<JournalEntry> entries, int[] entryIDs, long[] positions) throws IOException;
+
+    //Opens a snapshot in order to read every entry within it, one after another.
+    EntryReader openEntries(InputStream inputStream) throws IOException;
+
+    //Reads a single entry starting at the current position of the input stream, which is the
+    //position saved for it within the JournalIdIndex. At most textLength characters are kept
+    //of a text still held within the snapshot (see JournalEntry.readFrom()).
+    JournalEntry readEntry(InputStream inputStream, int textLength) throws IOException;
+
+    interface EntryReader extends Closeable {
+        //Returns the next entry, or null once every entry has been read.
+        JournalEntry next(int textLength) throws IOException;
+    }
+}
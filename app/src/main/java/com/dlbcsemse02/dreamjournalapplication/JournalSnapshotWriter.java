@@ -0,0 +1,117 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+public class JournalSnapshotWriter {
+
+    //The JSON file is never written in place. Instead, the new content is written to a
+    //temporary file within the same directory (getFilesDir()), synced to disk, and then
+    //renamed over the JSON file. Renaming is atomic, meaning that the JSON file always holds
+    //either the old or the new content, even if the app is killed while writing.
+    private final File file;
+    private final File temporaryFile;
+
+    //The previous version of the JSON file is kept as a backup, which is used
+    //should the JSON file ever be found to be damaged.
+    private final File backupFile;
+
+    //Timings of the most recent write in nanoseconds. The sync and rename steps are
+    //what this writer adds on top of simply writing the file, which allows the added
+    //latency to be compared with the previous BufferedWriter/FileWriter approach.
+    private long lastWriteNanos;
+    private long lastSyncNanos;
+    private long lastRenameNanos;
+    private long lastBytesWritten;
+    private long totalWrites;
+    private long totalAddedNanos;
+
+    public JournalSnapshotWriter(File file) {
+        this.file = file;
+        this.temporaryFile = new File(file.getParentFile(), file.getName() + ".tmp");
+        this.backupFile = new File(file.getParentFile(), file.getName() + ".bak");
+    }
+
+    public File getBackupFile() {
+        return backupFile;
+    }
+
+    //Writes the given content to the JSON file atomically.
+    public void write(String content) throws IOException {
+        write(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void write(byte[] bytes) throws IOException {
+        //The content is written to the temporary file and forced to disk before the
+        //file is renamed, otherwise the rename could reach the disk before the data.
+        long writeStart = System.nanoTime();
+        try (FileOutputStream outputStream = new FileOutputStream(temporaryFile)) {
+            outputStream.write(bytes);
+            long syncStart = System.nanoTime();
+            outputStream.getChannel().force(true);
+            lastSyncNanos = System.nanoTime() - syncStart;
+        }
+
+        //The current JSON file becomes the backup. A hard link is used where possible so
+        //that no data has to be copied, and the JSON file never stops existing.
+        long renameStart = System.nanoTime();
+        if (file.exists()) {
+            Files.deleteIfExists(backupFile.toPath());
+            try {
+                Files.createLink(backupFile.toPath(), file.toPath());
+            } catch (IOException | UnsupportedOperationException e) {
+                Files.copy(file.toPath(), backupFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            syncDirectory(file.getParentFile());
+        }
+        Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory(file.getParentFile());
+        lastRenameNanos = System.nanoTime() - renameStart;
+
+        lastWriteNanos = System.nanoTime() - writeStart;
+        lastBytesWritten = bytes.length;
+        totalWrites++;
+        totalAddedNanos += lastSyncNanos + lastRenameNanos;
+
+        JournalMetrics metrics = JournalMetrics.getInstance();
+        metrics.record(JournalMetrics.WRITE_SNAPSHOT, lastWriteNanos / 1000);
+        metrics.increment(JournalMetrics.BYTES_WRITTEN, bytes.length);
+    }
+
+    //Forces the entries of the given directory to disk. A rename (or link) only changes the
+    //directory, which is not synced along with the renamed file, meaning the rename could
+    //otherwise still be lost should the device lose power afterwards. Not every file system
+    //allows a directory to be opened or synced, in which case nothing more can be done.
+    public static void syncDirectory(File directory) {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            //The directory cannot be synced on this file system.
+        }
+    }
+
+    public long getLastWriteNanos() {
+        return lastWriteNanos;
+    }
+
+    public long getLastSyncNanos() {
+        return lastSyncNanos;
+    }
+
+    public long getLastRenameNanos() {
+        return lastRenameNanos;
+    }
+
+    //Returns a short, human readable summary of the write latency, e.g., for debugging.
+    public String getLatencyReport() {
+        double averageAddedMillis = totalWrites == 0 ? 0 : (totalAddedNanos / (double) totalWrites) / 1_000_000.0;
+        return String.format(Locale.ROOT, "%s: last write %d bytes in %.2f ms (sync %.2f ms, rename %.2f ms), average added by sync and rename over %d writes: %.2f ms", file.getName(), lastBytesWritten, lastWriteNanos / 1_000_000.0, lastSyncNanos / 1_000_000.0, lastRenameNanos / 1_000_000.0, totalWrites, averageAddedMillis);
+    }
+}
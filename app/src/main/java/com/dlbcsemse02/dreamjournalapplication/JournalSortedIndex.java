@@ -0,0 +1,269 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class JournalSortedIndex implements JournalChangeNotifier.OnJournalChangedListener {
+
+    //Keeps the summaries of every journal entry sorted by when they were created and when they were
+    //last edited, which allows the home screen to show the newest or most recently edited entries
+    //of a large journal one page at a time, without sorting every entry each time it is shown.
+    //Both orders are held within a TreeSet, meaning a changed entry only has to be moved to its new
+    //position rather than the whole journal being sorted again.
+    //
+    //As with the JournalSearchIndex, the index is built the first time a page is requested, then
+    //kept up to date by listening to the changes of the JournalStore. Changed entries are only moved
+    //the next time a page is requested. The index is only held in memory, as building it takes a
+    //single read of the summaries, which the home screen reads when it is shown anyway.
+    //
+    //The entries are also counted per day they were created on, which allows a calendar to show
+    //how many dreams were written down on each day of a month, or within each month of a year,
+    //by only going through the days shown rather than through every entry of the journal.
+    public enum Order {
+        NEWEST_FIRST,
+        OLDEST_FIRST,
+        RECENTLY_EDITED_FIRST
+    }
+
+    //One index exists per journal file for the whole process, as with the JournalRepository.
+    private static final Map<String, JournalSortedIndex> indexes = new HashMap<>();
+
+    //The dates and times are compared as they are stored (ISO-8601, e.g., 2025-01-01T08:00:00),
+    //which sorts them in the same order as parsing them would, without parsing every one of them.
+    private final TreeSet<Key> byCreated = new TreeSet<>();
+    private final TreeSet<Key> byLastEdited = new TreeSet<>();
+    private final Map<Integer, JournalEntry> summaries = new HashMap<>();
+
+    //The number of entries created on each day, keyed by the date (e.g., 2025-01-01). Entries
+    //without a valid date and time of creation are not counted.
+    private final TreeMap<String, Integer> entriesPerDay = new TreeMap<>();
+
+    //The entries reported as changed since they were last moved, and whether the index has to be
+    //built again (e.g., after the journal was reloaded from disk). Changes are reported while the
+    //JournalStore is locked, which is why they are recorded without locking the index, as the
+    //index locks the JournalStore while looking up the changed entries.
+    private final Set<Integer> changedEntryIDs = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloadRequired = true;
+    private JournalStore listenedStore;
+
+    private JournalSortedIndex() {
+    }
+
+    public static synchronized JournalSortedIndex getInstance(File journalFile) {
+        String key = journalFile.getAbsolutePath();
+        JournalSortedIndex index = indexes.get(key);
+        if (index == null) {
+            index = new JournalSortedIndex();
+            indexes.put(key, index);
+        }
+        return index;
+    }
+
+    //Forgets all indexes held in memory (see JournalRepository.clearInstances()).
+    static synchronized void clearInstances() {
+        for (JournalSortedIndex index : indexes.values()) {
+            index.stopListening();
+        }
+        indexes.clear();
+    }
+
+    //Returns up to pageSize summaries (see JournalEntry.toSummary()) in the given order, starting
+    //right after the entry the cursor points to, or with the first entry should the cursor be null.
+    //The cursor of the page returned points to its last entry, meaning the next page starts where
+    //the previous one ended, even should entries have been created or changed in between.
+    public synchronized JournalEntryPage getPage(JournalStore store, Order order, JournalEntryPage.Cursor after, int pageSize) {
+        ensureUpToDate(store);
+        NavigableSet<Key> keys = order == Order.RECENTLY_EDITED_FIRST ? byLastEdited : byCreated;
+        if (order != Order.OLDEST_FIRST) {
+            keys = keys.descendingSet();
+        }
+        if (after != null) {
+            keys = keys.tailSet(new Key(after.sortValue, after.ID), false);
+        }
+
+        List<JournalEntry> entries = new ArrayList<>(Math.max(0, Math.min(pageSize, summaries.size())));
+        Key lastKey = null;
+        Iterator<Key> iterator = keys.iterator();
+        while (entries.size() < pageSize && iterator.hasNext()) {
+            lastKey = iterator.next();
+            entries.add(new JournalEntry(summaries.get(lastKey.ID)));
+        }
+        boolean hasMore = iterator.hasNext();
+        return new JournalEntryPage(entries, hasMore ? new JournalEntryPage.Cursor(lastKey.sortValue, lastKey.ID) : null);
+    }
+
+    //Returns summaries of the entries created from the first date up to (but not including) the
+    //second one, oldest first. Only the entries within the range are gone through.
+    public synchronized List<JournalEntry> getEntriesCreatedBetween(JournalStore store, LocalDate from, LocalDate until) {
+        ensureUpToDate(store);
+        List<JournalEntry> entries = new ArrayList<>();
+        if (!from.isBefore(until)) {
+            return entries;
+        }
+        for (Key key : byCreated.subSet(new Key(from.toString(), Integer.MIN_VALUE), true, new Key(until.toString(), Integer.MIN_VALUE), false)) {
+            entries.add(new JournalEntry(summaries.get(key.ID)));
+        }
+        return entries;
+    }
+
+    //Returns the number of entries created on each day of the month, leaving out days without any.
+    public synchronized Map<LocalDate, Integer> getEntryCountsPerDay(JournalStore store, YearMonth month) {
+        ensureUpToDate(store);
+        Map<LocalDate, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, Integer> day : getDays(month.atDay(1), month.plusMonths(1).atDay(1)).entrySet()) {
+            try {
+                counts.put(LocalDate.parse(day.getKey()), day.getValue());
+            } catch (DateTimeParseException e) {
+                //Days that do not exist (e.g., 2025-02-30) are left out.
+            }
+        }
+        return counts;
+    }
+
+    //Returns the number of entries created within each month of the year, leaving out months
+    //without any. Only the days of the year holding entries are gone through.
+    public synchronized Map<YearMonth, Integer> getEntryCountsPerMonth(JournalStore store, Year year) {
+        ensureUpToDate(store);
+        Map<YearMonth, Integer> counts = new TreeMap<>();
+        for (Map.Entry<String, Integer> day : getDays(year.atDay(1), year.plusYears(1).atDay(1)).entrySet()) {
+            try {
+                counts.merge(YearMonth.parse(day.getKey().substring(0, 7)), day.getValue(), Integer::sum);
+            } catch (DateTimeParseException e) {
+                //Months that do not exist (e.g., 2025-13) are left out.
+            }
+        }
+        return counts;
+    }
+
+    public synchronized int getEntryCount(JournalStore store) {
+        ensureUpToDate(store);
+        return summaries.size();
+    }
+
+    @Override
+    public void onJournalEntryChanged(int entryID) {
+        changedEntryIDs.add(entryID);
+    }
+
+    @Override
+    public void onJournalReloaded() {
+        reloadRequired = true;
+    }
+
+    //Builds the index the first time it is needed, then moves every entry that changed since.
+    private void ensureUpToDate(JournalStore store) {
+        if (listenedStore != store) {
+            //The index starts listening before the summaries are read, meaning no change
+            //made in the meantime is missed.
+            stopListening();
+            store.addChangeListener(this);
+            listenedStore = store;
+            reloadRequired = true;
+        }
+
+        if (reloadRequired) {
+            reloadRequired = false;
+            changedEntryIDs.clear();
+            byCreated.clear();
+            byLastEdited.clear();
+            summaries.clear();
+            entriesPerDay.clear();
+            for (JournalEntry summary : store.getEntrySummaries()) {
+                add(summary);
+            }
+            return;
+        }
+        for (Integer entryID : changedEntryIDs) {
+            changedEntryIDs.remove(entryID);
+            remove(entryID);
+            JournalEntry summary = store.getEntrySummary(entryID);
+            if (summary != null) {
+                add(summary);
+            }
+        }
+    }
+
+    private void stopListening() {
+        if (listenedStore != null) {
+            listenedStore.removeChangeListener(this);
+            listenedStore = null;
+        }
+    }
+
+    private void add(JournalEntry summary) {
+        summaries.put(summary.getID(), summary);
+        byCreated.add(new Key(valueOf(summary.getDateAndTimeCreated()), summary.getID()));
+        byLastEdited.add(new Key(valueOf(summary.getLastEdited()), summary.getID()));
+        String day = getDay(summary.getDateAndTimeCreated());
+        if (day != null) {
+            entriesPerDay.merge(day, 1, Integer::sum);
+        }
+    }
+
+    private void remove(int entryID) {
+        JournalEntry summary = summaries.remove(entryID);
+        if (summary != null) {
+            byCreated.remove(new Key(valueOf(summary.getDateAndTimeCreated()), entryID));
+            byLastEdited.remove(new Key(valueOf(summary.getLastEdited()), entryID));
+            String day = getDay(summary.getDateAndTimeCreated());
+            if (day != null) {
+                entriesPerDay.computeIfPresent(day, (date, count) -> count > 1 ? count - 1 : null);
+            }
+        }
+    }
+
+    private Map<String, Integer> getDays(LocalDate from, LocalDate until) {
+        return entriesPerDay.subMap(from.toString(), true, until.toString(), false);
+    }
+
+    //Returns the date an entry was created on (e.g., 2025-01-01 for 2025-01-01T08:00:00), or null
+    //should its date and time of creation not start with a date. The characters are only checked
+    //rather than parsed, as this is done for every entry while the index is built.
+    private static String getDay(String dateAndTime) {
+        if (dateAndTime == null || dateAndTime.length() < 10) {
+            return null;
+        }
+        for (int i = 0; i < 10; i++) {
+            char c = dateAndTime.charAt(i);
+            if ((i == 4 || i == 7) ? c != '-' : (c < '0' || c > '9')) {
+                return null;
+            }
+        }
+        return dateAndTime.substring(0, 10);
+    }
+
+    private static String valueOf(String value) {
+        return value == null ? "" : value;
+    }
+
+    //The position of an entry within one of the orders. Entries with the same date and time
+    //are sorted by their ID, meaning every entry has a position of its own.
+    private static class Key implements Comparable<Key> {
+        private final String sortValue;
+        private final int ID;
+
+        Key(String sortValue, int ID) {
+            this.sortValue = sortValue;
+            this.ID = ID;
+        }
+
+        @Override
+        public int compareTo(Key other) {
+            int comparison = sortValue.compareTo(other.sortValue);
+            return comparison != 0 ? comparison : Integer.compare(ID, other.ID);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import org.json.JSONObject;
+
+import java.util.List;
+import java.util.Map;
+
+//This interface describes every operation that ManagingJournalEntries performs on the
+//stored journal entries. It allows the entries to be stored either within the JSON file
+//(JournalRepository) or within an SQLite database (SQLiteJournalStore) without the
+//activities needing to know which one is used.
+public interface JournalStore {
+
+    JournalEntry getEntry(int ID);
+
+    //Returns the entry without its text, holding only a preview of it (see JournalEntry.toSummary()).
+    JournalEntry getEntrySummary(int ID);
+
+    List<JournalEntry> getAllEntries();
+
+    //Returns every entry with only what the home screen shows (see JournalEntry.toSummary()).
+    List<JournalEntry> getEntrySummaries();
+
+    boolean isEntryPinned(int ID);
+
+    //Returns the size of the text of every entry in bytes (encoded as UTF-8), keyed by the ID
+    //of the entry, without having to read the texts themselves where possible.
+    Map<Integer, Long> getEntryTextSizes();
+
+    int createEntry(String title);
+
+    void updateEntryName(int ID, String newTitle);
+
+    void updateImageThumbnail(int ID, String imagePath);
+
+    void updateEntryPinned(int ID, boolean pinned);
+
+    void updateEntryText(int ID, String newText);
+
+    void updateEntryMedia(int ID, List<MediaAttachment> media);
+
+    //Applies several changed fields to an entry at once, resulting in a single write. The
+    //fields use the same keys as journal_entries.json (e.g., EntryText and AllMediaInText).
+    void updateEntryFields(int ID, JSONObject changedFields);
+
+    void deleteEntry(int ID);
+
+    //Registers a listener that is informed about every change made to the journal.
+    void addChangeListener(JournalChangeNotifier.OnJournalChangedListener listener);
+
+    void removeChangeListener(JournalChangeNotifier.OnJournalChangedListener listener);
+
+    //Makes sure that every change is stored in its final form, e.g., by compacting
+    //a write-ahead log. Stores that always do so can leave this method empty.
+    void compact();
+}
@@ -0,0 +1,140 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+public class JournalWriteAheadLog {
+
+    //Every change made to the journal is appended to this file as a single line
+    //instead of rewriting the whole JSON file. A line has the layout
+    //"<CRC32 of the record in hex> <record as JSON>", which allows records that were
+    //only partially written (e.g., because the app was killed) to be detected.
+    private final File logFile;
+
+    //The number of valid records within the log, which is used by the
+    //JournalRepository to decide when to compact the log into the JSON file.
+    private int recordCount = 0;
+
+    public interface RecordHandler {
+        void onRecord(JSONObject record) throws JSONException;
+    }
+
+    public JournalWriteAheadLog(File journalFile) {
+        this.logFile = new File(journalFile.getParentFile(), journalFile.getName() + ".log");
+    }
+
+    public File getFile() {
+        return logFile;
+    }
+
+    public int getRecordCount() {
+        return recordCount;
+    }
+
+    public long getSizeInBytes() {
+        return logFile.length();
+    }
+
+    //Appends a record to the end of the log and syncs it to disk, meaning that the
+    //change is durable once this method returns.
+    public void append(JSONObject record) throws IOException {
+        String json = record.toString();
+        byte[] line = (checksum(json) + " " + json + "\n").getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        try (FileOutputStream outputStream = new FileOutputStream(logFile, true)) {
+            outputStream.write(line);
+            outputStream.getFD().sync();
+        }
+        recordCount++;
+        JournalMetrics.getInstance().recordSince(JournalMetrics.WRITE_LOG, start);
+        JournalMetrics.getInstance().increment(JournalMetrics.BYTES_WRITTEN, line.length);
+    }
+
+    //Reads every record within the log in the order they were appended and passes them
+    //to the handler. Reading stops at the first record that is incomplete or whose
+    //checksum does not match, as everything after such a record cannot be trusted.
+    //The log is then cut back to the last valid record so that new records are not
+    //appended to the end of a broken line.
+    public void replay(RecordHandler handler) throws IOException, JSONException {
+        recordCount = 0;
+        if (!logFile.exists()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        long validLength = 0;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(logFile), StandardCharsets.UTF_8))) {
+            StringBuilder line = new StringBuilder();
+            int character;
+            while ((character = reader.read()) != -1) {
+                if (character != '\n') {
+                    line.append((char) character);
+                    continue;
+                }
+
+                long lineLength = line.toString().getBytes(StandardCharsets.UTF_8).length + 1;
+                JSONObject record = parseLine(line.toString());
+                if (record == null) {
+                    break;
+                }
+                handler.onRecord(record);
+                validLength += lineLength;
+                recordCount++;
+                line.setLength(0);
+            }
+        }
+
+        JournalMetrics.getInstance().recordSince(JournalMetrics.PARSE_LOG, start);
+        JournalMetrics.getInstance().increment(JournalMetrics.BYTES_READ, logFile.length());
+
+        if (validLength < logFile.length()) {
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(logFile, "rw")) {
+                randomAccessFile.setLength(validLength);
+            }
+        }
+    }
+
+    //Removes every record from the log. This is called once all records have
+    //been written into the JSON file during compaction.
+    public void clear() {
+        if (logFile.exists() && !logFile.delete()) {
+            throw new RuntimeException("Could not delete " + logFile.getName());
+        }
+        recordCount = 0;
+    }
+
+    //Returns the record stored within a line of the log, or null should the
+    //line be damaged in any way.
+    private static JSONObject parseLine(String line) {
+        int separator = line.indexOf(' ');
+        if (separator <= 0) {
+            return null;
+        }
+        String json = line.substring(separator + 1);
+        if (!line.substring(0, separator).equals(checksum(json))) {
+            return null;
+        }
+        try {
+            return new JSONObject(json);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    private static String checksum(String json) {
+        CRC32 crc32 = new CRC32();
+        crc32.update(json.getBytes(StandardCharsets.UTF_8));
+        return Long.toHexString(crc32.getValue());
+    }
+}
@@ -0,0 +1,123 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.Context;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+public class JournalWriteBatcher {
+
+    //How long the batcher waits after the last change before writing the pending changes.
+    public static final long DEFAULT_DEBOUNCE_MILLIS = 2000;
+
+    //Changes to journal entries (e.g., their text and media while editing) are collected here
+    //rather than being written straight away. Every change to the same entry is merged into a
+    //single set of changed fields, with later values replacing earlier ones. Once no further
+    //change has been made for the debounce window, or flush() is called (e.g., when the
+    //activity is stopped), each entry's fields are written to the JournalStore at once,
+    //meaning N changes to an entry result in a single write instead of N writes.
+    private final LinkedHashMap<Integer, JSONObject> pendingFields = new LinkedHashMap<>();
+
+    private final ManagingJournalEntries managingJournalEntries;
+    private final Context context;
+    private final long debounceMillis;
+
+    //The write scheduled to run once the debounce window has passed.
+    private ScheduledFuture<?> scheduledFlush;
+
+    public JournalWriteBatcher(Context context) {
+        this(context, new ManagingJournalEntries(), DEFAULT_DEBOUNCE_MILLIS);
+    }
+
+    public JournalWriteBatcher(Context context, ManagingJournalEntries managingJournalEntries, long debounceMillis) {
+        this.context = context.getApplicationContext();
+        this.managingJournalEntries = managingJournalEntries;
+        this.debounceMillis = debounceMillis;
+    }
+
+    public void saveJournalEntryText(int entryID, String newText) {
+        addChangedField(entryID, "EntryText", newText);
+    }
+
+    //The media is converted into a JSON array straight away, since the activity keeps
+    //changing its own list.
+    public void saveJournalEntryMedia(int entryID, List<MediaAttachment> media) {
+        addChangedField(entryID, "AllMediaInText", MediaAttachment.toJSONArray(media));
+    }
+
+    //Writes every pending change on the journal thread straight away, without waiting for the
+    //debounce window. The returned future is completed once the changes have been written.
+    public synchronized CompletableFuture<Void> flush() {
+        cancelScheduledFlush();
+        return CompletableFuture.runAsync(new Runnable() {
+            @Override
+            public void run() {
+                writePendingFields();
+            }
+        }, JournalExecutor.getIoExecutor());
+    }
+
+    public synchronized int getPendingEntryCount() {
+        return pendingFields.size();
+    }
+
+    //Merges the changed field into the pending fields of the entry. The last edited date and
+    //time is that of the latest change rather than that of the write. The debounce window is
+    //then started again, meaning the changes are only written once the user stops making them.
+    private synchronized void addChangedField(int entryID, String key, Object value) {
+        JSONObject changedFields = pendingFields.get(entryID);
+        if (changedFields == null) {
+            changedFields = new JSONObject();
+            pendingFields.put(entryID, changedFields);
+        }
+
+        try {
+            changedFields.put(key, value);
+            changedFields.put("LastEdited", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        } catch (JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+
+        cancelScheduledFlush();
+        scheduledFlush = JournalExecutor.getIoExecutor().schedule(new Runnable() {
+            @Override
+            public void run() {
+                writePendingFields();
+            }
+        }, debounceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void cancelScheduledFlush() {
+        if (scheduledFlush != null) {
+            scheduledFlush.cancel(false);
+            scheduledFlush = null;
+        }
+    }
+
+    //Runs on the journal thread. The pending fields are taken out while holding the lock,
+    //so that further changes can be collected while the previous ones are being written.
+    private void writePendingFields() {
+        Map<Integer, JSONObject> fieldsToWrite;
+        synchronized (this) {
+            if (pendingFields.isEmpty()) {
+                return;
+            }
+            fieldsToWrite = new LinkedHashMap<>(pendingFields);
+            pendingFields.clear();
+        }
+
+        for (Map.Entry<Integer, JSONObject> entry : fieldsToWrite.entrySet()) {
+            managingJournalEntries.updateJournalEntryFields(context, entry.getKey(), entry.getValue());
+        }
+    }
+}
@@ -1,20 +1,18 @@
 package com.dlbcsemse02.dreamjournalapplication;
 
 import android.app.AlertDialog;
+import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
-import android.media.Image;
 import android.net.Uri;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.MenuItem;
 import android.view.View;
 import android.view.LayoutInflater;
+import android.view.ViewTreeObserver;
 import android.widget.EditText;
-import android.widget.ImageView;
-import android.widget.LinearLayout;
 import android.widget.PopupMenu;
-import android.widget.TextView;
-import android.widget.ScrollView;
 import android.widget.Toast;
 
 import androidx.activity.EdgeToEdge;
@@ -26,39 +24,89 @@ import androidx.appcompat.app.AppCompatActivity;
 import androidx.core.graphics.Insets;
 import androidx.core.view.ViewCompat;
 import androidx.core.view.WindowInsetsCompat;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.floatingactionbutton.FloatingActionButton;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class MainActivity extends AppCompatActivity implements JournalEntryAdapter.OnJournalEntryActionListener, JournalChangeNotifier.OnJournalChangedListener {
+
+    //Pinned entries are displayed first, followed by all other entries. Within
+    //both groups, entries keep the order in which they were created (i.e., by ID).
+    private static final Comparator<JournalEntry> DISPLAY_ORDER = new Comparator<JournalEntry>() {
+        @Override
+        public int compare(JournalEntry first, JournalEntry second) {
+            if (first.isPinned() != second.isPinned()) {
+                return first.isPinned() ? -1 : 1;
+            }
+            return Integer.compare(first.getID(), second.getID());
+        }
+    };
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
-import java.util.Objects;
+    private ActivityResultLauncher<Intent> chooseThumbnailLauncher;
+    private int currentJournalEntryID = -1;
+    private RecyclerView journalEntryList;
+    private JournalEntryAdapter journalEntryAdapter;
 
-public class MainActivity extends AppCompatActivity {
+    //The entries currently displayed on the home screen in display order, alongside
+    //a map from each ID to its displayed entry so that it can be found again quickly.
+    private final List<JournalEntry> displayedEntries = new ArrayList<>();
+    private final Map<Integer, JournalEntry> displayedEntriesByID = new HashMap<>();
 
-    private ActivityResultLauncher<Intent> chooseThumbnailLauncher;
-    private View currentJournalEntry;
-    private LinearLayout journalEntryContainer;
-    private ScrollView scrollView;
+    //The IDs of all entries that were changed since the home screen was last updated.
+    //Changes may be reported from any thread, which is why the set is synchronized.
+    private final Set<Integer> changedEntryIDs = Collections.synchronizedSet(new HashSet<>());
+    private volatile boolean reloadRequired = false;
+    private boolean resumed = false;
+
+    //The ID of a newly created entry that the list should scroll to once it is displayed.
+    private int scrollToEntryID = -1;
+
+    //Every read and write of the journal entries runs on a background thread, meaning
+    //the home screen never waits for the disk. Results are handed back to the main thread.
+    private AsyncJournalEntries asyncJournalEntries;
+
+    private StartupMetrics startupMetrics;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
+        //The launch of the home screen is measured until the journal entries are first shown
+        //(see StartupMetrics), starting before anything else is done by the activity.
+        startupMetrics = StartupMetrics.getInstance();
+        startupMetrics.startLaunch();
+
         super.onCreate(savedInstanceState);
         EdgeToEdge.enable(this);
+        startupMetrics.beginPhase(StartupMetrics.SET_CONTENT_VIEW);
         setContentView(R.layout.activity_main);
+        startupMetrics.endPhase(StartupMetrics.SET_CONTENT_VIEW);
         ViewCompat.setOnApplyWindowInsetsListener(findViewById(R.id.main), (v, insets) -> {
             Insets systemBars = insets.getInsets(WindowInsetsCompat.Type.systemBars());
             v.setPadding(systemBars.left, systemBars.top, systemBars.right, systemBars.bottom);
             return insets;
         });
 
-        //Here, IDs for various views within activity_main.xml are grabbed.
-        journalEntryContainer = findViewById(R.id.journalEntryContainer);
+        //Here, IDs for various views within activity_main.xml are grabbed. The journal entries
+        //are displayed within a RecyclerView, meaning that only the cards visible on screen
+        //are ever inflated, no matter how many journal entries exist.
+        journalEntryList = findViewById(R.id.journalEntryList);
         FloatingActionButton addNewJournalEntry = findViewById(R.id.addNewJournalEntry);
-        scrollView = findViewById(R.id.scrollView);
+
+        journalEntryAdapter = new JournalEntryAdapter(this, this);
+        journalEntryList.setAdapter(journalEntryAdapter);
+
+        asyncJournalEntries = new AsyncJournalEntries(this);
 
         //Here, the ActivityResultLauncher is defined to handle the result
         //of the image picker intent that is launched when the user wants
@@ -80,40 +128,30 @@ public class MainActivity extends AppCompatActivity {
                         getContentResolver().takePersistableUriPermission(imageUri, Intent.FLAG_GRANT_READ_URI_PERMISSION);
 
                         //If a journal entry was selected before launching the image picker,
-                        //the image thumbnail is updated with the selected image, and the
-                        //image path is saved to the JSON file
-                        if (currentJournalEntry != null) {
-                            ImageView imageThumbnail = currentJournalEntry.findViewById(R.id.entryThumbnail);
-                            imageThumbnail.setVisibility(View.VISIBLE);
-                            imageThumbnail.setImageURI(imageUri);
-
-                            int entryID = (int) currentJournalEntry.getTag();
-                            ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries();
-                            managingJournalEntries.updateJournalImageThumbnail(MainActivity.this, entryID, imageUri.toString());
+                        //the image path is saved to the JSON file and the card of the
+                        //journal entry is updated to show the selected image.
+                        if (currentJournalEntryID != -1) {
+                            asyncJournalEntries.updateJournalImageThumbnail(currentJournalEntryID, imageUri.toString());
                         }
                     }
                 }
             }
         });
 
+        //The home screen is informed about every change made to the journal entries,
+        //which allows it to only update the entries that changed. All entries are
+        //only loaded once, when the activity is created. Both happen on the background
+        //thread in this order, meaning no change made after loading the entries is missed.
+        asyncJournalEntries.addJournalChangeListener(this);
         loadJournalEntries();
 
         //When clicking on the FAB at the bottom right corner of the screen,
-        //the app creates a new journal entry, as well as allowing the
-        //app the scroll vertically should the amount of journal entries
-        //exceed the screen's space. This is done by calling the selectNewEntryName()
-        //method, which prompts the user with a popup.
+        //the app creates a new journal entry. This is done by calling the
+        //selectNewEntryName() method, which prompts the user with a popup.
         addNewJournalEntry.setOnClickListener(new View.OnClickListener() {
             @Override
             public void onClick(View v) {
-
                 selectNewEntryName();
-                scrollView.post(new Runnable() {
-                    @Override
-                    public void run() {
-                        scrollView.fullScroll(View.FOCUS_DOWN);
-                    }
-                });
             }
         });
     }
@@ -123,283 +161,272 @@ public class MainActivity extends AppCompatActivity {
         super.onResume();
 
         //When returning to the main activity from another activity
-        //(primarily after editing the text of a journal entry),
-        //all journal entries are removed from the home screen and
-        //reloaded to ensure that any text that was added gets displayed
-        //within the journal entry preview.
-        journalEntryContainer.removeAllViews();
-        loadJournalEntries();
+        //(primarily after editing the text of a journal entry), only
+        //the entries that were changed while the activity was not shown
+        //are updated, e.g., to display any text that was added within
+        //the journal entry preview.
+        resumed = true;
+        applyJournalChanges();
     }
 
-    //This method creates a new journal entry by using the predefined layout in
-    //journal_entry.xml and adding it to the home screen. A boolean value is used
-    //to determine whether displaying a given entry on the home screen should
-    //also save the entry to the JSON file, since this method is also used when loading
-    //all entries to the home screen when the app is opened.
-    private void displayJournalEntry(String title, String text, boolean saveToFile, int ID, String imagePath) {
+    @Override
+    protected void onPause() {
+        super.onPause();
+        resumed = false;
+    }
 
-        if (saveToFile) {
-            ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries();
-            ID = managingJournalEntries.saveJournalEntryCreation(this, title);
-        }
+    @Override
+    protected void onStop() {
+        super.onStop();
 
-        //Creates a view from the layout defined in journal_entry.xml.
-        LayoutInflater inflater = LayoutInflater.from(this);
-        View journalEntry = inflater.inflate(R.layout.journal_entry, journalEntryContainer, false);
-
-        //Attaches the JSON ID for an entry to a specific journal entry view.
-        journalEntry.setTag(ID);
-
-        //Fetches the IDs of the newly created journal entry view.
-        TextView titleView = journalEntry.findViewById(R.id.entryTitle);
-        TextView textView = journalEntry.findViewById(R.id.entryText);
-        ImageView editIcon = journalEntry.findViewById(R.id.editIcon);
-        ImageView menuIcon = journalEntry.findViewById(R.id.menuIcon);
-        ImageView imageThumbnail = journalEntry.findViewById(R.id.entryThumbnail);
-
-        //Sets the predefined text for the title of the journal entry.
-        titleView.setText(title);
-        textView.setText(Objects.requireNonNullElse(text, ""));
-
-        //If an image path exists for a journal entry, the image thumbnail
-        //is set to visible and the image is loaded. If no image path exists,
-        //the image thumbnail doesn't show.
-        if (imagePath != null && !imagePath.isEmpty()) {
-            imageThumbnail.setVisibility(View.VISIBLE);
-            imageThumbnail.setImageURI(Uri.parse(imagePath));
-        } else {
-            imageThumbnail.setVisibility(View.GONE);
-        }
+        //When the app is moved to the background, any changes stored within the
+        //write-ahead log are compacted into the JSON file in the background.
+        asyncJournalEntries.compactJournal();
+    }
 
-        //When the edit icon is clicked, a popup is shown to the user
-        //that allows them to change the name of their journal entry.
-        editIcon.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                EditText input = new EditText(MainActivity.this);
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        asyncJournalEntries.removeJournalChangeListener(this);
+    }
 
-                //This sets the input to automatically be
-                //the existing name of the journal entry.
-                input.setText(titleView.getText().toString());
+    //The metrics of the journal and of the last launch are printed along with the state of the
+    //activity, e.g., via "adb shell dumpsys activity com.dlbcsemse02.dreamjournalapplication".
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        writer.println(prefix + startupMetrics.getReport());
+        writer.print(JournalMetrics.getInstance().dump());
+    }
 
-                //Creates the popup that prompts the user to edit their journal entry name.
-                //By default, the input field contains the existing entry name.
-                new AlertDialog.Builder(MainActivity.this).setTitle("Edit Journal Entry Name").setView(input).setPositiveButton("Save", new DialogInterface.OnClickListener() {
-                            @Override
+    //Decoded thumbnails are released when the system runs low on memory.
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        ThumbnailLoader.getInstance(this).trimMemory(level);
+    }
 
-                            //If the user clicks Save, the name of the journal entry is checked
-                            //before it is updated and saved to the JSON file. If the checks fail,
-                            //namely to see if the input field is empty or if the length of the
-                            //string exceeds 35 characters, a toast message is shown to alert the user.
-                            public void onClick(DialogInterface dialog, int which) {
-                                String newTitle = input.getText().toString().trim();
-                                if (!newTitle.isEmpty()) {
-                                    if (newTitle.length() <= 35) {
-                                        int entryID = (int) journalEntry.getTag();
-                                        titleView.setText(newTitle);
-                                        ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries();
-                                        managingJournalEntries.updateJournalEntryName(MainActivity.this, entryID, newTitle);
-                                    } else {
-                                        Toast.makeText(MainActivity.this, "Please enter a shorter name", Toast.LENGTH_SHORT).show();
-                                    }
-                                } else {
-                                    Toast.makeText(MainActivity.this, "Please enter a name for your journal entry", Toast.LENGTH_SHORT).show();
-                                }
-                            }
-                        })
-                        //If the user clicks Cancel, the popup closes with no changes being made.
-                        .setNegativeButton("Cancel", new DialogInterface.OnClickListener() {
-                            @Override
-                            public void onClick(DialogInterface dialog, int which) {
-                                dialog.dismiss();
-                            }
-                        }).show();
-            }
-        });
+    //This method is called by the JournalStore (on the background thread) whenever a journal
+    //entry was created, changed or deleted. The ID is remembered, and should the home screen
+    //currently be shown, the change is applied straight away. Otherwise, it is applied in onResume().
+    @Override
+    public void onJournalEntryChanged(int entryID) {
+        changedEntryIDs.add(entryID);
+        postJournalChanges();
+    }
 
-        //When the menu button is clicked, a submenu of three options is shown to the user,
-        //namely the options to delete an entry, to view more detailed information of an entry,
-        //and to pin an entry to the top of the main activity.
-        menuIcon.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
+    //This method is called by the JournalStore should the journal have been loaded
+    //from disk again, in which case every entry is loaded again as well.
+    @Override
+    public void onJournalReloaded() {
+        reloadRequired = true;
+        postJournalChanges();
+    }
 
-                //Creates the submenu containing the three options.
-                PopupMenu popupMenu = new PopupMenu(MainActivity.this, v);
-                popupMenu.getMenuInflater().inflate(R.menu.journal_entry_submenu, popupMenu.getMenu());
+    private void postJournalChanges() {
+        journalEntryList.post(new Runnable() {
+            @Override
+            public void run() {
+                if (resumed) {
+                    applyJournalChanges();
+                }
+            }
+        });
+    }
 
-                //This checks if an entry is pinned or not to determine whether
-                //the pin entry option should display the default "Pin" or
-                //update to "Unpin".
-                int entryID = (int) journalEntry.getTag();
-                ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries();
-                boolean isPinned = managingJournalEntries.isEntryPinned(MainActivity.this, entryID);
+    //When the journal entry itself is clicked, the EditingJournalText activity
+    //is launched with the entryID of the journal entry passed as an extra
+    //in the intent, as well as the name of the journal entry. The user is then
+    //allowed to enter the text of their journal entry within this new activity.
+    @Override
+    public void onJournalEntryClicked(JournalEntry entry) {
+        Intent intent = new Intent(MainActivity.this, EditingJournalText.class);
+        intent.putExtra("ENTRY_ID", entry.getID());
+        intent.putExtra("ENTRY_NAME", entry.getEntryName());
+        startActivity(intent);
+    }
 
-                MenuItem pinEntryItem = popupMenu.getMenu().findItem(R.id.pinEntry);
-                if (isPinned) {
-                    pinEntryItem.setTitle("Unpin");
-                }
+    //When the edit icon is clicked, a popup is shown to the user
+    //that allows them to change the name of their journal entry.
+    @Override
+    public void onEditNameClicked(JournalEntry entry) {
+        EditText input = new EditText(MainActivity.this);
 
-                //If no image thumbnail exists for a journal entry, the option
-                //to remove the image thumbnail is hidden. This ensures that only entries
-                //with a thumbnail have the option to remove it.
-                ImageView imageThumbnail = journalEntry.findViewById(R.id.entryThumbnail);
-                MenuItem removeThumbnailItem = popupMenu.getMenu().findItem(R.id.removeImageThumbnail);
-                if (imageThumbnail.getVisibility() != View.VISIBLE) {
-                    removeThumbnailItem.setVisible(false);
-                }
+        //This sets the input to automatically be
+        //the existing name of the journal entry.
+        input.setText(entry.getEntryName());
 
-                popupMenu.setOnMenuItemClickListener(new PopupMenu.OnMenuItemClickListener() {
+        //Creates the popup that prompts the user to edit their journal entry name.
+        //By default, the input field contains the existing entry name.
+        new AlertDialog.Builder(MainActivity.this).setTitle("Edit Journal Entry Name").setView(input).setPositiveButton("Save", new DialogInterface.OnClickListener() {
                     @Override
-                    public boolean onMenuItemClick(MenuItem item) {
-                        int itemID = item.getItemId();
-                        if (itemID == R.id.deleteEntry) {
-
-                            //When the delete option is clicked, a popup is shown to prompt
-                            //the user to confirm whether they want to delete the journal entry
-                            //in question. If they confirm, the journal entry is then
-                            //removed from the home screen and deleted from the JSON file.
-                            //The user is then notified via a toast that the operation
-                            //was successful.
-                            new AlertDialog.Builder(MainActivity.this).setTitle("Delete Journal Entry").setMessage("Are you sure you want to delete this entry? This action cannot be undone.").setPositiveButton("Delete", new DialogInterface.OnClickListener() {
-                                @Override
-                                public void onClick(DialogInterface dialog, int which) {
-                                    int entryID = (int) journalEntry.getTag();
-
-                                    journalEntryContainer.removeView(journalEntry);
-                                    ManagingJournalEntries managingJournalEntries = new ManagingJournalEntries();
-                                    managingJournalEntries.deleteJournalEntry(MainActivity.this, entryID);
-
-                                    Toast.makeText(MainActivity.this, "Entry deleted", Toast.LENGTH_SHORT).show();
-                                }
-                            }).setNegativeButton("Cancel", new DialogInterface.OnClickListener() {
-                                @Override
-                                public void onClick(DialogInterface dialog, int which) {
-                                    dialog.dismiss();
-                                }
-                            }).show();
-
-                            return true;
-
-                            //When the view detailed information option is clicked,
-                            //the DetailedInfo activity is launched with the entryID
-                            //of the journal entry passed as an extra in the intent,
-                            //meaning that the DetailedInfo activity can load
-                            //the relevant information for the journal entry in question.
-                        } else if (itemID == R.id.viewDetailedInfo) {
-
-                            int entryID = (int) journalEntry.getTag();
-                            Intent intent = new Intent(MainActivity.this, DetailedInfo.class);
-                            intent.putExtra("ENTRY_ID", entryID);
-                            startActivity(intent);
-
-                            return true;
-
-                            //When the pin to top option is clicked, the journal entry
-                            //is removed from its current position in the main activity
-                            //and added to the top of the list of entries within the main
-                            //activity.
-                        } else if (itemID == R.id.pinEntry) {
-
-                            //This checks whether an entry is already pinned. If it is,
-                            //the entry becomes unpinned, otherwise the entry becomes pinned and
-                            //moves to the top of the screen. The user is then notified via
-                            //a toast message that the operation was successful.
-                            if (isPinned) {
-                                managingJournalEntries.updateJournalEntryPinned(MainActivity.this, entryID, false);
-                                Toast.makeText(MainActivity.this, "Entry unpinned", Toast.LENGTH_SHORT).show();
 
+                    //If the user clicks Save, the name of the journal entry is checked
+                    //before it is updated and saved to the JSON file. If the checks fail,
+                    //namely to see if the input field is empty or if the length of the
+                    //string exceeds 35 characters, a toast message is shown to alert the user.
+                    public void onClick(DialogInterface dialog, int which) {
+                        String newTitle = input.getText().toString().trim();
+                        if (!newTitle.isEmpty()) {
+                            if (newTitle.length() <= 35) {
+                                asyncJournalEntries.updateJournalEntryName(entry.getID(), newTitle);
                             } else {
-                                journalEntryContainer.removeView(journalEntry);
-                                journalEntryContainer.addView(journalEntry, 0);
-
-                                managingJournalEntries.updateJournalEntryPinned(MainActivity.this, entryID, true);
-                                Toast.makeText(MainActivity.this, "Entry pinned", Toast.LENGTH_SHORT).show();
+                                Toast.makeText(MainActivity.this, "Please enter a shorter name", Toast.LENGTH_SHORT).show();
                             }
+                        } else {
+                            Toast.makeText(MainActivity.this, "Please enter a name for your journal entry", Toast.LENGTH_SHORT).show();
+                        }
+                    }
+                })
+                //If the user clicks Cancel, the popup closes with no changes being made.
+                .setNegativeButton("Cancel", new DialogInterface.OnClickListener() {
+                    @Override
+                    public void onClick(DialogInterface dialog, int which) {
+                        dialog.dismiss();
+                    }
+                }).show();
+    }
 
-                            //After pinning or unpinning an entry, all journal entries
-                            //are removed from the main activity and reloaded to ensure
-                            //that the order of entries is correct.
-                            journalEntryContainer.removeAllViews();
-                            loadJournalEntries();
+    //When the menu button is clicked, a submenu of options is shown to the user,
+    //namely the options to delete an entry, to view more detailed information of an entry,
+    //to pin an entry to the top of the main activity, and to add or remove a thumbnail.
+    @Override
+    public void onMenuClicked(JournalEntry entry, View anchor) {
+
+        //Creates the submenu containing the options.
+        PopupMenu popupMenu = new PopupMenu(MainActivity.this, anchor);
+        popupMenu.getMenuInflater().inflate(R.menu.journal_entry_submenu, popupMenu.getMenu());
+
+        //This checks if an entry is pinned or not to determine whether
+        //the pin entry option should display the default "Pin" or
+        //update to "Unpin". The displayed entry is kept up to date with
+        //every change, meaning the JournalStore does not need to be asked.
+        int entryID = entry.getID();
+        boolean isPinned = entry.isPinned();
+
+        MenuItem pinEntryItem = popupMenu.getMenu().findItem(R.id.pinEntry);
+        if (isPinned) {
+            pinEntryItem.setTitle("Unpin");
+        }
 
-                            return true;
+        //If no image thumbnail exists for a journal entry, the option
+        //to remove the image thumbnail is hidden. This ensures that only entries
+        //with a thumbnail have the option to remove it.
+        MenuItem removeThumbnailItem = popupMenu.getMenu().findItem(R.id.removeImageThumbnail);
+        if (entry.getImageThumbnail() == null || entry.getImageThumbnail().isEmpty()) {
+            removeThumbnailItem.setVisible(false);
+        }
 
-                            //When the image thumbnail option is clicked, the image picker intent
-                            //is launched to allow the user to select an image from their device
-                            //to be used as the thumbnail for the journal entry in question.
-                        } else if (itemID == R.id.imageThumbnail) {
-                            //The current journal entry is stored in a variable to be used
-                            //when the image picker intent returns a result
-                            currentJournalEntry = journalEntry;
+        popupMenu.setOnMenuItemClickListener(new PopupMenu.OnMenuItemClickListener() {
+            @Override
+            public boolean onMenuItemClick(MenuItem item) {
+                int itemID = item.getItemId();
+                if (itemID == R.id.deleteEntry) {
+
+                    //When the delete option is clicked, a popup is shown to prompt
+                    //the user to confirm whether they want to delete the journal entry
+                    //in question. If they confirm, the journal entry is then
+                    //deleted from the JSON file and removed from the home screen.
+                    //The user is then notified via a toast that the operation
+                    //was successful.
+                    new AlertDialog.Builder(MainActivity.this).setTitle("Delete Journal Entry").setMessage("Are you sure you want to delete this entry? This action cannot be undone.").setPositiveButton("Delete", new DialogInterface.OnClickListener() {
+                        @Override
+                        public void onClick(DialogInterface dialog, int which) {
+                            asyncJournalEntries.deleteJournalEntry(entryID);
+
+                            Toast.makeText(MainActivity.this, "Entry deleted", Toast.LENGTH_SHORT).show();
+                        }
+                    }).setNegativeButton("Cancel", new DialogInterface.OnClickListener() {
+                        @Override
+                        public void onClick(DialogInterface dialog, int which) {
+                            dialog.dismiss();
+                        }
+                    }).show();
 
-                            //Launches the image picker intent to allow the user to select an image
-                            Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
-                            intent.addCategory(Intent.CATEGORY_OPENABLE);
-                            intent.setType("image/*");
+                    return true;
 
-                            //Adds flags to the intent to grant read permission and
-                            //persistent URI permission for the selected image
-                            intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION | Intent.FLAG_GRANT_PERSISTABLE_URI_PERMISSION);
+                    //When the view detailed information option is clicked,
+                    //the DetailedInfo activity is launched with the entryID
+                    //of the journal entry passed as an extra in the intent,
+                    //meaning that the DetailedInfo activity can load
+                    //the relevant information for the journal entry in question.
+                } else if (itemID == R.id.viewDetailedInfo) {
 
-                            chooseThumbnailLauncher.launch(intent);
+                    Intent intent = new Intent(MainActivity.this, DetailedInfo.class);
+                    intent.putExtra("ENTRY_ID", entryID);
+                    startActivity(intent);
 
-                            Toast.makeText(MainActivity.this, "Thumbnail added", Toast.LENGTH_SHORT).show();
+                    return true;
 
-                            return true;
+                    //When the pin to top option is clicked, the journal entry
+                    //is moved to the top of the list of entries within the main
+                    //activity, or back to its original position when unpinned.
+                } else if (itemID == R.id.pinEntry) {
 
-                            //When the remove image thumbnail option is clicked, the image
-                            //thumbnail is removed from the journal entry and the image path
-                            //is deleted from the JSON file. The user is then notified via
-                            //a toast message that the operation was successful.
-                        } else if (itemID == R.id.removeImageThumbnail) {
+                    //This checks whether an entry is already pinned. If it is,
+                    //the entry becomes unpinned, otherwise the entry becomes pinned and
+                    //moves to the top of the screen. The user is then notified via
+                    //a toast message that the operation was successful.
+                    if (isPinned) {
+                        asyncJournalEntries.updateJournalEntryPinned(entryID, false);
+                        Toast.makeText(MainActivity.this, "Entry unpinned", Toast.LENGTH_SHORT).show();
 
-                            ImageView imageThumbnail = journalEntry.findViewById(R.id.entryThumbnail);
+                    } else {
+                        asyncJournalEntries.updateJournalEntryPinned(entryID, true);
+                        Toast.makeText(MainActivity.this, "Entry pinned", Toast.LENGTH_SHORT).show();
+                    }
 
-                            imageThumbnail.setVisibility(View.GONE);
-                            imageThumbnail.setImageDrawable(null);
+                    //The entry is then moved to its new position on the home screen once the
+                    //change is reported by the JournalStore.
+                    return true;
 
-                            managingJournalEntries.updateJournalImageThumbnail(MainActivity.this, entryID, "");
+                    //When the image thumbnail option is clicked, the image picker intent
+                    //is launched to allow the user to select an image from their device
+                    //to be used as the thumbnail for the journal entry in question.
+                } else if (itemID == R.id.imageThumbnail) {
+                    //The ID of the current journal entry is stored in a variable to be used
+                    //when the image picker intent returns a result
+                    currentJournalEntryID = entryID;
 
-                            Toast.makeText(MainActivity.this, "Thumbnail removed", Toast.LENGTH_SHORT).show();
+                    //Launches the image picker intent to allow the user to select an image
+                    Intent intent = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+                    intent.addCategory(Intent.CATEGORY_OPENABLE);
+                    intent.setType("image/*");
 
-                            return true;
-                        } else {
-                            return false;
-                        }
-                    }
+                    //Adds flags to the intent to grant read permission and
+                    //persistent URI permission for the selected image
+                    intent.addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION | Intent.FLAG_GRANT_PERSISTABLE_URI_PERMISSION);
 
-                });
-                popupMenu.show();
+                    chooseThumbnailLauncher.launch(intent);
 
-            }
-        });
+                    Toast.makeText(MainActivity.this, "Thumbnail added", Toast.LENGTH_SHORT).show();
 
+                    return true;
 
-        //When the journal entry itself is clicked, the EditingJournalText activity
-        //is launched with the entryID of the journal entry passed as an extra
-        //in the intent, as well as the name of the journal entry. The user is then
-        //allowed to enter the text of their journal entry within this new activity.
-        journalEntry.setOnClickListener(new View.OnClickListener() {
-            @Override
-            public void onClick(View v) {
-                int entryID = (int) journalEntry.getTag();
-                String entryName = titleView.getText().toString();
-                Intent intent = new Intent(MainActivity.this, EditingJournalText.class);
-                intent.putExtra("ENTRY_ID", entryID);
-                intent.putExtra("ENTRY_NAME", entryName);
-                startActivity(intent);
-            }
-        });
+                    //When the remove image thumbnail option is clicked, the image
+                    //path is deleted from the JSON file and the thumbnail is removed
+                    //from the journal entry. The user is then notified via
+                    //a toast message that the operation was successful.
+                } else if (itemID == R.id.removeImageThumbnail) {
 
+                    asyncJournalEntries.updateJournalImageThumbnail(entryID, "");
+
+                    Toast.makeText(MainActivity.this, "Thumbnail removed", Toast.LENGTH_SHORT).show();
+
+                    return true;
+                } else {
+                    return false;
+                }
+            }
 
-        journalEntryContainer.addView(journalEntry);
+        });
+        popupMenu.show();
     }
 
     //This method prompts the user with a popup window
     //to ask them for a name when a new journal entry is created.
-    //Once the name has been inputted, the displayJournalEntry()
-    // method is called to create and display this new entry.
+    //Once the name has been inputted, the entry is saved to the JSON
+    //file and the list is scrolled down to show this new entry.
     private void selectNewEntryName() {
 
         LayoutInflater inflater = getLayoutInflater();
@@ -418,7 +445,15 @@ public class MainActivity extends AppCompatActivity {
                 String title = input.getText().toString().trim();
                 if (!title.isEmpty()) {
                     if (title.length() <= 35) {
-                        displayJournalEntry(title, null, true, -1, null);
+                        //The list is scrolled to the new entry once it is displayed. The ID is
+                        //handed back to the main thread before the new entry is looked up,
+                        //since the lookup is queued on the background thread after the creation.
+                        asyncJournalEntries.saveJournalEntryCreation(title).thenAcceptAsync(new Consumer<Integer>() {
+                            @Override
+                            public void accept(Integer entryID) {
+                                scrollToEntryID = entryID;
+                            }
+                        }, AsyncJournalEntries.getMainThreadExecutor());
                     } else {
                         Toast.makeText(MainActivity.this, "Please enter a shorter name", Toast.LENGTH_SHORT).show();
                     }
@@ -437,75 +472,127 @@ public class MainActivity extends AppCompatActivity {
         }).create().show();
     }
 
-    //This method checks the JSON file for any existing journal entries,
-    //then displays them on the home screen. If the JSON file does not exist,
-    //then no action is taken and the method ends.
+    //This method loads summaries of all existing journal entries (i.e., without their full
+    //text) from the JournalStore on the background thread, then submits them to the
+    //RecyclerView adapter in the order they should be displayed on the home screen. This only
+    //happens when the activity is created or when the journal was reloaded from disk, as all
+    //other changes are applied one entry at a time by applyJournalChanges().
     private void loadJournalEntries() {
-        File file = new File(this.getFilesDir(), "journal_entries.json");
-        if (!file.exists()) {
+        startupMetrics.beginPhase(StartupMetrics.LOAD_JOURNAL_ENTRIES);
+        asyncJournalEntries.getAllJournalEntrySummaries(startupMetrics).thenAcceptAsync(new Consumer<List<JournalEntry>>() {
+            @Override
+            public void accept(List<JournalEntry> journalEntries) {
+                startupMetrics.endPhase(StartupMetrics.LOAD_JOURNAL_ENTRIES);
+                startupMetrics.beginPhase(StartupMetrics.SORT_ENTRIES);
+                displayedEntries.clear();
+                displayedEntriesByID.clear();
+                int pinnedEntryCount = 0;
+                for (JournalEntry entry : journalEntries) {
+                    displayedEntries.add(entry);
+                    displayedEntriesByID.put(entry.getID(), entry);
+                    if (entry.isPinned()) {
+                        pinnedEntryCount++;
+                    }
+                }
+
+                //The sort is stable, meaning pinned entries are moved to the top
+                //while all entries otherwise keep the order of the JournalStore.
+                Collections.sort(displayedEntries, DISPLAY_ORDER);
+                startupMetrics.endPhase(StartupMetrics.SORT_ENTRIES);
+                startupMetrics.setEntryCounts(journalEntries.size(), pinnedEntryCount);
+
+                startupMetrics.beginPhase(StartupMetrics.DISPLAY_ENTRIES);
+                submitDisplayedEntries();
+            }
+        }, AsyncJournalEntries.getMainThreadExecutor());
+    }
+
+    //This method applies every change reported since the home screen was last updated.
+    //The changed entries are looked up on the background thread. Back on the main thread,
+    //each changed entry is removed from its old position and, unless it was deleted,
+    //inserted at its new position (e.g., at the top when it was pinned). Positions are
+    //found with a binary search, meaning that neither the file nor the list is read in full.
+    //Since lookups run in order, their results also arrive on the main thread in order.
+    private void applyJournalChanges() {
+        if (reloadRequired) {
+            reloadRequired = false;
+            changedEntryIDs.clear();
+            loadJournalEntries();
             return;
         }
 
-        //This tries to read the contents of the JSON file and stores it within
-        //a StringBuilder object.
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
+        List<Integer> entryIDs;
+        synchronized (changedEntryIDs) {
+            if (changedEntryIDs.isEmpty()) {
+                return;
             }
+            entryIDs = new ArrayList<>(changedEntryIDs);
+            changedEntryIDs.clear();
+        }
 
-            //If the JSON file was not empty, all content within the file
-            //is converted to a JSONArray object and each entry is displayed
-            //on the home screen.
-            if (!content.toString().isEmpty()) {
-                JSONArray journalFileContent = new JSONArray(content.toString());
-
-                //Here, the entries are separated into pinned and normal entries,
-                //which will determine the order in which they will be displayed on
-                //the home screen.
-                java.util.List<JSONObject> pinnedEntries = new java.util.ArrayList<>();
-                java.util.List<JSONObject> normalEntries = new java.util.ArrayList<>();
-                for (int i = 0; i < journalFileContent.length(); i++) {
-                    JSONObject entry = journalFileContent.getJSONObject(i);
-                    boolean isPinned = entry.optBoolean("Pinned", false);
-                    if (isPinned) {
-                        pinnedEntries.add(entry);
-                    } else {
-                        normalEntries.add(entry);
+        asyncJournalEntries.getJournalEntrySummaries(entryIDs).thenAcceptAsync(new Consumer<Map<Integer, JournalEntry>>() {
+            @Override
+            public void accept(Map<Integer, JournalEntry> changedEntries) {
+                for (Map.Entry<Integer, JournalEntry> changedEntry : changedEntries.entrySet()) {
+                    JournalEntry displayedEntry = displayedEntriesByID.remove(changedEntry.getKey());
+                    if (displayedEntry != null) {
+                        displayedEntries.remove(Collections.binarySearch(displayedEntries, displayedEntry, DISPLAY_ORDER));
                     }
-                }
-
-                //This loop displays all pinned entries alongside their attributes. Following this
-                //loop, another loop displays all normal entries alongside their attributes.
-                for (int i = 0; i < pinnedEntries.size(); i++) {
-                    JSONObject entry = pinnedEntries.get(i);
 
-                    String title = entry.optString("EntryName", "New Journal Title");
-                    String text = entry.optString("EntryText", "");
-                    int ID = entry.optInt("ID", -1);
-                    String imagePath = entry.optString("ImageThumbnail", "");
-
-                    displayJournalEntry(title, text, false, ID, imagePath);
+                    JournalEntry entry = changedEntry.getValue();
+                    if (entry != null) {
+                        int position = Collections.binarySearch(displayedEntries, entry, DISPLAY_ORDER);
+                        displayedEntries.add(-(position + 1), entry);
+                        displayedEntriesByID.put(entry.getID(), entry);
+                    }
                 }
+                submitDisplayedEntries();
+            }
+        }, AsyncJournalEntries.getMainThreadExecutor());
+    }
 
-                for (int i = 0; i < normalEntries.size(); i++) {
-                    JSONObject entry = normalEntries.get(i);
-
-                    String title = entry.optString("EntryName", "New Journal Title");
-                    String text = entry.optString("EntryText", "");
-                    int ID = entry.optInt("ID", -1);
-                    String imagePath = entry.optString("ImageThumbnail", "");
-
-                    displayJournalEntry(title, text, false, ID, imagePath);
+    //Submits a copy of the displayed entries to the adapter, which compares it with the
+    //previous list and only rebinds the cards that changed. Should a new entry have been
+    //created, the list is scrolled to it once the adapter has been updated.
+    private void submitDisplayedEntries() {
+        journalEntryAdapter.submitList(new ArrayList<>(displayedEntries), new Runnable() {
+            @Override
+            public void run() {
+                JournalEntry entry = displayedEntriesByID.get(scrollToEntryID);
+                if (entry != null) {
+                    journalEntryList.scrollToPosition(Collections.binarySearch(displayedEntries, entry, DISPLAY_ORDER));
+                    scrollToEntryID = -1;
+                }
+                if (startupMetrics.isRecording()) {
+                    finishLaunchOnNextFrame();
                 }
             }
+        });
+    }
 
-            //In the event that there is an error with reading the file, an error is thrown.
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
+    //The launch is finished once the first frame showing the journal entries is about to be
+    //drawn, at which point the cards on screen have been inflated and bound. The system is
+    //told that the activity is fully drawn, and the launch is added to the startup metrics
+    //history on the background thread.
+    private void finishLaunchOnNextFrame() {
+        journalEntryList.getViewTreeObserver().addOnPreDrawListener(new ViewTreeObserver.OnPreDrawListener() {
+            @Override
+            public boolean onPreDraw() {
+                journalEntryList.getViewTreeObserver().removeOnPreDrawListener(this);
+                startupMetrics.endPhase(StartupMetrics.DISPLAY_ENTRIES);
+                if (startupMetrics.finishLaunch()) {
+                    reportFullyDrawn();
+                    final Context applicationContext = getApplicationContext();
+                    JournalExecutor.getIoExecutor().execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            Log.i("StartupMetrics", startupMetrics.getReport());
+                            startupMetrics.exportReport(applicationContext);
+                        }
+                    });
+                }
+                return true;
+            }
+        });
     }
 }
-
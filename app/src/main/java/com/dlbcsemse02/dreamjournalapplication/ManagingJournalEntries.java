@@ -6,30 +6,76 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
 
 public class ManagingJournalEntries {
 
     //Assigns the name of the JSON file to a variable
     private String file_name;
 
+    //Determines how the journal entries are stored. JSON_FILE rewrites the whole JSON file
+    //after every change, WRITE_AHEAD_LOG appends changes to a log next to the JSON file (which
+    //is periodically compacted into the JSON file), and DATABASE stores the entries within an
+    //SQLite database, migrating any existing JSON file the first time it is opened. BINARY_FILE
+    //works like WRITE_AHEAD_LOG, but compacts the log into a file of the compact binary format
+    //(see JournalBinaryFormat) named after the JSON file (e.g., journal_entries.bin). An existing
+    //JSON file is converted into it the first time it is opened, while being kept as it is.
+    public enum StorageMode {
+        JSON_FILE,
+        WRITE_AHEAD_LOG,
+        DATABASE,
+        BINARY_FILE
+    }
+
+    //The storage mode used by the app itself.
+    public static final StorageMode DEFAULT_STORAGE_MODE = StorageMode.WRITE_AHEAD_LOG;
+
+    private StorageMode storageMode;
+
     //Default constructor assigns the default name of the JSON file
     //to the variable file_name. The second constructor allows for
     //a custom file name to be assigned. This is primarily for testing
     //purposes to avoid overwriting the actual journal_entries.json file.
+    //A custom file is rewritten directly unless another storage mode is given.
     public ManagingJournalEntries() {
         this.file_name = "journal_entries.json";
+        this.storageMode = DEFAULT_STORAGE_MODE;
     }
 
     public ManagingJournalEntries(String file_name) {
         this.file_name = file_name;
+        this.storageMode = StorageMode.JSON_FILE;
+    }
+
+    public ManagingJournalEntries(String file_name, boolean useWriteAheadLog) {
+        this.file_name = file_name;
+        this.storageMode = useWriteAheadLog ? StorageMode.WRITE_AHEAD_LOG : StorageMode.JSON_FILE;
+    }
+
+    public ManagingJournalEntries(String file_name, StorageMode storageMode) {
+        this.file_name = file_name;
+        this.storageMode = storageMode;
+    }
+
+    //Every method below works on the process-wide JournalStore of the journal, which
+    //keeps the entries either in memory (JournalRepository) or within SQLite. The Context
+    //is only needed to find the files directory of the app (and to open the database),
+    //while the operations themselves are performed by JournalEntryManager.
+    public JournalEntryManager getEntryManager(Context context) {
+        if (storageMode == StorageMode.DATABASE) {
+            File file = new File(context.getFilesDir(), file_name);
+            return new JournalEntryManager(SQLiteJournalStore.getInstance(context, file), JournalSearchIndex.getInstance(file),
+                    JournalSortedIndex.getInstance(file));
+        }
+        if (storageMode == StorageMode.BINARY_FILE) {
+            return JournalEntryManager.openBinary(context.getFilesDir(), file_name);
+        }
+        return JournalEntryManager.open(context.getFilesDir(), file_name, storageMode == StorageMode.WRITE_AHEAD_LOG);
     }
 
     //This method stores a newly created journal entry within a JSON
@@ -39,366 +85,211 @@ public class ManagingJournalEntries {
     //no value is stored. The unique ID is returned by the method as entryID
     //to be reused in other methods.
     public int saveJournalEntryCreation(Context context, String title) {
-
-        //Creates JSON structures that will handle JSON parsing. journalFileContent
-        //handles the journal entries directly, while jsonObject represents the new
-        //journal entry that will be added.
-        JSONArray journalFileContent = new JSONArray();
-        JSONObject jsonObject = new JSONObject();
-
-        File file = new File(context.getFilesDir(), file_name);
-
-        //Should journal_entries.json exist, the new journal entry is
-        //appended to the existing entries in the JSON file
-        if (file.exists()) {
-            //This tries to read the contents of the file
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                //Handles the effective concatenation of strings while the
-                //reader reads every line of the JSON file
-                StringBuilder content = new StringBuilder();
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    content.append(line);
-                }
-                //If the JSON file was not empty, all content within the file
-                //is converted to a JSONArray object
-                if (!content.toString().isEmpty()) {
-                    journalFileContent = new JSONArray(content.toString());
-                }
-                //In the event that there is an error with reading the file or that the contents
-                //within the file is not valid JSON, an error will be thrown and printed
-            } catch (IOException | JSONException e) {
-                e.printStackTrace();
-                throw new RuntimeException(e);
-            }
-        }
-
-        //Here, the values of the newly created journal are
-        //added to a JSONObject in order to be stored within the
-        //JSON file. Should this be unsuccessful, an error is thrown
-        int entryID = 1;
-        try {
-            //This loop is initiated to ensure that all IDs within
-            //the JSON file remain unique, even in the event of a
-            //journal entry being deleted.
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                int currentID = entry.getInt("ID");
-                if (currentID >= entryID) {
-                    entryID = currentID + 1;
-                }
-            }
-            jsonObject.put("ID", entryID);
-            jsonObject.put("EntryName", title);
-            jsonObject.put("EntryText", "");
-            jsonObject.put("ImageThumbnail", "");
-            jsonObject.put("DateAndTimeCreated", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            jsonObject.put("LastEdited", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-            jsonObject.put("AllMediaInText", new JSONArray());
-            jsonObject.put("Pinned", false);
-        } catch (JSONException e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
-
-        //The new journal entry is added to the end of the array of
-        //JSON data
-        journalFileContent.put(jsonObject);
-
-        //The new entry is now written to the JSON file and stored. Indentation
-        //is added for the sake of readability should the file be accessed by
-        //developers/debuggers in the future
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-            writer.write(journalFileContent.toString(4));
-        } catch (IOException | JSONException e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-
-        }
-        return entryID;
+        return getEntryManager(context).saveJournalEntryCreation(title);
     }
 
     //This method updates the name of an existing journal entry within the JSON file
     //when the user clicks the edit icon in the journal entry display.
     public void updateJournalEntryName(Context context, int ID, String newTitle) {
-        //If the JSON file does not exist, the method ends with nothing being changed.
-        File file = new File(context.getFilesDir(), file_name);
-        if (!file.exists()) {
-            return;
-        }
-
-        //This tries to read the contents of the JSON file and stores it within
-        //a StringBuilder object.
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
-            }
-
-            //The contents of the JSON file are converted to a JSONArray object,
-            //then iterated through to find the entry with the matching ID.
-            //The title is then updated to the new title provided by the user.
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                if (entry.getInt("ID") == ID) {
-                    entry.put("EntryName", newTitle);
-                    entry.put("LastEdited", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                    break;
-                }
-            }
-
-            //The updated JSONArray is written back to the JSON file with indentation
-            //for readability.
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(journalFileContent.toString(4));
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
-
+        getEntryManager(context).updateJournalEntryName(ID, newTitle);
     }
 
     //This method deletes any given journal entry via the
-    //submenu on the journal entry's view. It does so by comparing
-    //all IDs within the JSON file to the ID that was passed to the method,
-    //then deleting the entry in the JSON file.
+    //submenu on the journal entry's view. It does so by removing the
+    //entry with the ID that was passed to the method, then saving the JSON file.
     public void deleteJournalEntry(Context context, int ID) {
-        File file = new File(context.getFilesDir(), file_name);
-        if (!file.exists()) {
-            return;
-        }
-
-        //This tries to read the contents of the JSON file and stores it within
-        //a StringBuilder object.
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
-            }
-
-            //The contents of the JSON file are converted to a JSONArray object,
-            //then iterated through to find the entry with the matching ID
-            //parsed by the submenu. The entry is then removed from the JSONArray.
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                if (entry.getInt("ID") == ID) {
-                    journalFileContent.remove(i);
-                    break;
-                }
-            }
-
-            //The updated JSONArray is written back to the JSON file with indentation
-            //for readability.
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(journalFileContent.toString(4));
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
+        getEntryManager(context).deleteJournalEntry(ID);
     }
 
 
     //This method updates the image thumbnail path of an existing journal entry within
     //the JSON file when the user adds or changes said thumbnail within the entry display.
-    //After reading the JSON file to determine the matching journal entry via its unique ID,
-    //the image path is updated accordingly.
     public void updateJournalImageThumbnail(Context context, int ID, String imagePath) {
-        File file = new File(context.getFilesDir(), file_name);
-        if (!file.exists()) {
-            return;
-        }
-
-        //This tries to read the contents of the JSON file and stores it within
-        //a StringBuilder object.
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
-            }
-
-            //The contents of the JSON file are converted to a JSONArray object,
-            //then iterated through to find the entry with the matching ID.
-            //The image path is then updated to show a new or different thumbnail.
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                if (entry.getInt("ID") == ID) {
-                    entry.put("ImageThumbnail", imagePath);
-                    entry.put("LastEdited", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                    break;
-                }
-            }
-
-            //The updated JSONArray is written back to the JSON file with indentation
-            //for readability.
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(journalFileContent.toString(4));
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
+        getEntryManager(context).updateJournalImageThumbnail(ID, imagePath);
     }
 
 
     //This method updates the pinned attribute of a journal entry within
-    //the JSON file. It achieves this by reading the JSON file, searching for the
-    //entry with the matching ID, updating the pinned attribute, and saving it.
+    //the JSON file.
     public void updateJournalEntryPinned(Context context, int entryID, boolean pinned) {
-        File file = new File(context.getFilesDir(), file_name);
-        if (!file.exists()) {
-            return;
-        }
-
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
-            }
-
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                if (entry.getInt("ID") == entryID) {
-                    entry.put("Pinned", pinned);
-                    break;
-                }
-            }
-
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(journalFileContent.toString(4));
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
-
+        getEntryManager(context).updateJournalEntryPinned(entryID, pinned);
     }
 
 
-    //This method checks whether a journal entry is pinned or not by reading
-    //the JSON file, searching for the entry with the matching ID, and returning
-    //a boolean value representing the pinned status of the entry.
+    //This method checks whether a journal entry is pinned or not, returning
+    //a boolean value representing the pinned status of the entry. The
+    //value is served from memory, meaning the JSON file is not read again.
     public boolean isEntryPinned(Context context, int entryID) {
-        File file = new File(context.getFilesDir(), file_name);
-        if (!file.exists()) {
-            return false;
-        }
-
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
-            }
-
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                if (entry.getInt("ID") == entryID) {
-                    return entry.getBoolean("Pinned");
-                }
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
-        return false;
+        return getEntryManager(context).isEntryPinned(entryID);
     }
 
 
     //This method saves any text inputted by the user within a journal entry's
-    //EditText field. It does so by reading the JSON file, searching for the entry
-    //with the matching ID, updating the text value, and saving it. By doing so,
-    //the JSON file is also updated with the last edited date and time.
+    //EditText field. By doing so, the JSON file is also updated with the last
+    //edited date and time.
     public void saveJournalEntryText(Context context, int entryID, String newText) {
+        getEntryManager(context).saveJournalEntryText(entryID, newText);
+    }
 
-        File file = new File(context.getFilesDir(), file_name);
-        if (!file.exists()) {
-            return;
-        }
 
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
-            }
-
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                if (entry.getInt("ID") == entryID) {
-                    entry.put("EntryText", newText);
-                    entry.put("LastEdited", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                    break;
-                }
-            }
-
-            //The updated JSONArray is written back to the JSON file with indentation
-            //for human readability.
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(journalFileContent.toString(4));
-            }
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            throw new RuntimeException(e);
-        }
+    //This method saves any media attachments (i.e., images and videos) uploaded by
+    //the user within a journal entry by replacing the media array of the entry.
+    public void saveJournalEntryMedia(Context context, int entryID, List<MediaAttachment> media) {
+        getEntryManager(context).saveJournalEntryMedia(entryID, media);
     }
 
 
-    //This method saves any media attachments (i.e., images and videos) uploaded by
-    //the user within a journal entry. It does so by reading the JSON file, searching
-    //for the entry with the matching ID, updating the media array, and saving it.
+    //Same as above, for a media array holding either attachment objects or (as entries
+    //written before attachments were typed) the URIs of the media as strings.
     public void saveJournalEntryMedia(Context context, int entryID, JSONArray mediaArray) {
-        File file = new File(context.getFilesDir(), file_name);
-        if (!file.exists()) {
-            return;
+        saveJournalEntryMedia(context, entryID, MediaAttachment.fromJSONArray(mediaArray));
+    }
+
+
+    //This method returns a journal entry whose media attachments have all been resolved (see
+    //MediaAttachmentResolver). Entries written before attachments were typed only hold the
+    //URIs of their media, which are resolved the first time the entry is opened and saved
+    //back, meaning each entry is only ever migrated once. Since this does not change the
+    //entry as far as the user is concerned, its last edited date and time is kept.
+    //Resolving asks the media provider on the calling thread, which is why the activities use
+    //AsyncJournalEntries.getJournalEntryWithResolvedMedia() instead, which resolves the media
+    //off the journal thread.
+    public JournalEntry getJournalEntryWithResolvedMedia(Context context, int entryID) {
+        JournalEntry journalEntry = getJournalEntry(context, entryID);
+        if (journalEntry == null) {
+            return null;
+        }
+        List<MediaAttachment> resolvedMedia = MediaAttachmentResolver.resolveAll(context, journalEntry.getAllMediaInText());
+        if (resolvedMedia != null) {
+            saveResolvedMedia(context, entryID, resolvedMedia);
+            journalEntry.setAllMediaInText(resolvedMedia);
         }
+        return journalEntry;
+    }
+
 
-        try (BufferedReader bufferedReader = new BufferedReader(new FileReader(file))) {
-            StringBuilder content = new StringBuilder();
-            String line;
-            while ((line = bufferedReader.readLine()) != null) {
-                content.append(line);
-            }
-
-            JSONArray journalFileContent = new JSONArray(content.toString());
-            for (int i = 0; i < journalFileContent.length(); i++) {
-                JSONObject entry = journalFileContent.getJSONObject(i);
-                if (entry.getInt("ID") == entryID) {
-                    entry.put("AllMediaInText", mediaArray);
-                    entry.put("LastEdited", LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                    break;
-                }
-            }
-
-            //The updated JSONArray is written back to the JSON file with indentation
-            //for human readability.
-            try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
-                writer.write(journalFileContent.toString(4));
-            }
-
-        } catch (Exception e) {
+    //This method saves the resolved media attachments of an entry, keeping its last edited date and time.
+    public void saveResolvedMedia(Context context, int entryID, List<MediaAttachment> resolvedMedia) {
+        try {
+            JSONObject changedFields = new JSONObject();
+            changedFields.put("AllMediaInText", MediaAttachment.toJSONArray(resolvedMedia));
+            updateJournalEntryFields(context, entryID, changedFields);
+        } catch (JSONException e) {
             e.printStackTrace();
             throw new RuntimeException(e);
         }
+    }
+
+
+    //This method saves several changed fields of a journal entry at once (e.g., both the
+    //text and the media of the entry), meaning that the JSON file is only written once.
+    //The keys of the fields are the same as those within the JSON file.
+    public void updateJournalEntryFields(Context context, int entryID, JSONObject changedFields) {
+        getEntryManager(context).updateJournalEntryFields(entryID, changedFields);
+    }
+
+
+    //This method returns a page of journal entry summaries sorted by when the entries were
+    //created or last edited, starting after the cursor of the previous page (or at the first
+    //entry, should the cursor be null). The entries are kept sorted as they change, meaning
+    //the home screen can show e.g. the newest entries first without sorting the whole journal.
+    public JournalEntryPage getJournalEntryPage(Context context, JournalSortedIndex.Order order, JournalEntryPage.Cursor after, int pageSize) {
+        return getEntryManager(context).getJournalEntryPage(order, after, pageSize);
+    }
+
+
+    //These methods return the journal entries created within a range of dates (e.g., the nights
+    //of a week), and the number of entries created on each day of a month or within each month
+    //of a year, e.g., for a calendar. Only the entries of the dates requested are gone through,
+    //as the entries are kept sorted by when they were created (see JournalSortedIndex).
+    public List<JournalEntry> getJournalEntriesCreatedBetween(Context context, LocalDate from, LocalDate until) {
+        return getEntryManager(context).getJournalEntriesCreatedBetween(from, until);
+    }
+
+    public Map<LocalDate, Integer> getJournalEntryCountsPerDay(Context context, YearMonth month) {
+        return getEntryManager(context).getJournalEntryCountsPerDay(month);
+    }
+
+    public Map<YearMonth, Integer> getJournalEntryCountsPerMonth(Context context, Year year) {
+        return getEntryManager(context).getJournalEntryCountsPerMonth(year);
+    }
+
+
+    //This method returns the IDs of the journal entries containing every word of the query
+    //(or a word starting with it) within their name or text, the best matches first. The
+    //texts of the entries are not read to do so, as the words are kept within an index.
+    public List<Integer> searchJournalEntries(Context context, String query, int limit) {
+        return getEntryManager(context).searchJournalEntries(query, limit);
+    }
+
+
+    //This method returns the journal entry with the given ID, or null should no
+    //such entry exist. It is used by the activities instead of reading the JSON file.
+    public JournalEntry getJournalEntry(Context context, int entryID) {
+        return getEntryManager(context).getJournalEntry(entryID);
+    }
+
+
+    //This method returns the journal entry with the given ID without its text, holding only a
+    //preview of it, or null should no such entry exist. Unlike getJournalEntry(), the text
+    //itself does not need to be read (see JournalBodyStore).
+    public JournalEntry getJournalEntrySummary(Context context, int entryID) {
+        return getEntryManager(context).getJournalEntrySummary(entryID);
+    }
+
+
+    //This method writes all changes held within the write-ahead log into the JSON
+    //file and clears the log. It is called when the app moves to the background.
+    public void compactJournal(Context context) {
+        getEntryManager(context).compactJournal();
+    }
+
+
+    //This method returns a summary of the time spent writing the JSON file,
+    //which is useful when comparing the cost of syncing the file to disk.
+    //The database writes no JSON file, meaning nothing is reported for it.
+    public String getWriteLatencyReport(Context context) {
+        return getEntryManager(context).getWriteLatencyReport();
+    }
+
+
+    //This method returns the number of bytes read from the JSON file and the write-ahead log
+    //since the app was started (see StartupMetrics), or -1 for the database.
+    public long getJournalBytesRead(Context context) {
+        return getEntryManager(context).getBytesRead();
+    }
+
+
+    //These methods register and unregister a listener that is informed whenever a
+    //journal entry is created, changed or deleted, allowing a screen to update only
+    //the entries that changed instead of reloading every entry.
+    public void addJournalChangeListener(Context context, JournalChangeNotifier.OnJournalChangedListener listener) {
+        getEntryManager(context).addJournalChangeListener(listener);
+    }
+
+    public void removeJournalChangeListener(Context context, JournalChangeNotifier.OnJournalChangedListener listener) {
+        getEntryManager(context).removeJournalChangeListener(listener);
+    }
+
+
+    //This method returns the size of the text of every journal entry in bytes, keyed by the ID
+    //of the entry (see JournalSizeAccounting).
+    public Map<Integer, Long> getJournalEntryTextSizes(Context context) {
+        return getEntryManager(context).getJournalEntryTextSizes();
+    }
+
+
+    //This method returns a summary of every journal entry, holding only what the home screen
+    //shows (i.e., the text is cut down to a preview), in the order they are stored within the
+    //JSON file. The full text of the entries does not need to be read to do so.
+    public List<JournalEntry> getAllJournalEntrySummaries(Context context) {
+        return getEntryManager(context).getAllJournalEntrySummaries();
+    }
 
 
+    //This method returns every journal entry in the order they are stored within the JSON file.
+    public List<JournalEntry> getAllJournalEntries(Context context) {
+        return getEntryManager(context).getAllJournalEntries();
     }
 
 }
@@ -0,0 +1,199 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MediaAttachment {
+
+    //A media attachment (i.e., an image or a video) of a journal entry. Along with the URI of
+    //the media, it holds what is known about the media at the time it was attached, namely its
+    //MIME type, its size in bytes, its dimensions and (for videos) its duration. These are read
+    //once from the media provider (see MediaAttachmentResolver), meaning that neither showing
+    //the media nor reporting the size of an entry has to ask the provider again.
+    //Within journal_entries.json, each attachment is stored as an object, e.g.,
+    //{"Uri":"content://...","MimeType":"image/jpeg","Size":1048576,"Width":4000,"Height":3000,"Duration":0}.
+    //Entries written before attachments were typed hold plain URI strings instead. These are
+    //read as unresolved attachments (without a MIME type) until they are resolved.
+    public static final long UNKNOWN_SIZE = -1;
+
+    private final String uri;
+    private final String mimeType;
+    private final long sizeInBytes;
+    private final int width;
+    private final int height;
+    private final long durationMillis;
+
+    public MediaAttachment(String uri, String mimeType, long sizeInBytes, int width, int height, long durationMillis) {
+        this.uri = uri;
+        this.mimeType = mimeType;
+        this.sizeInBytes = sizeInBytes;
+        this.width = width;
+        this.height = height;
+        this.durationMillis = durationMillis;
+    }
+
+    //Creates an unresolved attachment that only holds the URI of the media,
+    //as stored by entries written before attachments were typed.
+    public static MediaAttachment fromUri(String uri) {
+        return new MediaAttachment(uri, null, UNKNOWN_SIZE, 0, 0, 0);
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    //The MIME type of the media, or null should the attachment not have been resolved yet.
+    public String getMimeType() {
+        return mimeType;
+    }
+
+    public long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public long getDurationMillis() {
+        return durationMillis;
+    }
+
+    public boolean isResolved() {
+        return mimeType != null;
+    }
+
+    public boolean hasDimensions() {
+        return width > 0 && height > 0;
+    }
+
+    //Whether the media is a video. Unresolved attachments fall back to guessing from their
+    //URI, which is how the media of an entry were told apart before they were typed.
+    public boolean isVideo() {
+        if (mimeType != null) {
+            return mimeType.startsWith("video/");
+        }
+        return uri.endsWith(".mp4") || uri.contains("video");
+    }
+
+    public boolean isImage() {
+        return !isVideo();
+    }
+
+    public JSONObject toJSON() throws JSONException {
+        JSONObject jsonObject = new JSONObject();
+        jsonObject.put("Uri", uri);
+        if (mimeType != null) {
+            jsonObject.put("MimeType", mimeType);
+        }
+        jsonObject.put("Size", sizeInBytes);
+        jsonObject.put("Width", width);
+        jsonObject.put("Height", height);
+        jsonObject.put("Duration", durationMillis);
+        return jsonObject;
+    }
+
+    //Creates an attachment from an element of an AllMediaInText array, which is either
+    //an attachment object or (for older entries) the URI of the media as a string.
+    public static MediaAttachment fromJSON(Object value) {
+        if (value instanceof JSONObject) {
+            JSONObject jsonObject = (JSONObject) value;
+            String mimeType = jsonObject.isNull("MimeType") ? null : jsonObject.optString("MimeType");
+            return new MediaAttachment(jsonObject.optString("Uri", ""), mimeType, jsonObject.optLong("Size", UNKNOWN_SIZE),
+                    jsonObject.optInt("Width", 0), jsonObject.optInt("Height", 0), jsonObject.optLong("Duration", 0));
+        }
+        return fromUri(value == null || value == JSONObject.NULL ? "" : value.toString());
+    }
+
+    public static List<MediaAttachment> fromJSONArray(JSONArray array) {
+        List<MediaAttachment> media = new ArrayList<>();
+        if (array != null) {
+            for (int i = 0; i < array.length(); i++) {
+                media.add(fromJSON(array.opt(i)));
+            }
+        }
+        return media;
+    }
+
+    public static JSONArray toJSONArray(List<MediaAttachment> media) {
+        JSONArray array = new JSONArray();
+        try {
+            for (MediaAttachment attachment : media) {
+                array.put(attachment.toJSON());
+            }
+        } catch (JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return array;
+    }
+
+    //Reads an element of an AllMediaInText array from the current position of a
+    //JournalJsonReader, accepting both attachment objects and plain URI strings.
+    public static MediaAttachment readFrom(JournalJsonReader reader) throws IOException {
+        if (reader.peek() != JournalJsonReader.Token.BEGIN_OBJECT) {
+            return fromUri(reader.nextString());
+        }
+
+        String uri = "";
+        String mimeType = null;
+        long sizeInBytes = UNKNOWN_SIZE;
+        int width = 0;
+        int height = 0;
+        long durationMillis = 0;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JournalJsonReader.Token.NULL) {
+                reader.skipValue();
+            } else if (name.equals("Uri")) {
+                uri = reader.nextString();
+            } else if (name.equals("MimeType")) {
+                mimeType = reader.nextString();
+            } else if (name.equals("Size")) {
+                sizeInBytes = reader.nextLong();
+            } else if (name.equals("Width")) {
+                width = reader.nextInt();
+            } else if (name.equals("Height")) {
+                height = reader.nextInt();
+            } else if (name.equals("Duration")) {
+                durationMillis = reader.nextLong();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new MediaAttachment(uri, mimeType, sizeInBytes, width, height, durationMillis);
+    }
+
+    //Writes the attachment into a record of the binary journal (see JournalBinaryFormat). The
+    //MIME type is only written for resolved attachments, which is marked by a flag.
+    void writeTo(JournalBinaryFormat.RecordWriter record) {
+        record.writeString(uri);
+        record.writeByte(mimeType != null ? JournalBinaryFormat.MEDIA_RESOLVED : 0);
+        if (mimeType != null) {
+            record.writeString(mimeType);
+        }
+        record.writeSignedVarLong(sizeInBytes);
+        record.writeSignedVarLong(width);
+        record.writeSignedVarLong(height);
+        record.writeSignedVarLong(durationMillis);
+    }
+
+    static MediaAttachment readFrom(JournalBinaryFormat.RecordReader record) throws IOException {
+        String uri = record.readString();
+        String mimeType = (record.readByte() & JournalBinaryFormat.MEDIA_RESOLVED) != 0 ? record.readString() : null;
+        return new MediaAttachment(uri, mimeType, record.readSignedVarLong(), (int) record.readSignedVarLong(),
+                (int) record.readSignedVarLong(), record.readSignedVarLong());
+    }
+}
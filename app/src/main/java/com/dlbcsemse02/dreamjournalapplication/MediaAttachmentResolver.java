@@ -0,0 +1,151 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.graphics.BitmapFactory;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.provider.MediaStore;
+import android.provider.OpenableColumns;
+import android.webkit.MimeTypeMap;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class MediaAttachmentResolver {
+
+    //Reads the MIME type, size, dimensions and duration of a media attachment from its media
+    //provider. This is done once when the media is attached to a journal entry (on a background
+    //thread, since the provider may have to open the file), after which they are stored along
+    //with the URI of the media (see MediaAttachment). Everything is read with a single query of
+    //the provider. Only should the provider not report the dimensions of the media (e.g., many
+    //document providers do not) is the media itself opened to read them, which for images only
+    //decodes their bounds rather than their pixels.
+    private MediaAttachmentResolver() {
+    }
+
+    public static MediaAttachment resolve(Context context, Uri uri) {
+        ContentResolver contentResolver = context.getContentResolver();
+        String mimeType = null;
+        long sizeInBytes = MediaAttachment.UNKNOWN_SIZE;
+        int width = 0;
+        int height = 0;
+        long durationMillis = 0;
+
+        if (ContentResolver.SCHEME_FILE.equals(uri.getScheme())) {
+            File file = new File(uri.getPath());
+            if (file.exists()) {
+                sizeInBytes = file.length();
+            }
+        } else {
+            try (Cursor cursor = contentResolver.query(uri, null, null, null, null)) {
+                if (cursor != null && cursor.moveToFirst()) {
+                    mimeType = getString(cursor, MediaStore.MediaColumns.MIME_TYPE);
+                    sizeInBytes = getLong(cursor, OpenableColumns.SIZE, MediaAttachment.UNKNOWN_SIZE);
+                    width = (int) getLong(cursor, MediaStore.MediaColumns.WIDTH, 0);
+                    height = (int) getLong(cursor, MediaStore.MediaColumns.HEIGHT, 0);
+                    durationMillis = getLong(cursor, MediaStore.Video.VideoColumns.DURATION, 0);
+                }
+            } catch (RuntimeException e) {
+                //A provider may refuse the query (e.g., should the permission have been revoked).
+                e.printStackTrace();
+            }
+            if (mimeType == null) {
+                mimeType = contentResolver.getType(uri);
+            }
+        }
+        if (mimeType == null) {
+            mimeType = guessMimeType(uri.toString());
+        }
+
+        if (mimeType.startsWith("image/") && (width <= 0 || height <= 0)) {
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            try (InputStream inputStream = contentResolver.openInputStream(uri)) {
+                BitmapFactory.decodeStream(inputStream, null, options);
+                width = Math.max(options.outWidth, 0);
+                height = Math.max(options.outHeight, 0);
+            } catch (IOException | SecurityException e) {
+                e.printStackTrace();
+            }
+        } else if (mimeType.startsWith("video/") && (width <= 0 || height <= 0 || durationMillis <= 0)) {
+            MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+            try {
+                retriever.setDataSource(context, uri);
+                width = parseInt(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_WIDTH));
+                height = parseInt(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_HEIGHT));
+                durationMillis = parseInt(retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_DURATION));
+
+                //The width and height of a video recorded in portrait are stored the other way round.
+                String rotation = retriever.extractMetadata(MediaMetadataRetriever.METADATA_KEY_VIDEO_ROTATION);
+                if ("90".equals(rotation) || "270".equals(rotation)) {
+                    int rotatedWidth = height;
+                    height = width;
+                    width = rotatedWidth;
+                }
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            } finally {
+                try {
+                    retriever.release();
+                } catch (IOException | RuntimeException e) {
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        return new MediaAttachment(uri.toString(), mimeType, sizeInBytes, width, height, durationMillis);
+    }
+
+    //Resolves every attachment that has not been resolved yet, i.e., those of entries written
+    //before attachments were typed. Returns null should every attachment already be resolved.
+    public static List<MediaAttachment> resolveAll(Context context, List<MediaAttachment> media) {
+        List<MediaAttachment> resolvedMedia = new ArrayList<>(media.size());
+        boolean changed = false;
+        for (MediaAttachment attachment : media) {
+            if (attachment.isResolved() || attachment.getUri().isEmpty()) {
+                resolvedMedia.add(attachment);
+            } else {
+                resolvedMedia.add(resolve(context, Uri.parse(attachment.getUri())));
+                changed = true;
+            }
+        }
+        return changed ? resolvedMedia : null;
+    }
+
+    //Guesses the MIME type from the extension of the URI, should the provider not report it.
+    //URIs without a known extension are told apart the same way they were before attachments
+    //were typed.
+    static String guessMimeType(String uri) {
+        String extension = MimeTypeMap.getFileExtensionFromUrl(uri);
+        if (extension != null && !extension.isEmpty()) {
+            String mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension.toLowerCase());
+            if (mimeType != null) {
+                return mimeType;
+            }
+        }
+        return MediaAttachment.fromUri(uri).isVideo() ? "video/*" : "image/*";
+    }
+
+    private static String getString(Cursor cursor, String column) {
+        int index = cursor.getColumnIndex(column);
+        return index == -1 || cursor.isNull(index) ? null : cursor.getString(index);
+    }
+
+    private static long getLong(Cursor cursor, String column, long defaultValue) {
+        int index = cursor.getColumnIndex(column);
+        return index == -1 || cursor.isNull(index) ? defaultValue : cursor.getLong(index);
+    }
+
+    private static int parseInt(String value) {
+        try {
+            return value == null ? 0 : Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.view.View;
+import android.view.ViewParent;
+import android.view.ViewTreeObserver;
+import android.widget.ScrollView;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class MediaViewportBinder {
+
+    //The media of a journal entry is added to the page as placeholders of a fixed size, which are
+    //laid out straight away. The image or video of a placeholder is only loaded (bound) once it
+    //scrolls near the visible part of the page, and released again once it scrolls far away from
+    //it. This means that opening an entry with many media only ever decodes the images and
+    //creates the players of the media around the visible part of the page, rather than all of them.
+    public interface MediaItem {
+
+        //Loads the media into its placeholder, e.g., decodes the image or creates the player.
+        void bind();
+
+        //Releases whatever bind() created, leaving only the placeholder behind.
+        void release();
+    }
+
+    private final ScrollView scrollView;
+
+    //The placeholders in the order they were added, along with their media and whether
+    //their media is currently bound.
+    private final Map<View, MediaItem> items = new LinkedHashMap<>();
+    private final Map<View, Boolean> boundItems = new LinkedHashMap<>();
+
+    //Whether the page is currently visible. While the activity is stopped, every media is released.
+    private boolean started = true;
+
+    public MediaViewportBinder(ScrollView scrollView) {
+        this.scrollView = scrollView;
+
+        //Scrolling moves the placeholders relative to the visible part of the page, while
+        //layout changes (e.g., typing text above the media) move them within the page.
+        scrollView.setOnScrollChangeListener(new View.OnScrollChangeListener() {
+            @Override
+            public void onScrollChange(View v, int scrollX, int scrollY, int oldScrollX, int oldScrollY) {
+                update();
+            }
+        });
+        scrollView.getViewTreeObserver().addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
+            @Override
+            public void onGlobalLayout() {
+                update();
+            }
+        });
+    }
+
+    //Registers the placeholder of a media, which must already have been added to the page.
+    public void add(View placeholder, MediaItem item) {
+        items.put(placeholder, item);
+        boundItems.put(placeholder, false);
+        update();
+    }
+
+    //Releases the media of the placeholder and stops tracking it, e.g., once it was removed.
+    public void remove(View placeholder) {
+        MediaItem item = items.remove(placeholder);
+        Boolean bound = boundItems.remove(placeholder);
+        if (item != null && bound != null && bound) {
+            item.release();
+        }
+    }
+
+    //Binds the media near the visible part of the page again once the activity is started.
+    public void start() {
+        started = true;
+        update();
+    }
+
+    //Releases every media while the activity is not visible.
+    public void stop() {
+        started = false;
+        update();
+    }
+
+    //Binds every media whose placeholder is within one screen height of the visible part of the
+    //page and releases every other media. Placeholders that have not been laid out yet are skipped.
+    public void update() {
+        int viewportHeight = scrollView.getHeight();
+        int scrollY = scrollView.getScrollY();
+        int bindTop = scrollY - viewportHeight;
+        int bindBottom = scrollY + viewportHeight * 2;
+
+        List<View> placeholders = new ArrayList<>(items.keySet());
+        for (View placeholder : placeholders) {
+            if (!items.containsKey(placeholder)) {
+                continue;
+            }
+            boolean bound = boundItems.get(placeholder);
+            boolean laidOut = viewportHeight > 0 && placeholder.getHeight() > 0;
+            int top = getTopWithinScrollView(placeholder);
+            boolean nearViewport = started && laidOut && top < bindBottom && top + placeholder.getHeight() > bindTop;
+
+            if (nearViewport && !bound) {
+                boundItems.put(placeholder, true);
+                items.get(placeholder).bind();
+            } else if (!nearViewport && bound && (laidOut || !started)) {
+                boundItems.put(placeholder, false);
+                items.get(placeholder).release();
+            }
+        }
+    }
+
+    public int getBoundCount() {
+        int boundCount = 0;
+        for (boolean bound : boundItems.values()) {
+            if (bound) {
+                boundCount++;
+            }
+        }
+        return boundCount;
+    }
+
+    //Returns the position of the top of the view within the scrolled content of the page.
+    private int getTopWithinScrollView(View view) {
+        int top = 0;
+        View current = view;
+        while (current != null && current != scrollView) {
+            top += current.getTop();
+            ViewParent parent = current.getParent();
+            current = parent instanceof View ? (View) parent : null;
+        }
+        return top;
+    }
+}
@@ -0,0 +1,448 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.util.JsonReader;
+import android.util.JsonToken;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class SQLiteJournalStore implements JournalStore {
+
+    private static final String TABLE = JournalDatabaseHelper.TABLE_ENTRIES;
+
+    //As with the JournalRepository, one store exists per journal for the whole
+    //process so that every activity shares the same database connection.
+    private static final Map<String, SQLiteJournalStore> stores = new HashMap<>();
+
+    private final JournalDatabaseHelper databaseHelper;
+
+    //Informs listeners (e.g., the MainActivity) about every changed entry.
+    private final JournalChangeNotifier changeNotifier = new JournalChangeNotifier();
+
+    //The JSON file (and its write-ahead log) that the entries are migrated
+    //from the first time the database is opened.
+    private final File journalFile;
+    private boolean migrationChecked = false;
+
+    //The texts of the entries within the JSON file, as these are stored separately
+    //from it (see JournalBodyStore). The database keeps each text within its own row.
+    private final JournalBodyStore bodyStore;
+
+    private SQLiteJournalStore(Context context, File journalFile) {
+        this.journalFile = journalFile;
+        this.bodyStore = new JournalBodyStore(journalFile);
+        String databaseName = journalFile.getName().replaceFirst("\\.json$", "") + ".db";
+        this.databaseHelper = new JournalDatabaseHelper(context.getApplicationContext(), databaseName);
+    }
+
+    public static synchronized SQLiteJournalStore getInstance(Context context, File journalFile) {
+        String key = journalFile.getAbsolutePath();
+        SQLiteJournalStore store = stores.get(key);
+        if (store == null) {
+            store = new SQLiteJournalStore(context, journalFile);
+            stores.put(key, store);
+        }
+        return store;
+    }
+
+    //Closes every database held open and forgets the stores, meaning the next call to
+    //getInstance() opens the database again. This is used by tests and benchmarks.
+    static synchronized void clearInstances() {
+        for (SQLiteJournalStore store : stores.values()) {
+            store.databaseHelper.close();
+        }
+        stores.clear();
+    }
+
+    @Override
+    public synchronized JournalEntry getEntry(int ID) {
+        try (Cursor cursor = getDatabase().query(TABLE, null, "ID = ?", new String[]{String.valueOf(ID)}, null, null, null)) {
+            return cursor.moveToFirst() ? readEntry(cursor) : null;
+        }
+    }
+
+    @Override
+    public synchronized JournalEntry getEntrySummary(int ID) {
+        try (Cursor cursor = getDatabase().query(TABLE, getSummaryColumns(), "ID = ?", new String[]{String.valueOf(ID)}, null, null, null)) {
+            return cursor.moveToFirst() ? readEntry(cursor).toSummary() : null;
+        }
+    }
+
+    //Returns all entries ordered by their ID, which matches the order
+    //in which they were stored within the JSON file.
+    @Override
+    public synchronized List<JournalEntry> getAllEntries() {
+        List<JournalEntry> allEntries = new ArrayList<>();
+        try (Cursor cursor = getDatabase().query(TABLE, null, null, null, null, null, "ID")) {
+            while (cursor.moveToNext()) {
+                allEntries.add(readEntry(cursor));
+            }
+        }
+        return allEntries;
+    }
+
+    //Only the beginning of each text is read from the database, which is cut
+    //down by SQLite itself rather than after the whole text has been loaded.
+    @Override
+    public synchronized List<JournalEntry> getEntrySummaries() {
+        List<JournalEntry> summaries = new ArrayList<>();
+        try (Cursor cursor = getDatabase().query(TABLE, getSummaryColumns(), null, null, null, null, "ID")) {
+            while (cursor.moveToNext()) {
+                summaries.add(readEntry(cursor).toSummary());
+            }
+        }
+        return summaries;
+    }
+
+    private static String[] getSummaryColumns() {
+        return new String[]{"ID", "EntryName", "substr(EntryText, 1, " + JournalEntry.PREVIEW_LENGTH + ") AS EntryText",
+                "ImageThumbnail", "DateAndTimeCreated", "LastEdited", "AllMediaInText", "Pinned"};
+    }
+
+    //The size of each text is counted by SQLite itself, meaning the texts are never read.
+    @Override
+    public synchronized Map<Integer, Long> getEntryTextSizes() {
+        Map<Integer, Long> textSizes = new LinkedHashMap<>();
+        try (Cursor cursor = getDatabase().query(TABLE, new String[]{"ID", "length(CAST(EntryText AS BLOB))"}, null, null, null, null, "ID")) {
+            while (cursor.moveToNext()) {
+                textSizes.put(cursor.getInt(0), cursor.getLong(1));
+            }
+        }
+        return textSizes;
+    }
+
+    @Override
+    public synchronized boolean isEntryPinned(int ID) {
+        try (Cursor cursor = getDatabase().query(TABLE, new String[]{"Pinned"}, "ID = ?", new String[]{String.valueOf(ID)}, null, null, null)) {
+            return cursor.moveToFirst() && cursor.getInt(0) != 0;
+        }
+    }
+
+    //Inserting a row without an ID makes SQLite assign one higher than any ID ever given
+    //(as ID is declared AUTOINCREMENT), matching how IDs are assigned within the JSON file.
+    @Override
+    public synchronized int createEntry(String title) {
+        ContentValues values = new ContentValues();
+        values.put("EntryName", title);
+        values.put("DateAndTimeCreated", now());
+        values.put("LastEdited", now());
+        int entryID = (int) getDatabase().insertOrThrow(TABLE, null, values);
+        changeNotifier.notifyEntryChanged(entryID);
+        return entryID;
+    }
+
+    @Override
+    public synchronized void updateEntryName(int ID, String newTitle) {
+        ContentValues values = new ContentValues();
+        values.put("EntryName", newTitle);
+        values.put("LastEdited", now());
+        update(ID, values);
+    }
+
+    @Override
+    public synchronized void updateImageThumbnail(int ID, String imagePath) {
+        ContentValues values = new ContentValues();
+        values.put("ImageThumbnail", imagePath);
+        values.put("LastEdited", now());
+        update(ID, values);
+    }
+
+    //Pinning an entry does not count as an edit, which is why the
+    //last edited date and time is left unchanged.
+    @Override
+    public synchronized void updateEntryPinned(int ID, boolean pinned) {
+        ContentValues values = new ContentValues();
+        values.put("Pinned", pinned ? 1 : 0);
+        update(ID, values);
+    }
+
+    @Override
+    public synchronized void updateEntryText(int ID, String newText) {
+        ContentValues values = new ContentValues();
+        values.put("EntryText", newText);
+        values.put("LastEdited", now());
+        update(ID, values);
+    }
+
+    @Override
+    public synchronized void updateEntryMedia(int ID, List<MediaAttachment> media) {
+        ContentValues values = new ContentValues();
+        values.put("AllMediaInText", MediaAttachment.toJSONArray(media).toString());
+        values.put("LastEdited", now());
+        update(ID, values);
+    }
+
+    //Each field is converted into the value of its column, with the media being stored
+    //as a JSON array and the pinned status as an integer. Fields without a column are ignored.
+    @Override
+    public synchronized void updateEntryFields(int ID, JSONObject changedFields) {
+        ContentValues values = new ContentValues();
+        Iterator<String> keys = changedFields.keys();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            if (key.equals("Pinned")) {
+                values.put(key, changedFields.optBoolean(key) ? 1 : 0);
+            } else if (key.equals("AllMediaInText")) {
+                JSONArray media = changedFields.optJSONArray(key);
+                values.put(key, MediaAttachment.toJSONArray(MediaAttachment.fromJSONArray(media)).toString());
+            } else if (key.equals("EntryName") || key.equals("EntryText") || key.equals("ImageThumbnail") || key.equals("LastEdited")) {
+                values.put(key, changedFields.optString(key));
+            }
+        }
+        if (values.size() > 0) {
+            update(ID, values);
+        }
+    }
+
+    @Override
+    public synchronized void deleteEntry(int ID) {
+        if (getDatabase().delete(TABLE, "ID = ?", new String[]{String.valueOf(ID)}) > 0) {
+            changeNotifier.notifyEntryChanged(ID);
+        }
+    }
+
+    @Override
+    public void addChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        changeNotifier.addListener(listener);
+    }
+
+    @Override
+    public void removeChangeListener(JournalChangeNotifier.OnJournalChangedListener listener) {
+        changeNotifier.removeListener(listener);
+    }
+
+    //Every change is committed by SQLite straight away, meaning there is nothing to compact.
+    @Override
+    public void compact() {
+    }
+
+    private void update(int ID, ContentValues values) {
+        if (getDatabase().update(TABLE, values, "ID = ?", new String[]{String.valueOf(ID)}) > 0) {
+            changeNotifier.notifyEntryChanged(ID);
+        }
+    }
+
+    private SQLiteDatabase getDatabase() {
+        SQLiteDatabase db = databaseHelper.getWritableDatabase();
+        if (!migrationChecked) {
+            migrateFromJson(db);
+            migrationChecked = true;
+        }
+        return db;
+    }
+
+    //This method moves the entries of an existing journal_entries.json file (and any changes
+    //still held within its write-ahead log) into the database. The JSON file is read one entry
+    //at a time using a JsonReader, meaning large journals never have to be held in memory as a
+    //whole. Everything is inserted within a single transaction. Once it has been committed, the
+    //JSON file is renamed so that the migration only ever happens once. The texts of the
+    //entries, which are stored separately from the JSON file, are moved into the rows as well.
+    //Should the app be killed before the rename, the migration is simply repeated, as rows are
+    //inserted or replaced.
+    private void migrateFromJson(SQLiteDatabase db) {
+        JournalWriteAheadLog writeAheadLog = new JournalWriteAheadLog(journalFile);
+        if (!journalFile.exists() && !writeAheadLog.getFile().exists()) {
+            return;
+        }
+
+        db.beginTransaction();
+        try {
+            if (journalFile.exists() && journalFile.length() > 0) {
+                try (JsonReader reader = new JsonReader(new InputStreamReader(new FileInputStream(journalFile), StandardCharsets.UTF_8))) {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        db.insertWithOnConflict(TABLE, null, readJsonEntry(reader), SQLiteDatabase.CONFLICT_REPLACE);
+                    }
+                    reader.endArray();
+                }
+            }
+
+            writeAheadLog.replay(record -> applyLogRecord(db, record));
+            reserveIDs(db, new JournalIdIndex(journalFile).readNextID());
+            db.setTransactionSuccessful();
+        } catch (IOException | JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        } finally {
+            db.endTransaction();
+        }
+
+        File migratedFile = new File(journalFile.getParentFile(), journalFile.getName() + ".migrated");
+        if (journalFile.exists() && !journalFile.renameTo(migratedFile)) {
+            throw new RuntimeException("Could not rename " + journalFile.getName() + " after migrating it");
+        }
+        writeAheadLog.clear();
+    }
+
+    //Makes sure that no ID below the given one is given to a new entry, i.e., that the IDs of
+    //entries deleted from the JSON file before it was migrated are not given out again. SQLite
+    //keeps the highest ID given so far within sqlite_sequence, which is raised to nextID - 1.
+    private static void reserveIDs(SQLiteDatabase db, int nextID) {
+        long highestID = DatabaseUtils.longForQuery(db, "SELECT IFNULL(MAX(seq), 0) FROM sqlite_sequence WHERE name = ?", new String[]{TABLE});
+        if (nextID - 1 <= highestID) {
+            return;
+        }
+        db.delete("sqlite_sequence", "name = ?", new String[]{TABLE});
+        ContentValues values = new ContentValues();
+        values.put("name", TABLE);
+        values.put("seq", nextID - 1);
+        db.insertOrThrow("sqlite_sequence", null, values);
+    }
+
+    //Reads a single journal entry object from the JSON file as database column values. Should the
+    //object only hold a preview of the text (see JournalBodyStore), the text is read from its body.
+    private ContentValues readJsonEntry(JsonReader reader) throws IOException {
+        ContentValues values = new ContentValues();
+        values.put("EntryName", "New Journal Title");
+        values.put("DateAndTimeCreated", "");
+        values.put("LastEdited", "");
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String name = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.skipValue();
+            } else if (name.equals("ID")) {
+                values.put("ID", reader.nextInt());
+            } else if (name.equals("Pinned")) {
+                values.put("Pinned", reader.nextBoolean() ? 1 : 0);
+            } else if (name.equals("AllMediaInText")) {
+                values.put("AllMediaInText", readJsonMedia(reader).toString());
+            } else if (name.equals("EntryName") || name.equals("EntryText") || name.equals("ImageThumbnail")
+                    || name.equals("DateAndTimeCreated") || name.equals("LastEdited")) {
+                values.put(name, reader.nextString());
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        if (!values.containsKey("EntryText") && values.containsKey("ID")) {
+            values.put("EntryText", bodyStore.read(values.getAsInteger("ID")));
+        }
+        return values;
+    }
+
+    //Reads the media array of a journal entry object, whose elements are either attachment
+    //objects or (for older entries) plain URI strings. Both are stored as attachment objects.
+    private static JSONArray readJsonMedia(JsonReader reader) throws IOException {
+        List<MediaAttachment> media = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            if (reader.peek() != JsonToken.BEGIN_OBJECT) {
+                media.add(MediaAttachment.fromUri(reader.nextString()));
+                continue;
+            }
+            JSONObject attachment = new JSONObject();
+            try {
+                reader.beginObject();
+                while (reader.hasNext()) {
+                    String name = reader.nextName();
+                    JsonToken token = reader.peek();
+                    if (token == JsonToken.STRING) {
+                        attachment.put(name, reader.nextString());
+                    } else if (token == JsonToken.NUMBER) {
+                        attachment.put(name, reader.nextLong());
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+                reader.endObject();
+            } catch (JSONException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+            media.add(MediaAttachment.fromJSON(attachment));
+        }
+        reader.endArray();
+        return MediaAttachment.toJSONArray(media);
+    }
+
+    //Applies a record of the write-ahead log (see JournalRepository) to the database.
+    //Created entries only hold a preview of their text, which is why the text is read from its body.
+    private void applyLogRecord(SQLiteDatabase db, JSONObject record) throws JSONException {
+        String operation = record.getString("Op");
+        if (operation.equals("Create")) {
+            JournalEntry entry = JournalEntry.fromJSON(record.getJSONObject("Entry"));
+            readMissingText(entry);
+            db.insertWithOnConflict(TABLE, null, toContentValues(entry), SQLiteDatabase.CONFLICT_REPLACE);
+        } else if (operation.equals("Update")) {
+            String[] whereArgs = new String[]{String.valueOf(record.getInt("ID"))};
+            try (Cursor cursor = db.query(TABLE, null, "ID = ?", whereArgs, null, null, null)) {
+                if (cursor.moveToFirst()) {
+                    JournalEntry entry = readEntry(cursor);
+                    entry.applyFields(record.getJSONObject("Fields"));
+                    db.update(TABLE, toContentValues(entry), "ID = ?", whereArgs);
+                }
+            }
+        } else if (operation.equals("Delete")) {
+            db.delete(TABLE, "ID = ?", new String[]{String.valueOf(record.getInt("ID"))});
+        }
+    }
+
+    private void readMissingText(JournalEntry entry) {
+        if (entry.getEntryText() == null) {
+            try {
+                entry.setEntryText(bodyStore.read(entry.getID()));
+            } catch (IOException e) {
+                e.printStackTrace();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static ContentValues toContentValues(JournalEntry entry) {
+        ContentValues values = new ContentValues();
+        values.put("ID", entry.getID());
+        values.put("EntryName", entry.getEntryName());
+        values.put("EntryText", entry.getEntryText());
+        values.put("ImageThumbnail", entry.getImageThumbnail());
+        values.put("DateAndTimeCreated", entry.getDateAndTimeCreated());
+        values.put("LastEdited", entry.getLastEdited());
+        values.put("AllMediaInText", MediaAttachment.toJSONArray(entry.getAllMediaInText()).toString());
+        values.put("Pinned", entry.isPinned() ? 1 : 0);
+        return values;
+    }
+
+    private static JournalEntry readEntry(Cursor cursor) {
+        JournalEntry entry = new JournalEntry(cursor.getInt(cursor.getColumnIndexOrThrow("ID")), cursor.getString(cursor.getColumnIndexOrThrow("EntryName")));
+        entry.setEntryText(cursor.getString(cursor.getColumnIndexOrThrow("EntryText")));
+        entry.setImageThumbnail(cursor.getString(cursor.getColumnIndexOrThrow("ImageThumbnail")));
+        entry.setDateAndTimeCreated(cursor.getString(cursor.getColumnIndexOrThrow("DateAndTimeCreated")));
+        entry.setLastEdited(cursor.getString(cursor.getColumnIndexOrThrow("LastEdited")));
+        entry.setPinned(cursor.getInt(cursor.getColumnIndexOrThrow("Pinned")) != 0);
+
+        try {
+            JSONArray media = new JSONArray(cursor.getString(cursor.getColumnIndexOrThrow("AllMediaInText")));
+            entry.setAllMediaInText(MediaAttachment.fromJSONArray(media));
+        } catch (JSONException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return entry;
+    }
+
+    private static String now() {
+        return LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+}
@@ -0,0 +1,82 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.Context;
+import android.media.MediaPlayer;
+import android.net.Uri;
+import android.view.View;
+import android.widget.FrameLayout;
+import android.widget.MediaController;
+import android.widget.VideoView;
+
+public class SharedVideoPlayer {
+
+    //Videos within a journal entry are shown as posters (see ThumbnailLoader) rather than as
+    //players, since preparing a player starts a video decoder for every video. Only once the
+    //user taps play is a player shown, and only one player exists for the whole entry. It is
+    //moved into the placeholder of whichever video is played, meaning that playing a video
+    //stops any other video that was playing.
+    private final Context context;
+    private VideoView videoView;
+    private MediaController mediaController;
+
+    //The placeholder the player is currently shown in, along with the play button
+    //that is hidden while the video is playing.
+    private FrameLayout container;
+    private View playButton;
+
+    public SharedVideoPlayer(Context context) {
+        this.context = context;
+    }
+
+    //Plays the video within the given placeholder. The player is added above the poster of
+    //the video, but below any other view added after it (e.g., the remove button).
+    public void play(FrameLayout container, View playButton, Uri videoUri) {
+        stop();
+        if (videoView == null) {
+            videoView = new VideoView(context);
+            mediaController = new MediaController(context);
+            videoView.setMediaController(mediaController);
+
+            //Once the video has finished, the poster and play button are shown again.
+            videoView.setOnCompletionListener(new MediaPlayer.OnCompletionListener() {
+                @Override
+                public void onCompletion(MediaPlayer mp) {
+                    stop();
+                }
+            });
+        }
+
+        this.container = container;
+        this.playButton = playButton;
+        playButton.setVisibility(View.GONE);
+        container.addView(videoView, container.indexOfChild(playButton), new FrameLayout.LayoutParams(FrameLayout.LayoutParams.MATCH_PARENT, FrameLayout.LayoutParams.MATCH_PARENT));
+        mediaController.setAnchorView(videoView);
+        videoView.setVideoURI(videoUri);
+        videoView.start();
+    }
+
+    //Stops the video that is playing, if any, releasing its decoder.
+    public void stop() {
+        if (container == null) {
+            return;
+        }
+        mediaController.hide();
+        videoView.stopPlayback();
+        container.removeView(videoView);
+        playButton.setVisibility(View.VISIBLE);
+        container = null;
+        playButton = null;
+    }
+
+    //Stops the player should it be playing within the given placeholder, e.g., once the
+    //placeholder scrolls far away from the visible part of the page or is removed.
+    public void stopIfPlayingIn(FrameLayout container) {
+        if (this.container == container) {
+            stop();
+        }
+    }
+
+    public boolean isPlayingIn(FrameLayout container) {
+        return this.container == container;
+    }
+}
@@ -0,0 +1,255 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.Context;
+import android.os.Process;
+import android.os.SystemClock;
+
+import androidx.tracing.Trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class StartupMetrics {
+
+    //Measures where the time goes while the home screen is launched, from the start of the
+    //process (or of the activity, should the process already have been running) until the
+    //first frame showing the journal entries is drawn. Each phase is also shown as a section
+    //within system traces (e.g., Perfetto), while its duration, the number of entries loaded and
+    //the bytes of the journal read are recorded here. Once the launch has finished, it is added
+    //as a row to startup_metrics.csv within the files directory of the app, which holds the most
+    //recent launches so that they can be compared with each other (e.g., before and after a change).
+    //Nothing is recorded once the launch has finished, meaning the phases can be reported from
+    //code that also runs long after the launch (e.g., when the journal is reloaded).
+    public static final String HISTORY_FILE_NAME = "startup_metrics.csv";
+    private static final int MAX_LAUNCHES = 100;
+
+    //The phases of a launch, in the order they happen. The process start phase is only measured
+    //for cold launches. Reading the journal happens on the journal thread while loading the
+    //journal entries runs, which is why the latter includes the former. Inflating, binding and
+    //decoding thumbnails happen once per card, meaning their durations are added up.
+    public static final String PROCESS_START = "ProcessStart";
+    public static final String SET_CONTENT_VIEW = "SetContentView";
+    public static final String LOAD_JOURNAL_ENTRIES = "LoadJournalEntries";
+    public static final String READ_JOURNAL = "ReadJournal";
+    public static final String SORT_ENTRIES = "SortEntries";
+    public static final String DISPLAY_ENTRIES = "DisplayEntries";
+    public static final String INFLATE_CARDS = "InflateCards";
+    public static final String BIND_CARDS = "BindCards";
+    public static final String DECODE_THUMBNAILS = "DecodeThumbnails";
+    private static final String[] PHASES = {PROCESS_START, SET_CONTENT_VIEW, LOAD_JOURNAL_ENTRIES, READ_JOURNAL, SORT_ENTRIES,
+            DISPLAY_ENTRIES, INFLATE_CARDS, BIND_CARDS, DECODE_THUMBNAILS};
+
+    private static StartupMetrics instance;
+
+    //Every launch after the first one of the process is a warm launch, as the process (and
+    //the journal held in memory) already exists.
+    private boolean processStarted = false;
+    private boolean recording = false;
+    private boolean coldLaunch;
+    private long launchStartNanos;
+    private long timeToFullDisplayNanos;
+
+    private final Map<String, Long> phaseStarts = new HashMap<>();
+    private final Map<String, Long> phaseDurations = new LinkedHashMap<>();
+    private final Map<String, Integer> phaseCounts = new HashMap<>();
+    private final Map<String, Integer> traceCookies = new HashMap<>();
+    private int nextTraceCookie = 1;
+
+    private int entryCount;
+    private int pinnedEntryCount;
+    private long bytesRead;
+
+    StartupMetrics() {
+    }
+
+    public static synchronized StartupMetrics getInstance() {
+        if (instance == null) {
+            instance = new StartupMetrics();
+        }
+        return instance;
+    }
+
+    //Starts measuring a launch. This is called at the very start of MainActivity.onCreate().
+    public synchronized void startLaunch() {
+        clear();
+        recording = true;
+        coldLaunch = !processStarted;
+        processStarted = true;
+        launchStartNanos = System.nanoTime();
+
+        //The process start is only known in milliseconds, as the uptime of the device.
+        if (coldLaunch) {
+            long processStartMillis = SystemClock.uptimeMillis() - Process.getStartUptimeMillis();
+            launchStartNanos -= processStartMillis * 1_000_000L;
+            phaseDurations.put(PROCESS_START, processStartMillis * 1_000_000L);
+        }
+    }
+
+    public synchronized boolean isRecording() {
+        return recording;
+    }
+
+    //Phases may begin and end on different threads, which is why they are traced as
+    //asynchronous sections (each with its own cookie) rather than as nested sections.
+    public synchronized void beginPhase(String phase) {
+        if (!recording) {
+            return;
+        }
+        int cookie = nextTraceCookie++;
+        traceCookies.put(phase, cookie);
+        Trace.beginAsyncSection(phase, cookie);
+        phaseStarts.put(phase, System.nanoTime());
+    }
+
+    public synchronized void endPhase(String phase) {
+        Long start = phaseStarts.remove(phase);
+        if (!recording || start == null) {
+            return;
+        }
+        Trace.endAsyncSection(phase, traceCookies.remove(phase));
+        addPhaseDuration(phase, System.nanoTime() - start);
+    }
+
+    //Adds the duration of a phase that happens several times (e.g., once per card). Such phases
+    //are traced by the code measuring them, as they always begin and end on the same thread.
+    public synchronized void addPhaseDuration(String phase, long durationNanos) {
+        if (!recording) {
+            return;
+        }
+        Long duration = phaseDurations.get(phase);
+        phaseDurations.put(phase, (duration == null ? 0 : duration) + durationNanos);
+        Integer count = phaseCounts.get(phase);
+        phaseCounts.put(phase, (count == null ? 0 : count) + 1);
+    }
+
+    public synchronized void setEntryCounts(int entryCount, int pinnedEntryCount) {
+        if (recording) {
+            this.entryCount = entryCount;
+            this.pinnedEntryCount = pinnedEntryCount;
+        }
+    }
+
+    public synchronized void addBytesRead(long bytesRead) {
+        if (recording) {
+            this.bytesRead += bytesRead;
+        }
+    }
+
+    //Finishes the launch once the first frame showing the journal entries is about to be drawn,
+    //returning whether a launch was being measured. Thumbnails may still be decoded afterwards,
+    //which is why only those decoded in time for the first frame are counted.
+    public synchronized boolean finishLaunch() {
+        if (!recording) {
+            return false;
+        }
+        recording = false;
+        timeToFullDisplayNanos = System.nanoTime() - launchStartNanos;
+        return true;
+    }
+
+    public synchronized long getPhaseDurationNanos(String phase) {
+        Long duration = phaseDurations.get(phase);
+        return duration == null ? 0 : duration;
+    }
+
+    public synchronized int getPhaseCount(String phase) {
+        Integer count = phaseCounts.get(phase);
+        return count == null ? 0 : count;
+    }
+
+    public synchronized long getTimeToFullDisplayNanos() {
+        return timeToFullDisplayNanos;
+    }
+
+    //Returns a summary of the last launch that can be read at a glance.
+    public synchronized String getReport() {
+        StringBuilder report = new StringBuilder(String.format(Locale.ROOT, "%s launch: %.1f ms until the entries were shown (%d entries, %d pinned, %d bytes of the journal read)",
+                coldLaunch ? "Cold" : "Warm", timeToFullDisplayNanos / 1_000_000.0, entryCount, pinnedEntryCount, bytesRead));
+        for (String phase : PHASES) {
+            Long duration = phaseDurations.get(phase);
+            if (duration != null) {
+                report.append(String.format(Locale.ROOT, "\n  %s: %.1f ms", phase, duration / 1_000_000.0));
+                if (phaseCounts.containsKey(phase) && phaseCounts.get(phase) > 1) {
+                    report.append(" over ").append(phaseCounts.get(phase));
+                }
+            }
+        }
+        return report.toString();
+    }
+
+    //Adds the last launch to the history of launches within the files directory of the app,
+    //keeping only the most recent ones, and returns the file. This reads and writes the disk,
+    //meaning it must not be called on the main thread.
+    public File exportReport(Context context) {
+        File historyFile = new File(context.getFilesDir(), HISTORY_FILE_NAME);
+        try {
+            List<String> launches = new ArrayList<>();
+            if (historyFile.exists()) {
+                List<String> lines = Files.readAllLines(historyFile.toPath(), StandardCharsets.UTF_8);
+                if (!lines.isEmpty() && lines.get(0).equals(getHeader())) {
+                    launches.addAll(lines.subList(1, lines.size()));
+                }
+            }
+            launches.add(getReportRow());
+            if (launches.size() > MAX_LAUNCHES) {
+                launches = launches.subList(launches.size() - MAX_LAUNCHES, launches.size());
+            }
+
+            StringBuilder csv = new StringBuilder(getHeader()).append('\n');
+            for (String launch : launches) {
+                csv.append(launch).append('\n');
+            }
+            Files.write(historyFile.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+        return historyFile;
+    }
+
+    //The history holds one row per launch, with the duration of every phase in microseconds.
+    static String getHeader() {
+        StringBuilder header = new StringBuilder("Timestamp,LaunchType,Entries,PinnedEntries,BytesRead,TimeToFullDisplayMicroseconds");
+        for (String phase : PHASES) {
+            header.append(',').append(phase).append("Microseconds");
+        }
+        return header.append(",CardsInflated,CardsBound,ThumbnailsDecoded").toString();
+    }
+
+    synchronized String getReportRow() {
+        StringBuilder row = new StringBuilder(LocalDateTime.now().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+        row.append(',').append(coldLaunch ? "Cold" : "Warm").append(',').append(entryCount).append(',').append(pinnedEntryCount)
+                .append(',').append(bytesRead).append(',').append(timeToFullDisplayNanos / 1000);
+        for (String phase : PHASES) {
+            row.append(',').append(getPhaseDurationNanos(phase) / 1000);
+        }
+        return row.append(',').append(getPhaseCount(INFLATE_CARDS)).append(',').append(getPhaseCount(BIND_CARDS))
+                .append(',').append(getPhaseCount(DECODE_THUMBNAILS)).toString();
+    }
+
+    //Should the previous launch not have finished (e.g., as the activity was closed straight
+    //away), the sections it left open are ended within the trace.
+    private void clear() {
+        for (Map.Entry<String, Integer> traceCookie : traceCookies.entrySet()) {
+            Trace.endAsyncSection(traceCookie.getKey(), traceCookie.getValue());
+        }
+        phaseStarts.clear();
+        phaseDurations.clear();
+        phaseCounts.clear();
+        traceCookies.clear();
+        entryCount = 0;
+        pinnedEntryCount = 0;
+        bytesRead = 0;
+        timeToFullDisplayNanos = 0;
+    }
+}
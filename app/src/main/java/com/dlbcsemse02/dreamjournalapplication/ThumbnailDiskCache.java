@@ -0,0 +1,224 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.graphics.Bitmap;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ThumbnailDiskCache {
+
+    //The default number of bytes that all cached thumbnails may take up on disk together.
+    public static final long DEFAULT_MAX_SIZE_IN_BYTES = 50L * 1024 * 1024;
+
+    //Thumbnails that were already decoded and scaled down (see ThumbnailLoader) are kept within
+    //the cache directory of the app as compressed JPEG files, meaning the images do not have to
+    //be read from their media providers and decoded again each time the app is started. Each
+    //file is named after a hash of its key (the URI and the size it was scaled to), followed by
+    //the signature of the original image (its size and last modified time) at the time it was
+    //cached, e.g., "3f7a...c2_1048576-1700000000000.jpg". The names of the files therefore
+    //act as the index of the cache, which is read with a single listing of the directory.
+    private static final String FILE_EXTENSION = ".jpg";
+    private static final int JPEG_QUALITY = 85;
+
+    private final File directory;
+    private final long maxSizeInBytes;
+
+    //The cached thumbnails keyed by the hash of their key, in the order they were last used
+    //(least recently used first). The last modified time of each file is updated whenever
+    //it is used, so that the order is kept between app starts.
+    private final LinkedHashMap<String, CachedThumbnail> thumbnails = new LinkedHashMap<>(16, 0.75f, true);
+    private long sizeInBytes = 0;
+    private boolean indexed = false;
+
+    public ThumbnailDiskCache(File directory, long maxSizeInBytes) {
+        this.directory = directory;
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    //Returns the cached thumbnail for the given key, or null should none be cached. The
+    //signature of the original image is returned along with it, allowing the caller to
+    //check whether the image has changed since (see ThumbnailLoader).
+    public synchronized CachedThumbnail get(String key) {
+        ensureIndexed();
+        String hash = hash(key);
+        CachedThumbnail thumbnail = thumbnails.get(hash);
+        if (thumbnail == null) {
+            return null;
+        }
+        if (!thumbnail.file.exists()) {
+            thumbnails.remove(hash);
+            sizeInBytes -= thumbnail.sizeInBytes;
+            return null;
+        }
+        thumbnail.file.setLastModified(System.currentTimeMillis());
+        return thumbnail;
+    }
+
+    //Stores the thumbnail under the given key, replacing any previous thumbnail, then evicts
+    //the least recently used thumbnails until the cache fits within its size again. The file
+    //is written under a temporary name first, so that a partially written file is never read.
+    public synchronized void put(String key, String signature, Bitmap bitmap) {
+        ensureIndexed();
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+
+        String hash = hash(key);
+        File file = new File(directory, hash + "_" + signature + FILE_EXTENSION);
+        File temporaryFile = new File(directory, hash + ".tmp");
+        try {
+            try (FileOutputStream outputStream = new FileOutputStream(temporaryFile)) {
+                if (!bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, outputStream)) {
+                    throw new IOException("Could not compress the thumbnail of " + key);
+                }
+            }
+            remove(key);
+            Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            //The thumbnail is simply decoded again the next time should it not be cached.
+            e.printStackTrace();
+            temporaryFile.delete();
+            return;
+        }
+
+        add(hash, new CachedThumbnail(file, signature));
+        trimToSize(maxSizeInBytes);
+    }
+
+    public synchronized void remove(String key) {
+        ensureIndexed();
+        CachedThumbnail thumbnail = thumbnails.remove(hash(key));
+        if (thumbnail != null) {
+            sizeInBytes -= thumbnail.sizeInBytes;
+            thumbnail.file.delete();
+        }
+    }
+
+    //Deletes the least recently used thumbnails until the cache takes up at most the given
+    //number of bytes.
+    public synchronized void trimToSize(long maxSizeInBytes) {
+        ensureIndexed();
+        Iterator<CachedThumbnail> iterator = thumbnails.values().iterator();
+        while (sizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+            CachedThumbnail thumbnail = iterator.next();
+            iterator.remove();
+            sizeInBytes -= thumbnail.sizeInBytes;
+            thumbnail.file.delete();
+        }
+    }
+
+    public synchronized long getSizeInBytes() {
+        ensureIndexed();
+        return sizeInBytes;
+    }
+
+    public synchronized int getCount() {
+        ensureIndexed();
+        return thumbnails.size();
+    }
+
+    //Builds the index from the files within the directory the first time the cache is used.
+    //Temporary files left behind by a write that never finished are deleted.
+    private void ensureIndexed() {
+        if (indexed) {
+            return;
+        }
+        indexed = true;
+
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        List<File> cachedFiles = new ArrayList<>();
+        for (File file : files) {
+            String name = file.getName();
+            if (name.endsWith(FILE_EXTENSION) && name.indexOf('_') > 0) {
+                cachedFiles.add(file);
+            } else {
+                file.delete();
+            }
+        }
+
+        //Sorting the files by their last modified time restores the order in which
+        //they were last used.
+        final Map<File, Long> lastModified = new LinkedHashMap<>();
+        for (File file : cachedFiles) {
+            lastModified.put(file, file.lastModified());
+        }
+        File[] sortedFiles = cachedFiles.toArray(new File[0]);
+        Arrays.sort(sortedFiles, new Comparator<File>() {
+            @Override
+            public int compare(File first, File second) {
+                return Long.compare(lastModified.get(first), lastModified.get(second));
+            }
+        });
+
+        for (File file : sortedFiles) {
+            String name = file.getName();
+            int separator = name.indexOf('_');
+            String signature = name.substring(separator + 1, name.length() - FILE_EXTENSION.length());
+            add(name.substring(0, separator), new CachedThumbnail(file, signature));
+        }
+    }
+
+    private void add(String hash, CachedThumbnail thumbnail) {
+        CachedThumbnail previousThumbnail = thumbnails.put(hash, thumbnail);
+        if (previousThumbnail != null) {
+            sizeInBytes -= previousThumbnail.sizeInBytes;
+            if (!previousThumbnail.file.equals(thumbnail.file)) {
+                previousThumbnail.file.delete();
+            }
+        }
+        sizeInBytes += thumbnail.sizeInBytes;
+    }
+
+    //Keys contain characters that are not allowed within file names (e.g., those of a URI),
+    //which is why the files are named after a SHA-1 hash of their key instead.
+    static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hash = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hash.append(Character.forDigit((b >> 4) & 0xF, 16));
+                hash.append(Character.forDigit(b & 0xF, 16));
+            }
+            return hash.toString();
+        } catch (NoSuchAlgorithmException e) {
+            e.printStackTrace();
+            throw new RuntimeException(e);
+        }
+    }
+
+    public static class CachedThumbnail {
+        private final File file;
+        private final String signature;
+        private final long sizeInBytes;
+
+        CachedThumbnail(File file, String signature) {
+            this.file = file;
+            this.signature = signature;
+            this.sizeInBytes = file.length();
+        }
+
+        public File getFile() {
+            return file;
+        }
+
+        public String getSignature() {
+            return signature;
+        }
+    }
+}
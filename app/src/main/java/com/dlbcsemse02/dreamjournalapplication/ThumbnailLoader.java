@@ -0,0 +1,398 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import android.content.ComponentCallbacks2;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.Cursor;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.ImageDecoder;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.media.MediaMetadataRetriever;
+import android.net.Uri;
+import android.os.Build;
+import android.provider.DocumentsContract;
+import android.provider.MediaStore;
+import android.provider.OpenableColumns;
+import android.util.LruCache;
+import android.widget.ImageView;
+
+import androidx.tracing.Trace;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ThumbnailLoader {
+
+    //Images chosen as thumbnails are usually photos taken by the camera, which can be 12
+    //megapixels or more (about 48 MB once decoded). Since a card only shows the image at a
+    //fraction of that size, this class decodes every image at the size of the view it is shown
+    //in, on a background thread rather than the main thread. Decoded thumbnails are kept within
+    //a memory cache, meaning scrolling back to a card does not decode its image again, as well
+    //as a disk cache (see ThumbnailDiskCache), meaning the next start of the app does not have
+    //to read the original images from their media providers.
+    private static ThumbnailLoader instance;
+
+    //Thumbnails are decoded on their own threads rather than the journal thread, so that
+    //reading and writing the journal is never held up by decoding an image.
+    private static final int DECODE_THREAD_COUNT = 2;
+
+    private final Context context;
+    private final ContentResolver contentResolver;
+    private final LruCache<String, Bitmap> memoryCache;
+    private final ThumbnailDiskCache diskCache;
+    private final ExecutorService decodeExecutor;
+
+    //The keys of the thumbnails taken from the disk cache that were already checked against
+    //their original images since the app was started (see validate()).
+    private final Set<String> validatedKeys = Collections.synchronizedSet(new HashSet<String>());
+
+    //The load currently running for each view. Only ever accessed on the main thread. A view
+    //that is bound to another entry (or recycled) has its previous load cancelled, and a load
+    //whose view has since been given a different load never sets its bitmap.
+    private final Map<ImageView, ThumbnailRequest> requests = new WeakHashMap<>();
+
+    private ThumbnailLoader(Context context) {
+        this.context = context.getApplicationContext();
+        this.contentResolver = this.context.getContentResolver();
+
+        //The cache is bounded by the number of bytes held by its bitmaps rather than by their
+        //count, using an eighth of the memory available to the app.
+        int cacheSizeInBytes = (int) Math.min(Integer.MAX_VALUE, Runtime.getRuntime().maxMemory() / 8);
+        this.memoryCache = new LruCache<String, Bitmap>(cacheSizeInBytes) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+
+        this.diskCache = new ThumbnailDiskCache(new File(context.getCacheDir(), "thumbnails"), ThumbnailDiskCache.DEFAULT_MAX_SIZE_IN_BYTES);
+
+        final AtomicInteger threadCount = new AtomicInteger();
+        this.decodeExecutor = Executors.newFixedThreadPool(DECODE_THREAD_COUNT, new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "thumbnail-decode-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+    }
+
+    public static synchronized ThumbnailLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ThumbnailLoader(context);
+        }
+        return instance;
+    }
+
+    //Shows the image at the given URI within the view, decoded at the size of the view. Should
+    //the view not have been laid out yet, the width of the screen and the height set within its
+    //layout are used instead, which is the size of the thumbnail on a card.
+    public void load(ImageView imageView, String imageUri) {
+        int targetWidth = imageView.getWidth() > 0 ? imageView.getWidth() : imageView.getResources().getDisplayMetrics().widthPixels;
+        int targetHeight = imageView.getHeight();
+        if (targetHeight <= 0 && imageView.getLayoutParams() != null) {
+            targetHeight = imageView.getLayoutParams().height;
+        }
+        if (targetHeight <= 0) {
+            targetHeight = targetWidth;
+        }
+        load(imageView, imageUri, targetWidth, targetHeight);
+    }
+
+    public void load(ImageView imageView, String imageUri, int targetWidth, int targetHeight) {
+        load(imageView, imageUri, targetWidth, targetHeight, false);
+    }
+
+    //Shows a single frame of the video at the given URI (its poster) within the view. Posters
+    //are extracted and cached in the same way as the thumbnails of images, meaning a video
+    //only needs a player once the user actually plays it.
+    public void loadVideoPoster(ImageView imageView, String videoUri, int targetWidth, int targetHeight) {
+        load(imageView, videoUri, targetWidth, targetHeight, true);
+    }
+
+    private void load(final ImageView imageView, final String imageUri, final int targetWidth, final int targetHeight, final boolean videoPoster) {
+        final String cacheKey = (videoPoster ? "poster:" : "") + imageUri + "@" + targetWidth + "x" + targetHeight;
+        ThumbnailRequest previousRequest = requests.get(imageView);
+        if (previousRequest != null && previousRequest.cacheKey.equals(cacheKey)) {
+            return;
+        }
+        cancel(imageView);
+
+        Bitmap cachedBitmap = memoryCache.get(cacheKey);
+        if (cachedBitmap != null) {
+            imageView.setImageBitmap(cachedBitmap);
+            return;
+        }
+
+        //The previous image of a reused view is cleared straight away, so that a card never
+        //shows the thumbnail of another entry while its own is still being decoded.
+        imageView.setImageDrawable(null);
+        final ThumbnailRequest request = new ThumbnailRequest(cacheKey);
+        requests.put(imageView, request);
+        request.future = decodeExecutor.submit(new Runnable() {
+            @Override
+            public void run() {
+                if (request.cancelled) {
+                    return;
+                }
+
+                //A thumbnail found within the disk cache is shown straight away, while it is
+                //only checked against its original image afterwards. Decoding is traced, and
+                //measured should the home screen still be launching (see StartupMetrics).
+                ThumbnailDiskCache.CachedThumbnail cachedThumbnail;
+                Bitmap bitmap;
+                long decodeStart = System.nanoTime();
+                Trace.beginSection("ThumbnailLoader.decode");
+                try {
+                    cachedThumbnail = diskCache.get(cacheKey);
+                    bitmap = cachedThumbnail == null ? null : BitmapFactory.decodeFile(cachedThumbnail.getFile().getPath());
+                    if (bitmap == null) {
+                        bitmap = decodeAndCache(cacheKey, Uri.parse(imageUri), targetWidth, targetHeight, videoPoster);
+                    } else {
+                        memoryCache.put(cacheKey, bitmap);
+                    }
+                } finally {
+                    Trace.endSection();
+                    StartupMetrics.getInstance().addPhaseDuration(StartupMetrics.DECODE_THUMBNAILS, System.nanoTime() - decodeStart);
+                }
+                if (bitmap == null) {
+                    return;
+                }
+
+                final Bitmap finalBitmap = bitmap;
+                JournalExecutor.getMainThreadExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        if (!request.cancelled && requests.get(imageView) == request) {
+                            requests.remove(imageView);
+                            imageView.setImageBitmap(finalBitmap);
+                        }
+                    }
+                });
+
+                if (cachedThumbnail != null && validatedKeys.add(cacheKey)) {
+                    validate(imageView, cacheKey, Uri.parse(imageUri), cachedThumbnail.getSignature(), finalBitmap, targetWidth, targetHeight, videoPoster);
+                }
+            }
+        });
+    }
+
+    //Checks whether the original image of a thumbnail taken from the disk cache has changed
+    //since it was cached (i.e., its size or last modified time differ), which is only done once
+    //per thumbnail after every start of the app. The check is queued behind every other load,
+    //meaning the media providers are only queried once the visible cards have been shown.
+    //Should the image have changed, it is decoded again and replaces the outdated thumbnail,
+    //as long as the view still shows it.
+    private void validate(final ImageView imageView, final String cacheKey, final Uri imageUri, final String cachedSignature,
+                          final Bitmap cachedBitmap, final int targetWidth, final int targetHeight, final boolean videoPoster) {
+        decodeExecutor.execute(new Runnable() {
+            @Override
+            public void run() {
+                if (readSourceSignature(imageUri).equals(cachedSignature)) {
+                    return;
+                }
+                diskCache.remove(cacheKey);
+                memoryCache.remove(cacheKey);
+                final Bitmap bitmap = decodeAndCache(cacheKey, imageUri, targetWidth, targetHeight, videoPoster);
+                if (bitmap == null) {
+                    return;
+                }
+
+                JournalExecutor.getMainThreadExecutor().execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        Drawable drawable = imageView.getDrawable();
+                        if (drawable instanceof BitmapDrawable && ((BitmapDrawable) drawable).getBitmap() == cachedBitmap) {
+                            imageView.setImageBitmap(bitmap);
+                        }
+                    }
+                });
+            }
+        });
+    }
+
+    //Decodes the original image and stores the thumbnail within both caches. The signature
+    //is read before decoding, so that a change made while decoding is noticed next time.
+    private Bitmap decodeAndCache(String cacheKey, Uri imageUri, int targetWidth, int targetHeight, boolean videoPoster) {
+        String signature = readSourceSignature(imageUri);
+        Bitmap bitmap = videoPoster ? decodeVideoPoster(imageUri, targetWidth, targetHeight) : decode(imageUri, targetWidth, targetHeight);
+        if (bitmap != null) {
+            memoryCache.put(cacheKey, bitmap);
+            diskCache.put(cacheKey, signature, bitmap);
+        }
+        return bitmap;
+    }
+
+    //Returns the size and last modified time of the original image (e.g., "1048576-1700000000000"),
+    //with -1 for either of them that the media provider does not report.
+    String readSourceSignature(Uri imageUri) {
+        long size = -1;
+        long lastModified = -1;
+        if (ContentResolver.SCHEME_FILE.equals(imageUri.getScheme())) {
+            File file = new File(imageUri.getPath());
+            size = file.length();
+            lastModified = file.lastModified();
+        } else {
+            try (Cursor cursor = contentResolver.query(imageUri, null, null, null, null)) {
+                if (cursor != null && cursor.moveToFirst()) {
+                    int sizeIndex = cursor.getColumnIndex(OpenableColumns.SIZE);
+                    if (sizeIndex != -1 && !cursor.isNull(sizeIndex)) {
+                        size = cursor.getLong(sizeIndex);
+                    }
+
+                    //Documents report their last modified time in milliseconds, while
+                    //the MediaStore reports it in seconds.
+                    int lastModifiedIndex = cursor.getColumnIndex(DocumentsContract.Document.COLUMN_LAST_MODIFIED);
+                    int dateModifiedIndex = cursor.getColumnIndex(MediaStore.MediaColumns.DATE_MODIFIED);
+                    if (lastModifiedIndex != -1 && !cursor.isNull(lastModifiedIndex)) {
+                        lastModified = cursor.getLong(lastModifiedIndex);
+                    } else if (dateModifiedIndex != -1 && !cursor.isNull(dateModifiedIndex)) {
+                        lastModified = cursor.getLong(dateModifiedIndex) * 1000;
+                    }
+                }
+            } catch (RuntimeException e) {
+                //A provider may refuse the query (e.g., should the permission have been revoked).
+                e.printStackTrace();
+            }
+        }
+        return size + "-" + lastModified;
+    }
+
+    //Cancels the load running for the view, if any, and releases its image. This is called
+    //when the card holding the view is recycled.
+    public void cancel(ImageView imageView) {
+        ThumbnailRequest request = requests.remove(imageView);
+        if (request != null) {
+            request.cancelled = true;
+            if (request.future != null) {
+                request.future.cancel(false);
+            }
+        }
+        imageView.setImageDrawable(null);
+    }
+
+    //Releases cached thumbnails when the system runs low on memory. Once the app has moved to
+    //the background, the whole memory cache is cleared, otherwise it is cut down to half its
+    //size. The disk cache is left as it is, since it does not take up any memory.
+    public void trimMemory(int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            memoryCache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            memoryCache.trimToSize(memoryCache.maxSize() / 2);
+        }
+    }
+
+    //Decodes the image at a size that still covers the target size, since the thumbnail is
+    //cropped to fill the view. ImageDecoder scales the image while decoding it. On older
+    //versions of Android, BitmapFactory can only skip pixels by powers of two (inSampleSize),
+    //which is why the bitmap may be up to twice the target size in each direction.
+    Bitmap decode(Uri imageUri, final int targetWidth, final int targetHeight) {
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.P) {
+                return ImageDecoder.decodeBitmap(ImageDecoder.createSource(contentResolver, imageUri), new ImageDecoder.OnHeaderDecodedListener() {
+                    @Override
+                    public void onHeaderDecoded(ImageDecoder decoder, ImageDecoder.ImageInfo info, ImageDecoder.Source source) {
+                        int width = info.getSize().getWidth();
+                        int height = info.getSize().getHeight();
+                        double scale = Math.min(1.0, Math.max((double) targetWidth / width, (double) targetHeight / height));
+                        decoder.setTargetSize(Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+
+                        //The thumbnail is compressed into the disk cache, which requires
+                        //its pixels to be held in memory rather than on the GPU.
+                        decoder.setAllocator(ImageDecoder.ALLOCATOR_SOFTWARE);
+                    }
+                });
+            }
+
+            BitmapFactory.Options options = new BitmapFactory.Options();
+            options.inJustDecodeBounds = true;
+            try (InputStream inputStream = contentResolver.openInputStream(imageUri)) {
+                BitmapFactory.decodeStream(inputStream, null, options);
+            }
+            options.inSampleSize = calculateInSampleSize(options.outWidth, options.outHeight, targetWidth, targetHeight);
+            options.inJustDecodeBounds = false;
+            try (InputStream inputStream = contentResolver.openInputStream(imageUri)) {
+                return BitmapFactory.decodeStream(inputStream, null, options);
+            }
+        } catch (IOException | SecurityException e) {
+            //The image may have been deleted, or the permission to read it revoked,
+            //in which case the card is simply shown without its thumbnail.
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    //Extracts the frame closest to the start of the video that can be decoded on its own
+    //(a sync frame), which does not require the whole video to be decoded up to it. From
+    //Android 8.1 onwards, the frame is scaled while being extracted.
+    Bitmap decodeVideoPoster(Uri videoUri, int targetWidth, int targetHeight) {
+        MediaMetadataRetriever retriever = new MediaMetadataRetriever();
+        try {
+            retriever.setDataSource(context, videoUri);
+            Bitmap frame;
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.O_MR1) {
+                frame = retriever.getScaledFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC, targetWidth, targetHeight);
+            } else {
+                frame = retriever.getFrameAtTime(0, MediaMetadataRetriever.OPTION_CLOSEST_SYNC);
+                if (frame != null) {
+                    double scale = Math.min(1.0, Math.min((double) targetWidth / frame.getWidth(), (double) targetHeight / frame.getHeight()));
+                    Bitmap scaledFrame = Bitmap.createScaledBitmap(frame, Math.max(1, (int) Math.round(frame.getWidth() * scale)),
+                            Math.max(1, (int) Math.round(frame.getHeight() * scale)), true);
+                    if (scaledFrame != frame) {
+                        frame.recycle();
+                    }
+                    frame = scaledFrame;
+                }
+            }
+            return frame;
+        } catch (RuntimeException e) {
+            //The video may have been deleted, the permission to read it revoked, or its
+            //format may not be supported, in which case only the placeholder is shown.
+            e.printStackTrace();
+            return null;
+        } finally {
+            try {
+                retriever.release();
+            } catch (IOException | RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    //Returns the largest power of two that keeps the decoded image at least as large as the
+    //target size in both directions.
+    static int calculateInSampleSize(int width, int height, int targetWidth, int targetHeight) {
+        int inSampleSize = 1;
+        if (width <= 0 || height <= 0) {
+            return inSampleSize;
+        }
+        while (width / (inSampleSize * 2) >= targetWidth && height / (inSampleSize * 2) >= targetHeight) {
+            inSampleSize *= 2;
+        }
+        return inSampleSize;
+    }
+
+    private static class ThumbnailRequest {
+        private final String cacheKey;
+        private volatile boolean cancelled = false;
+        private Future<?> future;
+
+        ThumbnailRequest(String cacheKey) {
+            this.cacheKey = cacheKey;
+        }
+    }
+}
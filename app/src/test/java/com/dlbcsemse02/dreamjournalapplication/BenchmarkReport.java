@@ -0,0 +1,78 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+//Collects the results of a benchmark as rows of a CSV file, one row per measured operation.
+//Reports of different runs (e.g., before and after a change) can be compared with each other,
+//matching the rows by their storage mode, journal size, text length and operation.
+public class BenchmarkReport {
+
+    private static final String HEADER = "StorageMode,Entries,TextLength,Operation,MedianMicroseconds,P95Microseconds,AllocatedBytesPerOperation,WrittenBytesPerOperation";
+
+    //The rows of the report keyed by everything but their results.
+    private final Map<String, long[]> results = new LinkedHashMap<>();
+
+    public void add(String storageMode, int entries, int textLength, String operation,
+                    long medianMicroseconds, long p95Microseconds, long allocatedBytes, long writtenBytes) {
+        results.put(key(storageMode, entries, textLength, operation), new long[]{medianMicroseconds, p95Microseconds, allocatedBytes, writtenBytes});
+    }
+
+    public void write(File file) throws IOException {
+        File directory = file.getParentFile();
+        if (directory != null) {
+            directory.mkdirs();
+        }
+        Files.write(file.toPath(), toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static BenchmarkReport read(File file) throws IOException {
+        BenchmarkReport report = new BenchmarkReport();
+        List<String> lines = Files.readAllLines(file.toPath(), StandardCharsets.UTF_8);
+        for (int i = 1; i < lines.size(); i++) {
+            String[] columns = lines.get(i).split(",");
+            if (columns.length == 8) {
+                report.add(columns[0], Integer.parseInt(columns[1]), Integer.parseInt(columns[2]), columns[3], Long.parseLong(columns[4]),
+                        Long.parseLong(columns[5]), Long.parseLong(columns[6]), Long.parseLong(columns[7]));
+            }
+        }
+        return report;
+    }
+
+    //Returns the median latency of every row that is also found within the baseline next to
+    //that of the baseline, along with how many times slower (above 1) or faster (below 1) it is.
+    public String compareWith(BenchmarkReport baseline) {
+        StringBuilder comparison = new StringBuilder("StorageMode,Entries,TextLength,Operation,BaselineMedianMicroseconds,MedianMicroseconds,Ratio\n");
+        for (Map.Entry<String, long[]> row : results.entrySet()) {
+            long[] baselineResults = baseline.results.get(row.getKey());
+            if (baselineResults == null) {
+                continue;
+            }
+            long baselineMedian = baselineResults[0];
+            long median = row.getValue()[0];
+            double ratio = baselineMedian == 0 ? 0 : (double) median / baselineMedian;
+            comparison.append(String.format(Locale.ROOT, "%s,%d,%d,%.2f\n", row.getKey(), baselineMedian, median, ratio));
+        }
+        return comparison.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder csv = new StringBuilder(HEADER).append('\n');
+        for (Map.Entry<String, long[]> row : results.entrySet()) {
+            long[] values = row.getValue();
+            csv.append(String.format(Locale.ROOT, "%s,%d,%d,%d,%d\n", row.getKey(), values[0], values[1], values[2], values[3]));
+        }
+        return csv.toString();
+    }
+
+    private static String key(String storageMode, int entries, int textLength, String operation) {
+        return storageMode + "," + entries + "," + textLength + "," + operation;
+    }
+}
@@ -0,0 +1,173 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class JournalBinaryFormatBenchmarkTest {
+
+    private static final int[] JOURNAL_SIZES = {1_000, 10_000, 100_000};
+    private static final int[] PREVIEW_LENGTHS = {64, JournalEntry.PREVIEW_LENGTH};
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 10;
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    private interface Operation {
+        long run() throws IOException;
+    }
+
+
+    //This benchmark compares the JSON file with the binary format (see JournalBinaryFormat) for
+    //several journal sizes and lengths of the previews: writing the file (whose size is reported as
+    //the bytes written), reading every entry of it as the journal is loaded, and reading a single
+    //entry from its position. Along with the median and 95th percentile latency, the bytes allocated
+    //by each are reported. Both formats have to read back exactly the same entries. The report is
+    //written in the same format as that of ManagingJournalEntriesBenchmarkTest (as format-latest.csv).
+    //The benchmark only runs when asked for (-PjournalBenchmark), as it takes several minutes.
+    @Test
+    public void compareFormats() throws Exception {
+        assumeTrue(Boolean.getBoolean("journalBenchmark"));
+        BenchmarkReport report = new BenchmarkReport();
+
+        for (int journalSize : JOURNAL_SIZES) {
+            for (int previewLength : PREVIEW_LENGTHS) {
+                List<JournalEntry> entries = createEntries(journalSize, previewLength);
+                List<String> readEntries = null;
+                for (JournalSnapshotFormat format : new JournalSnapshotFormat[]{JournalSnapshotFormat.JSON, JournalSnapshotFormat.BINARY}) {
+                    String formatName = format == JournalSnapshotFormat.JSON ? "JSON" : "BINARY";
+                    File file = new File(directory.getRoot(), "benchmark_journal_entries." + formatName.toLowerCase());
+                    int[] entryIDs = new int[journalSize];
+                    long[] positions = new long[journalSize];
+
+                    measure(report, formatName, journalSize, previewLength, "writeSnapshot", () -> {
+                        byte[] content = format.write(entries, entryIDs, positions);
+                        Files.write(file.toPath(), content);
+                        return content.length;
+                    });
+                    measure(report, formatName, journalSize, previewLength, "readSnapshot", () -> {
+                        readAll(format, file);
+                        return 0;
+                    });
+                    int middle = journalSize / 2;
+                    measure(report, formatName, journalSize, previewLength, "readEntry", () -> {
+                        try (FileInputStream inputStream = new FileInputStream(file)) {
+                            inputStream.getChannel().position(positions[middle]);
+                            assertEquals(entryIDs[middle], format.readEntry(inputStream, Integer.MAX_VALUE).getID());
+                        }
+                        return 0;
+                    });
+
+                    List<String> entriesOfFormat = new ArrayList<>();
+                    for (JournalEntry entry : readAll(format, file)) {
+                        entriesOfFormat.add(entry.toSummaryJSON().toString());
+                    }
+                    if (readEntries != null) {
+                        assertEquals(readEntries, entriesOfFormat);
+                    }
+                    readEntries = entriesOfFormat;
+                }
+            }
+        }
+
+        File reportDirectory = new File(System.getProperty("journalBenchmark.reportDir", "build/reports/journal-benchmark"));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        report.write(new File(reportDirectory, "format-" + timestamp + ".csv"));
+        report.write(new File(reportDirectory, "format-latest.csv"));
+        System.out.println(report);
+    }
+
+
+    private static List<JournalEntry> readAll(JournalSnapshotFormat format, File file) throws IOException {
+        List<JournalEntry> entries = new ArrayList<>();
+        try (JournalSnapshotFormat.EntryReader reader = format.openEntries(new FileInputStream(file))) {
+            JournalEntry entry;
+            while ((entry = reader.next(Integer.MAX_VALUE)) != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    //Runs the operation a few times to warm up, then measures each further run. The operation
+    //returns the number of bytes it has written.
+    private static void measure(BenchmarkReport report, String formatName, int journalSize, int previewLength,
+                                String operationName, Operation operation) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            operation.run();
+        }
+
+        long[] durations = new long[ITERATIONS];
+        long allocatedBytes = 0;
+        long writtenBytes = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            long allocatedBefore = getAllocatedBytes();
+            long start = System.nanoTime();
+            writtenBytes += operation.run();
+            durations[i] = System.nanoTime() - start;
+            allocatedBytes += getAllocatedBytes() - allocatedBefore;
+        }
+        Arrays.sort(durations);
+        long median = durations[ITERATIONS / 2] / 1000;
+        long p95 = durations[Math.min(ITERATIONS - 1, (int) Math.ceil(ITERATIONS * 0.95) - 1)] / 1000;
+        report.add(formatName, journalSize, previewLength, operationName, median, p95, allocatedBytes / ITERATIONS, writtenBytes / ITERATIONS);
+    }
+
+    //Allocations are counted for the calling thread, as every operation runs on it.
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    //Creates the given number of entries (with IDs 1 to journalSize) as they are held in memory by the
+    //JournalRepository, i.e., as summaries, created and edited at times written by the app itself.
+    //Every fourth entry has a photo attached, and every tenth entry is pinned.
+    private static List<JournalEntry> createEntries(int journalSize, int previewLength) {
+        Random random = new Random(42);
+        String sentence = "I was flying over the sea again, and the waves below me turned into clouds. ";
+        StringBuilder text = new StringBuilder();
+        while (text.length() < previewLength) {
+            text.append(sentence);
+        }
+
+        List<JournalEntry> entries = new ArrayList<>(journalSize);
+        LocalDateTime dateAndTime = LocalDateTime.of(2020, 1, 1, 7, 30);
+        for (int ID = 1; ID <= journalSize; ID++) {
+            dateAndTime = dateAndTime.plusSeconds(random.nextInt(86_400)).withNano(random.nextInt(1000) * 1_000_000);
+            JournalEntry entry = new JournalEntry(ID, "Dream " + ID);
+            entry.setEntryText(text.substring(0, previewLength));
+            entry.setDateAndTimeCreated(dateAndTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            entry.setLastEdited(dateAndTime.plusMinutes(random.nextInt(600)).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+            entry.setPinned(ID % 10 == 0);
+            if (ID % 4 == 0) {
+                entry.setImageThumbnail("/data/user/0/com.dlbcsemse02.dreamjournalapplication/files/thumbnails/" + ID + ".jpg");
+                entry.setAllMediaInText(Collections.singletonList(new MediaAttachment(
+                        "content://media/external/images/media/" + (1000 + ID), "image/jpeg", 2_500_000 + random.nextInt(1_000_000), 4000, 3000, 0)));
+            }
+            entries.add(entry.toSummary());
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,212 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class JournalBinaryFormatTest {
+
+    private static final String FILE_NAME = "test_binary_journal_entries.json";
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+
+    //Tests whether converting a JSON file into the binary format and back gives exactly the same
+    //file, for entries holding every kind of value, including dates and times that cannot be stored
+    //as milliseconds, texts still held within the file and both kinds of media attachments.
+    @Test
+    public void conversionIsLossless() throws Exception {
+        String[] datesAndTimes = {"2025-01-01T08:00:00", "2025-01-01T08:00:00.123", "2025-01-01T08:00:00.123456", "1969-12-31T23:59:59.999999999",
+                "", "2025-01-01T08:00", "2025-01-01T08:00:00.100", "01.01.2025 08:00", "2025-02-30T08:00:00", "0000-01-01T00:00:00"};
+        List<JournalEntry> entries = new ArrayList<>();
+        for (int i = 0; i < datesAndTimes.length; i++) {
+            JSONObject jsonObject = new JSONObject()
+                    .put("ID", i * 1000 + 1)
+                    .put("EntryName", i % 2 == 0 ? "Dream \ud83c\udf19 \u00e9\u00e8 \"quoted\"\n" + i : "")
+                    .put("EntryPreview", "I was flying over the sea again. \u65e5\u672c")
+                    .put("ImageThumbnail", i % 3 == 0 ? "/data/thumbnails/" + i + ".jpg" : "")
+                    .put("DateAndTimeCreated", datesAndTimes[i])
+                    .put("LastEdited", datesAndTimes[datesAndTimes.length - 1 - i])
+                    .put("AllMediaInText", new JSONArray()
+                            .put(new MediaAttachment("content://media/" + i, "video/mp4", 1L << 40, 3840, 2160, 90_000).toJSON())
+                            .put(MediaAttachment.fromUri("content://legacy/" + i).toJSON()))
+                    .put("Pinned", i % 4 == 0);
+            //Journals written before the text of each entry was stored separately hold their text
+            //rather than its preview.
+            if (i == 5) {
+                jsonObject.remove("EntryPreview");
+                jsonObject.put("EntryText", "Lorem ipsum \ud83c\udf19 dolor sit amet");
+            }
+            entries.add(JournalEntry.fromJSON(jsonObject));
+        }
+
+        File jsonFile = new File(directory.getRoot(), FILE_NAME);
+        File binaryFile = new File(directory.getRoot(), "converted.bin");
+        File convertedJsonFile = new File(directory.getRoot(), "converted.json");
+        Files.write(jsonFile.toPath(), JournalSnapshotFormat.JSON.write(entries, new int[entries.size()], new long[entries.size()]));
+
+        JournalRepository.convert(jsonFile, JournalSnapshotFormat.JSON, binaryFile, JournalSnapshotFormat.BINARY);
+        JournalRepository.convert(binaryFile, JournalSnapshotFormat.BINARY, convertedJsonFile, JournalSnapshotFormat.JSON);
+        assertArrayEquals(Files.readAllBytes(jsonFile.toPath()), Files.readAllBytes(convertedJsonFile.toPath()));
+        assertTrue(binaryFile.length() < jsonFile.length() / 2);
+
+        try (JournalSnapshotFormat.EntryReader reader = JournalSnapshotFormat.BINARY.openEntries(new FileInputStream(binaryFile))) {
+            JournalEntry legacyEntry = null;
+            JournalEntry entry;
+            while ((entry = reader.next(5)) != null) {
+                if (entry.getEntryText() != null) {
+                    legacyEntry = entry;
+                }
+            }
+            assertEquals("Lorem", legacyEntry.getEntryText());
+            assertEquals("Lorem ipsum \ud83c\udf19 dolor sit amet", legacyEntry.getEntryPreview());
+        }
+    }
+
+
+    //Tests whether the binary format is used as the storage of a journal, starting out from an
+    //existing JSON journal (including changes only held within its write-ahead log), and whether
+    //its entries are read from their position once the app restarts.
+    @Test
+    public void binaryJournalKeepsTheJsonJournal() {
+        JournalEntryManager jsonJournal = JournalEntryManager.open(directory.getRoot(), FILE_NAME, true);
+        for (int i = 1; i <= 300; i++) {
+            jsonJournal.saveJournalEntryCreation("Entry \ud83c\udf19 " + i);
+        }
+        jsonJournal.saveJournalEntryText(10, "Lorem ipsum");
+        jsonJournal.updateJournalEntryPinned(20, true);
+        jsonJournal.deleteJournalEntry(300);
+        jsonJournal.saveJournalEntryMedia(30, Collections.singletonList(new MediaAttachment("content://media/1", "image/jpeg", 2048, 40, 30, 0)));
+
+        JournalEntryManager binaryJournal = JournalEntryManager.openBinary(directory.getRoot(), FILE_NAME);
+        assertTrue(new File(directory.getRoot(), JournalEntryManager.getBinaryFileName(FILE_NAME)).exists());
+        assertEquals(299, binaryJournal.getAllJournalEntrySummaries().size());
+        assertEquals("Lorem ipsum", binaryJournal.getJournalEntry(10).getEntryText());
+        assertTrue(binaryJournal.isEntryPinned(20));
+        assertEquals("image/jpeg", binaryJournal.getJournalEntry(30).getAllMediaInText().get(0).getMimeType());
+        assertEquals(301, binaryJournal.saveJournalEntryCreation("Entry 301"));
+        binaryJournal.updateJournalEntryName(1, "Renamed Entry 1");
+        binaryJournal.compactJournal();
+        binaryJournal.saveJournalEntryText(2, "Dolor sit amet");
+
+        JournalRepository.clearInstances();
+        JournalMetrics.getInstance().reset();
+        binaryJournal = JournalEntryManager.openBinary(directory.getRoot(), FILE_NAME);
+        assertEquals("Renamed Entry 1", binaryJournal.getJournalEntry(1).getEntryName());
+        assertEquals("Dolor sit amet", binaryJournal.getJournalEntry(2).getEntryText());
+        assertEquals(jsonJournal.getJournalEntry(50).getDateAndTimeCreated(), binaryJournal.getJournalEntry(50).getDateAndTimeCreated());
+        assertNull(binaryJournal.getJournalEntry(300));
+        assertEquals(1, JournalMetrics.getInstance().getHistogram(JournalMetrics.ENTRIES_SCANNED).getMax());
+        assertEquals(302, binaryJournal.saveJournalEntryCreation("Entry 302"));
+
+        //The JSON journal itself is left as it was.
+        JournalRepository.clearInstances();
+        assertEquals("Entry \ud83c\udf19 1", JournalEntryManager.open(directory.getRoot(), FILE_NAME, true).getJournalEntry(1).getEntryName());
+    }
+
+
+    //Tests whether a text still held within the binary file is cut short without splitting a
+    //character made of two chars (an emoji) straddling the length kept, just as the JSON file does.
+    @Test
+    public void cutTextKeepsWholeCharacters() throws Exception {
+        JournalEntry entry = new JournalEntry(1, "Entry 1");
+        entry.setEntryText("Lorem \ud83c\udf19 ipsum");
+        entry.setDateAndTimeCreated("2025-01-01T08:00:00");
+        entry.setLastEdited("2025-01-01T08:00:00");
+        List<JournalEntry> entries = Collections.singletonList(entry);
+
+        for (JournalSnapshotFormat format : new JournalSnapshotFormat[]{JournalSnapshotFormat.JSON, JournalSnapshotFormat.BINARY}) {
+            File file = new File(directory.getRoot(), "cut_text");
+            Files.write(file.toPath(), format.write(entries, new int[1], new long[1]));
+            for (int textLength : new int[]{6, 7, 8}) {
+                try (JournalSnapshotFormat.EntryReader reader = format.openEntries(new FileInputStream(file))) {
+                    assertEquals(textLength == 8 ? "Lorem \ud83c\udf19" : "Lorem ", reader.next(textLength).getEntryText());
+                }
+            }
+            try (JournalSnapshotFormat.EntryReader reader = format.openEntries(new FileInputStream(file))) {
+                assertEquals("Lorem \ud83c\udf19 ipsum", reader.next(Integer.MAX_VALUE).getEntryText());
+            }
+        }
+    }
+
+
+    //Tests whether a damaged binary file is noticed rather than read into the following entries,
+    //in which case the backup of its previous version is loaded instead.
+    @Test
+    public void damagedFileFallsBackToBackup() throws Exception {
+        JournalEntryManager journalEntryManager = JournalEntryManager.openBinary(directory.getRoot(), FILE_NAME);
+        journalEntryManager.saveJournalEntryCreation("Entry 1");
+        journalEntryManager.compactJournal();
+        journalEntryManager.saveJournalEntryCreation("Entry 2");
+        journalEntryManager.compactJournal();
+
+        File binaryFile = new File(directory.getRoot(), JournalEntryManager.getBinaryFileName(FILE_NAME));
+        try (RandomAccessFile file = new RandomAccessFile(binaryFile, "rw")) {
+            file.setLength(file.length() - 3);
+        }
+        try (JournalSnapshotFormat.EntryReader reader = JournalSnapshotFormat.BINARY.openEntries(new FileInputStream(binaryFile))) {
+            assertEquals("Entry 1", reader.next(Integer.MAX_VALUE).getEntryName());
+            reader.next(Integer.MAX_VALUE);
+            fail("The damaged entry was read");
+        } catch (IOException expected) {
+        }
+
+        JournalRepository.clearInstances();
+        journalEntryManager = JournalEntryManager.openBinary(directory.getRoot(), FILE_NAME);
+        assertEquals(Arrays.asList("Entry 1"), getNames(journalEntryManager.getAllJournalEntries()));
+    }
+
+
+    //Tests whether dates and times are formatted back exactly as DateTimeFormatter formats them,
+    //and whether only those formatted that way are stored as milliseconds.
+    @Test
+    public void datesAndTimesMatchTheFormatter() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 10_000; i++) {
+            LocalDateTime dateAndTime = LocalDateTime.of(1900 + random.nextInt(200), 1 + random.nextInt(12), 1 + random.nextInt(28),
+                    random.nextInt(24), random.nextInt(60), random.nextInt(60), i % 4 == 0 ? 0 : random.nextInt(1_000_000_000) / (int) Math.pow(10, i % 7) * (int) Math.pow(10, i % 7));
+            String formatted = dateAndTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+            assertEquals(formatted, JournalBinaryFormat.formatDateAndTime(dateAndTime));
+            assertEquals(dateAndTime, JournalBinaryFormat.parseDateAndTime(formatted));
+        }
+        for (String value : new String[]{"", "2025-01-01", "2025-01-01T08:00", "2025-01-01T08:00:00.", "2025-01-01T08:00:00.10",
+                "2025-01-01T24:00:00", "2025-01-01 08:00:00", "+12025-01-01T08:00:00", "2025-01-01T08:00:00Z"}) {
+            assertNull(value, JournalBinaryFormat.parseDateAndTime(value));
+        }
+    }
+
+
+    private static List<String> getNames(List<JournalEntry> entries) {
+        List<String> names = new ArrayList<>();
+        for (JournalEntry entry : entries) {
+            names.add(entry.getEntryName());
+        }
+        return names;
+    }
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+        JournalMetrics.getInstance().reset();
+    }
+}
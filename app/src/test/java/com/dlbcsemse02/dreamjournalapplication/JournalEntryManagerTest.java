@@ -0,0 +1,207 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class JournalEntryManagerTest {
+
+    private static final String FILE_NAME = "test_manager_journal_entries.json";
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+
+    //Tests whether a long series of random changes (creating, renaming, pinning, writing and
+    //deleting entries) is loaded again exactly as it was made once the app restarts, both when
+    //the JSON file is rewritten after every change and when the write-ahead log is used.
+    @Test
+    public void randomChangesAreLoadedAfterRestart() {
+        for (boolean useWriteAheadLog : new boolean[]{false, true}) {
+            String fileName = (useWriteAheadLog ? "wal_" : "json_") + FILE_NAME;
+            Map<Integer, JournalEntry> expectedEntries = applyRandomChanges(open(fileName, useWriteAheadLog), new Random(42), 1500);
+
+            JournalRepository.clearInstances();
+            assertJournalEquals(expectedEntries, open(fileName, useWriteAheadLog));
+        }
+    }
+
+
+    //Tests whether every change survives the write-ahead log being compacted (both automatically,
+    //once it holds too many records, and when asked to), and whether the log is empty afterwards.
+    @Test
+    public void compactionKeepsEveryChange() {
+        JournalEntryManager journalEntryManager = open(FILE_NAME, true);
+        Map<Integer, JournalEntry> expectedEntries = applyRandomChanges(journalEntryManager, new Random(7), JournalRepository.COMPACTION_RECORD_THRESHOLD * 5);
+        journalEntryManager.compactJournal();
+
+        assertEquals(0, new JournalWriteAheadLog(new File(directory.getRoot(), FILE_NAME)).getSizeInBytes());
+        JournalRepository.clearInstances();
+        assertJournalEquals(expectedEntries, open(FILE_NAME, true));
+    }
+
+
+    //Tests whether a record that was only partially written to the write-ahead log (e.g., because
+    //the app was killed while writing it) is ignored, keeping every change made before it, and
+    //whether further changes are still loaded once the app restarts again.
+    @Test
+    public void partialLogRecordIsIgnored() throws IOException {
+        JournalEntryManager journalEntryManager = open(FILE_NAME, true);
+        int entryID = journalEntryManager.saveJournalEntryCreation("Test Entry");
+        journalEntryManager.saveJournalEntryText(entryID, "Lorem ipsum");
+
+        try (FileWriter writer = new FileWriter(new File(directory.getRoot(), FILE_NAME + ".log"), true)) {
+            writer.write("1a2b3c4d {\"Operation\": \"Update\", \"ID\": " + entryID + ", \"EntryTe");
+        }
+        JournalRepository.clearInstances();
+        journalEntryManager = open(FILE_NAME, true);
+        assertEquals("Lorem ipsum", journalEntryManager.getJournalEntry(entryID).getEntryText());
+
+        journalEntryManager.updateJournalEntryName(entryID, "New Title");
+        JournalRepository.clearInstances();
+        JournalEntry journalEntry = open(FILE_NAME, true).getJournalEntry(entryID);
+        assertEquals("New Title", journalEntry.getEntryName());
+        assertEquals("Lorem ipsum", journalEntry.getEntryText());
+    }
+
+
+    //Tests whether entries created and changed by several threads at once are all given a
+    //unique ID and are all stored, with each entry holding the text written for it.
+    @Test
+    public void concurrentChangesAreAllStored() throws Exception {
+        final JournalEntryManager journalEntryManager = open(FILE_NAME, true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            final int threadNumber = thread;
+            futures.add(executor.submit(() -> {
+                List<Integer> entryIDs = new ArrayList<>();
+                for (int i = 0; i < 100; i++) {
+                    int entryID = journalEntryManager.saveJournalEntryCreation("Thread " + threadNumber + " Entry " + i);
+                    journalEntryManager.saveJournalEntryText(entryID, "Text of entry " + entryID);
+                    entryIDs.add(entryID);
+                }
+                return entryIDs;
+            }));
+        }
+
+        List<Integer> entryIDs = new ArrayList<>();
+        for (Future<List<Integer>> future : futures) {
+            entryIDs.addAll(future.get());
+        }
+        executor.shutdown();
+
+        journalEntryManager.compactJournal();
+        JournalRepository.clearInstances();
+        JournalEntryManager reloadedJournalEntryManager = open(FILE_NAME, true);
+        assertEquals(400, reloadedJournalEntryManager.getAllJournalEntrySummaries().size());
+        assertEquals(400, new HashSet<>(entryIDs).size());
+        for (int entryID : entryIDs) {
+            assertEquals("Text of entry " + entryID, reloadedJournalEntryManager.getJournalEntry(entryID).getEntryText());
+        }
+    }
+
+
+    //Tests whether loading the journal counts every byte of the JSON file and the write-ahead
+    //log as read, which is what StartupMetrics reports for each launch.
+    @Test
+    public void loadingCountsBytesRead() {
+        JournalEntryManager journalEntryManager = open(FILE_NAME, true);
+        for (int i = 0; i < 20; i++) {
+            journalEntryManager.saveJournalEntryCreation("Entry " + i);
+        }
+        journalEntryManager.compactJournal();
+        journalEntryManager.updateJournalEntryName(1, "Renamed Entry");
+        long expectedBytes = new File(directory.getRoot(), FILE_NAME).length() + new File(directory.getRoot(), FILE_NAME + ".log").length();
+
+        JournalRepository.clearInstances();
+        journalEntryManager = open(FILE_NAME, true);
+        assertEquals(0, journalEntryManager.getBytesRead());
+        assertEquals(20, journalEntryManager.getAllJournalEntrySummaries().size());
+        assertEquals(expectedBytes, journalEntryManager.getBytesRead());
+    }
+
+
+    private JournalEntryManager open(String fileName, boolean useWriteAheadLog) {
+        return JournalEntryManager.open(directory.getRoot(), fileName, useWriteAheadLog);
+    }
+
+    //Applies the given number of random changes to the journal, returning the entries the journal
+    //is expected to hold afterwards (as a copy of each entry right after it was last changed).
+    private static Map<Integer, JournalEntry> applyRandomChanges(JournalEntryManager journalEntryManager, Random random, int changes) {
+        Map<Integer, JournalEntry> expectedEntries = new LinkedHashMap<>();
+        List<Integer> entryIDs = new ArrayList<>();
+        for (int i = 0; i < changes; i++) {
+            int operation = entryIDs.isEmpty() ? 0 : random.nextInt(6);
+            int entryID = entryIDs.isEmpty() ? 0 : entryIDs.get(random.nextInt(entryIDs.size()));
+            switch (operation) {
+                case 0:
+                    entryID = journalEntryManager.saveJournalEntryCreation("Entry " + i);
+                    entryIDs.add(entryID);
+                    break;
+                case 1:
+                    journalEntryManager.updateJournalEntryName(entryID, "Renamed \u2728 " + i);
+                    break;
+                case 2:
+                    journalEntryManager.updateJournalEntryPinned(entryID, random.nextBoolean());
+                    break;
+                case 3:
+                    journalEntryManager.saveJournalEntryText(entryID, "Dream " + i + " about the \ud83c\udf19\n" + Collections.nCopies(random.nextInt(20), "waves").toString());
+                    break;
+                case 4:
+                    List<MediaAttachment> media = new ArrayList<>();
+                    media.add(new MediaAttachment("content://media/external/images/media/" + i, "image/jpeg", 1000 + i, 400, 300, 0));
+                    journalEntryManager.saveJournalEntryMedia(entryID, media);
+                    break;
+                default:
+                    journalEntryManager.deleteJournalEntry(entryID);
+                    entryIDs.remove(Integer.valueOf(entryID));
+                    expectedEntries.remove(entryID);
+                    continue;
+            }
+            expectedEntries.put(entryID, journalEntryManager.getJournalEntry(entryID));
+        }
+        return expectedEntries;
+    }
+
+    private static void assertJournalEquals(Map<Integer, JournalEntry> expectedEntries, JournalEntryManager journalEntryManager) {
+        List<JournalEntry> summaries = journalEntryManager.getAllJournalEntrySummaries();
+        assertEquals(expectedEntries.size(), summaries.size());
+        for (JournalEntry expected : expectedEntries.values()) {
+            JournalEntry actual = journalEntryManager.getJournalEntry(expected.getID());
+            assertNotNull(actual);
+            assertEquals(expected.getEntryName(), actual.getEntryName());
+            assertEquals(expected.getEntryText(), actual.getEntryText());
+            assertEquals(expected.isPinned(), actual.isPinned());
+            assertEquals(expected.getLastEdited(), actual.getLastEdited());
+            assertEquals(expected.getAllMediaInText().size(), actual.getAllMediaInText().size());
+            for (int i = 0; i < expected.getAllMediaInText().size(); i++) {
+                assertEquals(expected.getAllMediaInText().get(i).getUri(), actual.getAllMediaInText().get(i).getUri());
+                assertEquals(expected.getAllMediaInText().get(i).getSizeInBytes(), actual.getAllMediaInText().get(i).getSizeInBytes());
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+    }
+}
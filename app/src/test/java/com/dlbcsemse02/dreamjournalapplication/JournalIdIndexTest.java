@@ -0,0 +1,138 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+
+public class JournalIdIndexTest {
+
+    private static final String FILE_NAME = "test_ids_journal_entries.json";
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+
+    //Tests whether the ID of a deleted entry is never given to a new entry, even once the app
+    //restarts, both when the JSON file is rewritten after every change and when the write-ahead
+    //log is used (in which case the deletion is only held within the log).
+    @Test
+    public void deletedIDsAreNotReused() {
+        for (boolean useWriteAheadLog : new boolean[]{false, true}) {
+            String fileName = (useWriteAheadLog ? "wal_" : "json_") + FILE_NAME;
+            JournalEntryManager journalEntryManager = open(fileName, useWriteAheadLog);
+            journalEntryManager.saveJournalEntryCreation("Entry 1");
+            journalEntryManager.saveJournalEntryCreation("Entry 2");
+            int lastID = journalEntryManager.saveJournalEntryCreation("Entry 3");
+            journalEntryManager.compactJournal();
+            journalEntryManager.deleteJournalEntry(lastID);
+            assertEquals(lastID + 1, journalEntryManager.saveJournalEntryCreation("Entry 4"));
+            journalEntryManager.deleteJournalEntry(lastID + 1);
+
+            JournalRepository.clearInstances();
+            assertEquals(lastID + 2, open(fileName, useWriteAheadLog).saveJournalEntryCreation("Entry 5"));
+        }
+    }
+
+
+    //Tests whether the next ID is still correct should the app have been killed before the index
+    //was written along with the JSON file, i.e., should the index be missing or outdated, and
+    //whether entries are still found in that case.
+    @Test
+    public void missingOrOutdatedIndexIsRepaired() throws Exception {
+        JournalEntryManager journalEntryManager = open(FILE_NAME, false);
+        journalEntryManager.saveJournalEntryCreation("Entry 1");
+        File indexFile = new JournalIdIndex(new File(directory.getRoot(), FILE_NAME)).getFile();
+        File outdatedIndexFile = new File(directory.getRoot(), "outdated.ids");
+        Files.copy(indexFile.toPath(), outdatedIndexFile.toPath());
+        journalEntryManager.saveJournalEntryCreation("Entry 2");
+        journalEntryManager.updateJournalEntryName(1, "Renamed Entry 1");
+
+        Files.copy(outdatedIndexFile.toPath(), indexFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        JournalRepository.clearInstances();
+        journalEntryManager = open(FILE_NAME, false);
+        assertEquals("Renamed Entry 1", journalEntryManager.getJournalEntry(1).getEntryName());
+        assertEquals("Entry 2", journalEntryManager.getJournalEntry(2).getEntryName());
+        assertEquals(3, journalEntryManager.saveJournalEntryCreation("Entry 3"));
+
+        assertTrue(indexFile.delete());
+        JournalRepository.clearInstances();
+        journalEntryManager = open(FILE_NAME, false);
+        assertEquals("Entry 3", journalEntryManager.getJournalEntry(3).getEntryName());
+        assertEquals(4, journalEntryManager.saveJournalEntryCreation("Entry 4"));
+    }
+
+
+    //Tests whether an entry is read from its position within the JSON file before the journal
+    //has been loaded, rather than reading every entry before it, including entries whose names
+    //take up more than one byte per character, and entries changed within the write-ahead log.
+    @Test
+    public void entriesAreReadFromTheirPosition() {
+        JournalEntryManager journalEntryManager = open(FILE_NAME, true);
+        for (int i = 1; i <= 1000; i++) {
+            journalEntryManager.saveJournalEntryCreation("Entry \ud83c\udf19 \u00e9 " + i);
+        }
+        journalEntryManager.compactJournal();
+        journalEntryManager.saveJournalEntryText(500, "Lorem ipsum");
+        journalEntryManager.deleteJournalEntry(700);
+
+        JournalRepository.clearInstances();
+        JournalMetrics.getInstance().reset();
+        journalEntryManager = open(FILE_NAME, true);
+        assertEquals("Entry \ud83c\udf19 \u00e9 1", journalEntryManager.getJournalEntry(1).getEntryName());
+        assertEquals("Entry \ud83c\udf19 \u00e9 1000", journalEntryManager.getJournalEntry(1000).getEntryName());
+        assertEquals("Lorem ipsum", journalEntryManager.getJournalEntry(500).getEntryText());
+        assertNull(journalEntryManager.getJournalEntry(700));
+        assertNull(journalEntryManager.getJournalEntry(1001));
+        assertEquals(1, JournalMetrics.getInstance().getHistogram(JournalMetrics.ENTRIES_SCANNED).getMax());
+        assertEquals(1001, journalEntryManager.saveJournalEntryCreation("Entry 1001"));
+    }
+
+
+    //Tests whether the JSON file is read one entry at a time should the position of an entry no
+    //longer point to its start, i.e., should the JSON file have been replaced by one of the same length and
+    //last modified at the same time, in which case the index still seems to match it.
+    @Test
+    public void stalePositionFallsBackToScan() throws Exception {
+        JournalEntryManager journalEntryManager = open(FILE_NAME, false);
+        journalEntryManager.saveJournalEntryCreation("Entry 1");
+        journalEntryManager.saveJournalEntryCreation("Entry 2");
+        journalEntryManager.saveJournalEntryCreation("Entry 3 abcdefghijklmnopqrstuvwxyz");
+
+        File file = new File(directory.getRoot(), FILE_NAME);
+        FileTime lastModified = Files.getLastModifiedTime(file.toPath());
+        String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+        String replacedContent = content.replace("Entry 1", "Entry 1 abcdefghijklmnopqrstuvwxyz").replace("Entry 3 abcdefghijklmnopqrstuvwxyz", "Entry 3");
+        assertEquals(content.length(), replacedContent.length());
+        Files.write(file.toPath(), replacedContent.getBytes(StandardCharsets.UTF_8));
+        Files.setLastModifiedTime(file.toPath(), lastModified);
+
+        //Only the entries up to the one looked up are read, rather than loading the whole journal.
+        JournalRepository.clearInstances();
+        JournalMetrics.getInstance().reset();
+        journalEntryManager = open(FILE_NAME, false);
+        assertEquals("Entry 2", journalEntryManager.getJournalEntry(2).getEntryName());
+        assertEquals(2, JournalMetrics.getInstance().getHistogram(JournalMetrics.ENTRIES_SCANNED).getMax());
+        assertEquals("Entry 3", journalEntryManager.getJournalEntry(3).getEntryName());
+    }
+
+
+    private JournalEntryManager open(String fileName, boolean useWriteAheadLog) {
+        return JournalEntryManager.open(directory.getRoot(), fileName, useWriteAheadLog);
+    }
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+        JournalMetrics.getInstance().reset();
+    }
+}
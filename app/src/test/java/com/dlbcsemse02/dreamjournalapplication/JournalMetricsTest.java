@@ -0,0 +1,118 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+public class JournalMetricsTest {
+
+    private static final String FILE_NAME = "test_metrics_journal_entries.json";
+
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    private JournalMetrics metrics = JournalMetrics.getInstance();
+
+
+    //The metrics are shared by the whole process, which is why they are reset before each test.
+    @Before
+    public void setUp() {
+        metrics.reset();
+    }
+
+
+    //Tests whether percentiles are reported as the upper bound of their bucket, without ever
+    //exceeding the largest value recorded.
+    @Test
+    public void histogramReportsBucketPercentiles() {
+        JournalMetrics.Histogram histogram = new JournalMetrics.Histogram();
+        assertEquals(0, histogram.getPercentile(50));
+        for (int value = 1; value <= 100; value++) {
+            histogram.record(value);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(5050, histogram.getSum());
+        assertEquals(100, histogram.getMax());
+        assertEquals(63, histogram.getPercentile(50));
+        assertEquals(100, histogram.getPercentile(95));
+        assertEquals(1, histogram.getPercentile(1));
+    }
+
+
+    //Tests whether every operation is timed, and whether parsing, writing and the bytes read
+    //and written are recorded while the journal is saved, compacted and loaded again.
+    @Test
+    public void operationsRecordParseAndWriteMetrics() {
+        JournalEntryManager journalEntryManager = JournalEntryManager.open(directory.getRoot(), FILE_NAME, true);
+        int entryID = journalEntryManager.saveJournalEntryCreation("Test Entry");
+        journalEntryManager.saveJournalEntryText(entryID, "Lorem ipsum");
+        journalEntryManager.saveJournalEntryText(entryID, "Lorem ipsum dolor");
+        journalEntryManager.compactJournal();
+        JournalRepository.clearInstances();
+        journalEntryManager = JournalEntryManager.open(directory.getRoot(), FILE_NAME, true);
+        assertEquals("Lorem ipsum dolor", journalEntryManager.getJournalEntry(entryID).getEntryText());
+
+        assertEquals(1, metrics.getHistogram(JournalMetrics.OPERATION_PREFIX + "saveJournalEntryCreation").getCount());
+        assertEquals(2, metrics.getHistogram(JournalMetrics.OPERATION_PREFIX + "saveJournalEntryText").getCount());
+        assertEquals(3, metrics.getHistogram(JournalMetrics.WRITE_LOG).getCount());
+        assertEquals(1, metrics.getHistogram(JournalMetrics.WRITE_SNAPSHOT).getCount());
+        assertEquals(1, metrics.getHistogram(JournalMetrics.WRITE_BODIES).getCount());
+        assertTrue(metrics.getHistogram(JournalMetrics.PARSE_SNAPSHOT).getCount() > 0);
+        assertEquals(1, metrics.getHistogram(JournalMetrics.ENTRIES_SCANNED).getMax());
+
+        //The entry is read from its position within the JSON file (after "[\n    "), which is
+        //looked up within the header and the single record of the JournalIdIndex.
+        long expectedBytesRead = new File(directory.getRoot(), FILE_NAME).length() - "[\n    ".length() + "Lorem ipsum dolor".length()
+                + JournalIdIndex.HEADER_SIZE + JournalIdIndex.RECORD_SIZE;
+        assertEquals(expectedBytesRead, metrics.getCount(JournalMetrics.BYTES_READ));
+        assertTrue(metrics.getCount(JournalMetrics.BYTES_WRITTEN) > new File(directory.getRoot(), FILE_NAME).length());
+        assertEquals(0, metrics.getCount(JournalMetrics.FAILURES));
+    }
+
+
+    //Tests whether failed operations are counted (both in total and per operation) while still
+    //being thrown, and whether they are part of the dump.
+    @Test
+    public void failuresAreCounted() {
+        assertTrue(new File(directory.getRoot(), FILE_NAME).mkdir());
+        JournalEntryManager journalEntryManager = JournalEntryManager.open(directory.getRoot(), FILE_NAME, false);
+        try {
+            journalEntryManager.saveJournalEntryCreation("Test Entry");
+            fail("Reading a directory as the JSON file should fail");
+        } catch (RuntimeException e) {
+            //The failure is expected.
+        }
+
+        assertEquals(1, metrics.getCount(JournalMetrics.FAILURES));
+        assertEquals(1, metrics.getCount(JournalMetrics.FAILURES + ".saveJournalEntryCreation"));
+        assertEquals(1, metrics.getHistogram(JournalMetrics.OPERATION_PREFIX + "saveJournalEntryCreation").getCount());
+        assertTrue(metrics.dump().contains("failures.saveJournalEntryCreation: 1"));
+    }
+
+
+    //Tests whether the operations within the dump are listed by the total time they took.
+    @Test
+    public void dumpListsSlowestOperationsFirst() {
+        metrics.record(JournalMetrics.OPERATION_PREFIX + "isEntryPinned", 10);
+        metrics.record(JournalMetrics.OPERATION_PREFIX + "compactJournal", 5000);
+        metrics.record(JournalMetrics.OPERATION_PREFIX + "isEntryPinned", 10);
+
+        String dump = metrics.dump();
+        assertTrue(dump.indexOf("compactJournal: count=1") < dump.indexOf("isEntryPinned: count=2"));
+        assertTrue(dump.indexOf("isEntryPinned") > dump.indexOf("Operations"));
+    }
+
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+        metrics.reset();
+    }
+}
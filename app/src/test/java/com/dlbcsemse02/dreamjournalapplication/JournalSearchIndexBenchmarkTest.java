@@ -0,0 +1,206 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class JournalSearchIndexBenchmarkTest {
+
+    private static final String FILE_NAME = "benchmark_search_journal_entries.json";
+
+    private static final int[] JOURNAL_SIZES = {1_000, 10_000, 100_000};
+    private static final int TEXT_LENGTH = 1024;
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int ITERATIONS = 10;
+
+    //The texts are made of words picked from a vocabulary of this many words, the most common
+    //of which are actual words (see getWord()), with the frequency of each word falling off with
+    //its rank (a Zipf distribution), as within real texts.
+    private static final int VOCABULARY_SIZE = 5_000;
+    private static final String[] COMMON_WORDS = {"flying", "falling", "sea", "ocean", "waves", "wall", "castle", "forest", "school", "exam",
+            "mother", "teeth", "running", "door", "stairs", "moon", "cloud", "train", "house", "water"};
+    private static final String[] SYLLABLES = {"ba", "de", "gi", "ko", "lu", "ma", "ne", "pi", "ro", "su",
+            "ta", "ve", "wi", "zo", "ha", "je", "ki", "no", "pu", "ri"};
+
+    //The queries measured: the most common word and a single letter (a prefix of hundreds of
+    //words), both of which match most entries, along with a rare word and two words found
+    //together in only a few entries.
+    private static final String[] QUERIES = {"flying", "s", getWord(2_000), getWord(150) + " " + getWord(400)};
+
+    //The number of results shown for a search, which only the best matching entries are kept for.
+    private static final int RESULT_LIMIT = 10;
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+
+    //This benchmark compares searching the journal with the JournalSearchIndex against reading
+    //every entry and looking for the words within its name and text, for several journal sizes.
+    //Building the index from scratch and loading the saved index are measured as well. Both
+    //ways of searching have to find the same entries. The report is written in the same format
+    //as that of ManagingJournalEntriesBenchmarkTest (as search-latest.csv). The benchmark only
+    //runs when asked for (-PjournalBenchmark), as it takes several minutes.
+    @Test
+    public void compareIndexWithScan() throws Exception {
+        assumeTrue(Boolean.getBoolean("journalBenchmark"));
+        BenchmarkReport report = new BenchmarkReport();
+
+        for (int journalSize : JOURNAL_SIZES) {
+            JournalRepository.clearInstances();
+            writeJournal(journalSize);
+            JournalEntryManager journalEntryManager = JournalEntryManager.open(directory.getRoot(), FILE_NAME, true);
+
+            measure(report, journalSize, "buildIndex", 1, () -> journalEntryManager.searchJournalEntries("flying", 10));
+            journalEntryManager.compactJournal();
+            for (String query : QUERIES) {
+                String name = query.replace(' ', '+');
+                measure(report, journalSize, "searchIndexTop" + RESULT_LIMIT + ":" + name, ITERATIONS,
+                        () -> journalEntryManager.searchJournalEntries(query, RESULT_LIMIT));
+                List<Integer> indexed = measure(report, journalSize, "searchIndex:" + name, ITERATIONS,
+                        () -> journalEntryManager.searchJournalEntries(query, Integer.MAX_VALUE));
+                List<Integer> scanned = measure(report, journalSize, "searchScan:" + name, ITERATIONS,
+                        () -> scan(journalEntryManager, query));
+                indexed.sort(null);
+                assertEquals(scanned, indexed);
+            }
+
+            JournalRepository.clearInstances();
+            JournalEntryManager reopenedJournalEntryManager = JournalEntryManager.open(directory.getRoot(), FILE_NAME, true);
+            reopenedJournalEntryManager.getAllJournalEntrySummaries();
+            measure(report, journalSize, "loadIndex", 1, () -> reopenedJournalEntryManager.searchJournalEntries("flying", 10));
+        }
+
+        File reportDirectory = new File(System.getProperty("journalBenchmark.reportDir", "build/reports/journal-benchmark"));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        report.write(new File(reportDirectory, "search-" + timestamp + ".csv"));
+        report.write(new File(reportDirectory, "search-latest.csv"));
+        System.out.println(report);
+    }
+
+
+    //Searches the journal the way it would be done without an index, returning the IDs of the
+    //entries holding every word of the query (or a word starting with it), sorted by their ID.
+    private static List<Integer> scan(JournalEntryManager journalEntryManager, String query) {
+        List<String> queryTerms = JournalSearchIndex.tokenize(query);
+        List<Integer> found = new ArrayList<>();
+        for (JournalEntry entry : journalEntryManager.getAllJournalEntries()) {
+            List<String> terms = JournalSearchIndex.tokenize(entry.getEntryName() + " " + entry.getEntryText());
+            boolean matches = true;
+            for (String queryTerm : queryTerms) {
+                matches &= terms.stream().anyMatch(term -> term.startsWith(queryTerm));
+            }
+            if (matches) {
+                found.add(entry.getID());
+            }
+        }
+        found.sort(null);
+        return found;
+    }
+
+    //Runs the search a few times to warm up (unless it is only run once), then measures each further run.
+    private static <T> T measure(BenchmarkReport report, int journalSize, String operationName, int iterations, Supplier<T> operation) {
+        boolean warmUp = iterations > 1;
+        if (warmUp) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                operation.get();
+            }
+        }
+
+        T result = null;
+        long[] durations = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            result = operation.get();
+            durations[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(durations);
+        long median = durations[iterations / 2] / 1000;
+        long p95 = durations[Math.min(iterations - 1, (int) Math.ceil(iterations * 0.95) - 1)] / 1000;
+        report.add(ManagingJournalEntries.StorageMode.WRITE_AHEAD_LOG.name(), journalSize, TEXT_LENGTH, operationName, median, p95, 0, 0);
+        return result;
+    }
+
+    //Returns the word of the vocabulary at the given rank (starting at 0 for the most common word).
+    //Words past the common words are made up of three syllables, e.g., "kolupi".
+    private static String getWord(int rank) {
+        if (rank < COMMON_WORDS.length) {
+            return COMMON_WORDS[rank];
+        }
+        return SYLLABLES[rank % SYLLABLES.length] + SYLLABLES[rank / SYLLABLES.length % SYLLABLES.length]
+                + SYLLABLES[rank / (SYLLABLES.length * SYLLABLES.length) % SYLLABLES.length];
+    }
+
+    //Writes a JSON file holding the given number of entries (with IDs 1 to journalSize), along
+    //with a body for each of them, made of words picked at random from the vocabulary, the word
+    //at rank r being picked with a probability proportional to 1 / (r + 1).
+    private void writeJournal(int journalSize) throws IOException {
+        File[] files = directory.getRoot().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                File[] children = file.listFiles();
+                if (children != null) {
+                    for (File child : children) {
+                        child.delete();
+                    }
+                }
+                file.delete();
+            }
+        }
+
+        String[] words = new String[VOCABULARY_SIZE];
+        double[] cumulativeFrequencies = new double[VOCABULARY_SIZE];
+        double totalFrequency = 0;
+        for (int rank = 0; rank < VOCABULARY_SIZE; rank++) {
+            words[rank] = getWord(rank);
+            totalFrequency += 1.0 / (rank + 1);
+            cumulativeFrequencies[rank] = totalFrequency;
+        }
+        Random random = new Random(42);
+        File bodies = new File(directory.getRoot(), FILE_NAME + ".bodies");
+        assertTrue(bodies.mkdirs());
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(directory.getRoot(), FILE_NAME)))) {
+            writer.write("[");
+            for (int ID = 1; ID <= journalSize; ID++) {
+                StringBuilder text = new StringBuilder();
+                while (text.length() < TEXT_LENGTH) {
+                    int rank = Arrays.binarySearch(cumulativeFrequencies, random.nextDouble() * totalFrequency);
+                    text.append(words[Math.min(rank < 0 ? -rank - 1 : rank, VOCABULARY_SIZE - 1)]).append(' ');
+                }
+                Files.write(new File(bodies, ID + ".txt").toPath(), text.toString().getBytes(StandardCharsets.UTF_8));
+
+                if (ID > 1) {
+                    writer.write(",");
+                }
+                writer.write(String.format(Locale.ROOT, "{\"ID\": %d, \"EntryName\": \"Dream %d\", \"EntryPreview\": \"%s\", "
+                        + "\"ImageThumbnail\": \"\", \"DateAndTimeCreated\": \"2025-01-01T08:00:00\", \"LastEdited\": \"2025-01-01T08:00:00\", "
+                        + "\"AllMediaInText\": [], \"Pinned\": false}", ID, ID, text.substring(0, 64).trim()));
+            }
+            writer.write("]");
+        }
+    }
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+    }
+}
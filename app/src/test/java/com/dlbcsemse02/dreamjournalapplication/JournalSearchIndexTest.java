@@ -0,0 +1,129 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JournalSearchIndexTest {
+
+    private static final String FILE_NAME = "test_search_journal_entries.json";
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+
+    //Tests whether texts are split into case-folded terms without accents, so that a query
+    //typed without them still matches.
+    @Test
+    public void textIsSplitIntoNormalizedTerms() {
+        assertEquals(Arrays.asList("flying", "uber", "the", "cafe", "2025"),
+                JournalSearchIndex.tokenize("Flying \u00fcber the CAF\u00c9, 2025!"));
+        assertEquals(Collections.emptyList(), JournalSearchIndex.tokenize(" .,;\n"));
+        assertEquals(Collections.emptyList(), JournalSearchIndex.tokenize(null));
+    }
+
+
+    //Tests whether only entries holding every word of the query are found, whether words are
+    //matched by their prefix, and whether words within the name are ranked above those of the text.
+    @Test
+    public void entriesAreFoundAndRanked() {
+        JournalEntryManager journalEntryManager = open();
+        int seaID = journalEntryManager.saveJournalEntryCreation("Flying over the sea");
+        int forestID = journalEntryManager.saveJournalEntryCreation("Forest");
+        journalEntryManager.saveJournalEntryText(forestID, "I was flying over a forest, then over the sea.");
+        int schoolID = journalEntryManager.saveJournalEntryCreation("School");
+        journalEntryManager.saveJournalEntryText(schoolID, "Late for an exam again.");
+
+        assertEquals(Arrays.asList(seaID, forestID), journalEntryManager.searchJournalEntries("sea", 10));
+        assertEquals(Arrays.asList(seaID, forestID), journalEntryManager.searchJournalEntries("fly", 10));
+        assertEquals(Collections.singletonList(forestID), journalEntryManager.searchJournalEntries("FOREST sea", 10));
+        assertEquals(Collections.singletonList(seaID), journalEntryManager.searchJournalEntries("sea", 1));
+        assertEquals(Collections.emptyList(), journalEntryManager.searchJournalEntries("sea exam", 10));
+        assertEquals(Collections.emptyList(), journalEntryManager.searchJournalEntries("", 10));
+    }
+
+
+    //Tests whether renaming, writing and deleting entries is reflected by the next search.
+    @Test
+    public void changesAreIndexed() {
+        JournalEntryManager journalEntryManager = open();
+        int entryID = journalEntryManager.saveJournalEntryCreation("Test Entry");
+        journalEntryManager.saveJournalEntryText(entryID, "A dream about the moon.");
+        assertEquals(Collections.singletonList(entryID), journalEntryManager.searchJournalEntries("moon", 10));
+
+        journalEntryManager.saveJournalEntryText(entryID, "A dream about the sun.");
+        journalEntryManager.updateJournalEntryName(entryID, "Daylight");
+        assertEquals(Collections.emptyList(), journalEntryManager.searchJournalEntries("moon", 10));
+        assertEquals(Collections.emptyList(), journalEntryManager.searchJournalEntries("test", 10));
+        assertEquals(Collections.singletonList(entryID), journalEntryManager.searchJournalEntries("sun daylight", 10));
+
+        journalEntryManager.deleteJournalEntry(entryID);
+        assertEquals(Collections.emptyList(), journalEntryManager.searchJournalEntries("sun", 10));
+    }
+
+
+    //Tests whether the index is saved along with the journal and loaded once the app restarts,
+    //and whether entries changed, created or deleted while it was not loaded are noticed.
+    @Test
+    public void savedIndexIsLoadedAndRepaired() {
+        JournalEntryManager journalEntryManager = open();
+        int moonID = journalEntryManager.saveJournalEntryCreation("Moon");
+        int sunID = journalEntryManager.saveJournalEntryCreation("Sun");
+        int starID = journalEntryManager.saveJournalEntryCreation("Star");
+        journalEntryManager.saveJournalEntryText(moonID, "Swimming in a lake.");
+        assertEquals(Collections.singletonList(moonID), journalEntryManager.searchJournalEntries("lake", 10));
+        journalEntryManager.compactJournal();
+        File indexFile = JournalSearchIndex.getInstance(new File(directory.getRoot(), FILE_NAME)).getFile();
+        assertTrue(indexFile.exists());
+
+        JournalMetrics.getInstance().reset();
+        JournalRepository.clearInstances();
+        journalEntryManager = open();
+        journalEntryManager.saveJournalEntryText(sunID, "Swimming in the sea.");
+        journalEntryManager.deleteJournalEntry(starID);
+        int cloudID = journalEntryManager.saveJournalEntryCreation("Cloud");
+        journalEntryManager.saveJournalEntryText(cloudID, "Swimming through the sky.");
+
+        List<Integer> found = journalEntryManager.searchJournalEntries("swimming", 10);
+        Collections.sort(found);
+        assertEquals(Arrays.asList(moonID, sunID, cloudID), found);
+        assertEquals(Collections.emptyList(), journalEntryManager.searchJournalEntries("star", 10));
+        assertEquals(3, JournalSearchIndex.getInstance(new File(directory.getRoot(), FILE_NAME)).getIndexedEntryCount());
+        assertEquals(1, JournalMetrics.getInstance().getHistogram(JournalMetrics.PARSE_INDEX).getCount());
+    }
+
+
+    //Tests whether a damaged index is ignored, with every entry being indexed again.
+    @Test
+    public void damagedIndexIsBuiltAgain() throws Exception {
+        JournalEntryManager journalEntryManager = open();
+        int entryID = journalEntryManager.saveJournalEntryCreation("Mountain");
+        journalEntryManager.searchJournalEntries("mountain", 10);
+        journalEntryManager.compactJournal();
+        File indexFile = JournalSearchIndex.getInstance(new File(directory.getRoot(), FILE_NAME)).getFile();
+        Files.write(indexFile.toPath(), Arrays.copyOf(Files.readAllBytes(indexFile.toPath()), 10));
+
+        JournalRepository.clearInstances();
+        assertEquals(Collections.singletonList(entryID), open().searchJournalEntries("mountain", 10));
+    }
+
+
+    private JournalEntryManager open() {
+        return JournalEntryManager.open(directory.getRoot(), FILE_NAME, true);
+    }
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+    }
+}
@@ -0,0 +1,175 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class JournalSortedIndexTest {
+
+    private static final String FILE_NAME = "test_sorted_journal_entries.json";
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    private JournalEntryManager journalEntryManager;
+
+
+    //Every test starts with six entries, which were created one day after another (entry 1 first),
+    //and were last edited in the order 4, 2, 6, 1, 5, 3 (entry 3 most recently).
+    @Before
+    public void setUp() throws IOException {
+        String[] lastEdited = {"2025-02-04", "2025-02-02", "2025-02-06", "2025-02-01", "2025-02-05", "2025-02-03"};
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(directory.getRoot(), FILE_NAME)))) {
+            writer.write("[");
+            for (int ID = 1; ID <= 6; ID++) {
+                if (ID > 1) {
+                    writer.write(",");
+                }
+                writer.write("{\"ID\": " + ID + ", \"EntryName\": \"Dream " + ID + "\", \"EntryPreview\": \"\", \"ImageThumbnail\": \"\", "
+                        + "\"DateAndTimeCreated\": \"2025-01-0" + ID + "T08:00:00\", \"LastEdited\": \"" + lastEdited[ID - 1] + "T08:00:00\", "
+                        + "\"AllMediaInText\": [], \"Pinned\": false}");
+            }
+            writer.write("]");
+        }
+        journalEntryManager = JournalEntryManager.open(directory.getRoot(), FILE_NAME, true);
+    }
+
+
+    //Tests whether every order returns each entry exactly once, one page after another.
+    @Test
+    public void pagesFollowTheOrder() {
+        assertEquals(Arrays.asList(6, 5, 4, 3, 2, 1), readAllPages(JournalSortedIndex.Order.NEWEST_FIRST, 4));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5, 6), readAllPages(JournalSortedIndex.Order.OLDEST_FIRST, 4));
+        assertEquals(Arrays.asList(3, 5, 1, 6, 2, 4), readAllPages(JournalSortedIndex.Order.RECENTLY_EDITED_FIRST, 2));
+
+        JournalEntryPage page = journalEntryManager.getJournalEntryPage(JournalSortedIndex.Order.NEWEST_FIRST, null, 6);
+        assertEquals(6, page.getEntries().size());
+        assertFalse(page.hasNextPage());
+        assertEquals("Dream 6", page.getEntries().get(0).getEntryName());
+    }
+
+
+    //Tests whether created, edited and deleted entries are moved to their new position.
+    @Test
+    public void changedEntriesAreMoved() {
+        assertEquals(Arrays.asList(3, 5, 1, 6, 2, 4), readAllPages(JournalSortedIndex.Order.RECENTLY_EDITED_FIRST, 10));
+
+        journalEntryManager.saveJournalEntryText(4, "Lorem ipsum");
+        journalEntryManager.deleteJournalEntry(5);
+        journalEntryManager.updateJournalEntryPinned(3, true);
+        int newEntryID = journalEntryManager.saveJournalEntryCreation("New Entry");
+
+        //Pinning an entry does not count as an edit, which is why entry 3 keeps its position.
+        List<Integer> recentlyEdited = readAllPages(JournalSortedIndex.Order.RECENTLY_EDITED_FIRST, 10);
+        assertEquals(Arrays.asList(3, 1, 6, 2), recentlyEdited.subList(2, 6));
+        assertTrue(recentlyEdited.subList(0, 2).containsAll(Arrays.asList(4, newEntryID)));
+        assertEquals(Arrays.asList(newEntryID, 6, 4, 3, 2, 1), readAllPages(JournalSortedIndex.Order.NEWEST_FIRST, 10));
+        assertTrue(journalEntryManager.getJournalEntryPage(JournalSortedIndex.Order.OLDEST_FIRST, null, 3).getEntries().get(2).isPinned());
+    }
+
+
+    //Tests whether the next page starts right after the previous one, even should entries of
+    //both pages have changed in between, without any entry being skipped or returned twice.
+    @Test
+    public void cursorSurvivesChanges() throws Exception {
+        JournalEntryPage firstPage = journalEntryManager.getJournalEntryPage(JournalSortedIndex.Order.RECENTLY_EDITED_FIRST, null, 3);
+        assertEquals(Arrays.asList(3, 5, 1), getIDs(firstPage));
+
+        journalEntryManager.updateJournalEntryFields(2, new JSONObject().put("LastEdited", "2025-03-01T08:00:00"));
+        journalEntryManager.updateJournalEntryFields(1, new JSONObject().put("LastEdited", "2025-03-02T08:00:00"));
+        JournalEntryPage secondPage = journalEntryManager.getJournalEntryPage(JournalSortedIndex.Order.RECENTLY_EDITED_FIRST, firstPage.getNextCursor(), 3);
+        assertEquals(Arrays.asList(6, 4), getIDs(secondPage));
+        assertFalse(secondPage.hasNextPage());
+
+        assertEquals(Arrays.asList(1, 2, 3, 5, 6, 4), readAllPages(JournalSortedIndex.Order.RECENTLY_EDITED_FIRST, 3));
+    }
+
+
+    //Tests whether the index is built again once the journal was changed on disk by something else.
+    @Test
+    public void indexIsRebuiltAfterReload() throws Exception {
+        assertEquals(6, readAllPages(JournalSortedIndex.Order.NEWEST_FIRST, 10).size());
+        assertFalse(journalEntryManager.isEntryPinned(1));
+
+        File file = new File(directory.getRoot(), FILE_NAME);
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write("[{\"ID\": 9, \"EntryName\": \"Replaced\", \"DateAndTimeCreated\": \"2025-05-01T08:00:00\", \"LastEdited\": \"2025-05-01T08:00:00\"}]");
+        }
+        assertTrue(file.setLastModified(file.lastModified() + 2000));
+        //The change is noticed the next time the journal is accessed.
+        assertFalse(journalEntryManager.isEntryPinned(9));
+        assertEquals(Arrays.asList(9), readAllPages(JournalSortedIndex.Order.NEWEST_FIRST, 10));
+    }
+
+
+    //Tests whether entries are found by the date they were created on, and counted per day and
+    //month, including entries created and deleted after the counts were first requested.
+    @Test
+    public void entriesAreFoundByDate() {
+        List<Integer> entryIDs = new ArrayList<>();
+        for (JournalEntry entry : journalEntryManager.getJournalEntriesCreatedBetween(LocalDate.of(2025, 1, 2), LocalDate.of(2025, 1, 4))) {
+            entryIDs.add(entry.getID());
+        }
+        assertEquals(Arrays.asList(2, 3), entryIDs);
+        assertTrue(journalEntryManager.getJournalEntriesCreatedBetween(LocalDate.of(2025, 1, 4), LocalDate.of(2025, 1, 4)).isEmpty());
+        assertEquals(6, journalEntryManager.getJournalEntryCountsPerDay(YearMonth.of(2025, 1)).size());
+        assertEquals(Collections.singletonMap(YearMonth.of(2025, 1), 6), journalEntryManager.getJournalEntryCountsPerMonth(Year.of(2025)));
+
+        journalEntryManager.deleteJournalEntry(3);
+        int newEntryID = journalEntryManager.saveJournalEntryCreation("New Entry");
+        LocalDate today = LocalDate.parse(journalEntryManager.getJournalEntry(newEntryID).getDateAndTimeCreated().substring(0, 10));
+
+        Map<LocalDate, Integer> january = journalEntryManager.getJournalEntryCountsPerDay(YearMonth.of(2025, 1));
+        assertEquals(5, january.size());
+        assertNull(january.get(LocalDate.of(2025, 1, 3)));
+        assertEquals(Integer.valueOf(1), january.get(LocalDate.of(2025, 1, 6)));
+        assertEquals(Integer.valueOf(1), journalEntryManager.getJournalEntryCountsPerDay(YearMonth.from(today)).get(today));
+        assertEquals(Integer.valueOf(5), journalEntryManager.getJournalEntryCountsPerMonth(Year.of(2025)).get(YearMonth.of(2025, 1)));
+        assertEquals(newEntryID, journalEntryManager.getJournalEntriesCreatedBetween(today, today.plusDays(1)).get(0).getID());
+    }
+
+
+    private List<Integer> readAllPages(JournalSortedIndex.Order order, int pageSize) {
+        List<Integer> entryIDs = new ArrayList<>();
+        JournalEntryPage.Cursor cursor = null;
+        do {
+            JournalEntryPage page = journalEntryManager.getJournalEntryPage(order, cursor, pageSize);
+            assertTrue(page.getEntries().size() <= pageSize);
+            entryIDs.addAll(getIDs(page));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return entryIDs;
+    }
+
+    private static List<Integer> getIDs(JournalEntryPage page) {
+        List<Integer> entryIDs = new ArrayList<>();
+        for (JournalEntry entry : page.getEntries()) {
+            entryIDs.add(entry.getID());
+        }
+        return entryIDs;
+    }
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+    }
+}
@@ -0,0 +1,246 @@
+package com.dlbcsemse02.dreamjournalapplication;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class ManagingJournalEntriesBenchmarkTest {
+
+    private static final String FILE_NAME = "benchmark_journal_entries.json";
+
+    //The journal sizes and text lengths that every operation is measured at. Each operation
+    //is run a few times without being measured first, so that the JIT compiler has warmed up.
+    private static final int[] JOURNAL_SIZES = {10, 1_000, 10_000, 100_000};
+    private static final int[] TEXT_LENGTHS = {64, 50 * 1024};
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 10;
+
+    //The storage modes measured on the JVM. The database needs the SQLite of a device,
+    //which is why it is only measured by JournalStoreBenchmarkTest.
+    private static final ManagingJournalEntries.StorageMode[] STORAGE_MODES = {
+            ManagingJournalEntries.StorageMode.JSON_FILE, ManagingJournalEntries.StorageMode.WRITE_AHEAD_LOG};
+
+    //The journal is stored within a temporary directory, which is deleted once the test has finished.
+    @Rule
+    public TemporaryFolder directory = new TemporaryFolder();
+
+    private interface Operation {
+        void run(JournalEntryManager journalEntryManager, int iteration);
+    }
+
+
+    //This benchmark measures each operation of the journal (see JournalEntryManager) for every storage mode,
+    //journal size and text length: its median and 95th percentile latency, the bytes allocated
+    //by it and the bytes written to disk by it. The texts of the generated journal are only held
+    //as previews (as within the app, see JournalBodyStore), while the text length applies to the
+    //texts written by saveJournalEntryText. The report is written to build/reports/journal-benchmark
+    //as both a file named after the time of the run and latest.csv. Should a baseline report be given
+    //(-PjournalBenchmarkBaseline=<file>), the medians are compared with it as well.
+    //The benchmark only runs when asked for (-PjournalBenchmark), as it takes several minutes.
+    @Test
+    public void measureOperations() throws Exception {
+        assumeTrue(Boolean.getBoolean("journalBenchmark"));
+        BenchmarkReport report = new BenchmarkReport();
+
+        for (int journalSize : JOURNAL_SIZES) {
+            for (int textLength : TEXT_LENGTHS) {
+                String text = createText(textLength);
+                for (ManagingJournalEntries.StorageMode storageMode : STORAGE_MODES) {
+                    cleanup();
+                    writeJournalFile(journalSize);
+                    JournalEntryManager journalEntryManager = JournalEntryManager.open(directory.getRoot(), FILE_NAME,
+                            storageMode == ManagingJournalEntries.StorageMode.WRITE_AHEAD_LOG);
+
+                    //Every operation works on an existing entry, cycling through the journal.
+                    //The entries created by saveJournalEntryCreation are those deleted afterwards.
+                    measure(report, journalEntryManager, storageMode, journalSize, textLength, "FirstLoad", 1, (m, i) -> m.isEntryPinned(1));
+                    measure(report, journalEntryManager, storageMode, journalSize, textLength, "isEntryPinned", ITERATIONS, (m, i) -> m.isEntryPinned(existingID(journalSize, i)));
+                    measure(report, journalEntryManager, storageMode, journalSize, textLength, "updateJournalEntryName", ITERATIONS, (m, i) -> m.updateJournalEntryName(existingID(journalSize, i), "Renamed Entry " + i));
+                    measure(report, journalEntryManager, storageMode, journalSize, textLength, "saveJournalEntryText", ITERATIONS, (m, i) -> m.saveJournalEntryText(existingID(journalSize, i), text + i));
+                    measure(report, journalEntryManager, storageMode, journalSize, textLength, "saveJournalEntryMedia", ITERATIONS, (m, i) -> m.saveJournalEntryMedia(existingID(journalSize, i), createMedia(i)));
+                    measure(report, journalEntryManager, storageMode, journalSize, textLength, "saveJournalEntryCreation", ITERATIONS, (m, i) -> m.saveJournalEntryCreation("New Entry " + i));
+                    measure(report, journalEntryManager, storageMode, journalSize, textLength, "deleteJournalEntry", ITERATIONS, (m, i) -> m.deleteJournalEntry(journalSize + 1 + i));
+                }
+            }
+        }
+
+        File reportDirectory = new File(System.getProperty("journalBenchmark.reportDir", "build/reports/journal-benchmark"));
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        report.write(new File(reportDirectory, "journal-benchmark-" + timestamp + ".csv"));
+        report.write(new File(reportDirectory, "latest.csv"));
+        System.out.println(report);
+
+        String baseline = System.getProperty("journalBenchmark.baseline");
+        if (baseline != null) {
+            String comparison = report.compareWith(BenchmarkReport.read(new File(baseline)));
+            Files.write(new File(reportDirectory, "comparison-" + timestamp + ".csv").toPath(), comparison.getBytes(StandardCharsets.UTF_8));
+            System.out.println(comparison);
+        }
+    }
+
+
+    //Tests whether a report is read back with the same results, and compared row by row with
+    //a baseline, so that the reports of different runs can be compared.
+    @Test
+    public void reportIsComparedWithBaseline() throws Exception {
+        BenchmarkReport baseline = new BenchmarkReport();
+        baseline.add("JSON_FILE", 10, 64, "isEntryPinned", 100, 150, 2048, 0);
+        baseline.add("JSON_FILE", 10, 64, "deleteJournalEntry", 400, 500, 4096, 1024);
+        File baselineFile = new File(directory.getRoot(), "baseline.csv");
+        baseline.write(baselineFile);
+
+        BenchmarkReport report = new BenchmarkReport();
+        report.add("JSON_FILE", 10, 64, "isEntryPinned", 50, 60, 1024, 0);
+        report.add("WRITE_AHEAD_LOG", 10, 64, "isEntryPinned", 10, 20, 512, 0);
+
+        BenchmarkReport readBaseline = BenchmarkReport.read(baselineFile);
+        assertEquals(baseline.toString(), readBaseline.toString());
+
+        String[] comparison = report.compareWith(readBaseline).split("\n");
+        assertEquals(2, comparison.length);
+        assertEquals("JSON_FILE,10,64,isEntryPinned,100,50,0.50", comparison[1]);
+    }
+
+
+    //Runs the operation a few times to warm up, then measures each further run on its own.
+    //Allocations are counted for the calling thread, as every operation runs on it.
+    private void measure(BenchmarkReport report, JournalEntryManager journalEntryManager, ManagingJournalEntries.StorageMode storageMode,
+                         int journalSize, int textLength, String operationName, int iterations, Operation operation) {
+        boolean warmUp = iterations > 1;
+        if (warmUp) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                operation.run(journalEntryManager, i);
+            }
+        }
+
+        long[] durations = new long[iterations];
+        long allocatedBytes = 0;
+        long writtenBytes = 0;
+        for (int i = 0; i < iterations; i++) {
+            int iteration = warmUp ? WARMUP_ITERATIONS + i : i;
+            //Reading the written bytes allocates as well, which is why it is done outside of
+            //the allocations that are counted.
+            long writtenBefore = getWrittenBytes();
+            long allocatedBefore = getAllocatedBytes();
+            long start = System.nanoTime();
+            operation.run(journalEntryManager, iteration);
+            durations[i] = System.nanoTime() - start;
+            allocatedBytes += getAllocatedBytes() - allocatedBefore;
+            writtenBytes += getWrittenBytes() - writtenBefore;
+        }
+
+        Arrays.sort(durations);
+        long median = durations[iterations / 2] / 1000;
+        long p95 = durations[Math.min(iterations - 1, (int) Math.ceil(iterations * 0.95) - 1)] / 1000;
+        report.add(storageMode.name(), journalSize, textLength, operationName, median, p95, allocatedBytes / iterations,
+                getWrittenBytes() < 0 ? -1 : writtenBytes / iterations);
+    }
+
+    private static int existingID(int journalSize, int iteration) {
+        return 1 + (iteration * 7919) % journalSize;
+    }
+
+    //Returns the number of bytes allocated by the calling thread so far, or 0 should the JVM not count them.
+    private static long getAllocatedBytes() {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) threadBean).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    //Returns the number of bytes written by the process so far, as counted by Linux (the wchar
+    //of /proc/self/io), or -1 should it not be available (e.g., on macOS or Windows).
+    private static long getWrittenBytes() {
+        Path io = Paths.get("/proc/self/io");
+        if (!Files.isReadable(io)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(io, StandardCharsets.US_ASCII)) {
+                if (line.startsWith("wchar:")) {
+                    return Long.parseLong(line.substring("wchar:".length()).trim());
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    private static String createText(int length) {
+        StringBuilder text = new StringBuilder(length);
+        String sentence = "I was flying over the sea again, and the waves turned into clouds. ";
+        while (text.length() < length) {
+            text.append(sentence);
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+    private static List<MediaAttachment> createMedia(int iteration) {
+        List<MediaAttachment> media = new ArrayList<>();
+        media.add(new MediaAttachment("content://media/external/images/media/" + iteration, "image/jpeg", 3_500_000, 4000, 3000, 0));
+        media.add(new MediaAttachment("content://media/external/video/media/" + iteration, "video/mp4", 25_000_000, 1920, 1080, 15_000));
+        return media;
+    }
+
+    //Writes a JSON file holding the given number of entries (with IDs 1 to journalSize)
+    //one entry at a time, in the same layout as JournalStoreBenchmarkTest.
+    private void writeJournalFile(int journalSize) throws IOException {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(new File(directory.getRoot(), FILE_NAME)))) {
+            writer.write("[");
+            for (int ID = 1; ID <= journalSize; ID++) {
+                if (ID > 1) {
+                    writer.write(",");
+                }
+                writer.write("{\"ID\": " + ID + ", \"EntryName\": \"Dream " + ID + "\", \"EntryPreview\": \"I was flying over the sea again.\", "
+                        + "\"ImageThumbnail\": \"\", \"DateAndTimeCreated\": \"2025-01-01T08:00:00\", \"LastEdited\": \"2025-01-01T08:00:00\", "
+                        + "\"AllMediaInText\": [], \"Pinned\": false}");
+            }
+            writer.write("]");
+        }
+    }
+
+    //Deletes the journal written by the previous measurement, including the bodies of its entries.
+    private void cleanup() {
+        JournalRepository.clearInstances();
+        File[] files = directory.getRoot().listFiles();
+        if (files != null) {
+            for (File file : files) {
+                File[] children = file.listFiles();
+                if (children != null) {
+                    for (File child : children) {
+                        child.delete();
+                    }
+                }
+                file.delete();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        JournalRepository.clearInstances();
+    }
+}